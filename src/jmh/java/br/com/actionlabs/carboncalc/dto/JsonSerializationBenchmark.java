@@ -0,0 +1,85 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a (de)serialização JSON dos DTOs de maior tráfego com um {@link ObjectMapper} configurado como o do
+ * Spring Boot ({@link Jackson2ObjectMapperBuilder}), usando leitores e escritores pré-construídos como o
+ * conversor HTTP faz.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectReader updateRequestReader;
+    private ObjectWriter updateRequestWriter;
+    private ObjectReader resultReader;
+    private ObjectWriter resultWriter;
+    private UpdateCalcInfoRequestDTO updateRequest;
+    private CarbonCalculationResultDTO result;
+    private String updateRequestJson;
+    private String resultJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.updateRequestReader = objectMapper.readerFor(UpdateCalcInfoRequestDTO.class);
+        this.updateRequestWriter = objectMapper.writerFor(UpdateCalcInfoRequestDTO.class);
+        this.resultReader = objectMapper.readerFor(CarbonCalculationResultDTO.class);
+        this.resultWriter = objectMapper.writerFor(CarbonCalculationResultDTO.class);
+        this.updateRequest = UpdateCalcInfoRequestDTO.builder()
+                .id("4dcba6ba34414a348ba6ba34414a347a")
+                .energyConsumption(10)
+                .transportation(List.of(TransportationDTO.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                        TransportationDTO.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build()))
+                .solidWasteTotal(1000)
+                .recyclePercentage(0.5)
+                .build();
+        this.result = CarbonCalculationResultDTO.builder().energy(5.0).transportation(28.0).solidWaste(690.0).total(723.0).build();
+        this.updateRequestJson = this.updateRequestWriter.writeValueAsString(this.updateRequest);
+        this.resultJson = this.resultWriter.writeValueAsString(this.result);
+    }
+
+    @Benchmark
+    public UpdateCalcInfoRequestDTO readUpdateRequest() throws JsonProcessingException {
+        return this.updateRequestReader.readValue(this.updateRequestJson);
+    }
+
+    @Benchmark
+    public String writeUpdateRequest() throws JsonProcessingException {
+        return this.updateRequestWriter.writeValueAsString(this.updateRequest);
+    }
+
+    @Benchmark
+    public CarbonCalculationResultDTO readResult() throws JsonProcessingException {
+        return this.resultReader.readValue(this.resultJson);
+    }
+
+    @Benchmark
+    public String writeResult() throws JsonProcessingException {
+        return this.resultWriter.writeValueAsString(this.result);
+    }
+
+}
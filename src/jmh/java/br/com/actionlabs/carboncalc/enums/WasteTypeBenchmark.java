@@ -0,0 +1,48 @@
+package br.com.actionlabs.carboncalc.enums;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link WasteType#calculate(int, double, double)}. Os campos não são {@code final} para impedir que o JIT
+ * trate as entradas como constantes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WasteTypeBenchmark {
+
+    private int solidWaste = 1000;
+    private double recyclePercentage = 0.5;
+    private double recyclableFactor = 0.43;
+    private double nonRecyclableFactor = 0.95;
+
+    @Benchmark
+    public double recyclable() {
+        return WasteType.RECYCLABLE.calculate(this.solidWaste, this.recyclePercentage, this.recyclableFactor);
+    }
+
+    @Benchmark
+    public double nonRecyclable() {
+        return WasteType.NON_RECYCLABLE.calculate(this.solidWaste, this.recyclePercentage, this.nonRecyclableFactor);
+    }
+
+    @Benchmark
+    public double both() {
+        return WasteType.RECYCLABLE.calculate(this.solidWaste, this.recyclePercentage, this.recyclableFactor)
+                + WasteType.NON_RECYCLABLE.calculate(this.solidWaste, this.recyclePercentage, this.nonRecyclableFactor);
+    }
+
+}
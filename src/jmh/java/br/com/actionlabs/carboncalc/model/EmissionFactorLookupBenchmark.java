@@ -0,0 +1,77 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a busca de fatores de emissão. {@code streamByType} reproduz o antigo {@code findEmissionFactorByType},
+ * que filtrava a lista de fatores de transporte com um stream a cada meio de transporte; {@code tableByType} e
+ * {@code tableByUf} medem as buscas indexadas do {@link EmissionFactorSnapshot} que o substituíram.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmissionFactorLookupBenchmark {
+
+    private static final String[] UFS = {"AC", "AL", "AP", "AM", "BA", "CE", "DF", "ES", "GO", "MA", "MT", "MS", "MG", "PA",
+            "PB", "PR", "PE", "PI", "RJ", "RN", "RS", "RO", "RR", "SC", "SP", "SE", "TO"};
+
+    private List<TransportationEmissionFactor> transportationFactors;
+    private EmissionFactorSnapshot snapshot;
+    private TransportationType type = TransportationType.PUBLIC_TRANSPORT;
+    private String uf = "SP";
+    private long pricedAt = System.currentTimeMillis();
+
+    @Setup
+    public void setUp() {
+        this.transportationFactors = List.of(
+                TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.PUBLIC_TRANSPORT).factor(0.04).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.BICYCLE).factor(0).build());
+        final var energyFactors = new ArrayList<EnergyEmissionFactor>();
+        final var solidWasteFactors = new ArrayList<SolidWasteEmissionFactor>();
+        for (var federativeUnit : UFS) {
+            energyFactors.add(EnergyEmissionFactor.builder().uf(federativeUnit).factor(0.5).build());
+            solidWasteFactors.add(SolidWasteEmissionFactor.builder().uf(federativeUnit).recyclableFactor(0.43).nonRecyclableFactor(0.95).build());
+        }
+        this.snapshot = EmissionFactorSnapshot.of(energyFactors, this.transportationFactors, solidWasteFactors, Instant.now());
+    }
+
+    @Benchmark
+    public double streamByType() {
+        return this.transportationFactors.stream()
+                .filter(factor -> factor.getType() == this.type)
+                .findFirst()
+                .map(TransportationEmissionFactor::getFactor)
+                .orElse(0.0);
+    }
+
+    @Benchmark
+    public double tableByType() {
+        return this.snapshot.getTransportationFactorTable()[this.snapshot.transportationIndex(this.type.ordinal(), this.pricedAt)];
+    }
+
+    @Benchmark
+    public double tableByUf() {
+        return this.snapshot.getEnergyFactorTable()[this.snapshot.energyIndex(this.snapshot.ufIndex(this.uf), this.pricedAt)];
+    }
+
+}
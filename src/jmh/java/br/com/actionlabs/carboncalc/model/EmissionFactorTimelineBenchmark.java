@@ -0,0 +1,109 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a busca do fator vigente em um instante com {@code versions} vigências diárias por UF e por tipo de
+ * transporte. {@code timelineByUf} e {@code timelineByType} usam a busca binária do {@link EmissionFactorTimeline};
+ * {@code scanByUf} percorre as vigências da UF, como faria uma busca sem índice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmissionFactorTimelineBenchmark {
+
+    private static final String[] UFS = {"AC", "AL", "AP", "AM", "BA", "CE", "DF", "ES", "GO", "MA", "MT", "MS", "MG", "PA",
+            "PB", "PR", "PE", "PI", "RJ", "RN", "RS", "RO", "RR", "SC", "SP", "SE", "TO"};
+    private static final Instant FIRST_VERSION = Instant.parse("2000-01-01T00:00:00Z");
+    private static final Duration VERSION_LENGTH = Duration.ofDays(1);
+    private static final int INSTANTS = 1024;
+
+    @Param({"1", "1000", "10000"})
+    private int versions;
+
+    private EmissionFactorSnapshot snapshot;
+    private List<EnergyEmissionFactor> spFactors;
+    private int spIndex;
+    private long[] instants;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final var energyFactors = new ArrayList<EnergyEmissionFactor>();
+        final var solidWasteFactors = new ArrayList<SolidWasteEmissionFactor>();
+        final var transportationFactors = new ArrayList<TransportationEmissionFactor>();
+        for (int version = 0; version < this.versions; version++) {
+            final var from = FIRST_VERSION.plus(VERSION_LENGTH.multipliedBy(version));
+            final var to = from.plus(VERSION_LENGTH);
+            for (var uf : UFS) {
+                energyFactors.add(EnergyEmissionFactor.builder().uf(uf).factor(0.5 + version * 1e-6)
+                        .effectiveFrom(from).effectiveTo(to).build());
+                solidWasteFactors.add(SolidWasteEmissionFactor.builder().uf(uf).recyclableFactor(0.43).nonRecyclableFactor(0.95)
+                        .effectiveFrom(from).effectiveTo(to).build());
+            }
+            for (var type : TransportationType.values()) {
+                transportationFactors.add(TransportationEmissionFactor.builder().type(type).factor(0.19)
+                        .effectiveFrom(from).effectiveTo(to).build());
+            }
+        }
+        this.snapshot = EmissionFactorSnapshot.of(energyFactors, transportationFactors, solidWasteFactors, Instant.now());
+        this.spFactors = energyFactors.stream().filter(factor -> "SP".equals(factor.getUf())).toList();
+        this.spIndex = this.snapshot.ufIndex("SP");
+
+        final var random = new SplittableRandom(42);
+        final var span = VERSION_LENGTH.multipliedBy(this.versions).toMillis();
+        this.instants = new long[INSTANTS];
+        for (int i = 0; i < INSTANTS; i++) {
+            this.instants[i] = FIRST_VERSION.toEpochMilli() + random.nextLong(span);
+        }
+    }
+
+    private long nextInstant() {
+        return this.instants[this.next++ & (INSTANTS - 1)];
+    }
+
+    @Benchmark
+    public double timelineByUf() {
+        return this.snapshot.getEnergyFactorTable()[this.snapshot.energyIndex(this.spIndex, this.nextInstant())];
+    }
+
+    @Benchmark
+    public double timelineByType() {
+        final var index = this.snapshot.transportationIndex(TransportationType.PUBLIC_TRANSPORT.ordinal(), this.nextInstant());
+        return this.snapshot.getTransportationFactorTable()[index];
+    }
+
+    @Benchmark
+    public double scanByUf() {
+        final var instant = this.nextInstant();
+        for (int i = 0; i < this.spFactors.size(); i++) {
+            final var factor = this.spFactors.get(i);
+            if (factor.getEffectiveFrom().toEpochMilli() <= instant && instant < factor.getEffectiveTo().toEpochMilli()) {
+                return factor.getFactor();
+            }
+        }
+        return 0.0;
+    }
+
+}
@@ -0,0 +1,37 @@
+package br.com.actionlabs.carboncalc.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link UserData#newUser(String, String, String, String)}, incluindo a validação. O log dos benchmarks fica
+ * em {@code WARN} ({@code src/jmh/resources/logback.xml}), como em produção.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserDataBenchmark {
+
+    private String name = "John Doe";
+    private String email = "johndoe@email.com";
+    private String uf = "al";
+    private String phoneNumber = "123456789";
+
+    @Benchmark
+    public UserData newUser() {
+        return UserData.newUser(this.name, this.email, this.uf, this.phoneNumber);
+    }
+
+}
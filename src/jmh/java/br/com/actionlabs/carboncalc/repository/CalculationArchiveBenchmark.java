@@ -0,0 +1,128 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link CalculationArchive#findById(String)} em um arquivo com {@code segments} segmentos de 20.000
+ * cálculos: {@code hit} busca um ID arquivado em um segmento qualquer, e {@code miss} um ID que não está no
+ * arquivo, o caso de todos os segmentos mais novos que o do cálculo procurado. O filtro de Bloom de cada
+ * segmento evita a leitura de blocos nos segmentos que não contêm o ID.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculationArchiveBenchmark {
+
+    private static final int RECORDS_PER_SEGMENT = 20_000;
+    private static final int IDS = 1024;
+
+    @Param({"1", "16"})
+    private int segments;
+
+    private Path directory;
+    private CalculationArchive archive;
+    private String[] archivedIds;
+    private String[] missingIds;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        final var conversions = new MongoCustomConversions(List.of());
+        final var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        final var converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        this.directory = Files.createTempDirectory("calculation-archive");
+        this.archive = new CalculationArchive(converter, this.directory, 64);
+        this.archive.open();
+        final var random = new SplittableRandom(42);
+        this.archivedIds = new String[IDS];
+        for (int segment = 0; segment < this.segments; segment++) {
+            final var ids = new String[RECORDS_PER_SEGMENT];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = IdentifierUtil.unique();
+            }
+            Arrays.sort(ids);
+            try (var writer = this.archive.newSegment()) {
+                for (var id : ids) {
+                    writer.append(calculation(id));
+                }
+                writer.commit();
+            }
+            for (int i = segment; i < IDS; i += this.segments) {
+                this.archivedIds[i] = ids[random.nextInt(ids.length)];
+            }
+        }
+        this.missingIds = new String[IDS];
+        for (int i = 0; i < IDS; i++) {
+            this.missingIds[i] = IdentifierUtil.unique();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.archive.close();
+        try (var files = Files.walk(this.directory)) {
+            for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private static CarbonEmissionStats calculation(final String id) {
+        final var stats = new CarbonEmissionStats(id, new UserData("John Doe", "john.doe@test.com", "AL", "82999999999"), Instant.now());
+        stats.setEnergyConsumption(10);
+        stats.setTransportationList(List.of());
+        stats.setSolidWaste(100);
+        stats.setRecyclePercentage(0.5);
+        stats.setRevision(1L);
+        stats.setResult(CarbonEmissionResult.builder().energy(5.0).solidWaste(69.0).total(74.0).factorVersion(1L).build());
+        return stats;
+    }
+
+    @Benchmark
+    public Optional<CarbonEmissionStats> hit() {
+        return this.archive.findById(this.archivedIds[this.next++ & (IDS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<CarbonEmissionStats> miss() {
+        return this.archive.findById(this.missingIds[this.next++ & (IDS - 1)]);
+    }
+
+}
@@ -0,0 +1,109 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.factory.CarbonEmissionStatsFactory;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.UserData;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a vazão de inserção de cálculos: um {@code insert} por usuário, como no {@code POST /open/start-calc},
+ * contra {@link CarbonEmissionStatsRepositoryCustom#insertUnordered} em blocos, como no
+ * {@code POST /open/start-calc/batch}. O resultado é dado em usuários inseridos por segundo.
+ *
+ * <p>Por padrão usa um MongoDB em processo. Para medir contra um servidor real, informe
+ * {@code -p mongoUri=mongodb://host:27017/carbon-calc-bench}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarbonEmissionStatsInsertBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param("")
+    public String mongoUri;
+
+    @Param({"100", "500"})
+    public int chunkSize;
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private CarbonEmissionStatsRepositoryImpl repository;
+    private List<CarbonEmissionStats> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var uri = this.mongoUri;
+        if (uri.isEmpty()) {
+            this.mongoServer = new MongoServer(new MemoryBackend());
+            final var address = this.mongoServer.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/carbon-calc-bench";
+        }
+        this.mongoClient = MongoClients.create(uri);
+        this.mongoTemplate = new MongoTemplate(this.mongoClient, "carbon-calc-bench");
+        this.repository = new CarbonEmissionStatsRepositoryImpl(this.mongoTemplate);
+    }
+
+    @Setup(Level.Invocation)
+    public void newUsers() {
+        this.mongoTemplate.dropCollection(CarbonEmissionStats.class);
+        this.users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            this.users.add(CarbonEmissionStatsFactory.create(new UserData("User " + i, "user" + i + "@test.com", "AL", "82999999999")));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(CarbonEmissionStats.class);
+        this.mongoClient.close();
+        if (this.mongoServer != null) {
+            this.mongoServer.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public void singleInserts() {
+        for (var user : this.users) {
+            this.mongoTemplate.insert(user);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(USERS)
+    public int bulkInserts() {
+        var failures = 0;
+        for (int from = 0; from < USERS; from += this.chunkSize) {
+            failures += this.repository.insertUnordered(this.users.subList(from, Math.min(from + this.chunkSize, USERS))).size();
+        }
+        return failures;
+    }
+
+}
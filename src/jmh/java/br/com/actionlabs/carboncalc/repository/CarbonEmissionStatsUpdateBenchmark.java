@@ -0,0 +1,100 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.UserData;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a latência da atualização das informações de um cálculo: leitura do documento completo seguida de
+ * {@code save} (comportamento anterior) contra o {@code findAndModify} atômico de
+ * {@link CarbonEmissionStatsRepositoryCustom#updateInfo}.
+ *
+ * <p>Por padrão usa um MongoDB em processo. Para medir contra um servidor real, informe
+ * {@code -p mongoUri=mongodb://host:27017/carbon-calc-bench}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarbonEmissionStatsUpdateBenchmark {
+
+    private static final String ID = "4dcba6ba34414a348ba6ba34414a347a";
+
+    @Param("")
+    public String mongoUri;
+
+    private MongoServer mongoServer;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private CarbonEmissionStatsRepositoryImpl repository;
+    private List<Transportation> transportationList;
+    private int energyConsumption;
+
+    @Setup
+    public void setUp() {
+        var uri = this.mongoUri;
+        if (uri.isEmpty()) {
+            this.mongoServer = new MongoServer(new MemoryBackend());
+            final var address = this.mongoServer.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/carbon-calc-bench";
+        }
+        this.mongoClient = MongoClients.create(uri);
+        this.mongoTemplate = new MongoTemplate(this.mongoClient, "carbon-calc-bench");
+        this.repository = new CarbonEmissionStatsRepositoryImpl(this.mongoTemplate);
+        this.transportationList = List.of(Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build());
+
+        final var stats = new CarbonEmissionStats(ID, new UserData("John Doe", "john.doe@test.com", "AL", "82999999999"));
+        stats.setRevision(0L);
+        this.mongoTemplate.dropCollection(CarbonEmissionStats.class);
+        this.mongoTemplate.insert(stats);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.mongoTemplate.dropCollection(CarbonEmissionStats.class);
+        this.mongoClient.close();
+        if (this.mongoServer != null) {
+            this.mongoServer.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public CarbonEmissionStats readModifyWrite() {
+        final var stats = this.mongoTemplate.findById(ID, CarbonEmissionStats.class);
+        stats.setEnergyConsumption(++this.energyConsumption);
+        stats.setTransportationList(this.transportationList);
+        stats.setSolidWaste(1000);
+        stats.setRecyclePercentage(0.5);
+        return this.mongoTemplate.save(stats);
+    }
+
+    @Benchmark
+    public CarbonEmissionStats atomicUpdate() {
+        return this.repository.updateInfo(ID, ++this.energyConsumption, this.transportationList, 1000, 0.5).orElseThrow();
+    }
+
+}
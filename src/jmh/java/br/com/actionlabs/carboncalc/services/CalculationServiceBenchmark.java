@@ -0,0 +1,97 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.model.UserData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link CalculationService#getResult(String)} com repositórios em memória, isolando o custo do serviço do
+ * custo do MongoDB:
+ *
+ * <ul>
+ *   <li>{@code cached}: resultado servido pelo {@link CalculationResultCache};</li>
+ *   <li>{@code stored}: cache invalidado a cada chamada, resultado armazenado com a versão atual dos fatores;</li>
+ *   <li>{@code stale}: cache invalidado e resultado armazenado com fatores substituídos, recalculado a cada
+ *   chamada.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculationServiceBenchmark {
+
+    private static final String ID = "4dcba6ba34414a348ba6ba34414a347a";
+
+    @Param({"cached", "stored", "stale"})
+    public String mode;
+
+    private CalculationService service;
+    private CalculationResultCache resultCache;
+    private boolean invalidate;
+
+    @Setup
+    public void setUp() {
+        final var factorCatalog = new EmissionFactorCatalog(
+                InMemoryRepositories.energyFactors(List.of(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build())),
+                InMemoryRepositories.transportationFactors(List.of(
+                        TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                        TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build())),
+                InMemoryRepositories.solidWasteFactors(List.of(
+                        SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build())));
+        final var factors = factorCatalog.refresh();
+
+        final var stats = new CarbonEmissionStats(ID, new UserData("John Doe", "johndoe@email.com", "AL", "123456789"));
+        stats.setEnergyConsumption(10);
+        stats.setTransportationList(List.of(Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build()));
+        stats.setSolidWaste(1000);
+        stats.setRecyclePercentage(0.5);
+        final var stale = "stale".equals(this.mode);
+        stats.setResult(CarbonEmissionResult.builder().energy(5.0).transportation(28.0).solidWaste(690.0).total(723.0)
+                .factorVersion(stale ? factors.getVersion() + 1 : factors.getVersion()).build());
+        final var storage = new HashMap<String, CarbonEmissionStats>();
+        storage.put(ID, stats);
+
+        this.resultCache = new CalculationResultCache(10_000, Duration.ofMinutes(10));
+        final var repository = InMemoryRepositories.carbonEmissionStats(storage, !stale);
+        this.service = new CalculationService(repository, factorCatalog, this.resultCache,
+                new EmissionRollupService(InMemoryRepositories.emissionRollups(), repository),
+                new FootprintPercentileService(InMemoryRepositories.percentileSketches(), repository, 100, "jmh", Duration.ofHours(1)),
+                InMemoryRepositories.emptyArchive(), 500, 10_000, Duration.ofDays(7));
+        this.invalidate = !"cached".equals(this.mode);
+    }
+
+    @Benchmark
+    public CarbonCalculationResultDTO getResult() {
+        if (this.invalidate) {
+            this.resultCache.invalidate(ID);
+        }
+        return this.service.getResult(ID);
+    }
+
+}
@@ -0,0 +1,101 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o {@link CarbonCalculationKernel} com o cálculo anterior, que usava valores boxed e um stream por
+ * meio de transporte. Execute com {@code -prof gc} para comparar a taxa de alocação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarbonCalculationKernelBenchmark {
+
+    private static final String UF = "AL";
+
+    private EmissionFactorSnapshot factors;
+    private List<TransportationEmissionFactor> transportationFactors;
+    private EnergyEmissionFactor energyFactor;
+    private SolidWasteEmissionFactor solidWasteFactor;
+    private List<Transportation> transportationList;
+    private Integer energyConsumption;
+    private Integer solidWaste;
+    private Double recyclePercentage;
+
+    @Setup
+    public void setUp() {
+        this.energyFactor = EnergyEmissionFactor.builder().uf(UF).factor(0.5).build();
+        this.solidWasteFactor = SolidWasteEmissionFactor.builder().uf(UF).recyclableFactor(0.43).nonRecyclableFactor(0.95).build();
+        this.transportationFactors = List.of(
+                TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.PUBLIC_TRANSPORT).factor(0.04).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.BICYCLE).factor(0).build());
+        this.factors = EmissionFactorSnapshot.of(List.of(this.energyFactor), this.transportationFactors, List.of(this.solidWasteFactor), Instant.now());
+        this.transportationList = List.of(Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.PUBLIC_TRANSPORT).monthlyDistance(60).build());
+        this.energyConsumption = 10;
+        this.solidWaste = 1000;
+        this.recyclePercentage = 0.5;
+    }
+
+    @Benchmark
+    public double kernel() {
+        final var pricedAt = System.currentTimeMillis();
+        final var ufIndex = this.factors.ufIndex(UF);
+        final var energy = CarbonCalculationKernel.energy(this.factors.getEnergyFactorTable(), this.factors.energyIndex(ufIndex, pricedAt),
+                this.energyConsumption);
+        var transportation = 0.0;
+        for (int i = 0; i < this.transportationList.size(); i++) {
+            final var entry = this.transportationList.get(i);
+            transportation += CarbonCalculationKernel.transportation(this.factors.getTransportationFactorTable(),
+                    this.factors.transportationIndex(entry.getType().ordinal(), pricedAt), entry.getMonthlyDistance());
+        }
+        final var solidWasteEmission = CarbonCalculationKernel.solidWaste(this.factors.getRecyclableFactorTable(),
+                this.factors.getNonRecyclableFactorTable(), this.factors.solidWasteIndex(ufIndex, pricedAt), this.solidWaste,
+                this.recyclePercentage);
+        return CarbonCalculationKernel.total(energy, transportation, solidWasteEmission);
+    }
+
+    @Benchmark
+    public Double legacy() {
+        final Double energy = this.energyConsumption * this.energyFactor.getFactor();
+        Double transportation = 0.0;
+        for (var entry : this.transportationList) {
+            final Double factor = this.transportationFactors.stream()
+                    .filter(transportationEmissionFactor -> entry.getType().equals(transportationEmissionFactor.getType()))
+                    .mapToDouble(TransportationEmissionFactor::getFactor)
+                    .findFirst()
+                    .orElse(0.0);
+            transportation += entry.getMonthlyDistance() * factor;
+        }
+        final Double recyclable = this.solidWaste * this.recyclePercentage * (Double) this.solidWasteFactor.getRecyclableFactor();
+        final Double nonRecyclable = this.solidWaste * (1 - this.recyclePercentage) * (Double) this.solidWasteFactor.getNonRecyclableFactor();
+        final Double solidWasteEmission = recyclable + nonRecyclable;
+        return energy + transportation + solidWasteEmission;
+    }
+
+}
@@ -0,0 +1,124 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EmissionRollupRepository;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.PercentileSketchRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Repositórios em memória para os benchmarks, sem MongoDB. Implementam apenas os métodos usados pelo
+ * {@link CalculationService} nos caminhos medidos; qualquer outro método lança
+ * {@link UnsupportedOperationException}.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {}
+
+    /**
+     * @param storage       os cálculos indexados pelo ID.
+     * @param persistResult {@code false} para descartar as gravações de resultado, mantendo o resultado armazenado
+     *                      desatualizado entre as invocações do benchmark.
+     */
+    static CarbonEmissionStatsRepository carbonEmissionStats(final Map<String, CarbonEmissionStats> storage,
+                                                             final boolean persistResult) {
+        return proxy(CarbonEmissionStatsRepository.class, (method, args) -> switch (method) {
+            case "findById" -> Optional.ofNullable(storage.get((String) args[0]));
+            case "findResultById" -> Optional.ofNullable(storage.get((String) args[0])).map(stats -> {
+                final var projection = new CarbonEmissionStats(stats.getId(), null);
+                projection.setResult(stats.getResult());
+                return projection;
+            });
+            case "updateResult" -> {
+                final var stats = storage.get((String) args[0]);
+                if (stats == null || !Objects.equals(stats.getRevision(), args[1]) || !Objects.equals(stats.getResult(), args[2])) {
+                    yield 0L;
+                }
+                if (persistResult) {
+                    stats.setResult((CarbonEmissionResult) args[3]);
+                }
+                yield 1L;
+            }
+            case "save", "insert" -> {
+                final var stats = (CarbonEmissionStats) args[0];
+                storage.put(stats.getId(), stats);
+                yield stats;
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * Repositório de agregados que descarta as variações, medindo apenas o custo de montá-las.
+     */
+    static EmissionRollupRepository emissionRollups() {
+        return proxy(EmissionRollupRepository.class, (method, args) -> {
+            if ("increment".equals(method)) {
+                return null;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    static PercentileSketchRepository percentileSketches() {
+        return proxy(PercentileSketchRepository.class, (method, args) -> {
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    static EnergyEmissionFactorRepository energyFactors(final List<?> factors) {
+        return findAll(EnergyEmissionFactorRepository.class, factors);
+    }
+
+    static TransportationEmissionFactorRepository transportationFactors(final List<?> factors) {
+        return findAll(TransportationEmissionFactorRepository.class, factors);
+    }
+
+    static SolidWasteEmissionFactorRepository solidWasteFactors(final List<?> factors) {
+        return findAll(SolidWasteEmissionFactorRepository.class, factors);
+    }
+
+    /**
+     * Um {@link CalculationArchive} sem segmentos: como {@link CalculationArchive#open()} não é chamado, nada é lido
+     * nem criado em disco, e toda busca no arquivo termina vazia.
+     */
+    static CalculationArchive emptyArchive() {
+        return new CalculationArchive(null, Path.of("build", "jmh-archive"), 64);
+    }
+
+    private static <T> T findAll(final Class<T> repositoryType, final List<?> factors) {
+        return proxy(repositoryType, (method, args) -> {
+            if ("findAll".equals(method) && args == null) {
+                return factors;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static <T> T proxy(final Class<T> repositoryType, final Handler handler) {
+        return repositoryType.cast(Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> "InMemory" + repositoryType.getSimpleName();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> handler.handle(method.getName(), args);
+                }));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+}
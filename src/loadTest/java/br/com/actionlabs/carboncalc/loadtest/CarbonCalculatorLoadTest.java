@@ -0,0 +1,254 @@
+package br.com.actionlabs.carboncalc.loadtest;
+
+import br.com.actionlabs.carboncalc.CarbonCalculatorApplication;
+import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcResponseDTO;
+import br.com.actionlabs.carboncalc.dto.TransportationDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga ponta a ponta: sobe a aplicação completa contra um MongoDB em processo carregado com o
+ * {@code init-mongo.js} e executa o fluxo {@code start-calc → info → result} com {@link LoadTestSettings}.
+ *
+ * <p>Cada usuário simulado trabalha em laço fechado (a próxima requisição só sai após a resposta da anterior),
+ * então as latências medem o tempo de serviço sob a concorrência configurada. Ao final, a vazão e os percentis
+ * p50/p95/p99/p99.9 de cada endpoint são impressos e gravados em {@code summary.json}, junto com as
+ * distribuições {@code .hgrm}, no diretório de relatório. O teste falha se houver erros ou se os limites de
+ * vazão e p99 configurados não forem atingidos.</p>
+ *
+ * <p>As métricas do Micrometer ficam ativas, como em produção, para que o custo da instrumentação entre na
+ * medição.</p>
+ *
+ * <p>Executar com {@code gradle loadTest}; não faz parte de {@code gradle test}.</p>
+ */
+@Slf4j
+@AutoConfigureObservability
+@SpringBootTest(classes = CarbonCalculatorApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CarbonCalculatorLoadTest {
+
+    private static final LoadTestSettings SETTINGS = LoadTestSettings.fromSystemProperties();
+    private static final MongoServer MONGO_SERVER = new MongoServer(new MemoryBackend());
+    private static final List<String> UFS = new ArrayList<>();
+    private static final TransportationType[] TRANSPORTATION_TYPES = TransportationType.values();
+    private static final String JSON = "application/json";
+
+    @DynamicPropertySource
+    static void mongoProperties(final DynamicPropertyRegistry registry) throws IOException {
+        final var address = MONGO_SERVER.bind();
+        final var script = InitMongoScript.read(SETTINGS.initScript());
+        final var uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/" + script.getDatabase();
+        script.seed(uri);
+        script.getCollections().getOrDefault("energyEmissionFactor", List.of())
+                .forEach(document -> UFS.add(document.getString("_id").getValue()));
+        registry.add("spring.data.mongodb.uri", () -> uri);
+        registry.add("carbon-calc.mongo.pool.max-size", () -> Math.max(100, SETTINGS.concurrency()));
+        registry.add("carbon-calc.archive.directory", () -> "build/load-test/archive");
+    }
+
+    @AfterAll
+    static void shutdown() {
+        MONGO_SERVER.shutdownNow();
+    }
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final EndpointLatencies startCalc = new EndpointLatencies("POST /open/start-calc");
+    private final EndpointLatencies updateInfo = new EndpointLatencies("PUT /open/info");
+    private final EndpointLatencies getResult = new EndpointLatencies("GET /open/result/{id}");
+
+    @Test
+    void givenTheConfiguredLoadWhenRunningTheCalculationFlowThenShouldMeetTheThroughputAndLatencyTargets() throws Exception {
+        assertTrue(!UFS.isEmpty(), "No emission factors found in " + SETTINGS.initScript());
+        final var endpoints = List.of(this.startCalc, this.updateInfo, this.getResult);
+        final var running = new AtomicBoolean(true);
+        final ExecutorService users = Executors.newFixedThreadPool(SETTINGS.concurrency());
+        final var futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < SETTINGS.concurrency(); i++) {
+            futures.add(users.submit(() -> this.runUser(running)));
+        }
+
+        Thread.sleep(SETTINGS.warmup().toMillis());
+        endpoints.forEach(EndpointLatencies::reset);
+        Thread.sleep(SETTINGS.duration().toMillis());
+        endpoints.forEach(EndpointLatencies::finish);
+        running.set(false);
+        users.shutdown();
+        assertTrue(users.awaitTermination(1, TimeUnit.MINUTES), "Simulated users did not stop");
+        for (var future : futures) {
+            future.get();
+        }
+
+        this.report(endpoints);
+        final var totalFailures = endpoints.stream().mapToLong(EndpointLatencies::failures).sum();
+        final var throughput = endpoints.stream().mapToDouble(endpoint -> endpoint.throughput(SETTINGS.duration())).sum();
+        assertEquals(0, totalFailures, "Requests failed during the measurement");
+        if (SETTINGS.minThroughput() > 0) {
+            assertTrue(throughput >= SETTINGS.minThroughput(),
+                    String.format(Locale.ROOT, "Throughput %.1f req/s below %.1f req/s", throughput, SETTINGS.minThroughput()));
+        }
+        if (!SETTINGS.maxP99().isZero()) {
+            final var maxP99Millis = SETTINGS.maxP99().toNanos() / 1e6;
+            endpoints.forEach(endpoint -> assertTrue(endpoint.percentileMillis(99) <= maxP99Millis,
+                    String.format(Locale.ROOT, "%s p99 %.3f ms above %.3f ms", endpoint.getName(),
+                            endpoint.percentileMillis(99), maxP99Millis)));
+        }
+    }
+
+    private void runUser(final AtomicBoolean running) {
+        final var random = ThreadLocalRandom.current();
+        while (running.get()) {
+            final var id = this.start(random);
+            if (id == null) {
+                continue;
+            }
+            for (int i = 0; i < SETTINGS.infoPerCalc() && running.get(); i++) {
+                this.update(id, random);
+            }
+            for (int i = 0; i < SETTINGS.resultsPerCalc() && running.get(); i++) {
+                this.send(this.getResult, HttpRequest.newBuilder(this.uri("/open/result/" + id)).GET().build());
+            }
+        }
+    }
+
+    private String start(final ThreadLocalRandom random) {
+        final var request = new StartCalcRequestDTO();
+        request.setName("Load Test");
+        request.setEmail("load" + random.nextInt(1_000_000) + "@email.com");
+        request.setUf(UFS.get(random.nextInt(UFS.size())));
+        request.setPhoneNumber("123456789");
+        final var response = this.send(this.startCalc, HttpRequest.newBuilder(this.uri("/open/start-calc"))
+                .header("Content-Type", JSON)
+                .POST(HttpRequest.BodyPublishers.ofString(this.write(request)))
+                .build());
+        if (response == null || response.statusCode() != 201) {
+            return null;
+        }
+        try {
+            return this.objectMapper.readValue(response.body(), StartCalcResponseDTO.class).getId();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void update(final String id, final ThreadLocalRandom random) {
+        final var transportation = new ArrayList<TransportationDTO>();
+        final var types = 1 + random.nextInt(TRANSPORTATION_TYPES.length);
+        for (int i = 0; i < types; i++) {
+            transportation.add(TransportationDTO.builder()
+                    .type(TRANSPORTATION_TYPES[i])
+                    .monthlyDistance(random.nextInt(1, 2_000))
+                    .build());
+        }
+        final var request = UpdateCalcInfoRequestDTO.builder()
+                .id(id)
+                .energyConsumption(random.nextInt(1, 1_000))
+                .transportation(transportation)
+                .solidWasteTotal(random.nextInt(1, 500))
+                .recyclePercentage(random.nextInt(0, 101) / 100.0)
+                .build();
+        this.send(this.updateInfo, HttpRequest.newBuilder(this.uri("/open/info"))
+                .header("Content-Type", JSON)
+                .PUT(HttpRequest.BodyPublishers.ofString(this.write(request)))
+                .build());
+    }
+
+    private HttpResponse<String> send(final EndpointLatencies endpoint, final HttpRequest request) {
+        final var start = System.nanoTime();
+        try {
+            final var response = this.httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            endpoint.record(start, response.statusCode() / 100 == 2);
+            return response;
+        } catch (IOException e) {
+            endpoint.record(start, false);
+            log.warn("Request to {} failed: {}", request.uri(), e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            endpoint.record(start, false);
+            return null;
+        }
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://localhost:" + this.port + path);
+    }
+
+    private String write(final Object request) {
+        try {
+            return this.objectMapper.writeValueAsString(request);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void report(final List<EndpointLatencies> endpoints) throws IOException {
+        final var duration = SETTINGS.duration();
+        final var lines = new StringBuilder(String.format(Locale.ROOT,
+                "%nLoad test: %d users, warmup %s, measured %s, %d info + %d result per calculation%n"
+                        + "%-24s %9s %8s %10s %9s %9s %9s %9s%n",
+                SETTINGS.concurrency(), SETTINGS.warmup(), duration, SETTINGS.infoPerCalc(), SETTINGS.resultsPerCalc(),
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms"));
+        for (var endpoint : endpoints) {
+            lines.append(String.format(Locale.ROOT, "%-24s %9d %8d %10.1f %9.3f %9.3f %9.3f %9.3f%n",
+                    endpoint.getName(), endpoint.count(), endpoint.failures(), endpoint.throughput(duration),
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(95), endpoint.percentileMillis(99),
+                    endpoint.percentileMillis(99.9)));
+        }
+        log.info(lines.toString());
+
+        final var directory = SETTINGS.reportDirectory();
+        Files.createDirectories(directory);
+        final var summary = String.format(Locale.ROOT,
+                "{\"concurrency\":%d,\"warmup\":\"%s\",\"duration\":\"%s\",\"infoPerCalc\":%d,\"resultsPerCalc\":%d,"
+                        + "\"endpoints\":[%s]}%n",
+                SETTINGS.concurrency(), SETTINGS.warmup(), duration, SETTINGS.infoPerCalc(), SETTINGS.resultsPerCalc(),
+                endpoints.stream().map(endpoint -> endpoint.toJson(duration)).collect(Collectors.joining(",")));
+        Files.writeString(directory.resolve("summary.json"), summary);
+        for (var endpoint : endpoints) {
+            endpoint.writeDistribution(directory);
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.actionlabs.carboncalc.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências de um endpoint, registradas em microssegundos num {@link Recorder} do HdrHistogram, que aceita
+ * gravações concorrentes sem bloqueio, e a contagem de falhas.
+ */
+final class EndpointLatencies {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final LongAdder failures = new LongAdder();
+    private Histogram measured;
+    private long measuredFailures;
+
+    EndpointLatencies(final String name) {
+        this.name = name;
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    void record(final long startNanos, final boolean success) {
+        this.recorder.recordValue(Math.max(1, (System.nanoTime() - startNanos) / 1_000));
+        if (!success) {
+            this.failures.increment();
+        }
+    }
+
+    /**
+     * Descarta o que foi registrado até agora, encerrando o aquecimento.
+     */
+    void reset() {
+        this.recorder.reset();
+        this.failures.reset();
+    }
+
+    /**
+     * Fecha a medição, guardando o histograma e as falhas registrados desde o último {@link #reset()}.
+     */
+    void finish() {
+        this.measured = this.recorder.getIntervalHistogram();
+        this.measuredFailures = this.failures.sumThenReset();
+    }
+
+    long count() {
+        return this.measured.getTotalCount();
+    }
+
+    long failures() {
+        return this.measuredFailures;
+    }
+
+    double percentileMillis(final double percentile) {
+        return this.measured.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    double throughput(final Duration duration) {
+        return this.count() / (duration.toNanos() / 1e9);
+    }
+
+    String toJson(final Duration duration) {
+        return String.format(Locale.ROOT,
+                "{\"endpoint\":\"%s\",\"count\":%d,\"failures\":%d,\"throughput\":%.1f,"
+                        + "\"p50\":%.3f,\"p95\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f}",
+                this.name, this.count(), this.failures(), this.throughput(duration), this.percentileMillis(50),
+                this.percentileMillis(95), this.percentileMillis(99), this.percentileMillis(99.9),
+                this.measured.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    /**
+     * Grava a distribuição completa em {@code <diretório>/<endpoint>.hgrm}, no formato aceito pelo
+     * HdrHistogram plotter.
+     */
+    void writeDistribution(final Path directory) throws IOException {
+        final var file = directory.resolve(this.name.replaceAll("[^A-Za-z0-9-]+", "-") + ".hgrm");
+        try (var out = new PrintStream(Files.newOutputStream(file))) {
+            this.measured.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+}
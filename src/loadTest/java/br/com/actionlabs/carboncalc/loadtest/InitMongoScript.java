@@ -0,0 +1,74 @@
+package br.com.actionlabs.carboncalc.loadtest;
+
+import com.mongodb.client.MongoClients;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Lê o {@code init-mongo.js} usado pelo {@code docker-compose.yml} e aplica os mesmos dados em outro servidor.
+ *
+ * <p>O script não é executado: apenas o banco de {@code db.getSiblingDB(...)} e os arrays das chamadas
+ * {@code db.getCollection(...).insertMany([...])} são extraídos, o que cobre o formato atual do arquivo sem
+ * depender do {@code mongosh}.</p>
+ */
+final class InitMongoScript {
+
+    private static final Pattern DATABASE = Pattern.compile("getSiblingDB\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)");
+    private static final Pattern INSERT_MANY = Pattern.compile(
+            "getCollection\\(\\s*['\"]([^'\"]+)['\"]\\s*\\)\\.insertMany\\(\\s*(\\[.*?])\\s*\\)\\s*;", Pattern.DOTALL);
+
+    private final String database;
+    private final Map<String, List<BsonDocument>> collections;
+
+    private InitMongoScript(final String database, final Map<String, List<BsonDocument>> collections) {
+        this.database = database;
+        this.collections = collections;
+    }
+
+    static InitMongoScript read(final Path script) throws IOException {
+        final var content = Files.readString(script);
+        final var databaseMatcher = DATABASE.matcher(content);
+        if (!databaseMatcher.find()) {
+            throw new IllegalStateException("No getSiblingDB(...) call found in " + script);
+        }
+        final var collections = new LinkedHashMap<String, List<BsonDocument>>();
+        final var insertMatcher = INSERT_MANY.matcher(content);
+        while (insertMatcher.find()) {
+            final var documents = collections.computeIfAbsent(insertMatcher.group(1), name -> new ArrayList<>());
+            for (BsonValue value : BsonArray.parse(insertMatcher.group(2))) {
+                documents.add(value.asDocument());
+            }
+        }
+        if (collections.isEmpty()) {
+            throw new IllegalStateException("No insertMany(...) call found in " + script);
+        }
+        return new InitMongoScript(databaseMatcher.group(1), collections);
+    }
+
+    String getDatabase() {
+        return this.database;
+    }
+
+    Map<String, List<BsonDocument>> getCollections() {
+        return this.collections;
+    }
+
+    void seed(final String connectionString) {
+        try (var client = MongoClients.create(connectionString)) {
+            final var mongoDatabase = client.getDatabase(this.database);
+            this.collections.forEach((name, documents) ->
+                    mongoDatabase.getCollection(name, BsonDocument.class).insertMany(documents));
+        }
+    }
+
+}
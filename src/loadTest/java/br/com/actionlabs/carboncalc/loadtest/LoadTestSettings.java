@@ -0,0 +1,43 @@
+package br.com.actionlabs.carboncalc.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parâmetros do teste de carga, lidos das propriedades de sistema {@code loadtest.*}. A task {@code loadTest}
+ * repassa as propriedades do Gradle com o mesmo nome, por exemplo {@code -Ploadtest.concurrency=64}.
+ *
+ * @param concurrency      a quantidade de usuários simultâneos, cada um executando o fluxo em laço fechado.
+ * @param warmup           a duração do aquecimento, descartado das medições.
+ * @param duration         a duração da medição.
+ * @param infoPerCalc      a quantidade de {@code PUT /open/info} por cálculo iniciado.
+ * @param resultsPerCalc   a quantidade de {@code GET /open/result/{id}} por cálculo iniciado.
+ * @param minThroughput    a vazão mínima, em requisições por segundo; {@code 0} desativa a verificação.
+ * @param maxP99           o p99 máximo de qualquer endpoint; {@link Duration#ZERO} desativa a verificação.
+ * @param initScript       o script com os fatores de emissão ({@code init-mongo.js}).
+ * @param reportDirectory  o diretório em que o resumo e as distribuições de latência são gravados.
+ */
+record LoadTestSettings(int concurrency,
+                        Duration warmup,
+                        Duration duration,
+                        int infoPerCalc,
+                        int resultsPerCalc,
+                        double minThroughput,
+                        Duration maxP99,
+                        Path initScript,
+                        Path reportDirectory) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.concurrency", 16),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                Integer.getInteger("loadtest.info-per-calc", 1),
+                Integer.getInteger("loadtest.results-per-calc", 3),
+                Double.parseDouble(System.getProperty("loadtest.min-throughput", "0")),
+                Duration.parse(System.getProperty("loadtest.max-p99", "PT0S")),
+                Path.of(System.getProperty("loadtest.init-script", "init-mongo.js")),
+                Path.of(System.getProperty("loadtest.report-dir", "build/reports/load-test")));
+    }
+
+}
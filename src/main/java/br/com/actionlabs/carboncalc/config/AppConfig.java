@@ -1,13 +1,16 @@
 package br.com.actionlabs.carboncalc.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class AppConfig implements WebMvcConfigurer {
 
   @Bean
@@ -18,6 +21,7 @@ public class AppConfig implements WebMvcConfigurer {
                         "/login/**",
                         "/open/**",
                         "/status/**",
+                        "/actuator/health/**",
                         "/swagger-ui/**",
                         "swagger-ui.html",
                         "/v3/api-docs/**",
@@ -25,6 +29,7 @@ public class AppConfig implements WebMvcConfigurer {
                     .permitAll()
                     .anyRequest()
                     .authenticated())
+        .httpBasic(Customizer.withDefaults())
         .csrf(AbstractHttpConfigurer::disable);
 
     return http.build();
@@ -0,0 +1,79 @@
+package br.com.actionlabs.carboncalc.config;
+
+import br.com.actionlabs.carboncalc.enums.DataFileFormat;
+import br.com.actionlabs.carboncalc.services.CalculationImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Importa um arquivo de cálculos na inicialização da aplicação e a encerra ao final, para uso em linha de comando:
+ *
+ * <pre>
+ * java -jar carbon-calc.jar --spring.main.web-application-type=none --carbon-calc.import.file=calculos.ndjson
+ * </pre>
+ *
+ * <p>O formato é identificado pela extensão do arquivo ou informado em {@code carbon-calc.import.format}. O código
+ * de saída é {@code 0} quando todas as linhas foram importadas, {@code 2} quando houve linhas rejeitadas e
+ * {@code 1} quando a importação falhou. Com {@code carbon-calc.import.exit=false} a aplicação continua em execução
+ * após a importação.</p>
+ */
+@Component
+@ConditionalOnProperty("carbon-calc.import.file")
+@Slf4j
+public class CalculationImportRunner implements ApplicationRunner {
+
+  private static final int REJECTED_ROWS_EXIT_CODE = 2;
+  private static final int FAILURE_EXIT_CODE = 1;
+
+  private final CalculationImportService importService;
+  private final ConfigurableApplicationContext context;
+  private final Path file;
+  private final String format;
+  private final boolean exit;
+
+  public CalculationImportRunner(
+      CalculationImportService importService,
+      ConfigurableApplicationContext context,
+      @Value("${carbon-calc.import.file}") String file,
+      @Value("${carbon-calc.import.format:}") String format,
+      @Value("${carbon-calc.import.exit:true}") boolean exit) {
+    this.importService = importService;
+    this.context = context;
+    this.file = Path.of(file);
+    this.format = format;
+    this.exit = exit;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    int exitCode;
+    try (var input = Files.newInputStream(this.file)) {
+      var fileFormat =
+          this.format.isBlank()
+              ? DataFileFormat.fromFileName(this.file.getFileName().toString())
+              : DataFileFormat.from(this.format);
+      log.info("Importing {} as {}", this.file, fileFormat);
+      var summary = this.importService.importCalculations(fileFormat, input);
+      summary
+          .rejects()
+          .forEach(reject -> log.warn("Rejected line {}: {}", reject.line(), reject.error()));
+      exitCode = summary.rejected() > 0 ? REJECTED_ROWS_EXIT_CODE : 0;
+    } catch (Exception exception) {
+      log.error("Import of {} failed", this.file, exception);
+      exitCode = FAILURE_EXIT_CODE;
+    }
+    if (this.exit) {
+      final int code = exitCode;
+      System.exit(SpringApplication.exit(this.context, () -> code));
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package br.com.actionlabs.carboncalc.config;
+
+import br.com.actionlabs.carboncalc.events.GetResultEvent;
+import br.com.actionlabs.carboncalc.events.StartCalculationEvent;
+import br.com.actionlabs.carboncalc.events.UpdateCalculationInfoEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Gravação contínua do JDK Flight Recorder, ativa quando {@code carbon-calc.jfr.continuous.enabled} é
+ * {@code true}.
+ *
+ * <p>Usa as configurações {@code carbon-calc.jfr.continuous.settings} do JDK ({@code default}, com custo abaixo de
+ * 1%, ou {@code profile}) e mantém em disco apenas os últimos {@code max-age} ou {@code max-size} de dados,
+ * descartando os blocos mais antigos. Os eventos de cálculo são gravados quando duram mais que
+ * {@code carbon-calc.jfr.calculation-threshold}. Ao encerrar a aplicação a gravação é salva em
+ * {@code carbon-calc.jfr.continuous.destination}; durante a execução ela pode ser extraída com
+ * {@code jcmd <pid> JFR.dump name=carbon-calc}.</p>
+ *
+ * <p>O diretório dos blocos em disco é o repositório do JFR, definido na JVM com
+ * {@code -XX:FlightRecorderOptions:repository=<diretório>}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "carbon-calc.jfr.continuous.enabled", havingValue = "true")
+@Slf4j
+public class ContinuousFlightRecording {
+
+  static final String RECORDING_NAME = "carbon-calc";
+  private static final List<Class<? extends jdk.jfr.Event>> CALCULATION_EVENTS =
+      List.of(StartCalculationEvent.class, UpdateCalculationInfoEvent.class, GetResultEvent.class);
+
+  private final String settings;
+  private final Duration maxAge;
+  private final long maxSizeBytes;
+  private final Path destination;
+  private final Duration calculationThreshold;
+  private Recording recording;
+
+  public ContinuousFlightRecording(
+      @Value("${carbon-calc.jfr.continuous.settings:default}") String settings,
+      @Value("${carbon-calc.jfr.continuous.max-age:PT6H}") Duration maxAge,
+      @Value("${carbon-calc.jfr.continuous.max-size-mb:250}") long maxSizeMb,
+      @Value("${carbon-calc.jfr.continuous.destination:carbon-calc.jfr}") Path destination,
+      @Value("${carbon-calc.jfr.calculation-threshold:PT0.01S}") Duration calculationThreshold) {
+    this.settings = settings;
+    this.maxAge = maxAge;
+    this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+    this.destination = destination;
+    this.calculationThreshold = calculationThreshold;
+  }
+
+  @PostConstruct
+  public void start() throws IOException, ParseException {
+    this.recording = new Recording(Configuration.getConfiguration(this.settings));
+    this.recording.setName(RECORDING_NAME);
+    this.recording.setToDisk(true);
+    this.recording.setMaxAge(this.maxAge);
+    this.recording.setMaxSize(this.maxSizeBytes);
+    this.recording.setDumpOnExit(true);
+    this.recording.setDestination(this.destination);
+    CALCULATION_EVENTS.forEach(event -> this.recording.enable(event).withThreshold(this.calculationThreshold));
+    this.recording.start();
+    log.info("Continuous flight recording started (settings {}, max-age {}, max-size {} MB, destination {})",
+        this.settings, this.maxAge, this.maxSizeBytes / (1024 * 1024), this.destination.toAbsolutePath());
+  }
+
+  @PreDestroy
+  public void stop() throws IOException {
+    if (this.recording != null) {
+      if (this.destination.getParent() != null) {
+        Files.createDirectories(this.destination.getParent());
+      }
+      this.recording.stop();
+      this.recording.close();
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+package br.com.actionlabs.carboncalc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dimensionamento do pool de conexões do MongoDB.
+ *
+ * <p>Com threads de plataforma, o pool do Tomcat limita quantas requisições disputam conexões ao mesmo tempo. Com
+ * threads virtuais ({@code spring.threads.virtual.enabled}) esse limite deixa de existir e o pool de conexões
+ * passa a ser o controle de concorrência com o banco. Por isso o tamanho e o tempo de espera são configuráveis:</p>
+ *
+ * <ul>
+ *   <li>{@code carbon-calc.mongo.pool.max-size}: dimensione pela lei de Little, vazão alvo x latência média de
+ *   uma operação no banco, com folga. Ex.: 5.000 operações/s x 4 ms = 20 conexões; 2x de folga = 40;</li>
+ *   <li>{@code carbon-calc.mongo.pool.max-wait-time}: curto, para que um pico de threads virtuais falhe rápido em
+ *   vez de se acumular na fila de espera do pool;</li>
+ *   <li>{@code carbon-calc.mongo.pool.max-connecting}: limita as conexões abertas em paralelo quando o pool
+ *   cresce de uma vez.</li>
+ * </ul>
+ *
+ * <p>Cada configuração só é aplicada quando a sua propriedade está definida. Sem ela, vale o valor da
+ * {@code spring.data.mongodb.uri} ({@code maxPoolSize}, {@code minPoolSize}, {@code waitQueueTimeoutMS},
+ * {@code maxConnecting}) ou, na falta dele, o padrão do driver. Uma propriedade definida sobrescreve a URI, já que
+ * este customizador é aplicado depois dela.</p>
+ */
+@Configuration
+@Slf4j
+public class MongoConnectionPoolConfig {
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+      @Value("${carbon-calc.mongo.pool.max-size:#{null}}") Integer maxSize,
+      @Value("${carbon-calc.mongo.pool.min-size:#{null}}") Integer minSize,
+      @Value("${carbon-calc.mongo.pool.max-wait-time:#{null}}") Duration maxWaitTime,
+      @Value("${carbon-calc.mongo.pool.max-connecting:#{null}}") Integer maxConnecting) {
+    log.info("Mongo connection pool overrides: max-size={}, min-size={}, max-wait-time={}, max-connecting={}",
+        maxSize, minSize, maxWaitTime, maxConnecting);
+    return settings -> settings.applyToConnectionPoolSettings(pool -> {
+      if (maxSize != null) {
+        pool.maxSize(maxSize);
+      }
+      if (minSize != null) {
+        pool.minSize(minSize);
+      }
+      if (maxWaitTime != null) {
+        pool.maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      if (maxConnecting != null) {
+        pool.maxConnecting(maxConnecting);
+      }
+    });
+  }
+
+}
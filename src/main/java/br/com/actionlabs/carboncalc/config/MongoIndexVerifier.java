@@ -0,0 +1,77 @@
+package br.com.actionlabs.carboncalc.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Garante, na subida da aplicação, os índices declarados nas entidades com {@code @Indexed} e
+ * {@code @CompoundIndex}.
+ *
+ * <p>{@code spring.data.mongodb.auto-index-creation} cria os índices quando a entidade é registrada, mas não
+ * avisa se um deles deixou de existir ou não pôde ser criado. Aqui cada índice declarado é criado, se faltar, e
+ * conferido na lista de índices da coleção; se algum não estiver lá, a subida falha com
+ * {@link IllegalStateException} em vez de as consultas que dependem dele passarem a varrer a coleção.</p>
+ */
+@Component
+@Slf4j
+public class MongoIndexVerifier {
+
+  private final MongoTemplate mongoTemplate;
+  private final MongoMappingContext mappingContext;
+
+  public MongoIndexVerifier(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+    this.mongoTemplate = mongoTemplate;
+    this.mappingContext = mappingContext;
+  }
+
+  @EventListener(ContextRefreshedEvent.class)
+  public void onContextRefreshed() {
+    this.verify();
+  }
+
+  /**
+   * Cria os índices declarados que faltarem e confere se todos existem.
+   *
+   * @return os nomes dos índices conferidos, no formato {@code colecao.indice}.
+   * @throws IllegalStateException se algum índice declarado não existir após a criação.
+   */
+  public List<String> verify() {
+    var resolver = IndexResolver.create(this.mappingContext);
+    var verified = new ArrayList<String>();
+    var missing = new ArrayList<String>();
+    for (var entity : this.mappingContext.getPersistentEntities()) {
+      if (!entity.isAnnotationPresent(Document.class)) {
+        continue;
+      }
+      var indexOps = this.mongoTemplate.indexOps(entity.getCollection());
+      var declared = new ArrayList<String>();
+      for (var definition : resolver.resolveIndexFor(entity.getTypeInformation())) {
+        declared.add(indexOps.ensureIndex(definition));
+      }
+      if (declared.isEmpty()) {
+        continue;
+      }
+      var existing = indexOps.getIndexInfo().stream().map(IndexInfo::getName).collect(Collectors.toSet());
+      for (var name : declared) {
+        (existing.contains(name) ? verified : missing).add(entity.getCollection() + "." + name);
+      }
+    }
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException("Missing MongoDB indexes: " + missing);
+    }
+    log.info("MongoDB indexes verified: {}", verified);
+    return verified;
+  }
+
+}
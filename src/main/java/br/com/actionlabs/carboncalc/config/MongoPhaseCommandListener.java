@@ -0,0 +1,53 @@
+package br.com.actionlabs.carboncalc.config;
+
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+import br.com.actionlabs.carboncalc.events.CalculationEvent;
+import br.com.actionlabs.carboncalc.utils.RequestPhaseTimer;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soma a duração dos comandos do MongoDB às fases {@link RequestPhase#MONGO_READ} e {@link RequestPhase#MONGO_WRITE}
+ * da requisição em andamento. O driver síncrono notifica o listener na thread que executou o comando, que é a
+ * thread da requisição; comandos de monitoramento rodam em outras threads e são ignorados pelo
+ * {@link RequestPhaseTimer}. Cada comando também é contado no
+ * {@link CalculationEvent} do JDK Flight Recorder ativo na thread.
+ */
+@Component
+public class MongoPhaseCommandListener implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+  private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify", "findandmodify");
+
+  @Override
+  public void customize(MongoClientSettings.Builder settings) {
+    settings.addCommandListener(this);
+  }
+
+  @Override
+  public void commandStarted(CommandStartedEvent event) {
+    CalculationEvent.mongoRoundTrip();
+  }
+
+  @Override
+  public void commandSucceeded(CommandSucceededEvent event) {
+    RequestPhaseTimer.record(phaseOf(event.getCommandName()), event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Override
+  public void commandFailed(CommandFailedEvent event) {
+    RequestPhaseTimer.record(phaseOf(event.getCommandName()), event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  private static RequestPhase phaseOf(final String commandName) {
+    return WRITE_COMMANDS.contains(commandName) ? RequestPhase.MONGO_WRITE : RequestPhase.MONGO_READ;
+  }
+
+}
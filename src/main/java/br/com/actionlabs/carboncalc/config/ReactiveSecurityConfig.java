@@ -0,0 +1,40 @@
+package br.com.actionlabs.carboncalc.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+/**
+ * Regras de acesso equivalentes às do {@link AppConfig} para a aplicação reativa (perfil {@code reactive}).
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+  @Bean
+  public SecurityWebFilterChain reactiveFilterChain(ServerHttpSecurity http) {
+    http.authorizeExchange(
+            exchange ->
+                exchange.pathMatchers(
+                        "/login/**",
+                        "/open/**",
+                        "/status/**",
+                        "/actuator/health/**",
+                        "/swagger-ui/**",
+                        "swagger-ui.html",
+                        "/v3/api-docs/**",
+                        "/error")
+                    .permitAll()
+                    .anyExchange()
+                    .authenticated())
+        .httpBasic(Customizer.withDefaults())
+        .csrf(ServerHttpSecurity.CsrfSpec::disable);
+
+    return http.build();
+  }
+}
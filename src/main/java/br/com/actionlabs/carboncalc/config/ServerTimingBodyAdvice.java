@@ -0,0 +1,61 @@
+package br.com.actionlabs.carboncalc.config;
+
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+import br.com.actionlabs.carboncalc.utils.RequestPhaseTimer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Type;
+
+/**
+ * Marca as fases de leitura do JSON da requisição e de serialização da resposta para o {@link ServerTimingFilter}.
+ * A leitura termina em {@link #afterBodyRead}; a serialização começa em {@link #beforeBodyWrite} e é encerrada
+ * pelo filtro, depois que o conversor escreve a resposta.
+ */
+@ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ServerTimingBodyAdvice extends RequestBodyAdviceAdapter implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(MethodParameter methodParameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    RequestPhaseTimer.mark(RequestPhase.JSON_PARSE);
+    return inputMessage;
+  }
+
+  @Override
+  public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    RequestPhaseTimer.finish(RequestPhase.JSON_PARSE);
+    return body;
+  }
+
+  @Override
+  public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+      ServerHttpResponse response) {
+    RequestPhaseTimer.mark(RequestPhase.SERIALIZATION);
+    return body;
+  }
+
+}
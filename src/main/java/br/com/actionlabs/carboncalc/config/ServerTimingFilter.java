@@ -0,0 +1,91 @@
+package br.com.actionlabs.carboncalc.config;
+
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+import br.com.actionlabs.carboncalc.utils.RequestPhaseTimer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mede as fases das requisições {@code /open/**} com o {@link RequestPhaseTimer}.
+ *
+ * <p>O cabeçalho {@code Server-Timing} é incluído na resposta quando {@code carbon-calc.server-timing.enabled}
+ * é {@code true} ou quando a requisição traz o cabeçalho de depuração
+ * ({@code carbon-calc.server-timing.debug-header}, padrão {@code X-Debug-Timing: true}). Nesse caso a resposta
+ * é mantida em memória até o fim da serialização, para que o cabeçalho possa ser escrito depois dela.</p>
+ *
+ * <p>Requisições acima de {@code carbon-calc.server-timing.slow-threshold} são registradas no log com as mesmas
+ * fases, para uma amostra de {@code carbon-calc.server-timing.slow-sample-rate} delas. Um limite igual a zero
+ * desativa o log e, sem cabeçalho, as requisições deixam de ser medidas.</p>
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  static final String SERVER_TIMING_HEADER = "Server-Timing";
+  private static final String MEASURED_PATH = "/open/";
+
+  private final boolean enabled;
+  private final String debugHeader;
+  private final long slowThresholdNanos;
+  private final double slowSampleRate;
+
+  public ServerTimingFilter(
+      @Value("${carbon-calc.server-timing.enabled:false}") boolean enabled,
+      @Value("${carbon-calc.server-timing.debug-header:X-Debug-Timing}") String debugHeader,
+      @Value("${carbon-calc.server-timing.slow-threshold:PT0.5S}") Duration slowThreshold,
+      @Value("${carbon-calc.server-timing.slow-sample-rate:0.1}") double slowSampleRate) {
+    this.enabled = enabled;
+    this.debugHeader = debugHeader;
+    this.slowThresholdNanos = slowThreshold.toNanos();
+    this.slowSampleRate = slowSampleRate;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith(request.getContextPath() + MEASURED_PATH);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    final var emitHeader = this.enabled || Boolean.parseBoolean(request.getHeader(this.debugHeader));
+    if (!emitHeader && this.slowThresholdNanos <= 0) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    final var start = System.nanoTime();
+    final var timer = RequestPhaseTimer.begin();
+    final var cachedResponse = emitHeader ? new ContentCachingResponseWrapper(response) : null;
+    try {
+      filterChain.doFilter(request, cachedResponse != null ? cachedResponse : response);
+    } finally {
+      RequestPhaseTimer.finish(RequestPhase.SERIALIZATION);
+      RequestPhaseTimer.clear();
+      final var totalNanos = System.nanoTime() - start;
+      final var serverTiming = timer.toServerTiming(totalNanos);
+      if (cachedResponse != null) {
+        cachedResponse.setHeader(SERVER_TIMING_HEADER, serverTiming);
+        cachedResponse.copyBodyToResponse();
+      }
+      if (this.slowThresholdNanos > 0 && totalNanos >= this.slowThresholdNanos
+          && ThreadLocalRandom.current().nextDouble() < this.slowSampleRate) {
+        log.warn("Slow request {} {} -> {} in {} ms: {}", request.getMethod(), request.getRequestURI(),
+            response.getStatus(), totalNanos / 1_000_000, serverTiming);
+      }
+    }
+  }
+
+}
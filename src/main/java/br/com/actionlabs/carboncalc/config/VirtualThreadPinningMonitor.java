@@ -0,0 +1,87 @@
+package br.com.actionlabs.carboncalc.config;
+
+import br.com.actionlabs.carboncalc.dto.VirtualThreadPinningStatsDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta threads virtuais presas à thread portadora ("pinning"), o que acontece quando uma operação
+ * bloqueante é executada dentro de um bloco {@code synchronized} ou de um método nativo.
+ *
+ * <p>Ativo quando {@code spring.threads.virtual.enabled} é {@code true}. Assina o evento JFR
+ * {@code jdk.VirtualThreadPinned} (Java 21+) para ocorrências acima de
+ * {@code carbon-calc.virtual-threads.pinned-threshold}, registra a pilha de cada ocorrência no log e mantém
+ * contadores expostos em {@code /admin/virtual-threads/stats}. Em uma JVM anterior ao Java 21 as threads
+ * virtuais não são usadas e apenas um aviso é registrado.</p>
+ *
+ * @author diegosneves
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+  private static final int LOGGED_FRAMES = 12;
+
+  private final Duration threshold;
+  private final AtomicLong pinnedEvents = new AtomicLong();
+  private final AtomicLong pinnedNanos = new AtomicLong();
+  private final AtomicReference<String> lastPinnedStack = new AtomicReference<>();
+  private RecordingStream recordingStream;
+
+  public VirtualThreadPinningMonitor(
+      @Value("${carbon-calc.virtual-threads.pinned-threshold:PT0.02S}") Duration threshold) {
+    this.threshold = threshold;
+  }
+
+  @PostConstruct
+  public void start() {
+    if (Runtime.version().feature() < VIRTUAL_THREADS_JAVA_VERSION) {
+      log.warn("spring.threads.virtual.enabled is set, but Java {} has no virtual threads; requests run on platform threads",
+          Runtime.version().feature());
+      return;
+    }
+    this.recordingStream = new RecordingStream();
+    this.recordingStream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+    this.recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    this.recordingStream.startAsync();
+    log.info("Virtual thread pinning monitor started (threshold {})", this.threshold);
+  }
+
+  private void onPinned(final RecordedEvent event) {
+    this.pinnedEvents.incrementAndGet();
+    this.pinnedNanos.addAndGet(event.getDuration().toNanos());
+    final var stackTrace = event.getStackTrace() == null ? "<no stack trace>" : event.getStackTrace().getFrames().stream()
+        .limit(LOGGED_FRAMES)
+        .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+        .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+    this.lastPinnedStack.set(stackTrace);
+    log.warn("Virtual thread pinned for {} ms\n{}", event.getDuration().toMillis(), stackTrace);
+  }
+
+  public VirtualThreadPinningStatsDTO stats() {
+    return new VirtualThreadPinningStatsDTO(this.recordingStream != null, this.threshold.toString(),
+        this.pinnedEvents.get(), Duration.ofNanos(this.pinnedNanos.get()).toMillis(), this.lastPinnedStack.get());
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (this.recordingStream != null) {
+      this.recordingStream.close();
+    }
+  }
+
+}
@@ -0,0 +1,5 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record CalculationArchiveDTO(int segments, long archived, long deleted, long elapsedMillis) {
+
+}
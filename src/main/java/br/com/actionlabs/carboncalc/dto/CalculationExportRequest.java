@@ -0,0 +1,15 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import br.com.actionlabs.carboncalc.enums.DataFileFormat;
+
+/**
+ * Parâmetros já validados de uma exportação de cálculos.
+ *
+ * @param format    o formato de saída.
+ * @param uf        a UF dos cálculos exportados, em caixa alta, ou {@code null} para todas as UFs.
+ * @param after     o último ID recebido em uma exportação anterior, ou {@code null} para começar do início.
+ * @param batchSize a quantidade de documentos lidos do cursor por lote e gravados entre cada envio da resposta.
+ */
+public record CalculationExportRequest(DataFileFormat format, String uf, String after, int batchSize) {
+
+}
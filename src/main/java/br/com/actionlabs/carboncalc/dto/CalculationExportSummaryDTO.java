@@ -0,0 +1,5 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record CalculationExportSummaryDTO(long rows, String lastId, long elapsedMillis) {
+
+}
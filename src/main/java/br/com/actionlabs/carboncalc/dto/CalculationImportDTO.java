@@ -0,0 +1,12 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import java.util.List;
+
+public record CalculationImportDTO(long rows,
+                                   long imported,
+                                   long rejected,
+                                   double rowsPerSecond,
+                                   long elapsedMillis,
+                                   List<CalculationImportRejectDTO> rejects) {
+
+}
@@ -0,0 +1,5 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record CalculationImportRejectDTO(long line, String error) {
+
+}
@@ -0,0 +1,18 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import java.util.List;
+
+/**
+ * Uma linha do arquivo de importação: os dados do usuário, como em {@link StartCalcRequestDTO}, e as informações
+ * de consumo, como em {@link UpdateCalcInfoRequestDTO}.
+ */
+public record CalculationImportRowDTO(String name,
+                                      String email,
+                                      String uf,
+                                      String phoneNumber,
+                                      Integer energyConsumption,
+                                      List<TransportationDTO> transportation,
+                                      Integer solidWasteTotal,
+                                      Double recyclePercentage) {
+
+}
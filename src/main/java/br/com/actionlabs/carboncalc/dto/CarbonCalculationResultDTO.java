@@ -1,13 +1,19 @@
 package br.com.actionlabs.carboncalc.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class CarbonCalculationResultDTO {
     private double energy;
     private double transportation;
     private double solidWaste;
     private double total;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double percentile;
+    @JsonIgnore
+    private String uf;
 }
@@ -0,0 +1,13 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record EmissionFactorCatalogStatsDTO(long version,
+                                            String loadedAt,
+                                            int energyFactors,
+                                            int transportationFactors,
+                                            int solidWasteFactors,
+                                            long hits,
+                                            long refreshes,
+                                            long refreshFailures,
+                                            long swaps) {
+
+}
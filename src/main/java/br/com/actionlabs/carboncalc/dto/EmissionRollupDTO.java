@@ -0,0 +1,8 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import br.com.actionlabs.carboncalc.enums.RollupDimension;
+
+public record EmissionRollupDTO(RollupDimension dimension, String key, long count, double sum, double mean,
+                                double variance, double standardDeviation) {
+
+}
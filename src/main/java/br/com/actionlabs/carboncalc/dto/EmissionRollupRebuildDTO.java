@@ -0,0 +1,5 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record EmissionRollupRebuildDTO(long calculations, int rollups, long elapsedMillis) {
+
+}
@@ -0,0 +1,5 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record PercentileRebuildDTO(long calculations, int ufs, long generation, long elapsedMillis) {
+
+}
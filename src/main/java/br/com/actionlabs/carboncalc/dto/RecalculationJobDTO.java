@@ -0,0 +1,11 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import br.com.actionlabs.carboncalc.enums.RecalculationStatus;
+
+import java.time.Instant;
+
+public record RecalculationJobDTO(String id, long factorVersion, RecalculationStatus status, int partitions,
+                                  int completedPartitions, long processed, long updated, long conflicts, String error,
+                                  Instant startedAt, Instant updatedAt, Instant finishedAt) {
+
+}
@@ -0,0 +1,5 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record ResultCacheStatsDTO(long size, long hits, long misses, double hitRate, long evictions) {
+
+}
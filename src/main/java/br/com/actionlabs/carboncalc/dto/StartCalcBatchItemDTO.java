@@ -0,0 +1,24 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StartCalcBatchItemDTO {
+
+    private String id;
+    private String error;
+
+    public static StartCalcBatchItemDTO created(final String anId) {
+        final var dto = new StartCalcBatchItemDTO();
+        dto.setId(anId);
+        return dto;
+    }
+
+    public static StartCalcBatchItemDTO rejected(final String anError) {
+        final var dto = new StartCalcBatchItemDTO();
+        dto.setError(anError);
+        return dto;
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class StartCalcBatchResponseDTO {
+    private int created;
+    private int rejected;
+    private List<StartCalcBatchItemDTO> items;
+}
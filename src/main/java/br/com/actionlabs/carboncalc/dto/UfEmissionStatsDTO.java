@@ -0,0 +1,6 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record UfEmissionStatsDTO(String uf, long count, double mean, double min, double max, double averageEnergy,
+                                 double averageTransportation, double averageSolidWaste) {
+
+}
@@ -0,0 +1,11 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class UpdateCalcInfoBatchItemDTO {
+    private String id;
+    private boolean success;
+}
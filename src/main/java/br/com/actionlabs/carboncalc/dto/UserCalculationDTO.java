@@ -0,0 +1,7 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import java.time.Instant;
+
+public record UserCalculationDTO(String id, Instant createdAt, String uf, Double total) {
+
+}
@@ -0,0 +1,7 @@
+package br.com.actionlabs.carboncalc.dto;
+
+import java.util.List;
+
+public record UserCalculationPageDTO(List<UserCalculationDTO> calculations, String next) {
+
+}
@@ -0,0 +1,6 @@
+package br.com.actionlabs.carboncalc.dto;
+
+public record VirtualThreadPinningStatsDTO(boolean monitoring, String threshold, long pinnedEvents, long pinnedMillis,
+                                           String lastPinnedStack) {
+
+}
@@ -0,0 +1,71 @@
+package br.com.actionlabs.carboncalc.enums;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Formatos de arquivo da exportação e da importação de cálculos.
+ *
+ * <p>{@link #NDJSON} tem um objeto JSON por linha e {@link #CSV} tem um cabeçalho seguido de uma linha por
+ * cálculo. Nos dois formatos cada linha é independente, o que permite ler e gravar os arquivos linha a linha,
+ * sem carregá-los na memória, e retomar uma exportação interrompida a partir do último ID recebido.</p>
+ */
+public enum DataFileFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    DataFileFormat(final MediaType mediaType, final String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return this.mediaType;
+    }
+
+    public String getExtension() {
+        return this.extension;
+    }
+
+    /**
+     * Converte o formato informado na requisição, sem diferenciar maiúsculas de minúsculas.
+     *
+     * @param format o nome do formato, como {@code ndjson} ou {@code csv}.
+     * @return o {@link DataFileFormat} correspondente.
+     * @throws IllegalArgumentException se o formato for {@code null} ou não suportado.
+     */
+    public static DataFileFormat from(final String format) {
+        if (format != null) {
+            for (var value : values()) {
+                if (value.extension.equals(format.trim().toLowerCase(Locale.ROOT))) {
+                    return value;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unsupported file format: " + format);
+    }
+
+    /**
+     * Identifica o formato pela extensão do arquivo: {@code .csv} é {@link #CSV} e {@code .ndjson}, {@code .jsonl}
+     * ou {@code .json} são {@link #NDJSON}.
+     *
+     * @param fileName o nome ou caminho do arquivo.
+     * @return o {@link DataFileFormat} correspondente.
+     * @throws IllegalArgumentException se a extensão não for reconhecida.
+     */
+    public static DataFileFormat fromFileName(final String fileName) {
+        final var name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported file format: " + fileName);
+    }
+
+}
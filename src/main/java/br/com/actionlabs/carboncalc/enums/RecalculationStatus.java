@@ -0,0 +1,15 @@
+package br.com.actionlabs.carboncalc.enums;
+
+/**
+ * Situação de um job de recálculo.
+ *
+ * <p>Jobs {@link #RUNNING} ou {@link #FAILED} podem ser retomados a partir do checkpoint de cada partição enquanto
+ * os fatores em uso forem os mesmos do job; um job dos fatores anteriores passa a {@link #SUPERSEDED} quando um
+ * novo job é iniciado.</p>
+ */
+public enum RecalculationStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    SUPERSEDED
+}
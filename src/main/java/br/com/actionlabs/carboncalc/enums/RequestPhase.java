@@ -0,0 +1,25 @@
+package br.com.actionlabs.carboncalc.enums;
+
+/**
+ * Fases de uma requisição medidas pelo {@link br.com.actionlabs.carboncalc.utils.RequestPhaseTimer}, na ordem em
+ * que aparecem no cabeçalho {@code Server-Timing}.
+ */
+public enum RequestPhase {
+    JSON_PARSE("parse"),
+    VALIDATION("validate"),
+    MONGO_READ("db-read"),
+    FACTOR_LOOKUP("factors"),
+    CALCULATION("calc"),
+    MONGO_WRITE("db-write"),
+    SERIALIZATION("serialize");
+
+    private final String metricName;
+
+    RequestPhase(final String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return this.metricName;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.actionlabs.carboncalc.enums;
+
+/**
+ * Dimensões dos agregados incrementais de emissões.
+ *
+ * <p>{@link #UF} agrega o total de emissões de cada cálculo pela UF do usuário e {@link #TRANSPORTATION} agrega
+ * a emissão de cada {@link TransportationType} usado pelo cálculo.</p>
+ */
+public enum RollupDimension {
+    UF,
+    TRANSPORTATION;
+
+    /**
+     * Monta o ID do documento de agregado da chave nesta dimensão.
+     *
+     * @param key a UF ou o nome do tipo de transporte.
+     * @return o ID no formato {@code DIMENSAO:chave}.
+     */
+    public String rollupId(final String key) {
+        return this.name() + ":" + key;
+    }
+
+}
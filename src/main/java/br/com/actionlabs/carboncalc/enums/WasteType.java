@@ -1,22 +1,20 @@
 package br.com.actionlabs.carboncalc.enums;
 
-import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
-
 public enum WasteType {
 
     RECYCLABLE {
         @Override
-        public Double calculate(CarbonEmissionStats emissionData, Double factor) {
-            return emissionData.getSolidWaste() * emissionData.getRecyclePercentage() * factor;
+        public double calculate(int solidWaste, double recyclePercentage, double factor) {
+            return solidWaste * recyclePercentage * factor;
         }
     },
     NON_RECYCLABLE {
         @Override
-        public Double calculate(CarbonEmissionStats emissionData, Double factor) {
-            return emissionData.getSolidWaste() * (1 - emissionData.getRecyclePercentage()) * factor;
+        public double calculate(int solidWaste, double recyclePercentage, double factor) {
+            return solidWaste * (1 - recyclePercentage) * factor;
         }
     };
 
-    public abstract Double calculate(CarbonEmissionStats emissionData, Double factor);
+    public abstract double calculate(int solidWaste, double recyclePercentage, double factor);
 
 }
@@ -0,0 +1,92 @@
+package br.com.actionlabs.carboncalc.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import java.util.Collection;
+
+/**
+ * Base dos eventos do JDK Flight Recorder emitidos pelas operações de cálculo.
+ *
+ * <p>A duração do evento é a da operação. Enquanto ele está ativo na thread atual (entre {@link #start()} e
+ * {@link #finish()}), cada comando enviado ao MongoDB é contado em {@code mongoRoundTrips} por
+ * {@link #mongoRoundTrip()}, chamado pelo listener de comandos do driver. Quando o evento não está habilitado
+ * na gravação, {@link #start()} não registra nada na thread e {@link #finish()} não faz o commit.</p>
+ *
+ * <p>O ID do cálculo é registrado apenas como hash, para que a gravação possa ser compartilhada sem expor os IDs.</p>
+ */
+@Category({"Carbon Calc", "Calculation"})
+@StackTrace(false)
+public abstract class CalculationEvent extends Event {
+
+    private static final ThreadLocal<CalculationEvent> ACTIVE = new ThreadLocal<>();
+
+    @Label("Calculation ID Hash")
+    @Description("Hash do ID do cálculo")
+    int calculationIdHash;
+
+    @Label("UF")
+    String uf;
+
+    @Label("Transportation Entries")
+    int transportationEntries;
+
+    @Label("Mongo Round Trips")
+    int mongoRoundTrips;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * Inicia a medição da operação na thread atual.
+     */
+    public void start() {
+        this.begin();
+        if (this.isEnabled()) {
+            ACTIVE.set(this);
+        }
+    }
+
+    /**
+     * Encerra a medição e faz o commit do evento se ele ultrapassar o limite configurado na gravação.
+     */
+    public void finish() {
+        if (ACTIVE.get() == this) {
+            ACTIVE.remove();
+        }
+        this.end();
+        if (this.shouldCommit()) {
+            this.commit();
+        }
+    }
+
+    /**
+     * Conta um comando do MongoDB no evento ativo na thread atual, se houver.
+     */
+    public static void mongoRoundTrip() {
+        final var event = ACTIVE.get();
+        if (event != null) {
+            event.mongoRoundTrips++;
+        }
+    }
+
+    public void setCalculationId(final String calculationId) {
+        this.calculationIdHash = calculationId == null ? 0 : calculationId.hashCode();
+    }
+
+    public void setUf(final String uf) {
+        this.uf = uf;
+    }
+
+    public void setTransportationEntries(final Collection<?> transportation) {
+        this.transportationEntries = transportation == null ? 0 : transportation.size();
+    }
+
+    public void setSuccess(final boolean success) {
+        this.success = success;
+    }
+
+}
@@ -0,0 +1,28 @@
+package br.com.actionlabs.carboncalc.events;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitido por {@link br.com.actionlabs.carboncalc.services.CalculationService#getResult}. A UF e os transportes
+ * só são conhecidos quando o resultado precisa ser recalculado.
+ */
+@Name("br.com.actionlabs.carboncalc.GetResult")
+@Label("Get Result")
+public class GetResultEvent extends CalculationEvent {
+
+    @Label("Cache Hit")
+    boolean cacheHit = true;
+
+    @Label("Recalculated")
+    boolean recalculated;
+
+    public void setCacheHit(final boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    public void setRecalculated(final boolean recalculated) {
+        this.recalculated = recalculated;
+    }
+
+}
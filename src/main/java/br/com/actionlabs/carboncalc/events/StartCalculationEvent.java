@@ -0,0 +1,12 @@
+package br.com.actionlabs.carboncalc.events;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitido por {@link br.com.actionlabs.carboncalc.services.CalculationService#startCalculation}.
+ */
+@Name("br.com.actionlabs.carboncalc.StartCalculation")
+@Label("Start Calculation")
+public class StartCalculationEvent extends CalculationEvent {
+}
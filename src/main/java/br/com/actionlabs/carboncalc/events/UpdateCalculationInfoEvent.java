@@ -0,0 +1,12 @@
+package br.com.actionlabs.carboncalc.events;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Emitido por {@link br.com.actionlabs.carboncalc.services.CalculationService#updateCalculationInfo}.
+ */
+@Name("br.com.actionlabs.carboncalc.UpdateCalculationInfo")
+@Label("Update Calculation Info")
+public class UpdateCalculationInfoEvent extends CalculationEvent {
+}
@@ -4,12 +4,30 @@ import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
 import br.com.actionlabs.carboncalc.model.UserData;
 import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
 
+import java.time.Duration;
+import java.time.Instant;
+
 public class CarbonEmissionStatsFactory {
 
     private CarbonEmissionStatsFactory() {}
 
     public static CarbonEmissionStats create(final UserData userData) {
-        return new CarbonEmissionStats(IdentifierUtil.unique(), userData);
+        return new CarbonEmissionStats(IdentifierUtil.unique(), userData, Instant.now());
+    }
+
+    /**
+     * Cria um cálculo que expira se as informações de consumo não forem enviadas no prazo informado.
+     *
+     * @param userData os dados do usuário.
+     * @param expireAfter o prazo, a partir da criação; {@code null}, zero ou negativo cria um cálculo que não expira.
+     * @return o cálculo criado.
+     */
+    public static CarbonEmissionStats create(final UserData userData, final Duration expireAfter) {
+        final var carbonData = create(userData);
+        if (expireAfter != null && !expireAfter.isNegative() && !expireAfter.isZero()) {
+            carbonData.setExpiresAt(carbonData.getCreatedAt().plus(expireAfter));
+        }
+        return carbonData;
     }
 
 }
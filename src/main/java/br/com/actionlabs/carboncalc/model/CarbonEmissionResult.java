@@ -0,0 +1,31 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonEmissionResult {
+
+    private double energy;
+    private double transportation;
+    private double solidWaste;
+    private double total;
+    private long factorVersion;
+    private Map<TransportationType, Double> transportationByType;
+    /**
+     * {@code true} quando o resultado foi calculado antes do envio das informações de consumo, como o resultado
+     * zerado gravado na criação. Resultados provisórios não entram nos agregados de {@link EmissionRollupDelta}.
+     * Nos demais resultados o campo fica {@code null} e não é gravado, o que mantém a comparação com os resultados
+     * armazenados antes da sua existência.
+     */
+    private Boolean provisional;
+
+}
@@ -6,17 +6,35 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Cálculo de emissões de um usuário, com as informações de consumo e o último resultado calculado.
+ *
+ * <p>O índice {@value #EMAIL_CREATED_AT_INDEX} atende a listagem dos cálculos de um usuário, do mais recente para
+ * o mais antigo, com paginação por chave: o {@code _id} no fim do índice desempata cálculos criados no mesmo
+ * instante, de forma que a ordenação e o filtro de cada página são resolvidos no próprio índice.</p>
+ *
+ * <p>{@code expiresAt} é preenchido na criação e removido quando as informações de consumo são enviadas. O índice
+ * TTL {@value #EXPIRES_AT_INDEX} remove os cálculos que chegam a essa data sem as informações; cálculos completos,
+ * e os criados antes do campo existir, não têm {@code expiresAt} e nunca expiram.</p>
+ */
 @Document(collection = "carbonEmissionStats")
+@CompoundIndex(name = CarbonEmissionStats.EMAIL_CREATED_AT_INDEX, def = "{ 'userData.email' : 1, 'createdAt' : -1, '_id' : -1 }")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class CarbonEmissionStats {
 
+    public static final String EMAIL_CREATED_AT_INDEX = "userData_email_createdAt";
+    public static final String EXPIRES_AT_INDEX = "expiresAt_ttl";
+
     @Id
     private String id;
     private UserData userData;
@@ -24,22 +42,34 @@ public class CarbonEmissionStats {
     private List<Transportation> transportationList;
     private Integer solidWaste;
     private Double recyclePercentage;
+    private CarbonEmissionResult result;
+    private Long revision;
+    private Instant createdAt;
+    private Instant updatedAt;
+    @Indexed(name = EXPIRES_AT_INDEX, expireAfter = "0s")
+    private Instant expiresAt;
 
     public CarbonEmissionStats(final String anId, final UserData anUser) {
         this.id = anId;
         this.userData = anUser;
     }
 
+    public CarbonEmissionStats(final String anId, final UserData anUser, final Instant aCreatedAt) {
+        this(anId, anUser);
+        this.createdAt = aCreatedAt;
+        this.updatedAt = aCreatedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         CarbonEmissionStats that = (CarbonEmissionStats) o;
-        return Objects.equals(getId(), that.getId()) && Objects.equals(getUserData(), that.getUserData()) && Objects.equals(getEnergyConsumption(), that.getEnergyConsumption()) && Objects.equals(getTransportationList(), that.getTransportationList()) && Objects.equals(getSolidWaste(), that.getSolidWaste()) && Objects.equals(getRecyclePercentage(), that.getRecyclePercentage());
+        return Objects.equals(getId(), that.getId()) && Objects.equals(getUserData(), that.getUserData()) && Objects.equals(getEnergyConsumption(), that.getEnergyConsumption()) && Objects.equals(getTransportationList(), that.getTransportationList()) && Objects.equals(getSolidWaste(), that.getSolidWaste()) && Objects.equals(getRecyclePercentage(), that.getRecyclePercentage()) && Objects.equals(getResult(), that.getResult()) && Objects.equals(getRevision(), that.getRevision()) && Objects.equals(getCreatedAt(), that.getCreatedAt()) && Objects.equals(getUpdatedAt(), that.getUpdatedAt()) && Objects.equals(getExpiresAt(), that.getExpiresAt());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getId(), getUserData(), getEnergyConsumption(), getTransportationList(), getSolidWaste(), getRecyclePercentage());
+        return Objects.hash(getId(), getUserData(), getEnergyConsumption(), getTransportationList(), getSolidWaste(), getRecyclePercentage(), getResult(), getRevision(), getCreatedAt(), getUpdatedAt(), getExpiresAt());
     }
 
 }
@@ -0,0 +1,336 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Cópia imutável dos fatores de emissão carregados do banco de dados, com todas as suas vigências.
+ *
+ * <p>Cada fator (uma UF de energia ou de resíduos sólidos, ou um tipo de transporte) tem um
+ * {@link EmissionFactorTimeline} com as suas vigências, localizado pela posição da UF em {@link #ufIndex(String)}
+ * ou por {@link TransportationType#ordinal()}. Os valores das vigências ficam em tabelas {@code double[]}, nas
+ * quais cada vigência ocupa uma posição; {@link #energyIndex(int, long)}, {@link #solidWasteIndex(int, long)} e
+ * {@link #transportationIndex(int, long)} retornam a posição do fator vigente em um instante, ou um valor
+ * negativo se não houver fator vigente, que o {@code CarbonCalculationKernel} trata como emissão {@code 0.0}, o
+ * mesmo resultado que o cálculo aplicava quando o fator não era encontrado. As tabelas retornadas pelos getters
+ * são compartilhadas e não devem ser alteradas.</p>
+ *
+ * <p>Vigências de um mesmo fator não se sobrepõem: ordenadas pelo início, cada uma termina, no máximo, no início
+ * da seguinte, e de duas vigências com o mesmo início vale a primeira lida.</p>
+ *
+ * <p>Fatores de transporte cujo {@code _id} legado não é um {@link TransportationType} são registrados em log e
+ * ignorados, sem impedir o carregamento dos demais fatores.</p>
+ *
+ * <p>A versão é uma impressão digital do conteúdo dos fatores, e não um contador: dois carregamentos com
+ * os mesmos valores e vigências geram a mesma versão, independente do momento ou do nó em que foram feitos.</p>
+ *
+ * @author diegosneves
+ */
+@Slf4j
+public final class EmissionFactorSnapshot {
+
+    public static final int UNKNOWN_UF = -1;
+    public static final EmissionFactorSnapshot EMPTY = of(List.of(), List.of(), List.of(), Instant.EPOCH);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long version;
+    private final Instant loadedAt;
+    private final Map<String, Integer> ufIndexes;
+    private final EmissionFactorTimeline[] energyTimelines;
+    private final EmissionFactorTimeline[] solidWasteTimelines;
+    private final EmissionFactorTimeline[] transportationTimelines;
+    private final double[] energyFactors;
+    private final double[] recyclableFactors;
+    private final double[] nonRecyclableFactors;
+    private final double[] transportationFactors;
+
+    private EmissionFactorSnapshot(final long version,
+                                   final Instant loadedAt,
+                                   final Map<String, Integer> ufIndexes,
+                                   final EmissionFactorTimeline[] energyTimelines,
+                                   final EmissionFactorTimeline[] solidWasteTimelines,
+                                   final EmissionFactorTimeline[] transportationTimelines,
+                                   final double[] energyFactors,
+                                   final double[] recyclableFactors,
+                                   final double[] nonRecyclableFactors,
+                                   final double[] transportationFactors) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.ufIndexes = ufIndexes;
+        this.energyTimelines = energyTimelines;
+        this.solidWasteTimelines = solidWasteTimelines;
+        this.transportationTimelines = transportationTimelines;
+        this.energyFactors = energyFactors;
+        this.recyclableFactors = recyclableFactors;
+        this.nonRecyclableFactors = nonRecyclableFactors;
+        this.transportationFactors = transportationFactors;
+    }
+
+    public static EmissionFactorSnapshot of(final Collection<EnergyEmissionFactor> energyFactors,
+                                            final Collection<TransportationEmissionFactor> transportationFactors,
+                                            final Collection<SolidWasteEmissionFactor> solidWasteFactors,
+                                            final Instant loadedAt) {
+        final var energyByUf = versionsByKey(energyFactors, EnergyEmissionFactor::getUf,
+                EnergyEmissionFactor::getEffectiveFrom, EnergyEmissionFactor::getEffectiveTo);
+        final var solidWasteByUf = versionsByKey(solidWasteFactors, SolidWasteEmissionFactor::getUf,
+                SolidWasteEmissionFactor::getEffectiveFrom, SolidWasteEmissionFactor::getEffectiveTo);
+        final var transportationByType = versionsByKey(transportationFactors, EmissionFactorSnapshot::transportationType,
+                TransportationEmissionFactor::getEffectiveFrom, TransportationEmissionFactor::getEffectiveTo);
+
+        final var ufs = new TreeSet<String>();
+        ufs.addAll(energyByUf.keySet());
+        ufs.addAll(solidWasteByUf.keySet());
+        final var ufIndexes = new HashMap<String, Integer>();
+        for (var uf : ufs) {
+            ufIndexes.put(uf, ufIndexes.size());
+        }
+
+        final var energyTimelines = new EmissionFactorTimeline[ufs.size()];
+        final var energyTable = new double[count(energyByUf)];
+        final var solidWasteTimelines = new EmissionFactorTimeline[ufs.size()];
+        final var recyclableTable = new double[count(solidWasteByUf)];
+        final var nonRecyclableTable = new double[recyclableTable.length];
+        int energyOffset = 0;
+        int solidWasteOffset = 0;
+        for (var uf : ufs) {
+            final var index = ufIndexes.get(uf);
+            final var energyVersions = energyByUf.getOrDefault(uf, List.of());
+            energyTimelines[index] = timeline(energyOffset, energyVersions);
+            for (var energy : energyVersions) {
+                energyTable[energyOffset++] = energy.factor().getFactor();
+            }
+            final var solidWasteVersions = solidWasteByUf.getOrDefault(uf, List.of());
+            solidWasteTimelines[index] = timeline(solidWasteOffset, solidWasteVersions);
+            for (var solidWaste : solidWasteVersions) {
+                recyclableTable[solidWasteOffset] = solidWaste.factor().getRecyclableFactor();
+                nonRecyclableTable[solidWasteOffset++] = solidWaste.factor().getNonRecyclableFactor();
+            }
+        }
+
+        final var transportationTimelines = new EmissionFactorTimeline[TransportationType.values().length];
+        Arrays.fill(transportationTimelines, EmissionFactorTimeline.EMPTY);
+        final var transportationTable = new double[count(transportationByType)];
+        int transportationOffset = 0;
+        for (var entry : transportationByType.entrySet()) {
+            transportationTimelines[entry.getKey().ordinal()] = timeline(transportationOffset, entry.getValue());
+            for (var transportation : entry.getValue()) {
+                transportationTable[transportationOffset++] = transportation.factor().getFactor();
+            }
+        }
+
+        final long version = fingerprint(energyByUf, solidWasteByUf, transportationByType);
+        return new EmissionFactorSnapshot(version, loadedAt, Map.copyOf(ufIndexes), energyTimelines, solidWasteTimelines,
+                transportationTimelines, energyTable, recyclableTable, nonRecyclableTable, transportationTable);
+    }
+
+    /**
+     * Agrupa os fatores pela chave e ordena as vigências de cada chave, encerrando cada uma no início da seguinte
+     * e descartando vigências vazias. Fatores sem chave são ignorados.
+     */
+    private static <K extends Comparable<K>, F> TreeMap<K, List<Version<F>>> versionsByKey(final Collection<F> factors,
+                                                                                          final Function<F, K> key,
+                                                                                          final Function<F, Instant> from,
+                                                                                          final Function<F, Instant> to) {
+        final var grouped = new TreeMap<K, List<Version<F>>>();
+        for (var factor : factors) {
+            final var factorKey = key.apply(factor);
+            if (factorKey != null) {
+                grouped.computeIfAbsent(factorKey, ignored -> new ArrayList<>())
+                        .add(new Version<>(epochMillis(from.apply(factor), Long.MIN_VALUE), epochMillis(to.apply(factor), Long.MAX_VALUE), factor));
+            }
+        }
+        grouped.replaceAll((ignored, versions) -> {
+            versions.sort(Comparator.comparingLong(Version::start));
+            final var distinct = new ArrayList<Version<F>>(versions.size());
+            for (var version : versions) {
+                if (distinct.isEmpty() || distinct.get(distinct.size() - 1).start() != version.start()) {
+                    distinct.add(version);
+                }
+            }
+            final var effective = new ArrayList<Version<F>>(distinct.size());
+            for (int i = 0; i < distinct.size(); i++) {
+                final var current = distinct.get(i);
+                final var end = i + 1 < distinct.size() ? Math.min(current.end(), distinct.get(i + 1).start()) : current.end();
+                if (end > current.start()) {
+                    effective.add(new Version<>(current.start(), end, current.factor()));
+                }
+            }
+            return effective;
+        });
+        grouped.values().removeIf(List::isEmpty);
+        return grouped;
+    }
+
+    /**
+     * Obtém o tipo de um fator de transporte, ou {@code null} se o {@code _id} legado não for um tipo conhecido.
+     */
+    private static TransportationType transportationType(final TransportationEmissionFactor factor) {
+        try {
+            return factor.getType();
+        } catch (IllegalArgumentException exception) {
+            log.warn("Ignoring transportation emission factor with unknown type [ {} ]", factor.getId());
+            return null;
+        }
+    }
+
+    private static long epochMillis(final Instant instant, final long unbounded) {
+        return instant == null ? unbounded : instant.toEpochMilli();
+    }
+
+    private static int count(final Map<?, ? extends List<?>> versionsByKey) {
+        return versionsByKey.values().stream().mapToInt(List::size).sum();
+    }
+
+    private static EmissionFactorTimeline timeline(final int offset, final List<? extends Version<?>> versions) {
+        if (versions.isEmpty()) {
+            return EmissionFactorTimeline.EMPTY;
+        }
+        final var starts = new long[versions.size()];
+        final var ends = new long[versions.size()];
+        for (int i = 0; i < versions.size(); i++) {
+            starts[i] = versions.get(i).start();
+            ends[i] = versions.get(i).end();
+        }
+        return new EmissionFactorTimeline(offset, starts, ends);
+    }
+
+    private static long fingerprint(final TreeMap<String, List<Version<EnergyEmissionFactor>>> energyByUf,
+                                    final TreeMap<String, List<Version<SolidWasteEmissionFactor>>> solidWasteByUf,
+                                    final TreeMap<TransportationType, List<Version<TransportationEmissionFactor>>> transportationByType) {
+        long hash = FNV_OFFSET_BASIS;
+        for (var entry : energyByUf.entrySet()) {
+            for (var version : entry.getValue()) {
+                hash = mix(mix(mix(hash, entry.getKey().hashCode()), version.start()), version.end());
+                hash = mix(hash, Double.doubleToLongBits(version.factor().getFactor()));
+            }
+        }
+        for (var entry : solidWasteByUf.entrySet()) {
+            for (var version : entry.getValue()) {
+                hash = mix(mix(mix(hash, entry.getKey().hashCode()), version.start()), version.end());
+                hash = mix(hash, Double.doubleToLongBits(version.factor().getRecyclableFactor()));
+                hash = mix(hash, Double.doubleToLongBits(version.factor().getNonRecyclableFactor()));
+            }
+        }
+        for (var entry : transportationByType.entrySet()) {
+            for (var version : entry.getValue()) {
+                hash = mix(mix(mix(hash, entry.getKey().name().hashCode()), version.start()), version.end());
+                hash = mix(hash, Double.doubleToLongBits(version.factor().getFactor()));
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    public long getVersion() {
+        return this.version;
+    }
+
+    public Instant getLoadedAt() {
+        return this.loadedAt;
+    }
+
+    /**
+     * Retorna a posição da UF nas tabelas de vigências de energia e resíduos sólidos.
+     *
+     * @param uf a unidade federativa, já normalizada em caixa alta.
+     * @return o índice da UF, ou {@link #UNKNOWN_UF} se não houver fator de energia nem de resíduos para ela.
+     */
+    public int ufIndex(final String uf) {
+        final var index = uf == null ? null : this.ufIndexes.get(uf);
+        return index == null ? UNKNOWN_UF : index;
+    }
+
+    /**
+     * Indica se a UF possui fator de energia e de resíduos sólidos em alguma vigência.
+     *
+     * @param ufIndex o índice obtido em {@link #ufIndex(String)}.
+     * @return {@code true} se os dois fatores existirem para a UF.
+     */
+    public boolean isSupported(final int ufIndex) {
+        return ufIndex >= 0 && this.energyTimelines[ufIndex].size() > 0 && this.solidWasteTimelines[ufIndex].size() > 0;
+    }
+
+    /**
+     * Retorna a posição, em {@link #getEnergyFactorTable()}, do fator de energia da UF vigente no instante.
+     *
+     * @param ufIndex     o índice obtido em {@link #ufIndex(String)}.
+     * @param epochMillis o instante, em milissegundos desde a época.
+     * @return a posição do fator, ou {@link EmissionFactorTimeline#NOT_EFFECTIVE} se não houver fator vigente.
+     */
+    public int energyIndex(final int ufIndex, final long epochMillis) {
+        return ufIndex < 0 ? EmissionFactorTimeline.NOT_EFFECTIVE : this.energyTimelines[ufIndex].indexAt(epochMillis);
+    }
+
+    /**
+     * Retorna a posição, em {@link #getRecyclableFactorTable()} e {@link #getNonRecyclableFactorTable()}, dos
+     * fatores de resíduos sólidos da UF vigentes no instante.
+     *
+     * @param ufIndex     o índice obtido em {@link #ufIndex(String)}.
+     * @param epochMillis o instante, em milissegundos desde a época.
+     * @return a posição dos fatores, ou {@link EmissionFactorTimeline#NOT_EFFECTIVE} se não houver fator vigente.
+     */
+    public int solidWasteIndex(final int ufIndex, final long epochMillis) {
+        return ufIndex < 0 ? EmissionFactorTimeline.NOT_EFFECTIVE : this.solidWasteTimelines[ufIndex].indexAt(epochMillis);
+    }
+
+    /**
+     * Retorna a posição, em {@link #getTransportationFactorTable()}, do fator do tipo de transporte vigente no
+     * instante.
+     *
+     * @param typeOrdinal o {@link TransportationType#ordinal()} do tipo de transporte.
+     * @param epochMillis o instante, em milissegundos desde a época.
+     * @return a posição do fator, ou {@link EmissionFactorTimeline#NOT_EFFECTIVE} se não houver fator vigente.
+     */
+    public int transportationIndex(final int typeOrdinal, final long epochMillis) {
+        return this.transportationTimelines[typeOrdinal].indexAt(epochMillis);
+    }
+
+    public double[] getEnergyFactorTable() {
+        return this.energyFactors;
+    }
+
+    public double[] getRecyclableFactorTable() {
+        return this.recyclableFactors;
+    }
+
+    public double[] getNonRecyclableFactorTable() {
+        return this.nonRecyclableFactors;
+    }
+
+    public double[] getTransportationFactorTable() {
+        return this.transportationFactors;
+    }
+
+    public int getEnergyFactorCount() {
+        return this.energyFactors.length;
+    }
+
+    public int getSolidWasteFactorCount() {
+        return this.recyclableFactors.length;
+    }
+
+    public int getTransportationFactorCount() {
+        return this.transportationFactors.length;
+    }
+
+    private record Version<F>(long start, long end, F factor) {
+    }
+
+}
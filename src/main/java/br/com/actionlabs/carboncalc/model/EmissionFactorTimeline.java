@@ -0,0 +1,60 @@
+package br.com.actionlabs.carboncalc.model;
+
+/**
+ * Índice em memória das vigências de um fator de emissão (uma UF de energia ou de resíduos sólidos, ou um tipo
+ * de transporte).
+ *
+ * <p>As vigências ficam em dois {@code long[]} ordenados pelo início, com os instantes em milissegundos desde a
+ * época, e não se sobrepõem: o {@link EmissionFactorSnapshot} encerra cada vigência, no máximo, no início da
+ * seguinte. A busca da vigência de um instante é uma busca binária, {@code O(log n)} no número de vigências, sem
+ * alocar objetos. O índice retornado aponta para as tabelas de fatores do snapshot, nas quais as vigências de um
+ * mesmo fator ocupam posições consecutivas a partir de {@code offset}.</p>
+ *
+ * @author diegosneves
+ */
+public final class EmissionFactorTimeline {
+
+    public static final int NOT_EFFECTIVE = -1;
+    static final EmissionFactorTimeline EMPTY = new EmissionFactorTimeline(0, new long[0], new long[0]);
+
+    private final int offset;
+    private final long[] starts;
+    private final long[] ends;
+
+    EmissionFactorTimeline(final int offset, final long[] starts, final long[] ends) {
+        this.offset = offset;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Busca a vigência que contém o instante informado.
+     *
+     * @param epochMillis o instante, em milissegundos desde a época.
+     * @return a posição do fator vigente nas tabelas do snapshot, ou {@link #NOT_EFFECTIVE} se nenhuma vigência
+     * contiver o instante.
+     */
+    public int indexAt(final long epochMillis) {
+        int low = 0;
+        int high = this.starts.length - 1;
+        int found = NOT_EFFECTIVE;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            if (this.starts[middle] <= epochMillis) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (found == NOT_EFFECTIVE || epochMillis >= this.ends[found]) {
+            return NOT_EFFECTIVE;
+        }
+        return this.offset + found;
+    }
+
+    public int size() {
+        return this.starts.length;
+    }
+
+}
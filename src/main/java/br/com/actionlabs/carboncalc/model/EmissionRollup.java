@@ -0,0 +1,58 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.RollupDimension;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Agregado incremental das emissões de uma chave (uma UF ou um tipo de transporte).
+ *
+ * <p>Guarda a quantidade, a soma e a soma dos quadrados dos valores, de forma que a média e a variância sejam
+ * obtidas com a leitura de um único documento. O mesmo tipo representa a variação aplicada com {@code $inc}
+ * por {@link EmissionRollupDelta}.</p>
+ */
+@Document(collection = "emissionRollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmissionRollup {
+
+    @Id
+    private String id;
+    private RollupDimension dimension;
+    private String key;
+    private long count;
+    private double sum;
+    private double sumOfSquares;
+
+    public EmissionRollup(final RollupDimension dimension, final String key) {
+        this.id = dimension.rollupId(key);
+        this.dimension = dimension;
+        this.key = key;
+    }
+
+    /**
+     * Adiciona ou remove um valor do agregado.
+     *
+     * @param sign  {@code 1} para adicionar o valor ou {@code -1} para removê-lo.
+     * @param value o valor.
+     */
+    void accumulate(final int sign, final double value) {
+        this.count += sign;
+        this.sum += sign * value;
+        this.sumOfSquares += sign * value * value;
+    }
+
+    /**
+     * Indica se o agregado não altera nenhum valor, como a variação da troca de um resultado por outro igual.
+     *
+     * @return {@code true} se a quantidade, a soma e a soma dos quadrados forem zero.
+     */
+    boolean isZero() {
+        return this.count == 0 && this.sum == 0.0 && this.sumOfSquares == 0.0;
+    }
+
+}
@@ -0,0 +1,66 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.RollupDimension;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Acumula a variação dos agregados de emissões causada pela troca dos resultados armazenados de um ou mais
+ * cálculos.
+ *
+ * <p>Cada troca remove dos agregados os valores do resultado anterior e adiciona os do novo resultado, na UF do
+ * cálculo e em cada tipo de transporte de {@link CarbonEmissionResult#getTransportationByType()}. As variações
+ * de um lote inteiro se combinam em um único {@link EmissionRollup} por chave.</p>
+ *
+ * <p>Resultados provisórios ({@link CarbonEmissionResult#getProvisional()}) não estão nos agregados e são
+ * ignorados, tanto como resultado anterior quanto como novo resultado.</p>
+ */
+public final class EmissionRollupDelta {
+
+    private final Map<String, EmissionRollup> changes = new LinkedHashMap<>();
+
+    /**
+     * Registra a troca do resultado armazenado de um cálculo.
+     *
+     * @param uf       a UF do cálculo.
+     * @param previous o resultado substituído, ou {@code null} se o cálculo não tinha resultado contado nos agregados.
+     * @param current  o novo resultado, ou {@code null} se o resultado foi removido.
+     * @return esta instância.
+     */
+    public EmissionRollupDelta replace(final String uf, final CarbonEmissionResult previous, final CarbonEmissionResult current) {
+        this.accumulate(uf, previous, -1);
+        this.accumulate(uf, current, 1);
+        return this;
+    }
+
+    private void accumulate(final String uf, final CarbonEmissionResult result, final int sign) {
+        if (result == null || Boolean.TRUE.equals(result.getProvisional())) {
+            return;
+        }
+        this.rollup(RollupDimension.UF, String.valueOf(uf)).accumulate(sign, result.getTotal());
+        if (result.getTransportationByType() != null) {
+            result.getTransportationByType().forEach((type, emission) ->
+                    this.rollup(RollupDimension.TRANSPORTATION, type.name()).accumulate(sign, emission));
+        }
+    }
+
+    private EmissionRollup rollup(final RollupDimension dimension, final String key) {
+        return this.changes.computeIfAbsent(dimension.rollupId(key), id -> new EmissionRollup(dimension, key));
+    }
+
+    /**
+     * Retorna as variações acumuladas, sem as chaves cuja variação se anulou.
+     *
+     * @return uma variação por chave alterada.
+     */
+    public Collection<EmissionRollup> changes() {
+        return this.changes.values().stream().filter(rollup -> !rollup.isZero()).toList();
+    }
+
+    public boolean isEmpty() {
+        return this.changes().isEmpty();
+    }
+
+}
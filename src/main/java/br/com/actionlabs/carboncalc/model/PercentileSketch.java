@@ -0,0 +1,35 @@
+package br.com.actionlabs.carboncalc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Sketch de quantis (t-digest serializado) dos totais de emissões de uma UF observados por um nó da aplicação.
+ *
+ * <p>Cada nó grava o seu próprio documento por UF; a distribuição da UF é a união dos sketches de todos os nós
+ * na mesma geração. A geração muda a cada reconstrução a partir dos resultados armazenados, o que descarta os
+ * sketches anteriores. {@code generationStartedAt} é o instante em que começou a leitura que criou a geração,
+ * usado pelos demais nós para saber quais das suas observações a leitura pode não ter visto.</p>
+ */
+@Document(collection = "percentileSketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PercentileSketch {
+
+    @Id
+    private String id;
+    private String uf;
+    private String nodeId;
+    private long generation;
+    private Instant generationStartedAt;
+    private long count;
+    private byte[] digest;
+    private Instant updatedAt;
+
+}
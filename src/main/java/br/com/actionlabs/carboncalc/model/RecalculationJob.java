@@ -0,0 +1,39 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.RecalculationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Job de recálculo dos resultados para uma versão dos fatores de emissão, com o checkpoint de cada partição.
+ *
+ * <p>{@code processed} conta os cálculos desatualizados lidos, {@code updated} os resultados gravados e
+ * {@code conflicts} os que não foram gravados porque o cálculo mudou de revisão entre a leitura e a gravação
+ * (o resultado dessas atualizações já usa os fatores atuais).</p>
+ */
+@Document(collection = "recalculationJobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculationJob {
+
+    @Id
+    private String id;
+    private long factorVersion;
+    private RecalculationStatus status;
+    private List<RecalculationPartition> partitions;
+    private long processed;
+    private long updated;
+    private long conflicts;
+    private String error;
+    private Instant startedAt;
+    private Instant updatedAt;
+    private Instant finishedAt;
+
+}
@@ -0,0 +1,26 @@
+package br.com.actionlabs.carboncalc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Faixa de IDs de cálculos processada por uma tarefa do job de recálculo, com o seu checkpoint.
+ *
+ * <p>A faixa inclui {@code lowerId} e exclui {@code upperId}; limites {@code null} não restringem a faixa, de
+ * forma que o conjunto das partições cobre qualquer ID. {@code lastId} é o último ID já gravado, a partir do qual
+ * a partição continua depois de uma interrupção.</p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecalculationPartition {
+
+    private int index;
+    private String lowerId;
+    private String upperId;
+    private String lastId;
+    private long processed;
+    private boolean completed;
+
+}
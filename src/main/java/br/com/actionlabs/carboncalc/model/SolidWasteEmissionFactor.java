@@ -5,12 +5,28 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
+/**
+ * Fatores de emissão de resíduos sólidos de uma UF, válidos de {@code effectiveFrom} (inclusivo) até
+ * {@code effectiveTo} (exclusivo). Limites {@code null} não restringem a vigência.
+ *
+ * <p>Documentos gravados antes das vigências usam a UF como {@code _id} e não têm o campo {@code uf}; para eles
+ * {@link #getUf()} retorna o {@code _id}.</p>
+ */
 @Data
 @Document("solidWasteEmissionFactor")
 @Builder
 public class SolidWasteEmissionFactor {
     @Id
+    private String id;
     private String uf;
     private double recyclableFactor;
     private double nonRecyclableFactor;
+    private Instant effectiveFrom;
+    private Instant effectiveTo;
+
+    public String getUf() {
+        return this.uf != null ? this.uf : this.id;
+    }
 }
@@ -6,11 +6,34 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+
+/**
+ * Fator de emissão de um tipo de transporte, válido de {@code effectiveFrom} (inclusivo) até {@code effectiveTo}
+ * (exclusivo). Limites {@code null} não restringem a vigência.
+ *
+ * <p>Documentos gravados antes das vigências usam o tipo como {@code _id} e não têm o campo {@code type}; para
+ * eles {@link #getType()} converte o {@code _id}.</p>
+ */
 @Data
 @Document("transportationEmissionFactor")
 @Builder
 public class TransportationEmissionFactor {
     @Id
+    private String id;
     private TransportationType type;
     private double factor;
+    private Instant effectiveFrom;
+    private Instant effectiveTo;
+
+    /**
+     * @return o tipo do fator, convertido do {@code _id} nos documentos legados.
+     * @throws IllegalArgumentException se o {@code _id} de um documento legado não for um {@link TransportationType}.
+     */
+    public TransportationType getType() {
+        if (this.type != null || this.id == null) {
+            return this.type;
+        }
+        return TransportationType.valueOf(this.id);
+    }
 }
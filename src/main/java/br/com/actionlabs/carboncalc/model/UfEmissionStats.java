@@ -0,0 +1,27 @@
+package br.com.actionlabs.carboncalc.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+
+/**
+ * Estatísticas dos resultados dos cálculos de uma UF, produzidas pela agregação de
+ * {@link br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepositoryCustom#aggregateStatsByUf(String)}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UfEmissionStats {
+
+    @Id
+    private String uf;
+    private long count;
+    private double averageTotal;
+    private double minTotal;
+    private double maxTotal;
+    private double averageEnergy;
+    private double averageTransportation;
+    private double averageSolidWaste;
+
+}
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.Instant;
 
@@ -22,27 +23,44 @@ public class UserData {
 
     private String name;
     private String email;
+    @Indexed(name = "userData_uf")
     private String uf;
     private String phoneNumber;
 
     public static UserData newUser(final String name, final String email, final String uf, final String phoneNumber) {
         var userUf = uf != null ? uf.toUpperCase() : UNDEFINED_UF;
-        return validate(new UserData(name, email, userUf, phoneNumber));
+        return validate(new UserData(name, email, userUf, phoneNumber), true);
     }
 
+    /**
+     * Cria e valida os dados do usuário como {@link #newUser(String, String, String, String)}, mas sem registrar
+     * nada no log. Usado nos caminhos em lote, em que uma linha de log por item, com nome, e-mail e telefone,
+     * expõe dados pessoais e limita a vazão.
+     *
+     * @throws UserDataCreateException se algum dos dados estiver vazio.
+     */
+    public static UserData newUserQuietly(final String name, final String email, final String uf, final String phoneNumber) {
+        var userUf = uf != null ? uf.toUpperCase() : UNDEFINED_UF;
+        return validate(new UserData(name, email, userUf, phoneNumber), false);
+    }
 
-    private static UserData validate(final UserData userData) {
-        validateNonEmptyString(userData.getName(), USERNAME_REQUIRED_MESSAGE);
-        validateNonEmptyString(userData.getEmail(), EMAIL_REQUIRED_MESSAGE);
-        validateNonEmptyString(userData.getUf(), FEDERATIVE_UNIT_MISSING_MESSAGE);
-        validateNonEmptyString(userData.getPhoneNumber(), PHONE_NUMBER_REQUIRED_MESSAGE);
-        log.info("UserData created: {} at: {}", userData, Instant.now().toString());
+
+    private static UserData validate(final UserData userData, final boolean logging) {
+        validateNonEmptyString(userData.getName(), USERNAME_REQUIRED_MESSAGE, logging);
+        validateNonEmptyString(userData.getEmail(), EMAIL_REQUIRED_MESSAGE, logging);
+        validateNonEmptyString(userData.getUf(), FEDERATIVE_UNIT_MISSING_MESSAGE, logging);
+        validateNonEmptyString(userData.getPhoneNumber(), PHONE_NUMBER_REQUIRED_MESSAGE, logging);
+        if (logging) {
+            log.info("UserData created: {} at: {}", userData, Instant.now().toString());
+        }
         return userData;
     }
 
-    private static void validateNonEmptyString(String param, String errorMessage) {
+    private static void validateNonEmptyString(String param, String errorMessage, boolean logging) {
         if (param == null || param.isBlank()) {
-            log.error(errorMessage);
+            if (logging) {
+                log.error(errorMessage);
+            }
             throw new UserDataCreateException(errorMessage);
         }
     }
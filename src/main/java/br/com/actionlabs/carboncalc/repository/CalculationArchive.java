@@ -0,0 +1,570 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Repository;
+import sun.misc.Unsafe;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo em disco dos cálculos antigos, removidos da coleção {@code carbonEmissionStats}.
+ *
+ * <p>O arquivo é um diretório ({@code carbon-calc.archive.directory}) de segmentos imutáveis, gravados uma única
+ * vez e nunca alterados. Cada segmento tem dois arquivos:</p>
+ *
+ * <ul>
+ *   <li>{@code segment-NNNNNNNN.ndjson.gz}: os cálculos em NDJSON, um documento do MongoDB por linha, em ordem
+ *   crescente de ID. As linhas são agrupadas em blocos de {@code carbon-calc.archive.block-records} cálculos, e
+ *   cada bloco é um membro gzip independente: o arquivo inteiro continua legível com {@code zcat}, e um bloco pode
+ *   ser descomprimido sozinho a partir da sua posição;</li>
+ *   <li>{@code segment-NNNNNNNN.idx}: o índice esparso, com o primeiro ID, a posição e o tamanho de cada bloco, e
+ *   um filtro de Bloom com os IDs do segmento.</li>
+ * </ul>
+ *
+ * <p>Os índices são mapeados em memória ({@link FileChannel#map}) na abertura. Buscar um ID em um segmento é
+ * consultar o filtro de Bloom e, se o ID puder estar no segmento, fazer uma busca binária pelo bloco no índice,
+ * tudo lendo o mapeamento, sem chamadas de sistema. Apenas o bloco encontrado é lido do arquivo de dados e
+ * descomprimido. O filtro evita a leitura de blocos dos segmentos que não contêm o ID, com cerca de 0,05% de
+ * falsos positivos, ao custo de 2 bytes por cálculo no índice.</p>
+ *
+ * <p>O diretório só é criado na gravação do primeiro segmento; enquanto o arquivamento não é usado, nada é criado
+ * em disco. Ao fechar o arquivo, os índices são desmapeados imediatamente, e não apenas quando o coletor de lixo
+ * liberar os mapeamentos; as buscas e o fechamento são serializados por um {@link ReentrantReadWriteLock}, de
+ * forma que nenhuma busca leia um índice já desmapeado.</p>
+ *
+ * <p>Um segmento só passa a existir quando o seu índice é renomeado para o nome final, depois de o arquivo de
+ * dados estar gravado em disco. Arquivos temporários e arquivos de dados sem índice, deixados por uma gravação
+ * interrompida, são removidos na abertura.</p>
+ *
+ * @author diegosneves
+ */
+@Repository
+@Slf4j
+public class CalculationArchive implements Closeable {
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String DATA_SUFFIX = ".ndjson.gz";
+    static final String INDEX_SUFFIX = ".idx";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String ID = "_id";
+    private static final String CLASS = "_class";
+    private static final JsonWriterSettings JSON_SETTINGS = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED).build();
+
+    private static final int MAGIC = 0x43434131;
+    private static final int HEADER_SIZE = 24;
+    private static final int ENTRY_SIZE = 20;
+    private static final int BLOOM_BITS_PER_RECORD = 16;
+    private static final int BLOOM_HASHES = 11;
+
+    private final MongoConverter mongoConverter;
+    private final Path directory;
+    private final int blockRecords;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CalculationArchive(final MongoConverter mongoConverter,
+                              @Value("${carbon-calc.archive.directory:data/archive}") final Path directory,
+                              @Value("${carbon-calc.archive.block-records:64}") final int blockRecords) {
+        this.mongoConverter = mongoConverter;
+        this.directory = directory;
+        this.blockRecords = blockRecords;
+    }
+
+    /**
+     * Abre os segmentos existentes no diretório do arquivo. Um diretório inexistente é um arquivo vazio.
+     */
+    @PostConstruct
+    public void open() {
+        if (!Files.isDirectory(this.directory)) {
+            log.info("Calculation archive at {} does not exist yet", this.directory);
+            return;
+        }
+        try {
+            final var indexes = new ArrayList<Path>();
+            try (var files = Files.list(this.directory)) {
+                files.forEach(file -> {
+                    final var name = file.getFileName().toString();
+                    if (name.endsWith(TEMPORARY_SUFFIX)) {
+                        deleteQuietly(file);
+                    } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(INDEX_SUFFIX)) {
+                        indexes.add(file);
+                    } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(DATA_SUFFIX)
+                            && !Files.exists(this.directory.resolve(name.replace(DATA_SUFFIX, INDEX_SUFFIX)))) {
+                        deleteQuietly(file);
+                    }
+                });
+            }
+            indexes.sort(null);
+            for (var index : indexes) {
+                final var name = index.getFileName().toString();
+                this.segments.add(Segment.open(sequenceOf(name), index, this.directory.resolve(name.replace(INDEX_SUFFIX, DATA_SUFFIX))));
+            }
+            log.info("Calculation archive at {}: {} segments, {} calculations", this.directory, this.segments.size(), this.size());
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to open the calculation archive at " + this.directory, exception);
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        this.lock.writeLock().lock();
+        try {
+            this.segments.forEach(Segment::close);
+            this.segments.clear();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca um cálculo arquivado.
+     *
+     * <p>Os segmentos são consultados do mais novo para o mais antigo, de forma que, se um cálculo tiver sido
+     * arquivado mais de uma vez, vale a cópia mais recente.</p>
+     *
+     * @param id o ID do cálculo.
+     * @return o cálculo completo, como estava no MongoDB ao ser arquivado, ou vazio se ele não estiver no arquivo.
+     */
+    public Optional<CarbonEmissionStats> findById(final String id) {
+        if (id == null || this.segments.isEmpty()) {
+            return Optional.empty();
+        }
+        final var key = id.getBytes(StandardCharsets.UTF_8);
+        final var hash = hash(key);
+        String linePrefix = null;
+        String line = null;
+        this.lock.readLock().lock();
+        try {
+            for (int i = this.segments.size() - 1; i >= 0 && line == null; i--) {
+                final var segment = this.segments.get(i);
+                if (!segment.mightContain(hash)) {
+                    continue;
+                }
+                if (linePrefix == null) {
+                    linePrefix = linePrefix(id);
+                }
+                line = segment.find(key, linePrefix);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        return line == null ? Optional.empty() : Optional.of(this.mongoConverter.read(CarbonEmissionStats.class, Document.parse(line)));
+    }
+
+    /**
+     * Inicia a gravação de um novo segmento, criando o diretório do arquivo se necessário. O segmento só fica
+     * visível para {@link #findById(String)} após {@link SegmentWriter#commit()}.
+     *
+     * @return o gravador do segmento, que deve ser confirmado ou descartado com {@link SegmentWriter#close()}.
+     */
+    public SegmentWriter newSegment() {
+        final var sequence = this.segments.isEmpty() ? 1 : this.segments.get(this.segments.size() - 1).sequence + 1;
+        try {
+            Files.createDirectories(this.directory);
+            return new SegmentWriter(sequence);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Failed to create archive segment " + sequence, exception);
+        }
+    }
+
+    public int segmentCount() {
+        return this.segments.size();
+    }
+
+    /**
+     * @return a quantidade de cálculos nos segmentos, contando mais de uma vez os arquivados mais de uma vez.
+     */
+    public long size() {
+        return this.segments.stream().mapToLong(segment -> segment.records).sum();
+    }
+
+    private String toLine(final CarbonEmissionStats emissionStats) {
+        final var converted = new Document();
+        this.mongoConverter.write(emissionStats, converted);
+        final var document = new Document(ID, emissionStats.getId());
+        converted.forEach((field, value) -> {
+            if (!ID.equals(field) && !CLASS.equals(field)) {
+                document.put(field, value);
+            }
+        });
+        return document.toJson(JSON_SETTINGS);
+    }
+
+    /**
+     * O início da linha de um cálculo no NDJSON, até o fim do ID. Como as linhas são gravadas com o {@code _id}
+     * primeiro, a linha de um ID é encontrada no bloco sem interpretar o JSON das demais.
+     */
+    private static String linePrefix(final String id) {
+        final var json = new Document(ID, id).toJson(JSON_SETTINGS);
+        return json.substring(0, json.length() - 1);
+    }
+
+    private static int sequenceOf(final String fileName) {
+        return Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.indexOf('.')));
+    }
+
+    private static String fileName(final int sequence, final String suffix) {
+        return SEGMENT_PREFIX + "%08d".formatted(sequence) + suffix;
+    }
+
+    private static void deleteQuietly(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            log.warn("Failed to delete {}", file, exception);
+        }
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a seguido da finalização do MurmurHash3) de um ID, usado no filtro de Bloom.
+     */
+    static long hash(final byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (var value : key) {
+            hash = (hash ^ (value & 0xff)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Um segmento aberto: o índice mapeado em memória e o canal do arquivo de dados, lido por posição.
+     */
+    static final class Segment {
+
+        private final int sequence;
+        private final MappedByteBuffer index;
+        private final FileChannel data;
+        private final int blockCount;
+        private final long records;
+        private final int bloomWords;
+        private final int bloomHashes;
+        private final int entriesStart;
+        private final int keysStart;
+
+        private Segment(final int sequence, final MappedByteBuffer index, final FileChannel data) {
+            this.sequence = sequence;
+            this.index = index;
+            this.data = data;
+            if (index.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Invalid archive index for segment " + sequence);
+            }
+            this.blockCount = index.getInt(4);
+            this.records = index.getLong(8);
+            this.bloomWords = index.getInt(16);
+            this.bloomHashes = index.getInt(20);
+            this.entriesStart = HEADER_SIZE + this.bloomWords * Long.BYTES;
+            this.keysStart = this.entriesStart + this.blockCount * ENTRY_SIZE;
+        }
+
+        static Segment open(final int sequence, final Path indexFile, final Path dataFile) throws IOException {
+            try (var indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                final var index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+                return new Segment(sequence, index, FileChannel.open(dataFile, StandardOpenOption.READ));
+            }
+        }
+
+        /**
+         * Busca a linha de um ID cujo hash passou por {@link #mightContain(long)}.
+         *
+         * @return a linha NDJSON do ID, ou {@code null} se o ID não estiver no segmento.
+         */
+        String find(final byte[] key, final String linePrefix) {
+            final var block = this.blockFor(key);
+            if (block < 0) {
+                return null;
+            }
+            final var entry = this.entriesStart + block * ENTRY_SIZE;
+            try {
+                return scan(this.readBlock(this.index.getLong(entry), this.index.getInt(entry + 8)), linePrefix);
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Failed to read archive segment " + this.sequence, exception);
+            }
+        }
+
+        boolean mightContain(final long hash) {
+            final long bits = (long) this.bloomWords * Long.SIZE;
+            final var first = (int) hash;
+            final var second = (int) (hash >>> 32);
+            for (int i = 0; i < this.bloomHashes; i++) {
+                final var bit = Integer.toUnsignedLong(first + i * second) % bits;
+                if ((this.index.getLong(HEADER_SIZE + (int) (bit >>> 6) * Long.BYTES) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Busca binária pelo último bloco cujo primeiro ID é menor ou igual ao ID procurado.
+         */
+        private int blockFor(final byte[] key) {
+            int low = 0;
+            int high = this.blockCount - 1;
+            int found = -1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                if (this.compareFirstKey(middle, key) <= 0) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found;
+        }
+
+        private int compareFirstKey(final int block, final byte[] key) {
+            final var entry = this.entriesStart + block * ENTRY_SIZE;
+            final var keyStart = this.keysStart + this.index.getInt(entry + 12);
+            final var keyLength = this.index.getInt(entry + 16);
+            final var length = Math.min(keyLength, key.length);
+            for (int i = 0; i < length; i++) {
+                final var difference = (this.index.get(keyStart + i) & 0xff) - (key[i] & 0xff);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return keyLength - key.length;
+        }
+
+        private byte[] readBlock(final long offset, final int length) throws IOException {
+            final var buffer = ByteBuffer.allocate(length);
+            while (buffer.hasRemaining()) {
+                if (this.data.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of archive segment " + this.sequence);
+                }
+            }
+            return buffer.array();
+        }
+
+        private static String scan(final byte[] block, final String linePrefix) throws IOException {
+            try (var reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(block)),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith(linePrefix) && line.length() > linePrefix.length()) {
+                        final var next = line.charAt(linePrefix.length());
+                        if (next == ',' || next == '}') {
+                            return line;
+                        }
+                    }
+                }
+                return null;
+            }
+        }
+
+        void close() {
+            try {
+                this.data.close();
+            } catch (IOException exception) {
+                log.warn("Failed to close archive segment {}", this.sequence, exception);
+            }
+            unmap(this.index);
+        }
+
+        /**
+         * Libera o mapeamento do índice sem esperar pelo coletor de lixo. O índice não pode ser lido depois disso.
+         */
+        private static void unmap(final MappedByteBuffer buffer) {
+            try {
+                final var field = Unsafe.class.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                ((Unsafe) field.get(null)).invokeCleaner(buffer);
+            } catch (ReflectiveOperationException | RuntimeException exception) {
+                log.warn("Failed to unmap archive index, it is released by the garbage collector", exception);
+            }
+        }
+
+    }
+
+    /**
+     * Gravação de um segmento. Os cálculos devem ser adicionados em ordem crescente de ID.
+     */
+    public final class SegmentWriter implements Closeable {
+
+        private final int sequence;
+        private final Path dataFile;
+        private final Path temporaryDataFile;
+        private final OutputStream output;
+        private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream keys = new ByteArrayOutputStream();
+        private final List<long[]> entries = new ArrayList<>();
+        private long[] hashes = new long[1024];
+        private byte[] lastKey;
+        private long offset;
+        private int blockSize;
+        private long records;
+        private boolean finished;
+
+        private SegmentWriter(final int sequence) throws IOException {
+            this.sequence = sequence;
+            this.dataFile = directory.resolve(fileName(sequence, DATA_SUFFIX));
+            this.temporaryDataFile = directory.resolve(fileName(sequence, DATA_SUFFIX + TEMPORARY_SUFFIX));
+            this.output = new BufferedOutputStream(Files.newOutputStream(this.temporaryDataFile));
+        }
+
+        /**
+         * Adiciona um cálculo ao segmento.
+         *
+         * @param emissionStats o cálculo completo.
+         * @throws IllegalArgumentException se o ID não for maior que o do cálculo adicionado anteriormente.
+         */
+        public void append(final CarbonEmissionStats emissionStats) {
+            final var key = emissionStats.getId().getBytes(StandardCharsets.UTF_8);
+            if (this.lastKey != null && Arrays.compareUnsigned(this.lastKey, key) >= 0) {
+                throw new IllegalArgumentException("Archive segment ids must be strictly increasing: " + emissionStats.getId());
+            }
+            try {
+                if (this.blockSize == 0) {
+                    this.entries.add(new long[]{this.offset, 0, this.keys.size(), key.length});
+                    this.keys.write(key);
+                }
+                this.blockBuffer.write(toLine(emissionStats).getBytes(StandardCharsets.UTF_8));
+                this.blockBuffer.write('\n');
+                if (this.records == this.hashes.length) {
+                    this.hashes = Arrays.copyOf(this.hashes, this.hashes.length * 2);
+                }
+                this.hashes[(int) this.records++] = hash(key);
+                this.lastKey = key;
+                if (++this.blockSize == blockRecords) {
+                    this.flushBlock();
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Failed to write archive segment " + this.sequence, exception);
+            }
+        }
+
+        public long records() {
+            return this.records;
+        }
+
+        private void flushBlock() throws IOException {
+            final var compressed = new ByteArrayOutputStream(this.blockBuffer.size() / 4 + 64);
+            try (var gzip = new GZIPOutputStream(compressed)) {
+                this.blockBuffer.writeTo(gzip);
+            }
+            compressed.writeTo(this.output);
+            this.entries.get(this.entries.size() - 1)[1] = compressed.size();
+            this.offset += compressed.size();
+            this.blockBuffer.reset();
+            this.blockSize = 0;
+        }
+
+        /**
+         * Grava o segmento em disco e o torna visível nas buscas.
+         *
+         * @return a quantidade de cálculos do segmento.
+         */
+        public long commit() {
+            try {
+                if (this.blockSize > 0) {
+                    this.flushBlock();
+                }
+                this.output.close();
+                this.finished = true;
+                if (this.records == 0) {
+                    Files.deleteIfExists(this.temporaryDataFile);
+                    return 0;
+                }
+                force(this.temporaryDataFile);
+                Files.move(this.temporaryDataFile, this.dataFile, StandardCopyOption.ATOMIC_MOVE);
+                final var indexFile = directory.resolve(fileName(this.sequence, INDEX_SUFFIX));
+                final var temporaryIndexFile = directory.resolve(fileName(this.sequence, INDEX_SUFFIX + TEMPORARY_SUFFIX));
+                Files.write(temporaryIndexFile, this.index());
+                force(temporaryIndexFile);
+                Files.move(temporaryIndexFile, indexFile, StandardCopyOption.ATOMIC_MOVE);
+                segments.add(Segment.open(this.sequence, indexFile, this.dataFile));
+                log.info("Archived {} calculations to segment {}", this.records, this.sequence);
+                return this.records;
+            } catch (IOException exception) {
+                throw new UncheckedIOException("Failed to commit archive segment " + this.sequence, exception);
+            }
+        }
+
+        private byte[] index() {
+            final var bloomWords = (int) Math.max(1, (this.records * BLOOM_BITS_PER_RECORD + Long.SIZE - 1) / Long.SIZE);
+            final var bloom = new long[bloomWords];
+            final long bits = (long) bloomWords * Long.SIZE;
+            for (int record = 0; record < this.records; record++) {
+                final var first = (int) this.hashes[record];
+                final var second = (int) (this.hashes[record] >>> 32);
+                for (int i = 0; i < BLOOM_HASHES; i++) {
+                    final var bit = Integer.toUnsignedLong(first + i * second) % bits;
+                    bloom[(int) (bit >>> 6)] |= 1L << bit;
+                }
+            }
+            final var buffer = ByteBuffer.allocate(HEADER_SIZE + bloomWords * Long.BYTES + this.entries.size() * ENTRY_SIZE + this.keys.size());
+            buffer.putInt(MAGIC).putInt(this.entries.size()).putLong(this.records).putInt(bloomWords).putInt(BLOOM_HASHES);
+            for (var word : bloom) {
+                buffer.putLong(word);
+            }
+            for (var entry : this.entries) {
+                buffer.putLong(entry[0]).putInt((int) entry[1]).putInt((int) entry[2]).putInt((int) entry[3]);
+            }
+            buffer.put(this.keys.toByteArray());
+            return buffer.array();
+        }
+
+        private static void force(final Path file) throws IOException {
+            try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+
+        /**
+         * Descarta o segmento, se ele não tiver sido confirmado.
+         */
+        @Override
+        public void close() {
+            if (this.finished) {
+                return;
+            }
+            this.finished = true;
+            try {
+                this.output.close();
+            } catch (IOException exception) {
+                log.warn("Failed to close archive segment {}", this.sequence, exception);
+            }
+            deleteQuietly(this.temporaryDataFile);
+        }
+
+    }
+
+}
@@ -2,9 +2,21 @@ package br.com.actionlabs.carboncalc.repository;
 
 import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface CarbonEmissionStatsRepository extends MongoRepository<CarbonEmissionStats, String> {
+public interface CarbonEmissionStatsRepository extends MongoRepository<CarbonEmissionStats, String>, CarbonEmissionStatsRepositoryCustom {
+
+    /**
+     * Lê apenas o resultado armazenado e a UF de um cálculo, sem trazer os demais dados do usuário nem as entradas.
+     *
+     * @param id o ID do cálculo.
+     * @return o cálculo contendo somente {@code id}, {@code result} e a UF, ou vazio se o cálculo não existir.
+     */
+    @Query(value = "{ '_id' : ?0 }", fields = "{ 'result' : 1, 'userData.uf' : 1 }")
+    Optional<CarbonEmissionStats> findResultById(String id);
 
 }
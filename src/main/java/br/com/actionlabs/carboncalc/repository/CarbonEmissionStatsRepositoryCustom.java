@@ -0,0 +1,202 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.UfEmissionStats;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface CarbonEmissionStatsRepositoryCustom {
+
+    /**
+     * Atualiza as informações de consumo de um cálculo com uma única operação atômica no servidor.
+     *
+     * <p>Os campos são alterados com {@code $set} e a revisão do cálculo é incrementada com {@code $inc}, sem
+     * reescrever o restante do documento. A lista de transporte só é alterada quando informada. A mesma operação
+     * registra {@code updatedAt} e remove {@code expiresAt}, o que exclui o cálculo da expiração por TTL.</p>
+     *
+     * @param id                 o ID do cálculo.
+     * @param energyConsumption  o consumo mensal de energia.
+     * @param transportationList a lista de transportes, ou {@code null} para manter a lista armazenada.
+     * @param solidWaste         a produção mensal de resíduos sólidos.
+     * @param recyclePercentage  o percentual de resíduos reciclados.
+     * @return o cálculo após a atualização, contendo apenas a UF, as informações de consumo, a revisão e o resultado
+     * ainda não recalculado, ou vazio se nenhum cálculo com o ID informado existir.
+     */
+    Optional<CarbonEmissionStats> updateInfo(String id, Integer energyConsumption, List<Transportation> transportationList,
+                                             Integer solidWaste, Double recyclePercentage);
+
+    /**
+     * Substitui o resultado armazenado de um cálculo, desde que o cálculo ainda esteja na revisão informada e com o
+     * resultado anterior informado.
+     *
+     * <p>A revisão evita que um resultado calculado a partir de entradas antigas sobrescreva o resultado de uma
+     * atualização concorrente. O resultado anterior torna a gravação uma troca atômica: quando ela acontece, o
+     * valor substituído é exatamente {@code previousResult}, o que permite ajustar os agregados incrementais pela
+     * diferença entre os dois resultados sem contá-la duas vezes.</p>
+     *
+     * @param id             o ID do cálculo.
+     * @param revision       a revisão das entradas usadas no cálculo do resultado ({@code null} para cálculos que
+     *                       nunca foram atualizados após esta coluna existir).
+     * @param previousResult o resultado lido junto com a revisão, ou {@code null} se o cálculo não tinha resultado.
+     * @param result         o novo resultado.
+     * @return a quantidade de documentos atualizados.
+     */
+    long updateResult(String id, Long revision, CarbonEmissionResult previousResult, CarbonEmissionResult result);
+
+    /**
+     * Insere os cálculos com uma única operação em lote não ordenada.
+     *
+     * <p>Como o lote não é ordenado, a falha de um documento (por exemplo, um ID duplicado) não interrompe a
+     * inserção dos demais.</p>
+     *
+     * @param stats os cálculos a inserir.
+     * @return as mensagens de erro dos documentos que não foram inseridos, indexadas pela posição do documento em
+     * {@code stats}. Vazio quando todos foram inseridos.
+     */
+    Map<Integer, String> insertUnordered(List<CarbonEmissionStats> stats);
+
+    /**
+     * Atualiza as informações de consumo de vários cálculos com uma única operação em lote não ordenada.
+     *
+     * <p>Cada cálculo recebe um {@code $set} das informações, o incremento da revisão e a remoção do resultado
+     * armazenado, que passa a ser recalculado a partir das novas informações. A lista de transporte só é
+     * alterada quando informada.</p>
+     *
+     * @param updates os cálculos com o ID e as novas informações de consumo. Cada ID deve aparecer uma única vez.
+     * @return a quantidade de cálculos encontrados.
+     */
+    long updateInfoUnordered(List<CarbonEmissionStats> updates);
+
+    /**
+     * Lê a UF, as informações de consumo, a revisão e o resultado de vários cálculos com uma única consulta.
+     *
+     * @param ids os IDs dos cálculos.
+     * @return os cálculos encontrados, sem ordem definida.
+     */
+    List<CarbonEmissionStats> findInfoByIds(Collection<String> ids);
+
+    /**
+     * Grava o resultado de vários cálculos com uma única operação em lote não ordenada. Assim como em
+     * {@link CarbonEmissionStatsRepository#updateResult}, cada resultado só é gravado se o cálculo ainda estiver
+     * na revisão informada.
+     *
+     * @param stats os cálculos com o ID, a revisão usada no cálculo e o novo resultado.
+     * @return a quantidade de resultados gravados.
+     */
+    long updateResultsUnordered(List<CarbonEmissionStats> stats);
+
+    /**
+     * Calcula no servidor, com uma agregação filtrada pelo índice de {@code userData.uf}, a quantidade de
+     * cálculos com resultado da UF, a média, o mínimo e o máximo do total e a média de cada categoria.
+     *
+     * <p>Só entram os cálculos com revisão, ou seja, cujas informações de consumo já foram enviadas; o resultado
+     * zerado gravado na criação de um cálculo abandonado não é contado, assim como nos percentis.</p>
+     *
+     * @param uf a UF, em caixa alta.
+     * @return as estatísticas da UF, ou vazio se ela não tiver cálculos com resultado.
+     */
+    Optional<UfEmissionStats> aggregateStatsByUf(String uf);
+
+    /**
+     * Calcula as mesmas estatísticas de {@link #aggregateStatsByUf(String)} para todas as UFs, com uma única
+     * agregação agrupada pela UF.
+     *
+     * @return as estatísticas de cada UF com cálculos, ordenadas pela UF.
+     */
+    List<UfEmissionStats> aggregateStatsPerUf();
+
+    /**
+     * Percorre com um cursor todos os cálculos com resultado, trazendo apenas a UF, a revisão e o resultado.
+     *
+     * <p>Os documentos são lidos do servidor em lotes, sem carregar a coleção inteira na memória. O
+     * {@link Stream} mantém o cursor aberto e deve ser fechado pelo chamador.</p>
+     *
+     * @return os cálculos com resultado, sem ordem definida.
+     */
+    Stream<CarbonEmissionStats> streamResults();
+
+    /**
+     * Percorre com um cursor os cálculos para exportação, em ordem crescente de ID.
+     *
+     * <p>Os dados pessoais do usuário (nome, e-mail e telefone) não são lidos; da {@link
+     * br.com.actionlabs.carboncalc.model.UserData} vem apenas a UF. A ordenação pelo {@code _id} usa o índice
+     * padrão da coleção e permite retomar a leitura a partir do último ID recebido. O {@link Stream} mantém o
+     * cursor aberto e deve ser fechado pelo chamador.</p>
+     *
+     * @param uf        a UF dos cálculos, ou {@code null} para todas as UFs.
+     * @param afterId   o ID a partir do qual a leitura continua, exclusivo, ou {@code null} para começar do início.
+     * @param batchSize a quantidade de documentos lidos do servidor por lote.
+     * @return os cálculos com ID maior que {@code afterId}, ordenados pelo ID.
+     */
+    Stream<CarbonEmissionStats> streamForExport(String uf, String afterId, int batchSize);
+
+    /**
+     * Lê, em ordem crescente de ID, os próximos cálculos de uma faixa de IDs cujo resultado armazenado foi calculado
+     * com outra versão dos fatores. Cálculos ainda sem resultado são ignorados, pois o resultado é calculado na
+     * primeira leitura.
+     *
+     * <p>Cada chamada é uma consulta independente pelo índice do {@code _id}, limitada a {@code limit} documentos,
+     * em vez de um cursor aberto durante todo o recálculo. Traz a UF, as informações de consumo, a revisão e o
+     * resultado.</p>
+     *
+     * @param lowerId       o menor ID da faixa, inclusivo, ou {@code null} para não limitar.
+     * @param afterId       o último ID já processado, exclusivo, ou {@code null} para começar em {@code lowerId}.
+     * @param upperId       o limite superior da faixa, exclusivo, ou {@code null} para não limitar.
+     * @param factorVersion a versão dos fatores em uso.
+     * @param limit         a quantidade máxima de cálculos.
+     * @return os cálculos desatualizados, ordenados pelo ID.
+     */
+    List<CarbonEmissionStats> findStaleResults(String lowerId, String afterId, String upperId, long factorVersion, int limit);
+
+    /**
+     * Lê uma página dos cálculos de um usuário, do mais recente para o mais antigo, pelo índice
+     * {@link CarbonEmissionStats#EMAIL_CREATED_AT_INDEX}.
+     *
+     * <p>A paginação é por chave: a página seguinte começa depois do último cálculo da anterior, identificado pela
+     * data de criação e pelo ID, e não pula documentos com {@code skip}. O custo de cada página é o mesmo,
+     * independente da sua posição. Cálculos gravados antes do registro da data de criação não são listados. Traz
+     * apenas o ID, a data de criação, a UF e o total do resultado.</p>
+     *
+     * @param email           o e-mail do usuário, exatamente como foi informado na criação dos cálculos.
+     * @param beforeCreatedAt a data de criação do último cálculo da página anterior, ou {@code null} para a
+     *                        primeira página.
+     * @param beforeId        o ID do último cálculo da página anterior. Ignorado na primeira página.
+     * @param limit           a quantidade máxima de cálculos.
+     * @return os cálculos, ordenados pela data de criação e pelo ID, de forma decrescente.
+     */
+    List<CarbonEmissionStats> findByEmail(String email, Instant beforeCreatedAt, String beforeId, int limit);
+
+    /**
+     * Percorre com um cursor, em ordem crescente de ID, os cálculos criados antes do instante informado e que não
+     * estão aguardando expiração, para arquivamento.
+     *
+     * <p>Os documentos são lidos completos, em lotes. Não há índice pela data de criação: a leitura segue o índice
+     * padrão do {@code _id} e filtra os documentos no servidor, em uma única passagem pela coleção. Cálculos sem
+     * data de criação ou com {@code expiresAt} não são lidos. O {@link Stream} mantém o cursor aberto e deve ser
+     * fechado pelo chamador.</p>
+     *
+     * @param createdBefore o instante limite, exclusivo.
+     * @param batchSize     a quantidade de documentos lidos do servidor por lote.
+     * @return os cálculos, ordenados pelo ID.
+     */
+    Stream<CarbonEmissionStats> streamForArchive(Instant createdBefore, int batchSize);
+
+    /**
+     * Remove, com uma única operação em lote não ordenada, cálculos já gravados no arquivo. Cada cálculo só é
+     * removido se ainda estiver na revisão arquivada, de forma que uma atualização das informações feita durante o
+     * arquivamento não seja perdida: o cálculo atualizado permanece na coleção, que tem precedência sobre o
+     * arquivo na leitura.
+     *
+     * @param archived os cálculos arquivados, com o ID e a revisão.
+     * @return a quantidade de cálculos removidos.
+     */
+    long deleteArchived(List<CarbonEmissionStats> archived);
+
+}
@@ -0,0 +1,257 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.UfEmissionStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.GroupOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+class CarbonEmissionStatsRepositoryImpl implements CarbonEmissionStatsRepositoryCustom {
+
+    static final String ID = "_id";
+    static final String UF = "userData.uf";
+    static final String EMAIL = "userData.email";
+    static final String ENERGY_CONSUMPTION = "energyConsumption";
+    static final String TRANSPORTATION_LIST = "transportationList";
+    static final String SOLID_WASTE = "solidWaste";
+    static final String RECYCLE_PERCENTAGE = "recyclePercentage";
+    static final String REVISION = "revision";
+    static final String CREATED_AT = "createdAt";
+    static final String UPDATED_AT = "updatedAt";
+    static final String EXPIRES_AT = "expiresAt";
+    static final String RESULT = "result";
+    static final String RESULT_TOTAL = "result.total";
+    static final String RESULT_FACTOR_VERSION = "result.factorVersion";
+    static final int STREAM_BATCH_SIZE = 1000;
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public Optional<CarbonEmissionStats> updateInfo(final String id, final Integer energyConsumption,
+                                                    final List<Transportation> transportationList,
+                                                    final Integer solidWaste, final Double recyclePercentage) {
+        final var updated = this.mongoOperations.findAndModify(infoQuery(id),
+                infoUpdate(energyConsumption, transportationList, solidWaste, recyclePercentage),
+                FindAndModifyOptions.options().returnNew(true),
+                CarbonEmissionStats.class);
+        return Optional.ofNullable(updated);
+    }
+
+    @Override
+    public long updateResult(final String id, final Long revision, final CarbonEmissionResult previousResult,
+                             final CarbonEmissionResult result) {
+        return this.mongoOperations.updateFirst(resultQuery(id, revision, previousResult), new Update().set(RESULT, result),
+                CarbonEmissionStats.class).getMatchedCount();
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(final List<CarbonEmissionStats> stats) {
+        if (stats.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            this.mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, CarbonEmissionStats.class)
+                    .insert(stats)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException exception) {
+            final var errors = new HashMap<Integer, String>();
+            exception.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+            return errors;
+        }
+    }
+
+    @Override
+    public long updateInfoUnordered(final List<CarbonEmissionStats> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        final var bulkOperations = this.mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, CarbonEmissionStats.class);
+        for (var stats : updates) {
+            bulkOperations.updateOne(Query.query(Criteria.where(ID).is(stats.getId())),
+                    infoUpdate(stats.getEnergyConsumption(), stats.getTransportationList(), stats.getSolidWaste(),
+                            stats.getRecyclePercentage()).unset(RESULT));
+        }
+        return bulkOperations.execute().getMatchedCount();
+    }
+
+    @Override
+    public List<CarbonEmissionStats> findInfoByIds(final Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        final var query = Query.query(Criteria.where(ID).in(ids));
+        query.fields().include(UF, ENERGY_CONSUMPTION, TRANSPORTATION_LIST, SOLID_WASTE, RECYCLE_PERCENTAGE, REVISION, CREATED_AT, RESULT);
+        return this.mongoOperations.find(query, CarbonEmissionStats.class);
+    }
+
+    @Override
+    public long updateResultsUnordered(final List<CarbonEmissionStats> stats) {
+        if (stats.isEmpty()) {
+            return 0;
+        }
+        final var bulkOperations = this.mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, CarbonEmissionStats.class);
+        for (var entry : stats) {
+            bulkOperations.updateOne(Query.query(Criteria.where(ID).is(entry.getId()).and(REVISION).is(entry.getRevision())),
+                    new Update().set(RESULT, entry.getResult()));
+        }
+        return bulkOperations.execute().getMatchedCount();
+    }
+
+    @Override
+    public Optional<UfEmissionStats> aggregateStatsByUf(final String uf) {
+        final var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(UF).is(uf).and(REVISION).exists(true).and(RESULT).exists(true)),
+                ufStatsGroup());
+        return Optional.ofNullable(this.mongoOperations.aggregate(aggregation, CarbonEmissionStats.class, UfEmissionStats.class)
+                .getUniqueMappedResult());
+    }
+
+    @Override
+    public List<UfEmissionStats> aggregateStatsPerUf() {
+        final var aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where(REVISION).exists(true).and(RESULT).exists(true)),
+                ufStatsGroup(),
+                Aggregation.sort(Sort.Direction.ASC, ID));
+        return this.mongoOperations.aggregate(aggregation, CarbonEmissionStats.class, UfEmissionStats.class)
+                .getMappedResults();
+    }
+
+    @Override
+    public Stream<CarbonEmissionStats> streamResults() {
+        final var query = Query.query(Criteria.where(RESULT).exists(true)).cursorBatchSize(STREAM_BATCH_SIZE);
+        query.fields().include(UF, REVISION, RESULT);
+        return this.mongoOperations.stream(query, CarbonEmissionStats.class);
+    }
+
+    @Override
+    public Stream<CarbonEmissionStats> streamForExport(final String uf, final String afterId, final int batchSize) {
+        final var criteria = new Criteria();
+        if (uf != null) {
+            criteria.and(UF).is(uf);
+        }
+        if (afterId != null) {
+            criteria.and(ID).gt(afterId);
+        }
+        final var query = Query.query(criteria).with(Sort.by(Sort.Direction.ASC, ID)).cursorBatchSize(batchSize);
+        query.fields().include(UF, ENERGY_CONSUMPTION, TRANSPORTATION_LIST, SOLID_WASTE, RECYCLE_PERCENTAGE, REVISION, CREATED_AT, RESULT);
+        return this.mongoOperations.stream(query, CarbonEmissionStats.class);
+    }
+
+    @Override
+    public List<CarbonEmissionStats> findStaleResults(final String lowerId, final String afterId, final String upperId,
+                                                      final long factorVersion, final int limit) {
+        final var idCriteria = Criteria.where(ID);
+        if (afterId != null) {
+            idCriteria.gt(afterId);
+        } else if (lowerId != null) {
+            idCriteria.gte(lowerId);
+        }
+        if (upperId != null) {
+            idCriteria.lt(upperId);
+        }
+        final var criteria = afterId == null && lowerId == null && upperId == null ? new Criteria() : idCriteria;
+        final var query = Query.query(criteria.and(RESULT).exists(true).and(RESULT_FACTOR_VERSION).ne(factorVersion))
+                .with(Sort.by(Sort.Direction.ASC, ID))
+                .limit(limit);
+        query.fields().include(UF, ENERGY_CONSUMPTION, TRANSPORTATION_LIST, SOLID_WASTE, RECYCLE_PERCENTAGE, REVISION, CREATED_AT, RESULT);
+        return this.mongoOperations.find(query, CarbonEmissionStats.class);
+    }
+
+    @Override
+    public List<CarbonEmissionStats> findByEmail(final String email, final Instant beforeCreatedAt, final String beforeId,
+                                                 final int limit) {
+        return this.mongoOperations.find(emailQuery(email, beforeCreatedAt, beforeId, limit), CarbonEmissionStats.class);
+    }
+
+    @Override
+    public Stream<CarbonEmissionStats> streamForArchive(final Instant createdBefore, final int batchSize) {
+        final var query = Query.query(Criteria.where(CREATED_AT).lt(createdBefore).and(EXPIRES_AT).exists(false))
+                .with(Sort.by(Sort.Direction.ASC, ID))
+                .cursorBatchSize(batchSize);
+        return this.mongoOperations.stream(query, CarbonEmissionStats.class);
+    }
+
+    @Override
+    public long deleteArchived(final List<CarbonEmissionStats> archived) {
+        if (archived.isEmpty()) {
+            return 0;
+        }
+        final var bulkOperations = this.mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, CarbonEmissionStats.class);
+        for (var stats : archived) {
+            bulkOperations.remove(Query.query(Criteria.where(ID).is(stats.getId()).and(REVISION).is(stats.getRevision())));
+        }
+        return bulkOperations.execute().getDeletedCount();
+    }
+
+    static Query emailQuery(final String email, final Instant beforeCreatedAt, final String beforeId, final int limit) {
+        final var criteria = Criteria.where(EMAIL).is(email);
+        if (beforeCreatedAt == null) {
+            criteria.and(CREATED_AT).ne(null);
+        } else {
+            criteria.orOperator(Criteria.where(CREATED_AT).lt(beforeCreatedAt),
+                    Criteria.where(CREATED_AT).is(beforeCreatedAt).and(ID).lt(beforeId));
+        }
+        final var query = Query.query(criteria)
+                .with(Sort.by(Sort.Order.desc(CREATED_AT), Sort.Order.desc(ID)))
+                .limit(limit);
+        query.fields().include(CREATED_AT, UF, RESULT_TOTAL);
+        return query;
+    }
+
+    private static GroupOperation ufStatsGroup() {
+        return Aggregation.group(UF)
+                .count().as("count")
+                .avg(RESULT_TOTAL).as("averageTotal")
+                .min(RESULT_TOTAL).as("minTotal")
+                .max(RESULT_TOTAL).as("maxTotal")
+                .avg(RESULT + ".energy").as("averageEnergy")
+                .avg(RESULT + ".transportation").as("averageTransportation")
+                .avg(RESULT + ".solidWaste").as("averageSolidWaste");
+    }
+
+    static Query infoQuery(final String id) {
+        final var query = Query.query(Criteria.where(ID).is(id));
+        query.fields().include(UF, ENERGY_CONSUMPTION, TRANSPORTATION_LIST, SOLID_WASTE, RECYCLE_PERCENTAGE, REVISION, CREATED_AT, RESULT);
+        return query;
+    }
+
+    static Query resultQuery(final String id, final Long revision, final CarbonEmissionResult previousResult) {
+        return Query.query(Criteria.where(ID).is(id).and(REVISION).is(revision).and(RESULT).is(previousResult));
+    }
+
+    static Update infoUpdate(final Integer energyConsumption, final List<Transportation> transportationList,
+                             final Integer solidWaste, final Double recyclePercentage) {
+        final var update = new Update()
+                .set(ENERGY_CONSUMPTION, energyConsumption)
+                .set(SOLID_WASTE, solidWaste)
+                .set(RECYCLE_PERCENTAGE, recyclePercentage)
+                .set(UPDATED_AT, Instant.now())
+                .unset(EXPIRES_AT)
+                .inc(REVISION, 1);
+        if (transportationList != null) {
+            update.set(TRANSPORTATION_LIST, transportationList);
+        }
+        return update;
+    }
+
+}
@@ -0,0 +1,32 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.EmissionRollup;
+
+import java.util.Collection;
+
+public interface EmissionRollupRepositoryCustom {
+
+    /**
+     * Soma as variações aos agregados com uma única operação em lote não ordenada.
+     *
+     * <p>Cada variação é aplicada com {@code $inc} na quantidade, na soma e na soma dos quadrados do documento da
+     * sua chave, criado com {@code upsert} na primeira variação. Como o incremento é atômico no servidor,
+     * variações concorrentes de vários nós nunca se sobrescrevem.</p>
+     *
+     * @param deltas as variações, uma por chave.
+     */
+    void increment(Collection<EmissionRollup> deltas);
+
+    /**
+     * Substitui todos os agregados pelos informados.
+     *
+     * <p>Os agregados são gravados em uma coleção auxiliar, que então é renomeada sobre {@code emissionRollups}
+     * com {@code renameCollection} e {@code dropTarget}. A troca é atômica no servidor: as leituras veem os
+     * agregados anteriores ou os novos, nunca a coleção vazia ou parcialmente gravada, e um {@code $inc}
+     * concorrente nunca é sobrescrito depois de aplicado aos novos agregados.</p>
+     *
+     * @param rollups os novos agregados, um por chave.
+     */
+    void replaceAll(Collection<EmissionRollup> rollups);
+
+}
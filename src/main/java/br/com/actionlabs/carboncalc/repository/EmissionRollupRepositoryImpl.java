@@ -0,0 +1,52 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.EmissionRollup;
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+class EmissionRollupRepositoryImpl implements EmissionRollupRepositoryCustom {
+
+    static final String STAGING_SUFFIX = "_rebuild";
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public void increment(final Collection<EmissionRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        final var bulkOperations = this.mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, EmissionRollup.class);
+        for (var delta : deltas) {
+            bulkOperations.upsert(Query.query(Criteria.where("_id").is(delta.getId())), new Update()
+                    .setOnInsert("dimension", delta.getDimension())
+                    .setOnInsert("key", delta.getKey())
+                    .inc("count", delta.getCount())
+                    .inc("sum", delta.getSum())
+                    .inc("sumOfSquares", delta.getSumOfSquares()));
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public void replaceAll(final Collection<EmissionRollup> rollups) {
+        final var collectionName = this.mongoOperations.getCollectionName(EmissionRollup.class);
+        final var stagingName = collectionName + STAGING_SUFFIX;
+        this.mongoOperations.dropCollection(stagingName);
+        final var staging = this.mongoOperations.createCollection(stagingName);
+        if (!rollups.isEmpty()) {
+            this.mongoOperations.insert(rollups, stagingName);
+        }
+        staging.renameCollection(new MongoNamespace(staging.getNamespace().getDatabaseName(), collectionName),
+                new RenameCollectionOptions().dropTarget(true));
+    }
+
+}
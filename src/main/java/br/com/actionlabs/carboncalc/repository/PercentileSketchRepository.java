@@ -0,0 +1,26 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.PercentileSketch;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PercentileSketchRepository extends MongoRepository<PercentileSketch, String> {
+
+    /**
+     * Lê o sketch da geração mais recente, usado para descobrir se outro nó reconstruiu os sketches.
+     *
+     * @return o sketch com a maior geração, ou vazio se nenhum sketch foi gravado.
+     */
+    Optional<PercentileSketch> findFirstByOrderByGenerationDesc();
+
+    List<PercentileSketch> findByGeneration(long generation);
+
+    List<PercentileSketch> findByNodeIdAndGeneration(String nodeId, long generation);
+
+    void deleteByGenerationLessThan(long generation);
+
+}
@@ -0,0 +1,25 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versão não bloqueante do {@link CarbonEmissionStatsRepository}, usada pelo perfil {@code reactive}.
+ */
+@Repository
+public interface ReactiveCarbonEmissionStatsRepository extends ReactiveMongoRepository<CarbonEmissionStats, String>, ReactiveCarbonEmissionStatsRepositoryCustom {
+
+    /**
+     * Lê apenas o resultado armazenado de um cálculo.
+     *
+     * @param id o ID do cálculo.
+     * @return o cálculo contendo somente {@code id}, {@code result} e a UF, ou vazio se o cálculo não existir.
+     * @see CarbonEmissionStatsRepository#findResultById(String)
+     */
+    @Query(value = "{ '_id' : ?0 }", fields = "{ 'result' : 1, 'userData.uf' : 1 }")
+    Mono<CarbonEmissionStats> findResultById(String id);
+
+}
@@ -0,0 +1,40 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface ReactiveCarbonEmissionStatsRepositoryCustom {
+
+    /**
+     * Atualiza as informações de consumo de um cálculo com uma única operação atômica no servidor.
+     *
+     * @param id                 o ID do cálculo.
+     * @param energyConsumption  o consumo mensal de energia.
+     * @param transportationList a lista de transportes, ou {@code null} para manter a lista armazenada.
+     * @param solidWaste         a produção mensal de resíduos sólidos.
+     * @param recyclePercentage  o percentual de resíduos reciclados.
+     * @return o cálculo após a atualização, contendo apenas a UF, as informações de consumo, a revisão e o resultado
+     * ainda não recalculado, ou vazio se nenhum cálculo com o ID informado existir.
+     * @see CarbonEmissionStatsRepositoryCustom#updateInfo(String, Integer, List, Integer, Double)
+     */
+    Mono<CarbonEmissionStats> updateInfo(String id, Integer energyConsumption, List<Transportation> transportationList,
+                                         Integer solidWaste, Double recyclePercentage);
+
+    /**
+     * Substitui o resultado armazenado de um cálculo, desde que o cálculo ainda esteja na revisão e com o resultado
+     * anterior informados.
+     *
+     * @param id             o ID do cálculo.
+     * @param revision       a revisão das entradas usadas no cálculo do resultado.
+     * @param previousResult o resultado lido junto com a revisão, ou {@code null} se o cálculo não tinha resultado.
+     * @param result         o novo resultado.
+     * @return a quantidade de documentos atualizados.
+     * @see CarbonEmissionStatsRepositoryCustom#updateResult(String, Long, CarbonEmissionResult, CarbonEmissionResult)
+     */
+    Mono<Long> updateResult(String id, Long revision, CarbonEmissionResult previousResult, CarbonEmissionResult result);
+
+}
@@ -0,0 +1,39 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+class ReactiveCarbonEmissionStatsRepositoryImpl implements ReactiveCarbonEmissionStatsRepositoryCustom {
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    @Override
+    public Mono<CarbonEmissionStats> updateInfo(final String id, final Integer energyConsumption,
+                                                final List<Transportation> transportationList,
+                                                final Integer solidWaste, final Double recyclePercentage) {
+        return this.mongoOperations.findAndModify(CarbonEmissionStatsRepositoryImpl.infoQuery(id),
+                CarbonEmissionStatsRepositoryImpl.infoUpdate(energyConsumption, transportationList, solidWaste, recyclePercentage),
+                FindAndModifyOptions.options().returnNew(true),
+                CarbonEmissionStats.class);
+    }
+
+    @Override
+    public Mono<Long> updateResult(final String id, final Long revision, final CarbonEmissionResult previousResult,
+                                   final CarbonEmissionResult result) {
+        return this.mongoOperations.updateFirst(CarbonEmissionStatsRepositoryImpl.resultQuery(id, revision, previousResult),
+                        new Update().set(CarbonEmissionStatsRepositoryImpl.RESULT, result),
+                        CarbonEmissionStats.class)
+                .map(UpdateResult::getMatchedCount);
+    }
+
+}
@@ -0,0 +1,14 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.model.RecalculationJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RecalculationJobRepository extends MongoRepository<RecalculationJob, String>, RecalculationJobRepositoryCustom {
+
+    Optional<RecalculationJob> findFirstByOrderByStartedAtDesc();
+
+}
@@ -0,0 +1,31 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.enums.RecalculationStatus;
+
+public interface RecalculationJobRepositoryCustom {
+
+    /**
+     * Grava o checkpoint de uma partição depois de um lote, sem reescrever o restante do job.
+     *
+     * <p>O último ID é gravado com {@code $set} e os contadores da partição e do job com {@code $inc}, de forma
+     * que as partições processadas em paralelo não sobrescrevam o progresso umas das outras.</p>
+     *
+     * @param jobId     o ID do job.
+     * @param partition o índice da partição.
+     * @param lastId    o último ID do lote.
+     * @param processed a quantidade de cálculos lidos no lote.
+     * @param updated   a quantidade de resultados gravados no lote.
+     * @param completed {@code true} se a partição terminou.
+     */
+    void checkpoint(String jobId, int partition, String lastId, long processed, long updated, boolean completed);
+
+    /**
+     * Altera a situação de um job.
+     *
+     * @param jobId  o ID do job.
+     * @param status a nova situação.
+     * @param error  a mensagem da falha, ou {@code null}.
+     */
+    void updateStatus(String jobId, RecalculationStatus status, String error);
+
+}
@@ -0,0 +1,47 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.enums.RecalculationStatus;
+import br.com.actionlabs.carboncalc.model.RecalculationJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+
+@RequiredArgsConstructor
+class RecalculationJobRepositoryImpl implements RecalculationJobRepositoryCustom {
+
+    private final MongoOperations mongoOperations;
+
+    @Override
+    public void checkpoint(final String jobId, final int partition, final String lastId, final long processed,
+                           final long updated, final boolean completed) {
+        final var prefix = "partitions." + partition + ".";
+        final var update = new Update()
+                .inc(prefix + "processed", processed)
+                .set(prefix + "completed", completed)
+                .inc("processed", processed)
+                .inc("updated", updated)
+                .inc("conflicts", processed - updated)
+                .set("updatedAt", Instant.now());
+        if (lastId != null) {
+            update.set(prefix + "lastId", lastId);
+        }
+        this.mongoOperations.updateFirst(Query.query(Criteria.where("_id").is(jobId)), update, RecalculationJob.class);
+    }
+
+    @Override
+    public void updateStatus(final String jobId, final RecalculationStatus status, final String error) {
+        final var now = Instant.now();
+        final var update = new Update().set("status", status).set("error", error).set("updatedAt", now);
+        if (status != RecalculationStatus.RUNNING) {
+            update.set("finishedAt", now);
+        } else {
+            update.unset("finishedAt");
+        }
+        this.mongoOperations.updateFirst(Query.query(Criteria.where("_id").is(jobId)), update, RecalculationJob.class);
+    }
+
+}
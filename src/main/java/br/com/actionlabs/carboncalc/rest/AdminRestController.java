@@ -0,0 +1,106 @@
+package br.com.actionlabs.carboncalc.rest;
+
+import br.com.actionlabs.carboncalc.config.VirtualThreadPinningMonitor;
+import br.com.actionlabs.carboncalc.dto.CalculationArchiveDTO;
+import br.com.actionlabs.carboncalc.dto.EmissionFactorCatalogStatsDTO;
+import br.com.actionlabs.carboncalc.dto.EmissionRollupRebuildDTO;
+import br.com.actionlabs.carboncalc.dto.PercentileRebuildDTO;
+import br.com.actionlabs.carboncalc.dto.RecalculationJobDTO;
+import br.com.actionlabs.carboncalc.dto.ResultCacheStatsDTO;
+import br.com.actionlabs.carboncalc.dto.UserCalculationPageDTO;
+import br.com.actionlabs.carboncalc.dto.VirtualThreadPinningStatsDTO;
+import br.com.actionlabs.carboncalc.services.CalculationArchiveService;
+import br.com.actionlabs.carboncalc.services.CalculationResultCache;
+import br.com.actionlabs.carboncalc.services.EmissionFactorCatalog;
+import br.com.actionlabs.carboncalc.services.EmissionRollupService;
+import br.com.actionlabs.carboncalc.services.FootprintPercentileService;
+import br.com.actionlabs.carboncalc.services.RecalculationJobService;
+import br.com.actionlabs.carboncalc.services.UserCalculationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin")
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminRestController {
+
+    private final EmissionFactorCatalog emissionFactorCatalog;
+    private final CalculationResultCache resultCache;
+    private final EmissionRollupService emissionRollupService;
+    private final FootprintPercentileService percentileService;
+    private final RecalculationJobService recalculationJobService;
+    private final CalculationArchiveService archiveService;
+    private final UserCalculationService userCalculationService;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    @PostMapping("emission-factors/refresh")
+    public ResponseEntity<EmissionFactorCatalogStatsDTO> refreshEmissionFactors() {
+        this.emissionFactorCatalog.refresh();
+        return ResponseEntity.ok(this.emissionFactorCatalog.stats());
+    }
+
+    @GetMapping("emission-factors/stats")
+    public ResponseEntity<EmissionFactorCatalogStatsDTO> emissionFactorStats() {
+        return ResponseEntity.ok(this.emissionFactorCatalog.stats());
+    }
+
+    @GetMapping("result-cache/stats")
+    public ResponseEntity<ResultCacheStatsDTO> resultCacheStats() {
+        return ResponseEntity.ok(this.resultCache.stats());
+    }
+
+    @PostMapping("rollups/rebuild")
+    public ResponseEntity<EmissionRollupRebuildDTO> rebuildRollups() {
+        return ResponseEntity.ok(this.emissionRollupService.rebuild());
+    }
+
+    @PostMapping("percentiles/rebuild")
+    public ResponseEntity<PercentileRebuildDTO> rebuildPercentiles() {
+        return ResponseEntity.ok(this.percentileService.rebuild());
+    }
+
+    @PostMapping("recalculation")
+    public ResponseEntity<RecalculationJobDTO> startRecalculation() {
+        if (this.recalculationJobService.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(this.recalculationJobService.status().orElse(null));
+        }
+        return ResponseEntity.accepted().body(this.recalculationJobService.start());
+    }
+
+    @GetMapping("recalculation")
+    public ResponseEntity<RecalculationJobDTO> recalculationStatus() {
+        return ResponseEntity.of(this.recalculationJobService.status());
+    }
+
+    @PostMapping("archive")
+    public ResponseEntity<CalculationArchiveDTO> archiveCalculations() {
+        if (this.archiveService.isRunning()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(this.archiveService.archive());
+    }
+
+    @GetMapping("calculations")
+    public ResponseEntity<UserCalculationPageDTO> calculations(@RequestParam String email,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(this.userCalculationService.calculations(email, after, limit));
+    }
+
+    @GetMapping("virtual-threads/stats")
+    public ResponseEntity<VirtualThreadPinningStatsDTO> virtualThreadStats() {
+        final var monitor = this.pinningMonitor.getIfAvailable();
+        if (monitor == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(monitor.stats());
+    }
+
+}
@@ -0,0 +1,40 @@
+package br.com.actionlabs.carboncalc.rest;
+
+import br.com.actionlabs.carboncalc.services.CalculationExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Exportação dos cálculos para análise. A resposta é gravada por um {@link StreamingResponseBody}, fora da thread
+ * da requisição, enquanto o cursor é percorrido; por isso só existe na aplicação servlet.
+ */
+@RestController
+@RequestMapping("/admin")
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ExportRestController {
+
+    private final CalculationExportService exportService;
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format,
+                                                        @RequestParam(required = false) String uf,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(required = false) Integer batchSize) {
+        final var request = this.exportService.request(format, uf, after, batchSize);
+        return ResponseEntity.ok()
+                .contentType(request.format().getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calculations." + request.format().getExtension() + "\"")
+                .body(output -> this.exportService.export(request, output));
+    }
+
+}
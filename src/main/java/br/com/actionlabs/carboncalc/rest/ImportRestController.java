@@ -0,0 +1,37 @@
+package br.com.actionlabs.carboncalc.rest;
+
+import br.com.actionlabs.carboncalc.dto.CalculationImportDTO;
+import br.com.actionlabs.carboncalc.enums.DataFileFormat;
+import br.com.actionlabs.carboncalc.services.CalculationImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Importação de cálculos a partir do corpo da requisição. O corpo é lido diretamente do {@link InputStream} da
+ * requisição, sem ser carregado em memória nem gravado em disco; por isso só existe na aplicação servlet.
+ */
+@RestController
+@RequestMapping("/admin")
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ImportRestController {
+
+    private final CalculationImportService importService;
+
+    @PostMapping(value = "import", consumes = {"application/x-ndjson", "text/csv", "application/octet-stream"})
+    public ResponseEntity<CalculationImportDTO> importCalculations(@RequestParam(defaultValue = "ndjson") String format,
+                                                                   InputStream body) throws IOException {
+        return ResponseEntity.ok(this.importService.importCalculations(DataFileFormat.from(format), body));
+    }
+
+}
@@ -1,20 +1,38 @@
 package br.com.actionlabs.carboncalc.rest;
 
 import br.com.actionlabs.carboncalc.dto.*;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
 import br.com.actionlabs.carboncalc.services.CalculationServiceContract;
+import br.com.actionlabs.carboncalc.services.EmissionRollupService;
+import br.com.actionlabs.carboncalc.services.EmissionStatsService;
+import br.com.actionlabs.carboncalc.services.FootprintPercentileService;
+import io.swagger.v3.oas.annotations.Parameter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/open")
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Slf4j
 public class OpenRestController {
 
+    static final String PERCENTILE_DESCRIPTION = "Adds the approximate percentile of the total among the "
+            + "calculations of the same UF. The distribution holds one observation per info update, not one per "
+            + "calculation, so a calculation updated several times weighs more, including its previous totals, "
+            + "until the next percentile rebuild. Other nodes are reflected after carbon-calc.percentile.sync-interval.";
+
     private final CalculationServiceContract calculationService;
+    private final EmissionStatsService emissionStatsService;
+    private final EmissionRollupService emissionRollupService;
+    private final FootprintPercentileService percentileService;
 
     @PostMapping("start-calc")
     public ResponseEntity<StartCalcResponseDTO> startCalculation(
@@ -23,6 +41,13 @@ public class OpenRestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
     }
 
+    @PostMapping("start-calc/batch")
+    public ResponseEntity<StartCalcBatchResponseDTO> startCalculationBatch(
+            @RequestBody List<StartCalcRequestDTO> requests) {
+        final var responseDTO = this.calculationService.startCalculationBatch(requests);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responseDTO);
+    }
+
     @PutMapping("info")
     public ResponseEntity<UpdateCalcInfoResponseDTO> updateInfo(
             @RequestBody UpdateCalcInfoRequestDTO request) {
@@ -30,10 +55,45 @@ public class OpenRestController {
         return ResponseEntity.ok(responseDTO);
     }
 
+    @PutMapping("info/batch")
+    public ResponseEntity<UpdateCalcInfoBatchResponseDTO> updateInfoBatch(
+            @RequestBody List<UpdateCalcInfoRequestDTO> requests) {
+        final var responseDTO = this.calculationService.updateCalculationInfoBatch(requests);
+        return ResponseEntity.ok(responseDTO);
+    }
+
     @GetMapping("result/{id}")
-    public ResponseEntity<CarbonCalculationResultDTO> getResult(@PathVariable String id) {
+    public ResponseEntity<CarbonCalculationResultDTO> getResult(@PathVariable String id,
+                                                                @Parameter(description = PERCENTILE_DESCRIPTION)
+                                                                @RequestParam(defaultValue = "false") boolean percentile) {
         final var responseDTO = this.calculationService.getResult(id);
+        return ResponseEntity.ok(percentile ? this.percentileService.withPercentile(responseDTO) : responseDTO);
+    }
+
+    @PostMapping("result/batch")
+    public ResponseEntity<Map<String, CarbonCalculationResultDTO>> getResults(@RequestBody List<String> ids) {
+        final var responseDTO = this.calculationService.getResults(ids);
         return ResponseEntity.ok(responseDTO);
     }
 
+    @GetMapping("stats/uf/{uf}")
+    public ResponseEntity<UfEmissionStatsDTO> statsByUf(@PathVariable String uf) {
+        return ResponseEntity.ok(this.emissionStatsService.statsByUf(uf));
+    }
+
+    @GetMapping("stats/uf")
+    public ResponseEntity<List<UfEmissionStatsDTO>> statsPerUf() {
+        return ResponseEntity.ok(this.emissionStatsService.statsPerUf());
+    }
+
+    @GetMapping("stats/rollup/uf/{uf}")
+    public ResponseEntity<EmissionRollupDTO> rollupByUf(@PathVariable String uf) {
+        return ResponseEntity.ok(this.emissionRollupService.rollupByUf(uf));
+    }
+
+    @GetMapping("stats/rollup/transportation/{type}")
+    public ResponseEntity<EmissionRollupDTO> rollupByTransportation(@PathVariable TransportationType type) {
+        return ResponseEntity.ok(this.emissionRollupService.rollupByTransportation(type));
+    }
+
 }
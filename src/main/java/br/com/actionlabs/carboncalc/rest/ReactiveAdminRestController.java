@@ -0,0 +1,134 @@
+package br.com.actionlabs.carboncalc.rest;
+
+import br.com.actionlabs.carboncalc.config.VirtualThreadPinningMonitor;
+import br.com.actionlabs.carboncalc.dto.CalculationArchiveDTO;
+import br.com.actionlabs.carboncalc.dto.EmissionFactorCatalogStatsDTO;
+import br.com.actionlabs.carboncalc.dto.EmissionRollupRebuildDTO;
+import br.com.actionlabs.carboncalc.dto.PercentileRebuildDTO;
+import br.com.actionlabs.carboncalc.dto.RecalculationJobDTO;
+import br.com.actionlabs.carboncalc.dto.ResultCacheStatsDTO;
+import br.com.actionlabs.carboncalc.dto.UserCalculationPageDTO;
+import br.com.actionlabs.carboncalc.dto.VirtualThreadPinningStatsDTO;
+import br.com.actionlabs.carboncalc.services.CalculationArchiveService;
+import br.com.actionlabs.carboncalc.services.CalculationResultCache;
+import br.com.actionlabs.carboncalc.services.EmissionFactorCatalog;
+import br.com.actionlabs.carboncalc.services.EmissionRollupService;
+import br.com.actionlabs.carboncalc.services.FootprintPercentileService;
+import br.com.actionlabs.carboncalc.services.RecalculationJobService;
+import br.com.actionlabs.carboncalc.services.UserCalculationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Variante WebFlux do {@link AdminRestController}, ativa com o perfil {@code reactive}. As rotas que consultam o
+ * banco de dados (atualização dos fatores, reconstrução dos agregados e dos percentis, recálculo, arquivamento e listagem
+ * dos cálculos de um usuário)
+ * rodam em {@link Schedulers#boundedElastic()}, fora das threads de I/O; as estatísticas em memória respondem
+ * diretamente.
+ */
+@RestController
+@RequestMapping("/admin")
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveAdminRestController {
+
+    private final EmissionFactorCatalog emissionFactorCatalog;
+    private final CalculationResultCache resultCache;
+    private final EmissionRollupService emissionRollupService;
+    private final FootprintPercentileService percentileService;
+    private final RecalculationJobService recalculationJobService;
+    private final CalculationArchiveService archiveService;
+    private final UserCalculationService userCalculationService;
+    private final ObjectProvider<VirtualThreadPinningMonitor> pinningMonitor;
+
+    @PostMapping("emission-factors/refresh")
+    public Mono<ResponseEntity<EmissionFactorCatalogStatsDTO>> refreshEmissionFactors() {
+        return Mono.fromCallable(() -> {
+                    this.emissionFactorCatalog.refresh();
+                    return this.emissionFactorCatalog.stats();
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("emission-factors/stats")
+    public Mono<ResponseEntity<EmissionFactorCatalogStatsDTO>> emissionFactorStats() {
+        return Mono.fromSupplier(this.emissionFactorCatalog::stats).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("result-cache/stats")
+    public Mono<ResponseEntity<ResultCacheStatsDTO>> resultCacheStats() {
+        return Mono.fromSupplier(this.resultCache::stats).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("rollups/rebuild")
+    public Mono<ResponseEntity<EmissionRollupRebuildDTO>> rebuildRollups() {
+        return Mono.fromCallable(this.emissionRollupService::rebuild)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("percentiles/rebuild")
+    public Mono<ResponseEntity<PercentileRebuildDTO>> rebuildPercentiles() {
+        return Mono.fromCallable(this.percentileService::rebuild)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("recalculation")
+    public Mono<ResponseEntity<RecalculationJobDTO>> startRecalculation() {
+        return Mono.fromCallable(() -> {
+                    if (this.recalculationJobService.isRunning()) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body(this.recalculationJobService.status().orElse(null));
+                    }
+                    return ResponseEntity.accepted().body(this.recalculationJobService.start());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("recalculation")
+    public Mono<ResponseEntity<RecalculationJobDTO>> recalculationStatus() {
+        return Mono.fromCallable(() -> ResponseEntity.of(this.recalculationJobService.status()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("archive")
+    public Mono<ResponseEntity<CalculationArchiveDTO>> archiveCalculations() {
+        return Mono.fromCallable(() -> {
+                    if (this.archiveService.isRunning()) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).<CalculationArchiveDTO>build();
+                    }
+                    return ResponseEntity.ok(this.archiveService.archive());
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("calculations")
+    public Mono<ResponseEntity<UserCalculationPageDTO>> calculations(@RequestParam String email,
+                                                                     @RequestParam(required = false) String after,
+                                                                     @RequestParam(required = false) Integer limit) {
+        return Mono.fromCallable(() -> this.userCalculationService.calculations(email, after, limit))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("virtual-threads/stats")
+    public Mono<ResponseEntity<VirtualThreadPinningStatsDTO>> virtualThreadStats() {
+        return Mono.fromSupplier(() -> {
+            final var monitor = this.pinningMonitor.getIfAvailable();
+            if (monitor == null) {
+                return ResponseEntity.notFound().<VirtualThreadPinningStatsDTO>build();
+            }
+            return ResponseEntity.ok(monitor.stats());
+        });
+    }
+
+}
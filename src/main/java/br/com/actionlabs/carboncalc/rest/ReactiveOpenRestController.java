@@ -0,0 +1,115 @@
+package br.com.actionlabs.carboncalc.rest;
+
+import br.com.actionlabs.carboncalc.dto.*;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.services.CalculationServiceContract;
+import br.com.actionlabs.carboncalc.services.EmissionRollupService;
+import br.com.actionlabs.carboncalc.services.EmissionStatsService;
+import br.com.actionlabs.carboncalc.services.FootprintPercentileService;
+import br.com.actionlabs.carboncalc.services.ReactiveCalculationServiceContract;
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Variante WebFlux do {@link OpenRestController}, ativa com o perfil {@code reactive}. As rotas de um único
+ * cálculo usam o {@link ReactiveCalculationServiceContract}; as rotas em lote delegam ao
+ * {@link CalculationServiceContract} em {@link Schedulers#boundedElastic()}, fora das threads de I/O, assim como
+ * as estatísticas do {@link EmissionStatsService} e os agregados do {@link EmissionRollupService}.
+ */
+@RestController
+@RequestMapping("/open")
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveOpenRestController {
+
+    private final ReactiveCalculationServiceContract reactiveCalculationService;
+    private final CalculationServiceContract calculationService;
+    private final EmissionStatsService emissionStatsService;
+    private final EmissionRollupService emissionRollupService;
+    private final FootprintPercentileService percentileService;
+
+    @PostMapping("start-calc")
+    public Mono<ResponseEntity<StartCalcResponseDTO>> startCalculation(
+            @RequestBody StartCalcRequestDTO request) {
+        return this.reactiveCalculationService.startCalculation(request)
+                .map(responseDTO -> ResponseEntity.status(HttpStatus.CREATED).body(responseDTO));
+    }
+
+    @PostMapping("start-calc/batch")
+    public Mono<ResponseEntity<StartCalcBatchResponseDTO>> startCalculationBatch(
+            @RequestBody List<StartCalcRequestDTO> requests) {
+        return Mono.fromCallable(() -> this.calculationService.startCalculationBatch(requests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(responseDTO -> ResponseEntity.status(HttpStatus.CREATED).body(responseDTO));
+    }
+
+    @PutMapping("info")
+    public Mono<ResponseEntity<UpdateCalcInfoResponseDTO>> updateInfo(
+            @RequestBody UpdateCalcInfoRequestDTO request) {
+        return this.reactiveCalculationService.updateCalculationInfo(request).map(ResponseEntity::ok);
+    }
+
+    @PutMapping("info/batch")
+    public Mono<ResponseEntity<UpdateCalcInfoBatchResponseDTO>> updateInfoBatch(
+            @RequestBody List<UpdateCalcInfoRequestDTO> requests) {
+        return Mono.fromCallable(() -> this.calculationService.updateCalculationInfoBatch(requests))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("result/{id}")
+    public Mono<ResponseEntity<CarbonCalculationResultDTO>> getResult(@PathVariable String id,
+                                                                      @Parameter(description = OpenRestController.PERCENTILE_DESCRIPTION)
+                                                                      @RequestParam(defaultValue = "false") boolean percentile) {
+        return this.reactiveCalculationService.getResult(id)
+                .map(responseDTO -> percentile ? this.percentileService.withPercentile(responseDTO) : responseDTO)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("result/batch")
+    public Mono<ResponseEntity<Map<String, CarbonCalculationResultDTO>>> getResults(@RequestBody List<String> ids) {
+        return Mono.fromCallable(() -> this.calculationService.getResults(ids))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("stats/uf/{uf}")
+    public Mono<ResponseEntity<UfEmissionStatsDTO>> statsByUf(@PathVariable String uf) {
+        return Mono.fromCallable(() -> this.emissionStatsService.statsByUf(uf))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("stats/uf")
+    public Mono<ResponseEntity<List<UfEmissionStatsDTO>>> statsPerUf() {
+        return Mono.fromCallable(this.emissionStatsService::statsPerUf)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("stats/rollup/uf/{uf}")
+    public Mono<ResponseEntity<EmissionRollupDTO>> rollupByUf(@PathVariable String uf) {
+        return Mono.fromCallable(() -> this.emissionRollupService.rollupByUf(uf))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("stats/rollup/transportation/{type}")
+    public Mono<ResponseEntity<EmissionRollupDTO>> rollupByTransportation(@PathVariable TransportationType type) {
+        return Mono.fromCallable(() -> this.emissionRollupService.rollupByTransportation(type))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(ResponseEntity::ok);
+    }
+
+}
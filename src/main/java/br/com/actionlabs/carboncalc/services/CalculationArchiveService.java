@@ -0,0 +1,146 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CalculationArchiveDTO;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Arquivamento dos cálculos antigos da coleção {@code carbonEmissionStats} no {@link CalculationArchive}.
+ *
+ * <p>Os cálculos criados há mais de {@code carbon-calc.archive.min-age} são lidos com um único cursor, em ordem
+ * de ID, e gravados em segmentos de até {@code carbon-calc.archive.segment-max-records} cálculos. Só depois de
+ * um segmento estar gravado em disco os seus cálculos são removidos da coleção, cada um condicionado à revisão
+ * arquivada. Uma interrupção entre a gravação e a remoção deixa o cálculo nos dois lugares, o que não muda a
+ * leitura: a coleção é consultada primeiro, e o próximo arquivamento grava o cálculo de novo em um segmento mais
+ * novo, que tem precedência no arquivo.</p>
+ *
+ * <p>Cálculos que ainda aguardam as informações de consumo ({@code expiresAt}) não são arquivados; eles expiram
+ * pelo índice TTL. Os agregados incrementais e os percentis continuam contando os cálculos arquivados, mas as
+ * consultas que percorrem a coleção (estatísticas por UF, exportação, listagem por e-mail e reconstruções dos
+ * agregados) passam a considerar apenas os cálculos que nela permanecem.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class CalculationArchiveService {
+
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final CalculationArchive archive;
+    private final Duration minAge;
+    private final int segmentMaxRecords;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CalculationArchiveService(final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                     final CalculationArchive archive,
+                                     @Value("${carbon-calc.archive.min-age:P365D}") final Duration minAge,
+                                     @Value("${carbon-calc.archive.segment-max-records:100000}") final int segmentMaxRecords,
+                                     @Value("${carbon-calc.archive.batch-size:1000}") final int batchSize) {
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.archive = archive;
+        this.minAge = minAge;
+        this.segmentMaxRecords = segmentMaxRecords;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${carbon-calc.archive.cron:-}")
+    void scheduledArchive() {
+        try {
+            if (!this.isRunning()) {
+                this.archive();
+            }
+        } catch (RuntimeException exception) {
+            log.error("Calculation archiving failed", exception);
+        }
+    }
+
+    public boolean isRunning() {
+        return this.running.get();
+    }
+
+    /**
+     * Arquiva os cálculos criados há mais de {@code carbon-calc.archive.min-age}.
+     *
+     * @return a quantidade de segmentos gravados, de cálculos arquivados e de cálculos removidos da coleção.
+     * @throws IllegalStateException se outro arquivamento estiver em andamento.
+     */
+    public CalculationArchiveDTO archive() {
+        if (!this.running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A calculation archiving is already running");
+        }
+        try {
+            final var started = System.nanoTime();
+            final var createdBefore = Instant.now().minus(this.minAge);
+            var segments = 0;
+            var archived = 0L;
+            var deleted = 0L;
+            final var pending = new ArrayList<CarbonEmissionStats>();
+            CalculationArchive.SegmentWriter writer = null;
+            try (var calculations = this.carbonEmissionRepository.streamForArchive(createdBefore, this.batchSize)) {
+                final var iterator = calculations.iterator();
+                while (iterator.hasNext()) {
+                    final var emissionStats = iterator.next();
+                    if (writer == null) {
+                        writer = this.archive.newSegment();
+                    }
+                    writer.append(emissionStats);
+                    pending.add(archivedRevision(emissionStats));
+                    if (writer.records() == this.segmentMaxRecords) {
+                        archived += writer.commit();
+                        segments++;
+                        writer = null;
+                        deleted += this.deleteArchived(pending);
+                    }
+                }
+                if (writer != null) {
+                    archived += writer.commit();
+                    segments++;
+                    writer = null;
+                    deleted += this.deleteArchived(pending);
+                }
+            } finally {
+                if (writer != null) {
+                    writer.close();
+                }
+            }
+            final var elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Archived {} calculations created before {} in {} segments ({} removed from the collection) in {} ms",
+                    archived, createdBefore, segments, deleted, elapsedMillis);
+            return new CalculationArchiveDTO(segments, archived, deleted, elapsedMillis);
+        } finally {
+            this.running.set(false);
+        }
+    }
+
+    /**
+     * Apenas o ID e a revisão do cálculo arquivado, o necessário para removê-lo, para que os cálculos de um segmento
+     * não fiquem inteiros na memória até a remoção.
+     */
+    private static CarbonEmissionStats archivedRevision(final CarbonEmissionStats emissionStats) {
+        final var revision = new CarbonEmissionStats(emissionStats.getId(), null);
+        revision.setRevision(emissionStats.getRevision());
+        return revision;
+    }
+
+    private long deleteArchived(final List<CarbonEmissionStats> pending) {
+        var deleted = 0L;
+        for (int from = 0; from < pending.size(); from += this.batchSize) {
+            deleted += this.carbonEmissionRepository.deleteArchived(pending.subList(from, Math.min(pending.size(), from + this.batchSize)));
+        }
+        pending.clear();
+        return deleted;
+    }
+
+}
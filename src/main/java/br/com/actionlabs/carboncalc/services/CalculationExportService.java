@@ -0,0 +1,281 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CalculationExportRequest;
+import br.com.actionlabs.carboncalc.dto.CalculationExportSummaryDTO;
+import br.com.actionlabs.carboncalc.enums.DataFileFormat;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Exportação dos cálculos e dos seus resultados em NDJSON ou CSV.
+ *
+ * <p>Os cálculos são lidos com um cursor do {@link CarbonEmissionStatsRepository#streamForExport(String, String, int)}
+ * e gravados um a um diretamente na saída, sem montar a lista em memória: o consumo de memória depende apenas do
+ * tamanho do lote ({@code carbon-calc.export.batch-size}), e não do tamanho da coleção. A cada lote a saída é
+ * enviada ao cliente, de forma que uma exportação interrompida termina em uma linha completa, salvo quando a
+ * própria conexão falha.</p>
+ *
+ * <p>Os cálculos saem em ordem crescente de ID e a primeira coluna de cada linha é o ID. Para retomar uma
+ * exportação, o cliente descarta uma eventual linha incompleta e repete a requisição com {@code after} igual ao
+ * último ID recebido. Nome, e-mail e telefone do usuário não são exportados.</p>
+ *
+ * <p>No CSV, as colunas das informações de consumo têm os mesmos nomes e formatos das colunas lidas pelo
+ * {@link CalculationImportService}, e as colunas do resultado têm o prefixo {@code result}, de forma que nenhum
+ * nome de coluna se repete.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class CalculationExportService {
+
+    private static final String EXPORTED_ROWS_METRIC = "carbon.calc.export.rows";
+    private static final String FORMAT_TAG = "format";
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+    private static final String CSV_HEADER = "id,uf,energyConsumption,transportation,solidWasteTotal,recyclePercentage,"
+            + "revision,resultEnergy,resultTransportation,resultSolidWaste,resultTotal,resultFactorVersion";
+    private static final int CSV_BUFFER_SIZE = 64 * 1024;
+
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final int defaultBatchSize;
+    private final int maxBatchSize;
+
+    public CalculationExportService(final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                    @Value("${carbon-calc.export.batch-size:1000}") final int defaultBatchSize,
+                                    @Value("${carbon-calc.export.max-batch-size:10000}") final int maxBatchSize) {
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.defaultBatchSize = defaultBatchSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Valida e normaliza os parâmetros de uma exportação, antes de qualquer byte da resposta ser gravado.
+     *
+     * @param format    o formato, {@code ndjson} ou {@code csv}.
+     * @param uf        a UF dos cálculos, em qualquer caixa, ou {@code null} para todas as UFs.
+     * @param after     o último ID recebido em uma exportação anterior, ou {@code null}.
+     * @param batchSize o tamanho do lote, ou {@code null} para usar {@code carbon-calc.export.batch-size}.
+     * @return os parâmetros validados.
+     * @throws IllegalArgumentException se o formato não for suportado ou o lote estiver fora de
+     *                                  {@code 1..carbon-calc.export.max-batch-size}.
+     */
+    public CalculationExportRequest request(final String format, final String uf, final String after, final Integer batchSize) {
+        final var exportFormat = DataFileFormat.from(format);
+        final var size = batchSize == null ? this.defaultBatchSize : batchSize;
+        if (size < 1 || size > this.maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must be between 1 and %d".formatted(this.maxBatchSize));
+        }
+        final var normalizedUf = uf == null || uf.isBlank() ? null : uf.trim().toUpperCase();
+        final var afterId = after == null || after.isBlank() ? null : IdentifierUtil.from(after.trim());
+        return new CalculationExportRequest(exportFormat, normalizedUf, afterId, size);
+    }
+
+    /**
+     * Grava na saída todos os cálculos que atendem aos parâmetros.
+     *
+     * @param request os parâmetros obtidos em {@link #request(String, String, String, Integer)}.
+     * @param output  a saída da resposta. Não é fechada por este método.
+     * @return a quantidade de linhas gravadas, o último ID gravado e o tempo gasto.
+     * @throws IOException se a gravação na saída falhar, por exemplo quando o cliente encerra a conexão.
+     */
+    public CalculationExportSummaryDTO export(final CalculationExportRequest request, final OutputStream output) throws IOException {
+        final var started = System.nanoTime();
+        long rows = 0;
+        String lastId = request.after();
+        try (var stream = this.carbonEmissionRepository.streamForExport(request.uf(), request.after(), request.batchSize());
+             var writer = request.format() == DataFileFormat.CSV ? new CsvRowWriter(output) : new NdjsonRowWriter(output)) {
+            final var iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                final var emissionStats = iterator.next();
+                writer.write(emissionStats);
+                lastId = emissionStats.getId();
+                if (++rows % request.batchSize() == 0) {
+                    writer.flush();
+                }
+            }
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Export interrupted after {} rows, resume with after={}", rows, lastId, exception);
+            throw exception;
+        } finally {
+            Metrics.counter(EXPORTED_ROWS_METRIC, FORMAT_TAG, request.format().getExtension()).increment(rows);
+        }
+        final var elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Exported {} calculations as {} in {} ms", rows, request.format(), elapsedMillis);
+        return new CalculationExportSummaryDTO(rows, lastId, elapsedMillis);
+    }
+
+    /**
+     * Grava uma linha por cálculo. {@link #close()} envia o que estiver no buffer, sem fechar a saída.
+     */
+    private interface RowWriter extends Closeable {
+
+        void write(CarbonEmissionStats emissionStats) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+            this.flush();
+        }
+
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private NdjsonRowWriter(final OutputStream output) throws IOException {
+            this.generator = JSON_FACTORY.createGenerator(output);
+        }
+
+        @Override
+        public void write(final CarbonEmissionStats emissionStats) throws IOException {
+            final var generator = this.generator;
+            generator.writeStartObject();
+            generator.writeStringField("id", emissionStats.getId());
+            generator.writeStringField("uf", CalculationService.ufOf(emissionStats));
+            writeNumberField("energyConsumption", emissionStats.getEnergyConsumption());
+            generator.writeArrayFieldStart("transportationList");
+            for (var transportation : transportationList(emissionStats)) {
+                generator.writeStartObject();
+                generator.writeStringField("type", transportation.getType() == null ? null : transportation.getType().name());
+                writeNumberField("monthlyDistance", transportation.getMonthlyDistance());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            writeNumberField("solidWaste", emissionStats.getSolidWaste());
+            if (emissionStats.getRecyclePercentage() == null) {
+                generator.writeNullField("recyclePercentage");
+            } else {
+                generator.writeNumberField("recyclePercentage", emissionStats.getRecyclePercentage());
+            }
+            if (emissionStats.getRevision() == null) {
+                generator.writeNullField("revision");
+            } else {
+                generator.writeNumberField("revision", emissionStats.getRevision());
+            }
+            final var result = emissionStats.getResult();
+            if (result == null) {
+                generator.writeNullField("result");
+            } else {
+                generator.writeObjectFieldStart("result");
+                generator.writeNumberField("energy", result.getEnergy());
+                generator.writeNumberField("transportation", result.getTransportation());
+                generator.writeNumberField("solidWaste", result.getSolidWaste());
+                generator.writeNumberField("total", result.getTotal());
+                generator.writeNumberField("factorVersion", result.getFactorVersion());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNumberField(final String name, final Integer value) throws IOException {
+            if (value == null) {
+                this.generator.writeNullField(name);
+            } else {
+                this.generator.writeNumberField(name, value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.generator.flush();
+        }
+
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(final OutputStream output) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), CSV_BUFFER_SIZE);
+            this.writer.write(CSV_HEADER);
+            this.writer.write('\n');
+        }
+
+        @Override
+        public void write(final CarbonEmissionStats emissionStats) throws IOException {
+            final var result = emissionStats.getResult();
+            this.field(emissionStats.getId()).separator()
+                    .field(CalculationService.ufOf(emissionStats)).separator()
+                    .field(emissionStats.getEnergyConsumption()).separator()
+                    .field(transportationColumn(transportationList(emissionStats))).separator()
+                    .field(emissionStats.getSolidWaste()).separator()
+                    .field(emissionStats.getRecyclePercentage()).separator()
+                    .field(emissionStats.getRevision()).separator()
+                    .field(result == null ? null : result.getEnergy()).separator()
+                    .field(result == null ? null : result.getTransportation()).separator()
+                    .field(result == null ? null : result.getSolidWaste()).separator()
+                    .field(result == null ? null : result.getTotal()).separator()
+                    .field(result == null ? null : result.getFactorVersion());
+            this.writer.write('\n');
+        }
+
+        private CsvRowWriter separator() throws IOException {
+            this.writer.write(',');
+            return this;
+        }
+
+        private CsvRowWriter field(final Object value) throws IOException {
+            if (value == null) {
+                return this;
+            }
+            final var text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                this.writer.write(text);
+            } else {
+                this.writer.write('"');
+                this.writer.write(text.replace("\"", "\"\""));
+                this.writer.write('"');
+            }
+            return this;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.writer.flush();
+        }
+
+    }
+
+    private static List<Transportation> transportationList(final CarbonEmissionStats emissionStats) {
+        return emissionStats.getTransportationList() == null ? List.of() : emissionStats.getTransportationList();
+    }
+
+    /**
+     * Monta a coluna de transportes do CSV no formato {@code CAR:100;MOTORCYCLE:20}.
+     */
+    private static String transportationColumn(final List<Transportation> transportationList) {
+        final var column = new StringBuilder();
+        for (var transportation : transportationList) {
+            if (!column.isEmpty()) {
+                column.append(';');
+            }
+            column.append(transportation.getType()).append(':').append(transportation.getMonthlyDistance());
+        }
+        return column.toString();
+    }
+
+}
@@ -0,0 +1,507 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CalculationImportDTO;
+import br.com.actionlabs.carboncalc.dto.CalculationImportRejectDTO;
+import br.com.actionlabs.carboncalc.dto.CalculationImportRowDTO;
+import br.com.actionlabs.carboncalc.dto.TransportationDTO;
+import br.com.actionlabs.carboncalc.enums.DataFileFormat;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.exceptions.UserDataCreateException;
+import br.com.actionlabs.carboncalc.factory.CarbonEmissionStatsFactory;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.model.EmissionRollupDelta;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Importação de cálculos a partir de arquivos NDJSON ou CSV com os dados do usuário e as informações de consumo.
+ *
+ * <p>O arquivo é lido linha a linha. Cada linha é convertida, validada com
+ * {@link UserData#newUserQuietly(String, String, String, String)}, que não registra os dados pessoais no log, e
+ * calculada com os fatores em uso na thread que lê o arquivo; os cálculos válidos são agrupados em blocos de
+ * {@code carbon-calc.import.chunk-size} e entregues a uma thread de gravação, que os insere com inserções em lote
+ * não ordenadas. As duas etapas trabalham em paralelo: a leitura do próximo bloco acontece enquanto o anterior é
+ * gravado. A fila entre elas guarda no máximo {@code carbon-calc.import.queue-capacity} blocos e bloqueia a leitura
+ * quando a gravação está atrasada, de forma que o consumo de memória não depende do tamanho do arquivo.</p>
+ *
+ * <p>Linhas inválidas e documentos que o banco recusa são rejeitados sem interromper a importação; o resultado
+ * traz a quantidade de rejeições e as primeiras delas, com o número da linha. Uma falha da gravação que não seja
+ * de um documento específico (conexão, por exemplo) interrompe a importação; as linhas já gravadas permanecem.</p>
+ *
+ * <p>Cada cálculo importado equivale a um início seguido de uma atualização das informações: é gravado com
+ * revisão {@code 1}, soma-se aos agregados do {@link EmissionRollupService} e entra na distribuição do
+ * {@link FootprintPercentileService}.</p>
+ *
+ * <p>Formato das linhas:</p>
+ * <ul>
+ *   <li><strong>NDJSON</strong>: {@code {"name":..,"email":..,"uf":..,"phoneNumber":..,"energyConsumption":10,
+ *   "transportation":[{"type":"CAR","monthlyDistance":100}],"solidWasteTotal":1000,"recyclePercentage":0.5}}</li>
+ *   <li><strong>CSV</strong>: cabeçalho com as mesmas colunas, em qualquer ordem, e a coluna {@code transportation}
+ *   no formato {@code CAR:100;MOTORCYCLE:20}. Campos com vírgula ou aspas vêm entre aspas, com as aspas
+ *   duplicadas; um campo não pode ocupar mais de uma linha.</li>
+ * </ul>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class CalculationImportService {
+
+    static final String[] CSV_COLUMNS = {"name", "email", "uf", "phoneNumber", "energyConsumption", "transportation",
+            "solidWasteTotal", "recyclePercentage"};
+
+    private static final String IMPORTED_ROWS_METRIC = "carbon.calc.import.rows";
+    private static final String REJECTED_ROWS_METRIC = "carbon.calc.import.rejected";
+    private static final String FORMAT_TAG = "format";
+    private static final String MALFORMED_ROW_MESSAGE = "Malformed row: %s";
+    private static final String MISSING_COLUMN_MESSAGE = "CSV header must contain the column %s";
+    private static final int REQUIRED_CSV_COLUMNS = 4;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final long IMPORTED_REVISION = 1L;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_LOG_INTERVAL = 1_000_000;
+    private static final ObjectReader JSON_READER = new ObjectMapper().reader();
+    private static final Chunk END = new Chunk(List.of(), new long[0]);
+
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final EmissionFactorCatalog factorCatalog;
+    private final EmissionRollupService rollupService;
+    private final FootprintPercentileService percentileService;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final int maxReportedRejects;
+
+    public CalculationImportService(final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                    final EmissionFactorCatalog factorCatalog,
+                                    final EmissionRollupService rollupService,
+                                    final FootprintPercentileService percentileService,
+                                    @Value("${carbon-calc.import.chunk-size:1000}") final int chunkSize,
+                                    @Value("${carbon-calc.import.queue-capacity:4}") final int queueCapacity,
+                                    @Value("${carbon-calc.import.max-reported-rejects:100}") final int maxReportedRejects) {
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.factorCatalog = factorCatalog;
+        this.rollupService = rollupService;
+        this.percentileService = percentileService;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    /**
+     * Importa todas as linhas do arquivo.
+     *
+     * @param format o formato do arquivo.
+     * @param input  o conteúdo do arquivo, em UTF-8. Não é fechado por este método.
+     * @return as quantidades de linhas lidas, importadas e rejeitadas, a vazão em linhas por segundo e as
+     * primeiras rejeições.
+     * @throws IOException              se a leitura do arquivo falhar.
+     * @throws IllegalArgumentException se o cabeçalho do CSV não tiver as colunas dos dados do usuário.
+     * @throws IllegalStateException    se a gravação falhar ou a importação for interrompida.
+     */
+    public CalculationImportDTO importCalculations(final DataFileFormat format, final InputStream input) throws IOException {
+        final var started = System.nanoTime();
+        final var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        final var rejects = new Rejects(this.maxReportedRejects);
+        final var writer = new ChunkWriter(new ArrayBlockingQueue<>(this.queueCapacity), rejects);
+        final var writerThread = new Thread(writer, "calculation-import-writer");
+        writerThread.start();
+        long rows = 0;
+        try {
+            final var factors = this.factorCatalog.snapshot();
+            long lineNumber = 0;
+            int[] csvColumns = null;
+            if (format == DataFileFormat.CSV) {
+                lineNumber++;
+                csvColumns = csvColumns(reader.readLine());
+            }
+            var chunk = new Chunk(new ArrayList<>(this.chunkSize), new long[this.chunkSize]);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                rows++;
+                try {
+                    final var row = format == DataFileFormat.CSV ? csvRow(line, csvColumns) : ndjsonRow(line);
+                    chunk.lines()[chunk.stats().size()] = lineNumber;
+                    chunk.stats().add(newCalculation(row, factors));
+                } catch (UserDataCreateException | IllegalArgumentException exception) {
+                    rejects.add(lineNumber, exception.getMessage());
+                }
+                if (chunk.stats().size() == this.chunkSize) {
+                    writer.submit(chunk);
+                    chunk = new Chunk(new ArrayList<>(this.chunkSize), new long[this.chunkSize]);
+                }
+                if (rows % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Import progress: {} rows read, {} rejected, {} rows/s", rows, rejects.count(), rowsPerSecond(rows, started));
+                }
+            }
+            if (!chunk.stats().isEmpty()) {
+                writer.submit(chunk);
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            writer.fail(new IllegalStateException("Import interrupted", exception));
+        } finally {
+            writer.finish(writerThread);
+            Metrics.counter(IMPORTED_ROWS_METRIC, FORMAT_TAG, format.getExtension()).increment(writer.imported());
+            Metrics.counter(REJECTED_ROWS_METRIC, FORMAT_TAG, format.getExtension()).increment(rejects.count());
+        }
+        writer.rethrowFailure();
+        final var elapsedNanos = System.nanoTime() - started;
+        final var summary = new CalculationImportDTO(rows, writer.imported(), rejects.count(), rowsPerSecond(rows, started),
+                elapsedNanos / 1_000_000, rejects.samples());
+        log.info("Imported {} of {} rows ({} rejected) in {} ms, {} rows/s", summary.imported(), rows, summary.rejected(),
+                summary.elapsedMillis(), summary.rowsPerSecond());
+        return summary;
+    }
+
+    private CarbonEmissionStats newCalculation(final CalculationImportRowDTO row, final EmissionFactorSnapshot factors) {
+        final var carbonData = CarbonEmissionStatsFactory.create(UserData.newUserQuietly(row.name(), row.email(), row.uf(), row.phoneNumber()));
+        carbonData.setEnergyConsumption(row.energyConsumption());
+        carbonData.setTransportationList(row.transportation() == null ? null : row.transportation().stream().map(Transportation::from).toList());
+        carbonData.setSolidWaste(row.solidWasteTotal());
+        carbonData.setRecyclePercentage(row.recyclePercentage());
+        carbonData.setRevision(IMPORTED_REVISION);
+        carbonData.setResult(CalculationService.calculate(carbonData, factors));
+        return carbonData;
+    }
+
+    /**
+     * Insere um bloco e aplica os cálculos inseridos aos agregados e aos percentis.
+     *
+     * @return a quantidade de documentos inseridos.
+     */
+    private int insertChunk(final Chunk chunk, final Rejects rejects) {
+        final var errors = this.carbonEmissionRepository.insertUnordered(chunk.stats());
+        errors.forEach((index, message) -> rejects.add(chunk.lines()[index], message));
+        final var delta = new EmissionRollupDelta();
+        for (int index = 0; index < chunk.stats().size(); index++) {
+            if (!errors.containsKey(index)) {
+                final var carbonData = chunk.stats().get(index);
+                delta.replace(carbonData.getUserData().getUf(), null, carbonData.getResult());
+                this.percentileService.record(carbonData.getUserData().getUf(), carbonData.getResult().getTotal());
+            }
+        }
+        this.rollupService.apply(delta);
+        return chunk.stats().size() - errors.size();
+    }
+
+    private static double rowsPerSecond(final long rows, final long started) {
+        final var elapsedNanos = Math.max(1, System.nanoTime() - started);
+        return Math.round(rows * 1_000_000_000.0 / elapsedNanos * 10.0) / 10.0;
+    }
+
+    private static CalculationImportRowDTO ndjsonRow(final String line) {
+        final JsonNode node;
+        try {
+            node = JSON_READER.readTree(line);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted(exception.getOriginalMessage()));
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted("expected a JSON object"));
+        }
+        List<TransportationDTO> transportation = null;
+        final var transportationNode = node.get("transportation");
+        if (transportationNode != null && transportationNode.isArray()) {
+            transportation = new ArrayList<>(transportationNode.size());
+            for (var item : transportationNode) {
+                transportation.add(TransportationDTO.builder()
+                        .type(TransportationType.valueOf(item.path("type").asText()))
+                        .monthlyDistance(integer(item, "monthlyDistance", true))
+                        .build());
+            }
+        }
+        return new CalculationImportRowDTO(text(node, "name"), text(node, "email"), text(node, "uf"), text(node, "phoneNumber"),
+                integer(node, "energyConsumption", false),
+                transportation,
+                integer(node, "solidWasteTotal", false),
+                decimal(node, "recyclePercentage"));
+    }
+
+    /**
+     * Lê um campo inteiro de uma linha NDJSON, rejeitando o que não for um número inteiro, em vez de convertê-lo
+     * para {@code 0}, como faz a conversão do CSV.
+     */
+    private static Integer integer(final JsonNode node, final String field, final boolean required) {
+        final var value = node.get(field);
+        if (value == null || value.isNull()) {
+            if (required) {
+                throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted(field + " is required"));
+            }
+            return null;
+        }
+        if (!value.isIntegralNumber() || !value.canConvertToInt()) {
+            throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted(field + " must be an integer"));
+        }
+        return value.intValue();
+    }
+
+    private static Double decimal(final JsonNode node, final String field) {
+        final var value = node.get(field);
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        if (!value.isNumber()) {
+            throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted(field + " must be a number"));
+        }
+        return value.doubleValue();
+    }
+
+    private static String text(final JsonNode node, final String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    /**
+     * Mapeia as colunas conhecidas para a sua posição no cabeçalho do CSV.
+     *
+     * @return a posição de cada coluna de {@link #CSV_COLUMNS}, ou {@code -1} se a coluna não existir.
+     */
+    private static int[] csvColumns(final String header) {
+        if (header == null) {
+            throw new IllegalArgumentException(MISSING_COLUMN_MESSAGE.formatted(CSV_COLUMNS[0]));
+        }
+        final var positions = new HashMap<String, Integer>();
+        final var fields = csvFields(header.indexOf(BYTE_ORDER_MARK) == 0 ? header.substring(1) : header);
+        for (int position = 0; position < fields.size(); position++) {
+            positions.putIfAbsent(fields.get(position).trim(), position);
+        }
+        final var columns = new int[CSV_COLUMNS.length];
+        for (int index = 0; index < CSV_COLUMNS.length; index++) {
+            columns[index] = positions.getOrDefault(CSV_COLUMNS[index], -1);
+            if (index < REQUIRED_CSV_COLUMNS && columns[index] < 0) {
+                throw new IllegalArgumentException(MISSING_COLUMN_MESSAGE.formatted(CSV_COLUMNS[index]));
+            }
+        }
+        return columns;
+    }
+
+    private static CalculationImportRowDTO csvRow(final String line, final int[] columns) {
+        final var fields = csvFields(line);
+        final var transportation = column(fields, columns[5]);
+        return new CalculationImportRowDTO(column(fields, columns[0]), column(fields, columns[1]), column(fields, columns[2]),
+                column(fields, columns[3]),
+                integer(column(fields, columns[4])),
+                transportation == null ? null : transportationList(transportation),
+                integer(column(fields, columns[6])),
+                column(fields, columns[7]) == null ? null : Double.valueOf(column(fields, columns[7])));
+    }
+
+    private static String column(final List<String> fields, final int position) {
+        if (position < 0 || position >= fields.size() || fields.get(position).isBlank()) {
+            return null;
+        }
+        return fields.get(position).trim();
+    }
+
+    private static Integer integer(final String value) {
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    private static List<TransportationDTO> transportationList(final String value) {
+        final var transportation = new ArrayList<TransportationDTO>();
+        for (var entry : value.split(";")) {
+            final var separator = entry.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted("transportation must be TYPE:distance"));
+            }
+            transportation.add(TransportationDTO.builder()
+                    .type(TransportationType.valueOf(entry.substring(0, separator).trim()))
+                    .monthlyDistance(Integer.parseInt(entry.substring(separator + 1).trim()))
+                    .build());
+        }
+        return transportation;
+    }
+
+    /**
+     * Separa os campos de uma linha CSV, removendo as aspas dos campos entre aspas.
+     */
+    static List<String> csvFields(final String line) {
+        final var fields = new ArrayList<String>();
+        final var field = new StringBuilder();
+        boolean quoted = false;
+        for (int index = 0; index < line.length(); index++) {
+            final var character = line.charAt(index);
+            if (quoted) {
+                if (character == '"' && index + 1 < line.length() && line.charAt(index + 1) == '"') {
+                    field.append('"');
+                    index++;
+                } else if (character == '"') {
+                    quoted = false;
+                } else {
+                    field.append(character);
+                }
+            } else if (character == '"') {
+                quoted = true;
+            } else if (character == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(character);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException(MALFORMED_ROW_MESSAGE.formatted("unterminated quoted field"));
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Linhas válidas de um bloco e o número da linha de cada uma no arquivo.
+     */
+    private record Chunk(List<CarbonEmissionStats> stats, long[] lines) {
+
+    }
+
+    /**
+     * Contagem das rejeições, guardando apenas as primeiras para o resultado.
+     */
+    private static final class Rejects {
+
+        private final int maxSamples;
+        private final AtomicLong count = new AtomicLong();
+        private final List<CalculationImportRejectDTO> samples = new ArrayList<>();
+
+        private Rejects(final int maxSamples) {
+            this.maxSamples = maxSamples;
+        }
+
+        private void add(final long line, final String error) {
+            this.count.incrementAndGet();
+            synchronized (this.samples) {
+                if (this.samples.size() < this.maxSamples) {
+                    this.samples.add(new CalculationImportRejectDTO(line, error));
+                }
+            }
+        }
+
+        private long count() {
+            return this.count.get();
+        }
+
+        private List<CalculationImportRejectDTO> samples() {
+            synchronized (this.samples) {
+                final var sorted = new ArrayList<>(this.samples);
+                sorted.sort((first, second) -> Long.compare(first.line(), second.line()));
+                return List.copyOf(sorted);
+            }
+        }
+
+    }
+
+    /**
+     * Etapa de gravação: consome os blocos da fila até receber {@link #END}. Depois de uma falha, continua
+     * consumindo a fila sem gravar, para que a leitura nunca fique bloqueada, e a leitura é interrompida no
+     * próximo bloco entregue.
+     */
+    private final class ChunkWriter implements Runnable {
+
+        private final BlockingQueue<Chunk> queue;
+        private final Rejects rejects;
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        private ChunkWriter(final BlockingQueue<Chunk> queue, final Rejects rejects) {
+            this.queue = queue;
+            this.rejects = rejects;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Chunk chunk;
+                while ((chunk = this.queue.take()) != END) {
+                    if (this.failure.get() == null) {
+                        this.write(chunk);
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                this.fail(new IllegalStateException("Import writer interrupted", exception));
+            }
+        }
+
+        private void write(final Chunk chunk) {
+            try {
+                this.imported.addAndGet(insertChunk(chunk, this.rejects));
+            } catch (RuntimeException exception) {
+                this.fail(new IllegalStateException("Import aborted after %d imported rows: %s"
+                        .formatted(this.imported.get(), exception.getMessage()), exception));
+            }
+        }
+
+        private void submit(final Chunk chunk) throws InterruptedException {
+            this.rethrowFailure();
+            this.queue.put(chunk);
+        }
+
+        /**
+         * Entrega {@link #END} e aguarda a gravação dos blocos que ainda estão na fila. Se a thread que lê o
+         * arquivo for interrompida, a importação falha, mas a espera continua até a thread de gravação terminar.
+         */
+        private void finish(final Thread writerThread) {
+            var interrupted = false;
+            var delivered = false;
+            while (!delivered || writerThread.isAlive()) {
+                try {
+                    if (!delivered) {
+                        this.queue.put(END);
+                        delivered = true;
+                    }
+                    writerThread.join();
+                } catch (InterruptedException exception) {
+                    interrupted = true;
+                    this.fail(new IllegalStateException("Import interrupted", exception));
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void fail(final RuntimeException exception) {
+            if (this.failure.compareAndSet(null, exception)) {
+                log.error(exception.getMessage(), exception);
+            }
+        }
+
+        private void rethrowFailure() {
+            final var exception = this.failure.get();
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        private long imported() {
+            return this.imported.get();
+        }
+
+    }
+
+}
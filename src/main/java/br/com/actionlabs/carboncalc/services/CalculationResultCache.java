@@ -0,0 +1,139 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.dto.ResultCacheStatsDTO;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache em memória dos resultados de {@link CalculationService#getResult(String)}, indexado pelo ID do cálculo.
+ *
+ * <p>O cache é limitado em quantidade de entradas ({@code carbon-calc.result-cache.maximum-size}) e em tempo
+ * desde a escrita ({@code carbon-calc.result-cache.expire-after-write}). Cada entrada guarda a versão dos
+ * fatores de emissão com que foi calculada; uma entrada de outra versão é descartada e recarregada.</p>
+ *
+ * <p>Cada entrada é um {@link CompletableFuture}: a primeira leitura de um ID publica a entrada ainda incompleta
+ * e executa o carregamento na própria thread, fora de qualquer trava do mapa interno, e leituras concorrentes
+ * do mesmo ID aguardam essa entrada em vez de repetir a consulta. Carregar fora das travas evita prender a
+ * thread portadora quando as requisições rodam em threads virtuais.</p>
+ *
+ * <p>{@link #invalidate(String)} remove a entrada mesmo que o carregamento ainda esteja em andamento; o valor
+ * carregado é entregue apenas às leituras que já aguardavam por ele e não permanece no cache. Assim, invalidar
+ * após gravar no banco garante que uma leitura concorrente não deixe no cache um resultado anterior à
+ * gravação.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+public class CalculationResultCache {
+
+    private final AsyncCache<String, CachedResult> cache;
+
+    public CalculationResultCache(@Value("${carbon-calc.result-cache.maximum-size:10000}") final long maximumSize,
+                                  @Value("${carbon-calc.result-cache.expire-after-write:PT10M}") final Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Retorna o resultado em cache para o cálculo ou o carrega através do {@code loader}.
+     *
+     * @param calculationId o ID do cálculo.
+     * @param factorVersion a versão dos fatores de emissão em uso.
+     * @param loader        a função que obtém o resultado quando ele não está em cache ou está desatualizado.
+     * @return o {@link CarbonCalculationResultDTO} do cálculo.
+     */
+    public CarbonCalculationResultDTO get(final String calculationId, final long factorVersion,
+                                          final Supplier<CarbonCalculationResultDTO> loader) {
+        var entry = this.getOrLoad(calculationId, factorVersion, loader);
+        var cached = join(entry);
+        if (cached.factorVersion() != factorVersion) {
+            this.cache.asMap().remove(calculationId, entry);
+            cached = join(this.getOrLoad(calculationId, factorVersion, loader));
+        }
+        return cached.result();
+    }
+
+    private CompletableFuture<CachedResult> getOrLoad(final String calculationId, final long factorVersion,
+                                                      final Supplier<CarbonCalculationResultDTO> loader) {
+        final var present = this.cache.getIfPresent(calculationId);
+        if (present != null) {
+            return present;
+        }
+        final var loading = new CompletableFuture<CachedResult>();
+        final var concurrent = this.cache.asMap().putIfAbsent(calculationId, loading);
+        if (concurrent != null) {
+            return concurrent;
+        }
+        try {
+            loading.complete(new CachedResult(loader.get(), factorVersion));
+        } catch (RuntimeException exception) {
+            this.cache.asMap().remove(calculationId, loading);
+            loading.completeExceptionally(exception);
+            throw exception;
+        }
+        return loading;
+    }
+
+    private static CachedResult join(final CompletableFuture<CachedResult> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
+    /**
+     * Retorna o resultado em cache para o cálculo, sem carregá-lo quando ausente.
+     *
+     * <p>Usado pelas leituras em lote, que carregam os resultados ausentes com uma única consulta e não os
+     * adicionam ao cache, preservando a garantia de que uma leitura concorrente a uma gravação não deixa no cache
+     * um resultado anterior a ela.</p>
+     *
+     * @param calculationId o ID do cálculo.
+     * @param factorVersion a versão dos fatores de emissão em uso.
+     * @return o {@link CarbonCalculationResultDTO} em cache, ou vazio se ele não existir, ainda estiver sendo
+     * carregado ou for de outra versão.
+     */
+    public Optional<CarbonCalculationResultDTO> getIfPresent(final String calculationId, final long factorVersion) {
+        return Optional.ofNullable(this.cache.getIfPresent(calculationId))
+                .filter(entry -> entry.isDone() && !entry.isCompletedExceptionally())
+                .map(CompletableFuture::join)
+                .filter(cached -> cached.factorVersion() == factorVersion)
+                .map(CachedResult::result);
+    }
+
+    /**
+     * Remove o resultado em cache de um cálculo. Deve ser chamado após a gravação de uma nova versão do cálculo.
+     *
+     * @param calculationId o ID do cálculo.
+     */
+    public void invalidate(final String calculationId) {
+        this.cache.synchronous().invalidate(calculationId);
+    }
+
+    public ResultCacheStatsDTO stats() {
+        final var synchronousCache = this.cache.synchronous();
+        final var stats = synchronousCache.stats();
+        return new ResultCacheStatsDTO(synchronousCache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    private record CachedResult(CarbonCalculationResultDTO result, long factorVersion) {
+    }
+
+}
@@ -1,27 +1,47 @@
 package br.com.actionlabs.carboncalc.services;
 
 import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcBatchItemDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcBatchResponseDTO;
 import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
 import br.com.actionlabs.carboncalc.dto.StartCalcResponseDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoBatchItemDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoBatchResponseDTO;
 import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
 import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoResponseDTO;
-import br.com.actionlabs.carboncalc.enums.WasteType;
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.events.GetResultEvent;
+import br.com.actionlabs.carboncalc.events.StartCalculationEvent;
+import br.com.actionlabs.carboncalc.events.UpdateCalculationInfoEvent;
+import br.com.actionlabs.carboncalc.exceptions.UserDataCreateException;
 import br.com.actionlabs.carboncalc.factory.CarbonEmissionStatsFactory;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
 import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.model.EmissionRollupDelta;
 import br.com.actionlabs.carboncalc.model.Transportation;
-import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
 import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
 import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
-import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
-import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
-import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.utils.RequestPhaseTimer;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Serviço para gerenciamento de cálculos de emissões de carbono.
@@ -30,6 +50,27 @@ import java.util.Optional;
  * de emissões de carbono. Ela faz uso de vários repositórios para armazenar e recuperar
  * informações relacionadas às emissões de carbono.</p>
  *
+ * <p>Os fatores de emissão são obtidos do {@link EmissionFactorCatalog}, que os mantém em memória. Obter um
+ * resultado consulta apenas o {@link CarbonEmissionStatsRepository}; se o cálculo não estiver na coleção, ele é
+ * buscado no {@link CalculationArchive}, para onde os cálculos antigos são movidos.</p>
+ *
+ * <p>O resultado é calculado na escrita: cada criação ou atualização grava o {@link CarbonEmissionResult} junto
+ * com a versão dos fatores usada, e a leitura do resultado busca apenas esse campo. Se a versão gravada não for
+ * a versão em uso no catálogo, o resultado é recalculado e gravado novamente na própria leitura.</p>
+ *
+ * <p>Os resultados lidos ficam no {@link CalculationResultCache}, que é invalidado a cada atualização do cálculo.</p>
+ *
+ * <p>Início, atualização e leitura de um cálculo emitem eventos do JDK Flight Recorder
+ * ({@link br.com.actionlabs.carboncalc.events.CalculationEvent}) com a UF, a quantidade de transportes e de
+ * comandos enviados ao MongoDB.</p>
+ *
+ * <p>Cálculos podem ser iniciados e atualizados em lote: os itens são gravados com operações em lote não ordenadas,
+ * em blocos de {@code carbon-calc.batch.chunk-size} itens, e cada lote aceita até
+ * {@code carbon-calc.batch.max-size} itens.</p>
+ *
+ * <p>Os cálculos iniciados pela API expiram se as informações de consumo não forem enviadas em até
+ * {@code carbon-calc.abandoned-calculations.expire-after}; veja {@link CarbonEmissionStats}.</p>
+ *
  * <h2>Dados para Cálculos</h2>
  *
  * <h3>Emissão de Energia</h3>
@@ -101,43 +142,155 @@ public class CalculationService implements CalculationServiceContract {
     private static final double ZERO_VALUE = 0.0;
     private static final String REQUIRED_UPDATE_MESSAGE = "Update Data is required";
     private static final String MESSAGE_USER_DATA_NULL = "User data cannot be null";
+    private static final String BATCH_SIZE_EXCEEDED_MESSAGE = "Batch size must be at most %d items";
+    private static final String UNSUPPORTED_UF_METRIC = "carbon.calc.unsupported.uf";
+    private static final String UF_TAG = "uf";
+    private static final String OTHER_UF_TAG_VALUE = "OTHER";
+    private static final Pattern UF_TAG_PATTERN = Pattern.compile("[A-Z]{2}");
+    private static final TransportationType[] TRANSPORTATION_TYPES = TransportationType.values();
 
     private final CarbonEmissionStatsRepository carbonEmissionRepository;
-    private final EnergyEmissionFactorRepository energyRepository;
-    private final TransportationEmissionFactorRepository transportationRepository;
-    private final SolidWasteEmissionFactorRepository wasteRepository;
+    private final EmissionFactorCatalog factorCatalog;
+    private final CalculationResultCache resultCache;
+    private final EmissionRollupService rollupService;
+    private final FootprintPercentileService percentileService;
+    private final CalculationArchive archive;
+    private final int batchChunkSize;
+    private final int batchMaxSize;
+    private final Duration expireAfter;
 
     @Autowired
     public CalculationService(final CarbonEmissionStatsRepository carbonEmissionRepository,
-                              final EnergyEmissionFactorRepository energyRepository,
-                              final TransportationEmissionFactorRepository transportationRepository,
-                              final SolidWasteEmissionFactorRepository wasteRepository) {
+                              final EmissionFactorCatalog factorCatalog,
+                              final CalculationResultCache resultCache,
+                              final EmissionRollupService rollupService,
+                              final FootprintPercentileService percentileService,
+                              final CalculationArchive archive,
+                              @Value("${carbon-calc.batch.chunk-size:500}") final int batchChunkSize,
+                              @Value("${carbon-calc.batch.max-size:10000}") final int batchMaxSize,
+                              @Value("${carbon-calc.abandoned-calculations.expire-after:P7D}") final Duration expireAfter) {
         this.carbonEmissionRepository = carbonEmissionRepository;
-        this.energyRepository = energyRepository;
-        this.transportationRepository = transportationRepository;
-        this.wasteRepository = wasteRepository;
+        this.factorCatalog = factorCatalog;
+        this.resultCache = resultCache;
+        this.rollupService = rollupService;
+        this.percentileService = percentileService;
+        this.archive = archive;
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxSize = batchMaxSize;
+        this.expireAfter = expireAfter;
     }
 
     /**
      * Adiciona as infos iniciais para o cálculo das emissões de carbono com base nos dados fornecidos na solicitação.
      * <p>
      * Este método cria uma nova instância de {@link CarbonEmissionStats} utilizando os dados do usuário
-     * extraídos do {@link StartCalcRequestDTO} fornecido. Em seguida, ele armazena a instância criada no
+     * extraídos do {@link StartCalcRequestDTO} fornecido, já com o resultado inicial do cálculo (zerado, pois as
+     * informações de consumo ainda não foram enviadas). Em seguida, ele armazena a instância criada no
      * repositório de emissões de carbono {@link CarbonEmissionStatsRepository} e retorna uma resposta
      * contendo o ID da instância armazenada.
      *
      * @param request Um {@link StartCalcRequestDTO} que contém os dados necessários para iniciar o cálculo
      *                das emissões de carbono.
      * @return Um {@link StartCalcResponseDTO} contendo o ID do objeto {@link CarbonEmissionStats}
-     * recém-criado e armazenado no repositório.
+     * recém-criado e armazenado no repositório. O cálculo só entra nos agregados do {@link EmissionRollupService}
+     * quando as informações de consumo forem enviadas.
      * @throws br.com.actionlabs.carboncalc.exceptions.UserDataCreateException se os dados da solicitação estiverem incompletos ou inválidos.
      */
     @Override
     public StartCalcResponseDTO startCalculation(final StartCalcRequestDTO request) {
-        this.userDataValidate(request);
-        final var carbonData = CarbonEmissionStatsFactory.create(this.userDataFrom(request));
-        CarbonEmissionStats storedCarbonEmissionStats = this.carbonEmissionRepository.save(carbonData);
-        return StartCalcResponseDTO.from(storedCarbonEmissionStats.getId());
+        final var event = new StartCalculationEvent();
+        event.start();
+        try {
+            userDataValidate(request);
+            final var carbonData = CarbonEmissionStatsFactory.create(userDataFrom(request), this.expireAfter);
+            event.setUf(carbonData.getUserData().getUf());
+            carbonData.setResult(calculate(carbonData, this.factorCatalog.snapshot()));
+            CarbonEmissionStats storedCarbonEmissionStats = this.carbonEmissionRepository.save(carbonData);
+            event.setCalculationId(storedCarbonEmissionStats.getId());
+            event.setSuccess(true);
+            return StartCalcResponseDTO.from(storedCarbonEmissionStats.getId());
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Inicia os cálculos de emissões de carbono de uma lista de usuários.
+     *
+     * <p>Cada item é validado com {@link UserData#newUserQuietly(String, String, String, String)}, sem uma linha de
+     * log por item. Os itens inválidos são rejeitados com a mensagem da validação, sem interromper os demais. Os itens válidos são inseridos no
+     * {@link CarbonEmissionStatsRepository} com inserções em lote não ordenadas, em blocos de
+     * {@code carbon-calc.batch.chunk-size} itens; a falha de inserção de um documento rejeita apenas o item
+     * correspondente.</p>
+     *
+     * @param requests a lista de {@link StartCalcRequestDTO} com os dados dos usuários.
+     * @return um {@link StartCalcBatchResponseDTO} com um item por solicitação, na mesma ordem da lista recebida,
+     * contendo o ID do cálculo criado ou o erro que impediu a criação.
+     * @throws IllegalArgumentException se a lista for {@code null} ou tiver mais de
+     *                                  {@code carbon-calc.batch.max-size} itens.
+     */
+    @Override
+    public StartCalcBatchResponseDTO startCalculationBatch(final List<StartCalcRequestDTO> requests) {
+        this.batchValidate(requests);
+        final var factors = this.factorCatalog.snapshot();
+        final var items = new StartCalcBatchItemDTO[requests.size()];
+        final var pending = new ArrayList<CarbonEmissionStats>(Math.min(requests.size(), this.batchChunkSize));
+        final var pendingPositions = new int[requests.size()];
+        for (int position = 0; position < requests.size(); position++) {
+            try {
+                final var request = requests.get(position);
+                userDataValidate(request);
+                final var carbonData = CarbonEmissionStatsFactory.create(batchUserDataFrom(request), this.expireAfter);
+                carbonData.setResult(calculate(carbonData, factors));
+                pendingPositions[pending.size()] = position;
+                pending.add(carbonData);
+                items[position] = StartCalcBatchItemDTO.created(carbonData.getId());
+            } catch (UserDataCreateException | IllegalArgumentException exception) {
+                items[position] = StartCalcBatchItemDTO.rejected(exception.getMessage());
+            }
+            if (pending.size() == this.batchChunkSize) {
+                this.insertChunk(pending, pendingPositions, items);
+            }
+        }
+        this.insertChunk(pending, pendingPositions, items);
+        final var created = (int) Arrays.stream(items).filter(item -> item.getId() != null).count();
+        return StartCalcBatchResponseDTO.builder()
+                .created(created)
+                .rejected(items.length - created)
+                .items(List.of(items))
+                .build();
+    }
+
+    /**
+     * Valida a lista de solicitações de um lote.
+     *
+     * @param requests a lista de solicitações recebida.
+     * @throws IllegalArgumentException se a lista for {@code null} ou exceder o tamanho máximo do lote.
+     */
+    private void batchValidate(final List<?> requests) {
+        if (requests == null) {
+            throw new IllegalArgumentException(MESSAGE_USER_DATA_NULL);
+        }
+        if (requests.size() > this.batchMaxSize) {
+            throw new IllegalArgumentException(BATCH_SIZE_EXCEEDED_MESSAGE.formatted(this.batchMaxSize));
+        }
+    }
+
+    /**
+     * Insere um bloco de cálculos pendentes e rejeita os itens cujos documentos não foram inseridos.
+     *
+     * @param pending          os cálculos pendentes de inserção. A lista é esvaziada ao final.
+     * @param pendingPositions a posição, na lista recebida, de cada cálculo pendente.
+     * @param items            os itens da resposta, indexados pela posição na lista recebida.
+     */
+    private void insertChunk(final List<CarbonEmissionStats> pending, final int[] pendingPositions,
+                             final StartCalcBatchItemDTO[] items) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        final var errors = this.carbonEmissionRepository.insertUnordered(pending);
+        errors.forEach((index, message) -> items[pendingPositions[index]] = StartCalcBatchItemDTO.rejected(message));
+        pending.clear();
     }
 
     /**
@@ -151,7 +304,7 @@ public class CalculationService implements CalculationServiceContract {
      *                Não deve ser {@code null}.
      * @throws IllegalArgumentException Se o objeto {@code request} for {@code null}.
      */
-    private void userDataValidate(final StartCalcRequestDTO request) {
+    static void userDataValidate(final StartCalcRequestDTO request) {
         if (request == null) {
             throw new IllegalArgumentException(MESSAGE_USER_DATA_NULL);
         }
@@ -162,7 +315,8 @@ public class CalculationService implements CalculationServiceContract {
      * Converte uma solicitação de início de cálculo em um objeto {@link UserData}.
      *
      * <p>Este método recebe um objeto {@link StartCalcRequestDTO} e cria uma nova instância de
-     * {@link UserData} a partir dos dados fornecidos na solicitação.</p>
+     * {@link UserData} a partir dos dados fornecidos na solicitação. O tempo da validação é registrado na fase
+     * {@link RequestPhase#VALIDATION} do {@link RequestPhaseTimer}.</p>
      *
      * @param request o objeto {@link StartCalcRequestDTO} contendo os dados da solicitação.
      *                <ul>
@@ -173,16 +327,43 @@ public class CalculationService implements CalculationServiceContract {
      *                </ul>
      * @return uma nova instância de {@link UserData} contendo os dados fornecidos na solicitação.
      */
-    private UserData userDataFrom(final StartCalcRequestDTO request) {
-        return UserData.newUser(request.getName(), request.getEmail(), request.getUf(), request.getPhoneNumber());
+    static UserData userDataFrom(final StartCalcRequestDTO request) {
+        final var start = RequestPhaseTimer.start();
+        try {
+            return UserData.newUser(request.getName(), request.getEmail(), request.getUf(), request.getPhoneNumber());
+        } finally {
+            RequestPhaseTimer.stop(RequestPhase.VALIDATION, start);
+        }
+    }
+
+    /**
+     * Igual a {@link #userDataFrom(StartCalcRequestDTO)}, mas valida com
+     * {@link UserData#newUserQuietly(String, String, String, String)}, sem registrar os dados pessoais de cada item
+     * de um lote no log.
+     */
+    static UserData batchUserDataFrom(final StartCalcRequestDTO request) {
+        final var start = RequestPhaseTimer.start();
+        try {
+            return UserData.newUserQuietly(request.getName(), request.getEmail(), request.getUf(), request.getPhoneNumber());
+        } finally {
+            RequestPhaseTimer.stop(RequestPhase.VALIDATION, start);
+        }
     }
 
     /**
      * Atualiza as informações de cálculo com base na solicitação fornecida.
      *
-     * <p>Este método recupera as estatísticas atuais de emissão de carbono do repositório utilizando o ID
-     * da solicitação. Se as estatísticas forem encontradas, elas são atualizadas e salvas novamente no repositório,
-     * e a resposta é configurada para indicar sucesso.
+     * <p>As informações de consumo são gravadas com uma única atualização atômica no servidor
+     * ({@code $set} dos campos e incremento da revisão), sem ler nem reescrever o documento inteiro. A atualização
+     * devolve a UF e as informações resultantes, usadas para recalcular o resultado com os fatores em uso. O
+     * resultado é então gravado somente se o cálculo ainda estiver na mesma revisão e com o resultado anterior, de
+     * forma que atualizações concorrentes para o mesmo ID não deixem um resultado inconsistente com as informações
+     * armazenadas. Quando a gravação acontece, a diferença entre o resultado anterior e o novo é aplicada aos
+     * agregados do {@link EmissionRollupService}; na primeira atualização o resultado anterior é o resultado zerado
+     * da criação, que não está nos agregados, e o novo resultado é apenas adicionado.</p>
+     *
+     * <p>A resposta indica sucesso quando algum cálculo foi encontrado para o ID informado. O resultado em cache
+     * para o cálculo é invalidado após a gravação.</p>
      *
      * @param request o {@link UpdateCalcInfoRequestDTO} contendo o ID das estatísticas de emissão de carbono
      *                para atualizar e os novos valores a serem aplicados
@@ -190,15 +371,173 @@ public class CalculationService implements CalculationServiceContract {
      */
     @Override
     public UpdateCalcInfoResponseDTO updateCalculationInfo(final UpdateCalcInfoRequestDTO request) {
-        this.updateRequestValidate(request);
-        final var updateCalcInfoResponseDTO = UpdateCalcInfoResponseDTO.builder().success(false).build();
-        Optional<CarbonEmissionStats> retrievedStats = this.carbonEmissionRepository.findById(request.getId());
-        if (retrievedStats.isPresent()) {
-            final var storedCarbonEmissionStats = retrievedStats.get();
-            this.carbonEmissionRepository.save(this.updateCarbonEmissionStats(storedCarbonEmissionStats, request));
-            updateCalcInfoResponseDTO.setSuccess(true);
-        }
-        return updateCalcInfoResponseDTO;
+        final var event = new UpdateCalculationInfoEvent();
+        event.start();
+        try {
+            updateRequestValidate(request);
+            event.setCalculationId(request.getId());
+            final var updateCalcInfoResponseDTO = UpdateCalcInfoResponseDTO.builder().success(false).build();
+            final var updatedStats = this.carbonEmissionRepository.updateInfo(request.getId(),
+                    request.getEnergyConsumption(),
+                    transportationListFrom(request),
+                    request.getSolidWasteTotal(),
+                    request.getRecyclePercentage());
+            if (updatedStats.isPresent()) {
+                final var emissionStats = updatedStats.get();
+                event.setUf(emissionStats.getUserData().getUf());
+                event.setTransportationEntries(emissionStats.getTransportationList());
+                final var result = calculate(emissionStats, this.factorCatalog.snapshot());
+                if (this.replaceResult(emissionStats, result, emissionStats.getRevision() == 1)) {
+                    this.percentileService.record(emissionStats.getUserData().getUf(), result.getTotal());
+                }
+                this.resultCache.invalidate(emissionStats.getId());
+                updateCalcInfoResponseDTO.setSuccess(true);
+            }
+            event.setSuccess(updateCalcInfoResponseDTO.isSuccess());
+            return updateCalcInfoResponseDTO;
+        } finally {
+            event.finish();
+        }
+    }
+
+    /**
+     * Atualiza as informações de cálculo de uma lista de solicitações.
+     *
+     * <p>As solicitações são agrupadas por ID, na ordem recebida: solicitações repetidas para o mesmo ID são
+     * combinadas como se fossem aplicadas uma após a outra. Cada bloco de {@code carbon-calc.batch.chunk-size}
+     * cálculos é gravado com quatro operações, independentemente do tamanho do bloco:</p>
+     *
+     * <ol>
+     *   <li>uma consulta {@code $in} que lê os resultados anteriores, removidos dos agregados do
+     *   {@link EmissionRollupService};</li>
+     *   <li>uma operação em lote não ordenada com o {@code $set} das informações, o incremento da revisão e a
+     *   remoção do resultado armazenado de cada cálculo;</li>
+     *   <li>uma consulta {@code $in} que lê a UF, as informações e a revisão dos cálculos do bloco;</li>
+     *   <li>uma operação em lote não ordenada que grava os novos resultados, cada um condicionado à revisão lida.</li>
+     * </ol>
+     *
+     * <p>Como o resultado é removido na mesma operação que altera as informações, um cálculo nunca fica com um
+     * resultado inconsistente com as informações armazenadas: se a gravação do novo resultado for preterida por
+     * uma atualização concorrente, ele é recalculado na próxima leitura. Um resultado gravado por outro nó entre a
+     * leitura dos resultados anteriores e a remoção pode deixar os agregados com um pequeno desvio, corrigido por
+     * {@link EmissionRollupService#rebuild()}.</p>
+     *
+     * @param requests a lista de {@link UpdateCalcInfoRequestDTO} com os IDs e os novos valores.
+     * @return um {@link UpdateCalcInfoBatchResponseDTO} com um item por solicitação, na mesma ordem da lista
+     * recebida, indicando se o cálculo foi encontrado e atualizado.
+     * @throws IllegalArgumentException se a lista for {@code null} ou tiver mais de
+     *                                  {@code carbon-calc.batch.max-size} itens.
+     */
+    @Override
+    public UpdateCalcInfoBatchResponseDTO updateCalculationInfoBatch(final List<UpdateCalcInfoRequestDTO> requests) {
+        this.batchValidate(requests);
+        final var updatesById = new LinkedHashMap<String, CarbonEmissionStats>();
+        for (var request : requests) {
+            if (request != null && request.getId() != null) {
+                final var update = updatesById.computeIfAbsent(request.getId(), id -> new CarbonEmissionStats(id, null));
+                update.setEnergyConsumption(request.getEnergyConsumption());
+                update.setSolidWaste(request.getSolidWasteTotal());
+                update.setRecyclePercentage(request.getRecyclePercentage());
+                final var transportationList = transportationListFrom(request);
+                if (transportationList != null) {
+                    update.setTransportationList(transportationList);
+                }
+            }
+        }
+
+        final var updatedIds = new HashSet<String>();
+        final var updates = List.copyOf(updatesById.values());
+        for (int from = 0; from < updates.size(); from += this.batchChunkSize) {
+            this.updateChunk(updates.subList(from, Math.min(from + this.batchChunkSize, updates.size())), updatedIds);
+        }
+
+        final var items = requests.stream()
+                .map(request -> UpdateCalcInfoBatchItemDTO.builder()
+                        .id(request == null ? null : request.getId())
+                        .success(request != null && updatedIds.contains(request.getId()))
+                        .build())
+                .toList();
+        final var updated = (int) items.stream().filter(UpdateCalcInfoBatchItemDTO::isSuccess).count();
+        return UpdateCalcInfoBatchResponseDTO.builder()
+                .updated(updated)
+                .failed(items.size() - updated)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Grava as informações de um bloco de cálculos e recalcula os seus resultados.
+     *
+     * <p>Se a quantidade de cálculos encontrados na gravação não for a mesma da leitura anterior, não se sabe quais
+     * resultados antigos deixaram os agregados; nesse caso nem a remoção nem a adição são aplicadas, e os
+     * resultados gravados são contados como não contabilizados. Os percentis só recebem os resultados quando
+     * todos foram gravados.</p>
+     *
+     * @param updates    os cálculos do bloco, um por ID, com as novas informações.
+     * @param updatedIds o conjunto que recebe os IDs dos cálculos encontrados.
+     */
+    private void updateChunk(final List<CarbonEmissionStats> updates, final Set<String> updatedIds) {
+        final var ids = updates.stream().map(CarbonEmissionStats::getId).toList();
+        final var removed = new EmissionRollupDelta();
+        final var previous = this.carbonEmissionRepository.findInfoByIds(ids);
+        for (var emissionStats : previous) {
+            if (isCompleted(emissionStats)) {
+                removed.replace(emissionStats.getUserData().getUf(), emissionStats.getResult(), null);
+            }
+        }
+        final var matched = this.carbonEmissionRepository.updateInfoUnordered(updates);
+        final var removalApplied = matched == previous.size();
+        if (removalApplied) {
+            this.rollupService.apply(removed);
+        } else {
+            this.rollupService.unaccounted(Math.abs(matched - previous.size()));
+        }
+        if (matched == 0) {
+            return;
+        }
+        final var factors = this.factorCatalog.snapshot();
+        final var results = new ArrayList<CarbonEmissionStats>(ids.size());
+        final var added = new EmissionRollupDelta();
+        for (var emissionStats : this.carbonEmissionRepository.findInfoByIds(ids)) {
+            updatedIds.add(emissionStats.getId());
+            if (emissionStats.getResult() == null) {
+                emissionStats.setResult(calculate(emissionStats, factors));
+                added.replace(emissionStats.getUserData().getUf(), null, emissionStats.getResult());
+                results.add(emissionStats);
+            }
+        }
+        final long written;
+        if (removalApplied) {
+            written = this.applyBulkResults(results, added);
+        } else {
+            written = this.carbonEmissionRepository.updateResultsUnordered(results);
+            this.rollupService.unaccounted(written);
+        }
+        if (written == results.size()) {
+            results.forEach(emissionStats -> this.percentileService.record(emissionStats.getUserData().getUf(), emissionStats.getResult().getTotal()));
+        }
+        ids.forEach(this.resultCache::invalidate);
+    }
+
+    /**
+     * Grava os resultados de um lote e aplica a sua variação aos agregados.
+     *
+     * <p>A operação em lote informa apenas quantos documentos foram encontrados, e não quais. Por isso a variação
+     * só é aplicada quando todos os resultados foram gravados; caso contrário, os resultados gravados são
+     * contados como não contabilizados nos agregados.</p>
+     *
+     * @param results os cálculos com o novo resultado.
+     * @param delta   a variação dos agregados correspondente a todos os resultados.
+     * @return a quantidade de resultados gravados.
+     */
+    long applyBulkResults(final List<CarbonEmissionStats> results, final EmissionRollupDelta delta) {
+        final var written = this.carbonEmissionRepository.updateResultsUnordered(results);
+        if (written == results.size()) {
+            this.rollupService.apply(delta);
+        } else {
+            this.rollupService.unaccounted(written);
+        }
+        return written;
     }
 
     /**
@@ -212,38 +551,34 @@ public class CalculationService implements CalculationServiceContract {
      *                a serem atualizadas no cálculo de carbono. Este parâmetro não pode ser nulo.
      * @throws IllegalArgumentException se o parâmetro {@code request} for nulo.
      */
-    private void updateRequestValidate(final UpdateCalcInfoRequestDTO request) {
+    static void updateRequestValidate(final UpdateCalcInfoRequestDTO request) {
         if (request == null) {
             throw new IllegalArgumentException(REQUIRED_UPDATE_MESSAGE);
         }
     }
 
     /**
-     * Atualiza os atributos de um objeto {@link CarbonEmissionStats} com informações provenientes de um objeto {@link UpdateCalcInfoRequestDTO}.
-     * <p>
-     * Este método modifica as propriedades de consumo de energia, lista de transporte, resíduos sólidos e percentual de reciclagem
-     * do objeto {@link CarbonEmissionStats} com base nos valores fornecidos pelo objeto {@link UpdateCalcInfoRequestDTO}.
+     * Converte a lista de transportes da solicitação de atualização para o modelo armazenado.
      *
-     * @param carbonEmissionStats o objeto {@link CarbonEmissionStats} que será atualizado.
-     * @param statsRequest        o objeto {@link UpdateCalcInfoRequestDTO} que contém as informações para a atualização.
-     * @return o objeto {@link CarbonEmissionStats} atualizado.
+     * @param statsRequest o objeto {@link UpdateCalcInfoRequestDTO} que contém as informações para a atualização.
+     * @return a lista de {@link Transportation}, ou {@code null} quando a solicitação não informa transportes, o
+     * que mantém a lista já armazenada.
      */
-    private CarbonEmissionStats updateCarbonEmissionStats(final CarbonEmissionStats carbonEmissionStats, final UpdateCalcInfoRequestDTO statsRequest) {
-        carbonEmissionStats.setEnergyConsumption(statsRequest.getEnergyConsumption());
-        if (statsRequest.getTransportation() != null) {
-            carbonEmissionStats.setTransportationList(statsRequest.getTransportation().stream().map(Transportation::from).toList());
-        }
-        carbonEmissionStats.setSolidWaste(statsRequest.getSolidWasteTotal());
-        carbonEmissionStats.setRecyclePercentage(statsRequest.getRecyclePercentage());
-        return carbonEmissionStats;
+    static List<Transportation> transportationListFrom(final UpdateCalcInfoRequestDTO statsRequest) {
+        if (statsRequest.getTransportation() == null) {
+            return null;
+        }
+        return statsRequest.getTransportation().stream().map(Transportation::from).toList();
     }
 
     /**
      * Retorna o resultado do cálculo de emissões de carbono para um dado ID de cálculo.
      *
-     * <p>Este método recupera as estatísticas de emissões de carbono correspondentes ao ID de cálculo fornecido
-     * a partir do repositório {@link CarbonEmissionStatsRepository}. Se as estatísticas forem encontradas, elas
-     * são usadas para construir um objeto {@link CarbonCalculationResultDTO}, que é então retornado.</p>
+     * <p>O resultado é servido pelo {@link CalculationResultCache} quando presente. Caso contrário, este método
+     * lê apenas o resultado armazenado para o ID de cálculo fornecido a partir do repositório
+     * {@link CarbonEmissionStatsRepository}. Se o resultado foi calculado com a versão de fatores em uso, ele é
+     * retornado diretamente. Caso contrário (resultado ausente ou calculado com fatores substituídos), o cálculo
+     * completo é lido, recalculado e o novo resultado é gravado antes de ser retornado.</p>
      *
      * @param calculationId o ID do cálculo das emissões de carbono que se deseja recuperar.
      *                      <ul>
@@ -257,150 +592,311 @@ public class CalculationService implements CalculationServiceContract {
      */
     @Override
     public CarbonCalculationResultDTO getResult(String calculationId) {
-        final var carbonStats = this.carbonEmissionRepository.findById(calculationId);
-        final var resultDTO = CarbonCalculationResultDTO.builder().build();
-        if (carbonStats.isPresent()) {
-            final var emissionStats = carbonStats.get();
-            this.buildResultDTO(resultDTO, emissionStats);
+        final var event = new GetResultEvent();
+        event.start();
+        try {
+            event.setCalculationId(calculationId);
+            final var factors = this.factorCatalog.snapshot();
+            final var result = this.resultCache.get(calculationId, factors.getVersion(), () -> this.loadResult(calculationId, factors, event));
+            event.setSuccess(true);
+            return result;
+        } finally {
+            event.finish();
         }
-        return resultDTO;
     }
 
-
     /**
-     * Constrói o Data Transfer Object (DTO) para o cálculo de carbono, populando-o
-     * com os valores calculados para emissões de energia, transporte e resíduos sólidos,
-     * bem como o total de emissões.
+     * Retorna os resultados de vários cálculos de uma só vez.
      *
-     * <p>Este método realiza as seguintes ações:
-     * <ul>
-     *   <li>Calcula as emissões de energia com base nas estatísticas de emissão de carbono fornecidas
-     *       e define o valor correspondente no DTO.</li>
-     *   <li>Calcula as emissões de transporte com base nas estatísticas de emissão de carbono fornecidas
-     *       e define o valor correspondente no DTO.</li>
-     *   <li>Calcula as emissões de resíduos sólidos com base nas estatísticas de emissão de carbono fornecidas
-     *       e define o valor correspondente no DTO.</li>
-     *   <li>Calcula o total das emissões somando os valores individuais das emissões
-     *       e define o total no DTO.</li>
-     * </ul>
-     * </p>
+     * <p>Os fatores de emissão são obtidos uma única vez para todo o lote. Os resultados presentes no
+     * {@link CalculationResultCache} são servidos dele; os demais são lidos com uma única consulta {@code $in}.
+     * Resultados ausentes ou calculados com fatores substituídos são recalculados e gravados com uma única
+     * operação em lote, cada um condicionado à revisão lida. Os resultados lidos em lote não são adicionados ao
+     * cache.</p>
      *
-     * @param dto         O {@link CarbonCalculationResultDTO} que será populado com os valores calculados.
-     * @param carbonStats O {@link CarbonEmissionStats} contendo os dados necessários para os cálculos das emissões.
+     * @param calculationIds os IDs dos cálculos. IDs nulos ou repetidos são ignorados.
+     * @return os resultados indexados pelo ID do cálculo, na ordem recebida. IDs de cálculos inexistentes recebem
+     * um objeto vazio de {@link CarbonCalculationResultDTO}.
+     * @throws IllegalArgumentException se a lista for {@code null} ou tiver mais de
+     *                                  {@code carbon-calc.batch.max-size} itens.
+     */
+    @Override
+    public Map<String, CarbonCalculationResultDTO> getResults(final List<String> calculationIds) {
+        this.batchValidate(calculationIds);
+        final var factors = this.factorCatalog.snapshot();
+        final var results = new LinkedHashMap<String, CarbonCalculationResultDTO>();
+        final var missingIds = new ArrayList<String>();
+        for (var calculationId : calculationIds) {
+            if (calculationId != null && !results.containsKey(calculationId)) {
+                final var cached = this.resultCache.getIfPresent(calculationId, factors.getVersion());
+                results.put(calculationId, cached.orElse(null));
+                if (cached.isEmpty()) {
+                    missingIds.add(calculationId);
+                }
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return results;
+        }
+
+        final var recalculated = new ArrayList<CarbonEmissionStats>();
+        final var delta = new EmissionRollupDelta();
+        for (var emissionStats : this.carbonEmissionRepository.findInfoByIds(missingIds)) {
+            var result = emissionStats.getResult();
+            if (result == null || result.getFactorVersion() != factors.getVersion()) {
+                result = calculate(emissionStats, factors);
+                if (isCompleted(emissionStats)) {
+                    delta.replace(emissionStats.getUserData().getUf(), emissionStats.getResult(), result);
+                }
+                emissionStats.setResult(result);
+                recalculated.add(emissionStats);
+            }
+            results.put(emissionStats.getId(), toResultDTO(result, ufOf(emissionStats)));
+        }
+        this.applyBulkResults(recalculated, delta);
+        results.replaceAll((id, result) -> result != null ? result
+                : archivedResult(this.archive, id, factors).orElseGet(() -> CarbonCalculationResultDTO.builder().build()));
+        return results;
+    }
+
+    /**
+     * Lê o resultado armazenado de um cálculo, recalculando-o se ele estiver ausente ou desatualizado.
+     *
+     * @param calculationId o ID do cálculo.
+     * @param factors       o {@link EmissionFactorSnapshot} em uso.
+     * @param event         o {@link GetResultEvent} da leitura, que registra a falta no cache e o recálculo.
+     * @return o {@link CarbonCalculationResultDTO} do cálculo, ou um objeto vazio se o cálculo não existir.
      */
-    private void buildResultDTO(final CarbonCalculationResultDTO dto, final CarbonEmissionStats carbonStats) {
-        dto.setEnergy(this.calculateEnergy(carbonStats));
-        dto.setTransportation(this.calculateTransportation(carbonStats));
-        dto.setSolidWaste(this.calculateSolidWaste(carbonStats));
-        dto.setTotal(this.calculateTotal(dto));
+    private CarbonCalculationResultDTO loadResult(final String calculationId, final EmissionFactorSnapshot factors,
+                                                  final GetResultEvent event) {
+        event.setCacheHit(false);
+        final var storedResult = this.carbonEmissionRepository.findResultById(calculationId);
+        if (storedResult.isEmpty()) {
+            return archivedResult(this.archive, calculationId, factors).orElseGet(() -> CarbonCalculationResultDTO.builder().build());
+        }
+        final var result = storedResult.get().getResult();
+        if (result != null && result.getFactorVersion() == factors.getVersion()) {
+            return toResultDTO(result, ufOf(storedResult.get()));
+        }
+        return this.carbonEmissionRepository.findById(calculationId)
+                .map(emissionStats -> {
+                    event.setUf(emissionStats.getUserData().getUf());
+                    event.setTransportationEntries(emissionStats.getTransportationList());
+                    event.setRecalculated(true);
+                    return toResultDTO(this.recalculate(emissionStats, factors), ufOf(emissionStats));
+                })
+                .orElseGet(() -> CarbonCalculationResultDTO.builder().build());
     }
 
     /**
-     * Calcula o total de emissões de carbono combinando os valores das emissões de energia,
-     * transporte e resíduos sólidos.
+     * Lê o resultado de um cálculo arquivado no {@link CalculationArchive}.
      *
-     * <p>Esse método recebe um objeto <code>CarbonCalculationResultDTO</code> que contém os resultados
-     * das emissões em três categorias diferentes: energia, transporte e resíduos sólidos. Ele então
-     * soma esses valores e retorna o total combinado.</p>
+     * <p>O arquivo é imutável: um resultado arquivado com outra versão dos fatores é recalculado a cada leitura,
+     * sem ser gravado, com os fatores vigentes na criação do cálculo.</p>
      *
-     * @param calculationResult Um objeto <code>CarbonCalculationResultDTO</code> que contém os valores
-     *                          das emissões resultantes de energia, transporte e resíduos sólidos.
-     * @return O valor total das emissões de carbono como um <code>Double</code>.
+     * @param archive       o {@link CalculationArchive}.
+     * @param calculationId o ID do cálculo.
+     * @param factors       o {@link EmissionFactorSnapshot} em uso.
+     * @return o resultado do cálculo, ou vazio se ele também não estiver no arquivo.
      */
-    private Double calculateTotal(final CarbonCalculationResultDTO calculationResult) {
-        return calculationResult.getEnergy() + calculationResult.getTransportation() + calculationResult.getSolidWaste();
+    static Optional<CarbonCalculationResultDTO> archivedResult(final CalculationArchive archive, final String calculationId,
+                                                               final EmissionFactorSnapshot factors) {
+        return archive.findById(calculationId).map(emissionStats -> {
+            final var result = emissionStats.getResult();
+            if (result != null && result.getFactorVersion() == factors.getVersion()) {
+                return toResultDTO(result, ufOf(emissionStats));
+            }
+            return toResultDTO(calculate(emissionStats, factors), ufOf(emissionStats));
+        });
     }
 
     /**
-     * Calcula a emissão de carbono proveniente de resíduos sólidos com base nas
-     * estatísticas de emissões fornecidas.
+     * Recalcula o resultado de um cálculo cujo resultado armazenado está ausente ou desatualizado e grava o novo
+     * resultado.
+     *
+     * <p>A gravação só acontece se o cálculo ainda estiver na revisão lida, de forma que o resultado de uma
+     * atualização concorrente das informações não seja sobrescrito.</p>
      *
-     * @param emissionStats Um objeto {@link CarbonEmissionStats} que contém as
-     *                      estatísticas de emissões do usuário, incluindo informações sobre o estado (UF).
-     * @return A emissão de carbono calculada proveniente dos resíduos sólidos, como
-     * um {@link Double}. Retorna 0.0 se o fator de resíduos sólidos não for encontrado.
+     * @param emissionStats o {@link CarbonEmissionStats} completo lido do repositório.
+     * @param factors       o {@link EmissionFactorSnapshot} em uso.
+     * @return o {@link CarbonEmissionResult} recalculado.
      */
-    private Double calculateSolidWaste(final CarbonEmissionStats emissionStats) {
-        final var solidWasteFactor = this.wasteRepository.findById(emissionStats.getUserData().getUf());
-        var result = ZERO_VALUE;
-        if (solidWasteFactor.isPresent()) {
-            final var factor = solidWasteFactor.get();
-            final var recyclableWaste = WasteType.RECYCLABLE.calculate(emissionStats, factor.getRecyclableFactor());
-            final var nonRecyclableWaste = WasteType.NON_RECYCLABLE.calculate(emissionStats, factor.getNonRecyclableFactor());
-            result = recyclableWaste + nonRecyclableWaste;
-        } else {
-            ufInvalidLog(emissionStats);
-        }
+    private CarbonEmissionResult recalculate(final CarbonEmissionStats emissionStats, final EmissionFactorSnapshot factors) {
+        final var result = calculate(emissionStats, factors);
+        this.replaceResult(emissionStats, result, false);
         return result;
     }
 
     /**
-     * Calcula as emissões de carbono resultantes do transporte baseado nas estatísticas de emissões fornecidas.
+     * Substitui o resultado lido de um cálculo pelo novo resultado e, se a troca acontecer, aplica a diferença
+     * entre os dois aos agregados do {@link EmissionRollupService}.
      *
-     * <p>
-     * Este método calcula a quantidade total de emissões de carbono derivadas do transporte, tomando como base
-     * uma lista de transportes e seus respectivos fatores de emissão. Primeiro, ele garante que a lista de
-     * transportes em {@code emissionStats} não é nula. Em seguida, obtém todos os fatores de emissão do
-     * {@code transportationRepository} e calcula o total de emissões com base nas distâncias mensais e nos fatores
-     * correspondentes.
-     * </p>
+     * <p>Cálculos sem revisão ainda não receberam as informações de consumo e não entram nos agregados.</p>
      *
-     * @param emissionStats Um objeto {@link CarbonEmissionStats} que contém os dados estatísticos
-     *                      necessários para o cálculo das emissões de transporte. Este objeto não pode ser nulo.
-     * @return O valor total das emissões de carbono resultantes do transporte. O valor é retornado como um {@link Double}.
+     * @param emissionStats o cálculo com a UF, a revisão e o resultado lidos.
+     * @param result        o novo resultado.
+     * @param firstUpdate   {@code true} se a revisão lida é a da primeira atualização das informações, cujo
+     *                      resultado anterior ainda não estava nos agregados.
+     * @return {@code true} se o resultado foi substituído.
      */
-    private Double calculateTransportation(final CarbonEmissionStats emissionStats) {
-        var result = ZERO_VALUE;
-        if (emissionStats.getTransportationList() == null) {
-            emissionStats.setTransportationList(new ArrayList<>());
+    private boolean replaceResult(final CarbonEmissionStats emissionStats, final CarbonEmissionResult result,
+                                  final boolean firstUpdate) {
+        final var previous = emissionStats.getResult();
+        if (this.carbonEmissionRepository.updateResult(emissionStats.getId(), emissionStats.getRevision(), previous, result) > 0) {
+            if (isCompleted(emissionStats)) {
+                this.rollupService.apply(new EmissionRollupDelta().replace(emissionStats.getUserData().getUf(),
+                        firstUpdate ? null : previous, result));
+            }
+            return true;
         }
-        final var transportationFactors = this.transportationRepository.findAll();
-        for (var transportation : emissionStats.getTransportationList()) {
-            var factor = findEmissionFactorByType(transportation, transportationFactors);
-            result += transportation.getMonthlyDistance() * factor;
-        }
-        return result;
+        return false;
     }
 
     /**
-     * Encontra o fator de emissão para um dado tipo de transporte a partir de uma lista de fatores de emissão de transporte.
+     * Converte um {@link CarbonEmissionResult} armazenado no DTO de resposta.
      *
-     * <p>Este método filtra a lista de fatores de emissão de transporte para encontrar o primeiro fator que corresponda
-     * ao tipo do objeto de transporte fornecido e retorna o valor desse fator. Se nenhum fator correspondente for encontrado,
-     * retorna um valor padrão de zero.
+     * @param result o resultado armazenado.
+     * @param uf     a UF do cálculo, usada apenas para calcular o percentil; pode ser {@code null}.
+     * @return um {@link CarbonCalculationResultDTO} com os valores de cada categoria e o total.
+     */
+    static CarbonCalculationResultDTO toResultDTO(final CarbonEmissionResult result, final String uf) {
+        return CarbonCalculationResultDTO.builder()
+                .energy(result.getEnergy())
+                .transportation(result.getTransportation())
+                .solidWaste(result.getSolidWaste())
+                .total(result.getTotal())
+                .uf(uf)
+                .build();
+    }
+
+    static String ufOf(final CarbonEmissionStats emissionStats) {
+        return emissionStats.getUserData() == null ? null : emissionStats.getUserData().getUf();
+    }
+
+    /**
+     * Indica se as informações de consumo do cálculo já foram enviadas, o que o inclui nos agregados do
+     * {@link EmissionRollupService}. O resultado zerado gravado na criação não é contado, para que cálculos
+     * abandonados não puxem as estatísticas para zero.
      *
-     * @param transportation        O objeto de transporte para o qual o fator de emissão deve ser encontrado. Não deve ser nulo.
-     * @param transportationFactors A lista de fatores de emissão de transporte a ser pesquisada. Não deve ser nula.
-     * @return O fator de emissão para o tipo de transporte como um Double, ou um valor padrão de zero se nenhuma correspondência for encontrada.
+     * @param emissionStats o cálculo lido, com a revisão.
+     * @return {@code true} se o cálculo tem revisão.
      */
-    private static Double findEmissionFactorByType(Transportation transportation, List<TransportationEmissionFactor> transportationFactors) {
-        return transportationFactors.stream()
-                .filter(transportationEmissionFactor -> transportation.getType().equals(transportationEmissionFactor.getType()))
-                .mapToDouble(TransportationEmissionFactor::getFactor)
-                .findFirst()
-                .orElse(ZERO_VALUE);
+    static boolean isCompleted(final CarbonEmissionStats emissionStats) {
+        return emissionStats.getRevision() != null;
     }
 
+
     /**
-     * Calcula a emissão de carbono baseada no consumo de energia, utilizando fatores de emissão recuperados do repositório.
+     * Calcula o resultado das emissões de carbono, com os valores de energia, transporte e resíduos sólidos,
+     * bem como o total de emissões.
+     *
+     * <p>Os valores são calculados pelo {@link CarbonCalculationKernel} a partir das tabelas de fatores do
+     * snapshot informado, com os fatores vigentes na data de criação do cálculo. Cálculos criados antes do
+     * registro dessa data usam os fatores vigentes no momento do cálculo. Valores ainda não informados pelo
+     * usuário são considerados como zero. A emissão de cada tipo de transporte usado também é guardada no
+     * resultado, para que os agregados do {@link EmissionRollupService} possam ser ajustados quando o resultado
+     * for substituído. O resultado de um cálculo sem revisão é marcado como provisório e não entra nos
+     * agregados.</p>
      *
-     * @param emissionStats Uma instância de {@link CarbonEmissionStats} que contém os dados de consumo de energia do usuário.
-     *                      Necessário para encontrar o fator de emissão correspondente e realizar o cálculo.
-     * @return Um {@link Double} representando a quantidade de emissão de carbono gerada pelo consumo de energia
-     * do usuário. Se o fator de emissão não for encontrado, retorna {@link #ZERO_VALUE}.
+     * @param carbonStats O {@link CarbonEmissionStats} contendo os dados necessários para os cálculos das emissões.
+     * @param factors     O {@link EmissionFactorSnapshot} com os fatores de emissão aplicados em todas as categorias.
+     * @return o {@link CarbonEmissionResult} calculado, identificado pela versão do snapshot utilizado.
      */
-    private Double calculateEnergy(final CarbonEmissionStats emissionStats) {
-        final var energyFactor = this.energyRepository.findById(emissionStats.getUserData().getUf());
+    static CarbonEmissionResult calculate(final CarbonEmissionStats carbonStats, final EmissionFactorSnapshot factors) {
+        final var start = RequestPhaseTimer.start();
+        final var pricedAt = carbonStats.getCreatedAt() == null ? System.currentTimeMillis() : carbonStats.getCreatedAt().toEpochMilli();
+        final var ufIndex = factors.ufIndex(carbonStats.getUserData().getUf());
+        final var energyIndex = factors.energyIndex(ufIndex, pricedAt);
+        final var solidWasteIndex = factors.solidWasteIndex(ufIndex, pricedAt);
+        if (energyIndex < 0 || solidWasteIndex < 0) {
+            ufInvalidLog(carbonStats);
+        }
+        final var energy = CarbonCalculationKernel.energy(factors.getEnergyFactorTable(), energyIndex,
+                valueOf(carbonStats.getEnergyConsumption()));
+        final var transportationList = carbonStats.getTransportationList();
+        final var emissionByType = transportationList == null || transportationList.isEmpty() ? null : new double[TRANSPORTATION_TYPES.length];
+        final var transportation = calculateTransportation(transportationList, factors, pricedAt, emissionByType);
+        final var solidWaste = CarbonCalculationKernel.solidWaste(factors.getRecyclableFactorTable(), factors.getNonRecyclableFactorTable(),
+                solidWasteIndex, valueOf(carbonStats.getSolidWaste()), valueOf(carbonStats.getRecyclePercentage()));
+        final var result = CarbonEmissionResult.builder()
+                .energy(energy)
+                .transportation(transportation)
+                .solidWaste(solidWaste)
+                .total(CarbonCalculationKernel.total(energy, transportation, solidWaste))
+                .factorVersion(factors.getVersion())
+                .transportationByType(transportationByType(emissionByType))
+                .provisional(isCompleted(carbonStats) ? null : Boolean.TRUE)
+                .build();
+        RequestPhaseTimer.stop(RequestPhase.CALCULATION, start);
+        return result;
+    }
+
+    /**
+     * Calcula as emissões de carbono resultantes do transporte.
+     *
+     * <p>Percorre a lista por índice, sem criar iteradores ou streams, somando a emissão de cada meio de
+     * transporte com o fator do seu tipo vigente no instante informado. Entradas sem tipo não contribuem para o
+     * total. A emissão de cada tipo é somada em um vetor primitivo indexado pelo ordinal do tipo, sem criar
+     * objetos por entrada; os tipos ausentes da lista ficam com {@link Double#NaN}.</p>
+     *
+     * @param transportationList a lista de transportes informada pelo usuário. Pode ser {@code null}.
+     * @param factors            o {@link EmissionFactorSnapshot} com os fatores de transporte.
+     * @param pricedAt           o instante, em milissegundos desde a época, cujos fatores são aplicados.
+     * @param emissionByType     o vetor que recebe a emissão somada de cada tipo de transporte da lista, ou
+     *                           {@code null} se a lista for {@code null} ou vazia.
+     * @return O valor total das emissões de carbono resultantes do transporte.
+     */
+    private static double calculateTransportation(final List<Transportation> transportationList, final EmissionFactorSnapshot factors,
+                                                  final long pricedAt, final double[] emissionByType) {
         var result = ZERO_VALUE;
-        if (energyFactor.isPresent()) {
-            final var factor = energyFactor.get();
-            result = emissionStats.getEnergyConsumption() * factor.getFactor();
-        } else {
-            ufInvalidLog(emissionStats);
+        if (emissionByType == null) {
+            return result;
+        }
+        Arrays.fill(emissionByType, Double.NaN);
+        for (int i = 0; i < transportationList.size(); i++) {
+            final var transportation = transportationList.get(i);
+            if (transportation.getType() != null) {
+                final var emission = CarbonCalculationKernel.transportation(factors.getTransportationFactorTable(),
+                        factors.transportationIndex(transportation.getType().ordinal(), pricedAt), valueOf(transportation.getMonthlyDistance()));
+                final var ordinal = transportation.getType().ordinal();
+                emissionByType[ordinal] = Double.isNaN(emissionByType[ordinal]) ? emission : emissionByType[ordinal] + emission;
+                result += emission;
+            }
         }
         return result;
     }
 
+    /**
+     * Converte a emissão somada de cada tipo de transporte no mapa gravado com o resultado.
+     *
+     * @param emissionByType a emissão de cada tipo, indexada pelo ordinal, com {@link Double#NaN} nos tipos ausentes;
+     *                       pode ser {@code null}.
+     * @return o mapa com a emissão de cada tipo usado, ou {@code null} se nenhum tipo foi usado.
+     */
+    private static Map<TransportationType, Double> transportationByType(final double[] emissionByType) {
+        if (emissionByType == null) {
+            return null;
+        }
+        EnumMap<TransportationType, Double> transportationByType = null;
+        for (int ordinal = 0; ordinal < emissionByType.length; ordinal++) {
+            if (!Double.isNaN(emissionByType[ordinal])) {
+                if (transportationByType == null) {
+                    transportationByType = new EnumMap<>(TransportationType.class);
+                }
+                transportationByType.put(TRANSPORTATION_TYPES[ordinal], emissionByType[ordinal]);
+            }
+        }
+        return transportationByType;
+    }
+
+    private static int valueOf(final Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private static double valueOf(final Double value) {
+        return value == null ? ZERO_VALUE : value;
+    }
+
     /**
      * Registra uma mensagem de alerta indicando que a unidade federativa (UF) fornecida não é suportada.
      * <p>
@@ -408,12 +904,20 @@ public class CalculationService implements CalculationServiceContract {
      * uma mensagem de alerta usando o logger. Isto normalmente notifica o usuário de que a UF fornecida
      * não é reconhecida ou suportada pelo sistema.
      * </p>
+     * <p>
+     * A ocorrência também é contada no contador {@code carbon.calc.unsupported.uf} do registro global do
+     * Micrometer, ao qual o Spring Boot associa os registros da aplicação. A UF é usada como tag apenas quando
+     * tem duas letras; os demais valores são agrupados em {@code OTHER}, o que limita a cardinalidade da métrica.
+     * </p>
      *
      * @param emissionStats um objeto do tipo {@link CarbonEmissionStats} que contém os dados do usuário,
      *                      incluindo a unidade federativa (UF).
      */
     private static void ufInvalidLog(CarbonEmissionStats emissionStats) {
-        log.warn("Federative unit [ {} ] is not supported", emissionStats.getUserData().getUf());
+        final var uf = emissionStats.getUserData().getUf();
+        log.warn("Federative unit [ {} ] is not supported", uf);
+        final var ufTag = uf != null && UF_TAG_PATTERN.matcher(uf).matches() ? uf : OTHER_UF_TAG_VALUE;
+        Metrics.counter(UNSUPPORTED_UF_METRIC, UF_TAG, ufTag).increment();
     }
 
 }
@@ -1,17 +1,28 @@
 package br.com.actionlabs.carboncalc.services;
 
 import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcBatchResponseDTO;
 import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
 import br.com.actionlabs.carboncalc.dto.StartCalcResponseDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoBatchResponseDTO;
 import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
 import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoResponseDTO;
 
+import java.util.List;
+import java.util.Map;
+
 public interface CalculationServiceContract {
 
     StartCalcResponseDTO startCalculation(StartCalcRequestDTO request);
 
+    StartCalcBatchResponseDTO startCalculationBatch(List<StartCalcRequestDTO> requests);
+
     UpdateCalcInfoResponseDTO updateCalculationInfo(UpdateCalcInfoRequestDTO request);
 
+    UpdateCalcInfoBatchResponseDTO updateCalculationInfoBatch(List<UpdateCalcInfoRequestDTO> requests);
+
     CarbonCalculationResultDTO getResult(String calculationId);
 
+    Map<String, CarbonCalculationResultDTO> getResults(List<String> calculationIds);
+
 }
@@ -0,0 +1,89 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.enums.WasteType;
+
+/**
+ * Núcleo do cálculo de emissões de carbono.
+ *
+ * <p>Todos os métodos recebem apenas valores primitivos e as tabelas {@code double[]} de fatores de um
+ * {@link br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot}, com a posição do fator vigente obtida do
+ * snapshot. Nenhum método aloca objetos, o que mantém o cálculo livre de boxing e de pressão sobre o coletor de
+ * lixo.</p>
+ *
+ * <p>Uma posição negativa representa um fator inexistente ou sem vigência no instante do cálculo e resulta em
+ * emissão {@code 0.0}.</p>
+ *
+ * @author diegosneves
+ */
+public final class CarbonCalculationKernel {
+
+    private static final double ZERO_VALUE = 0.0;
+
+    private CarbonCalculationKernel() {}
+
+    /**
+     * Calcula a emissão proveniente do consumo de energia.
+     *
+     * @param energyFactors     a tabela de fatores de energia.
+     * @param factorIndex       a posição do fator vigente da UF na tabela.
+     * @param energyConsumption o consumo mensal de energia, em kWh.
+     * @return {@code energyConsumption * fator da UF}.
+     */
+    public static double energy(final double[] energyFactors, final int factorIndex, final int energyConsumption) {
+        if (factorIndex < 0) {
+            return ZERO_VALUE;
+        }
+        return energyConsumption * energyFactors[factorIndex];
+    }
+
+    /**
+     * Calcula a emissão de um único meio de transporte.
+     *
+     * @param transportationFactors a tabela de fatores de transporte.
+     * @param factorIndex           a posição do fator vigente do tipo de transporte na tabela.
+     * @param monthlyDistance       a distância mensal percorrida, em km.
+     * @return {@code monthlyDistance * fator do tipo de transporte}.
+     */
+    public static double transportation(final double[] transportationFactors, final int factorIndex, final int monthlyDistance) {
+        if (factorIndex < 0) {
+            return ZERO_VALUE;
+        }
+        return monthlyDistance * transportationFactors[factorIndex];
+    }
+
+    /**
+     * Calcula a emissão de resíduos sólidos, somando as parcelas reciclável e não reciclável.
+     *
+     * @param recyclableFactors    a tabela de fatores de resíduos recicláveis.
+     * @param nonRecyclableFactors a tabela de fatores de resíduos não recicláveis.
+     * @param factorIndex          a posição dos fatores vigentes da UF nas tabelas.
+     * @param solidWaste           a produção mensal de resíduos sólidos, em kg.
+     * @param recyclePercentage    o percentual reciclado, de {@code 0.0} a {@code 1.0}.
+     * @return a emissão total de resíduos sólidos.
+     */
+    public static double solidWaste(final double[] recyclableFactors,
+                                    final double[] nonRecyclableFactors,
+                                    final int factorIndex,
+                                    final int solidWaste,
+                                    final double recyclePercentage) {
+        if (factorIndex < 0) {
+            return ZERO_VALUE;
+        }
+        final var recyclableWaste = WasteType.RECYCLABLE.calculate(solidWaste, recyclePercentage, recyclableFactors[factorIndex]);
+        final var nonRecyclableWaste = WasteType.NON_RECYCLABLE.calculate(solidWaste, recyclePercentage, nonRecyclableFactors[factorIndex]);
+        return recyclableWaste + nonRecyclableWaste;
+    }
+
+    /**
+     * Soma as emissões das três categorias.
+     *
+     * @param energy         a emissão de energia.
+     * @param transportation a emissão de transporte.
+     * @param solidWaste     a emissão de resíduos sólidos.
+     * @return a emissão total.
+     */
+    public static double total(final double energy, final double transportation, final double solidWaste) {
+        return energy + transportation + solidWaste;
+    }
+
+}
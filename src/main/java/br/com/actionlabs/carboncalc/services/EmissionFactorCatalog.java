@@ -0,0 +1,139 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.EmissionFactorCatalogStatsDTO;
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.utils.RequestPhaseTimer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Catálogo em memória dos fatores de emissão de energia, transporte e resíduos sólidos.
+ *
+ * <p>Os fatores são carregados uma única vez na inicialização e mantidos em um {@link EmissionFactorSnapshot}
+ * imutável. A cada intervalo configurado em {@code carbon-calc.emission-factors.refresh-interval} (ou quando
+ * acionado pelo endpoint administrativo) os fatores são relidos do banco e, caso o conteúdo tenha mudado,
+ * o snapshot é substituído de forma atômica. Os cálculos nunca consultam o banco de dados para obter fatores.</p>
+ *
+ * <p>Se uma atualização falhar, o snapshot anterior continua em uso.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class EmissionFactorCatalog {
+
+    private final EnergyEmissionFactorRepository energyRepository;
+    private final TransportationEmissionFactorRepository transportationRepository;
+    private final SolidWasteEmissionFactorRepository wasteRepository;
+
+    private final AtomicReference<EmissionFactorSnapshot> current = new AtomicReference<>(EmissionFactorSnapshot.EMPTY);
+    private final LongAdder hits = new LongAdder();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong swaps = new AtomicLong();
+
+    @Autowired
+    public EmissionFactorCatalog(final EnergyEmissionFactorRepository energyRepository,
+                                 final TransportationEmissionFactorRepository transportationRepository,
+                                 final SolidWasteEmissionFactorRepository wasteRepository) {
+        this.energyRepository = energyRepository;
+        this.transportationRepository = transportationRepository;
+        this.wasteRepository = wasteRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            this.refresh();
+        } catch (RuntimeException exception) {
+            log.error("Emission factors could not be loaded at startup, calculations will use empty factors until the next refresh", exception);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${carbon-calc.emission-factors.refresh-interval:PT5M}",
+            fixedDelayString = "${carbon-calc.emission-factors.refresh-interval:PT5M}")
+    void scheduledRefresh() {
+        try {
+            this.refresh();
+        } catch (RuntimeException exception) {
+            log.error("Emission factors refresh failed, keeping snapshot version [ {} ]", this.current.get().getVersion(), exception);
+        }
+    }
+
+    /**
+     * Retorna o snapshot de fatores de emissão em uso.
+     *
+     * <p>Um mesmo cálculo deve utilizar um único snapshot, garantindo que todos os fatores aplicados
+     * pertençam à mesma versão mesmo que uma atualização ocorra durante o cálculo.</p>
+     *
+     * @return o {@link EmissionFactorSnapshot} atual. Nunca é {@code null}.
+     */
+    public EmissionFactorSnapshot snapshot() {
+        final var start = RequestPhaseTimer.start();
+        this.hits.increment();
+        final var snapshot = this.current.get();
+        RequestPhaseTimer.stop(RequestPhase.FACTOR_LOOKUP, start);
+        return snapshot;
+    }
+
+    /**
+     * Relê os fatores de emissão do banco de dados e substitui o snapshot atual caso o conteúdo tenha mudado.
+     *
+     * @return o {@link EmissionFactorSnapshot} em uso após a atualização.
+     * @throws RuntimeException se a leitura de alguma das coleções de fatores falhar. Neste caso o snapshot
+     *                          atual é mantido.
+     */
+    public EmissionFactorSnapshot refresh() {
+        this.refreshes.incrementAndGet();
+        final EmissionFactorSnapshot loaded;
+        try {
+            loaded = EmissionFactorSnapshot.of(this.energyRepository.findAll(),
+                    this.transportationRepository.findAll(),
+                    this.wasteRepository.findAll(),
+                    Instant.now());
+        } catch (RuntimeException exception) {
+            this.refreshFailures.incrementAndGet();
+            throw exception;
+        }
+        final var previous = this.current.get();
+        if (previous.getVersion() == loaded.getVersion() && previous != EmissionFactorSnapshot.EMPTY) {
+            return previous;
+        }
+        this.current.set(loaded);
+        this.swaps.incrementAndGet();
+        log.info("Emission factors snapshot [ {} ] loaded with {} energy, {} transportation and {} solid waste factors",
+                loaded.getVersion(), loaded.getEnergyFactorCount(), loaded.getTransportationFactorCount(), loaded.getSolidWasteFactorCount());
+        return loaded;
+    }
+
+    /**
+     * Retorna os contadores de uso e atualização do catálogo.
+     *
+     * @return um {@link EmissionFactorCatalogStatsDTO} com a versão em uso e os contadores acumulados.
+     */
+    public EmissionFactorCatalogStatsDTO stats() {
+        final var snapshot = this.current.get();
+        return new EmissionFactorCatalogStatsDTO(snapshot.getVersion(),
+                snapshot.getLoadedAt().toString(),
+                snapshot.getEnergyFactorCount(),
+                snapshot.getTransportationFactorCount(),
+                snapshot.getSolidWasteFactorCount(),
+                this.hits.sum(),
+                this.refreshes.get(),
+                this.refreshFailures.get(),
+                this.swaps.get());
+    }
+
+}
@@ -0,0 +1,162 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.EmissionRollupDTO;
+import br.com.actionlabs.carboncalc.dto.EmissionRollupRebuildDTO;
+import br.com.actionlabs.carboncalc.enums.RollupDimension;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.EmissionRollup;
+import br.com.actionlabs.carboncalc.model.EmissionRollupDelta;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EmissionRollupRepository;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Agregados incrementais das emissões por UF e por tipo de transporte.
+ *
+ * <p>Cada documento de {@code emissionRollups} guarda a quantidade, a soma e a soma dos quadrados dos valores de
+ * uma chave: o total de emissões dos cálculos de uma UF ou a emissão de um tipo de transporte nos cálculos que o
+ * usam. A média e a variância são obtidas com a leitura de um único documento, independente do tamanho da
+ * coleção de cálculos.</p>
+ *
+ * <p>Os agregados representam a soma dos resultados armazenados dos cálculos cujas informações de consumo já
+ * foram enviadas; o resultado zerado gravado na criação não é contado. Sempre que um resultado é substituído com
+ * sucesso, o {@link CalculationService} aplica a diferença entre o resultado anterior e o novo com {@code $inc}.
+ * Gravações em lote cujo resultado por documento não é conhecido, ou falhas na aplicação da diferença, são
+ * contadas em {@code carbon.calc.rollup.unaccounted}; nesses casos {@link #rebuild()} reconstrói os agregados a
+ * partir dos resultados armazenados.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class EmissionRollupService {
+
+    private static final String UNACCOUNTED_METRIC = "carbon.calc.rollup.unaccounted";
+
+    private final EmissionRollupRepository rollupRepository;
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public EmissionRollupService(final EmissionRollupRepository rollupRepository,
+                                 final CarbonEmissionStatsRepository carbonEmissionRepository) {
+        this.rollupRepository = rollupRepository;
+        this.carbonEmissionRepository = carbonEmissionRepository;
+    }
+
+    /**
+     * Aplica aos agregados a variação acumulada de um ou mais resultados substituídos.
+     *
+     * <p>O resultado do cálculo já foi gravado quando este método é chamado; por isso uma falha ao gravar os
+     * agregados é registrada e contada, mas não interrompe a requisição.</p>
+     *
+     * @param delta a variação acumulada.
+     */
+    public void apply(final EmissionRollupDelta delta) {
+        final var changes = delta.changes();
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            this.rollupRepository.increment(changes);
+        } catch (RuntimeException exception) {
+            log.warn("Failed to update emission rollups: {}", exception.getMessage());
+            this.unaccounted(changes.size());
+        }
+    }
+
+    /**
+     * Registra resultados gravados cuja variação não pôde ser aplicada aos agregados.
+     *
+     * @param count a quantidade de resultados.
+     */
+    public void unaccounted(final long count) {
+        if (count > 0) {
+            Metrics.counter(UNACCOUNTED_METRIC).increment(count);
+        }
+    }
+
+    /**
+     * Retorna o agregado do total de emissões dos cálculos de uma UF.
+     *
+     * @param uf a UF, em qualquer caixa.
+     * @return o agregado da UF. Uma UF sem cálculos retorna quantidade e valores zerados.
+     * @throws IllegalArgumentException se a UF for {@code null} ou vazia.
+     */
+    public EmissionRollupDTO rollupByUf(final String uf) {
+        if (uf == null || uf.isBlank()) {
+            throw new IllegalArgumentException("Federative unit is required");
+        }
+        return this.read(RollupDimension.UF, uf.trim().toUpperCase());
+    }
+
+    /**
+     * Retorna o agregado da emissão de um tipo de transporte nos cálculos que o usam.
+     *
+     * @param type o tipo de transporte.
+     * @return o agregado do tipo. Um tipo sem uso retorna quantidade e valores zerados.
+     */
+    public EmissionRollupDTO rollupByTransportation(final TransportationType type) {
+        return this.read(RollupDimension.TRANSPORTATION, type.name());
+    }
+
+    private EmissionRollupDTO read(final RollupDimension dimension, final String key) {
+        final var rollup = this.rollupRepository.findById(dimension.rollupId(key))
+                .orElseGet(() -> new EmissionRollup(dimension, key));
+        if (rollup.getCount() <= 0) {
+            return new EmissionRollupDTO(dimension, key, 0, 0.0, 0.0, 0.0, 0.0);
+        }
+        final var mean = rollup.getSum() / rollup.getCount();
+        final var variance = Math.max(0.0, rollup.getSumOfSquares() / rollup.getCount() - mean * mean);
+        return new EmissionRollupDTO(dimension, key, rollup.getCount(), rollup.getSum(), mean, variance, Math.sqrt(variance));
+    }
+
+    /**
+     * Reconstrói todos os agregados a partir dos resultados armazenados.
+     *
+     * <p>Os cálculos são percorridos com um cursor, trazendo apenas a UF, a revisão e o resultado de cada um. Os
+     * cálculos sem revisão ou com resultado provisório são ignorados e os demais são acumulados em memória em um agregado por chave, de forma que o consumo de memória depende apenas da quantidade de UFs e
+     * tipos de transporte. Cálculos sem dados do usuário também são ignorados.</p>
+     *
+     * <p>Ao final, os agregados reconstruídos são gravados em uma nova coleção, trocada pela atual de forma atômica
+     * com {@link EmissionRollupRepository#replaceAll}; as leituras nunca veem os agregados vazios ou incompletos.
+     * Uma variação aplicada enquanto o cursor percorre a coleção só é refletida se o cálculo for lido depois da
+     * troca do seu resultado, e as variações aplicadas aos agregados anteriores entre o fim da leitura e a troca
+     * se perdem. Por isso a reconstrução corrige o desvio acumulado, mas deve ser executada com pouco tráfego de
+     * escrita. Reconstruções simultâneas neste nó são executadas uma após a outra, com um {@link ReentrantLock}
+     * que, ao contrário de {@code synchronized}, não prende a thread portadora de uma thread virtual durante a
+     * leitura.</p>
+     *
+     * @return a quantidade de cálculos percorridos, de agregados gravados e o tempo gasto.
+     */
+    public EmissionRollupRebuildDTO rebuild() {
+        this.rebuildLock.lock();
+        try {
+            final var started = System.nanoTime();
+            final var delta = new EmissionRollupDelta();
+            long calculations = 0;
+            try (var stream = this.carbonEmissionRepository.streamResults()) {
+                final var iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    final var emissionStats = iterator.next();
+                    if (emissionStats.getUserData() != null && CalculationService.isCompleted(emissionStats)
+                            && !Boolean.TRUE.equals(emissionStats.getResult().getProvisional())) {
+                        delta.replace(emissionStats.getUserData().getUf(), null, emissionStats.getResult());
+                        calculations++;
+                    }
+                }
+            }
+            final var rollups = delta.changes();
+            this.rollupRepository.replaceAll(rollups);
+            final var elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+            log.info("Rebuilt {} emission rollups from {} calculations in {} ms", rollups.size(), calculations, elapsedMillis);
+            return new EmissionRollupRebuildDTO(calculations, rollups.size(), elapsedMillis);
+        } finally {
+            this.rebuildLock.unlock();
+        }
+    }
+
+}
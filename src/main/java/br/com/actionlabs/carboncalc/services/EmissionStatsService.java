@@ -0,0 +1,74 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.UfEmissionStatsDTO;
+import br.com.actionlabs.carboncalc.model.UfEmissionStats;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Estatísticas agregadas dos resultados dos cálculos por UF.
+ *
+ * <p>As estatísticas são calculadas pelo MongoDB com uma agregação sobre {@code carbonEmissionStats}, sem
+ * trazer os cálculos para a aplicação. Como o painel público consulta essas estatísticas continuamente, cada
+ * resposta fica em cache por {@code carbon-calc.uf-stats.cache-ttl}; leituras concorrentes da mesma chave
+ * durante o carregamento aguardam a mesma agregação.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+public class EmissionStatsService {
+
+    private static final String ALL_UFS = "*";
+    private static final int MAXIMUM_CACHED_UFS = 64;
+
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final Cache<String, UfEmissionStatsDTO> statsByUf;
+    private final Cache<String, List<UfEmissionStatsDTO>> statsPerUf;
+
+    public EmissionStatsService(final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                @Value("${carbon-calc.uf-stats.cache-ttl:PT30S}") final Duration cacheTtl) {
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.statsByUf = Caffeine.newBuilder().maximumSize(MAXIMUM_CACHED_UFS).expireAfterWrite(cacheTtl).build();
+        this.statsPerUf = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(cacheTtl).build();
+    }
+
+    /**
+     * Retorna as estatísticas dos cálculos de uma UF.
+     *
+     * @param uf a UF, em qualquer caixa.
+     * @return as estatísticas da UF. Uma UF sem cálculos com resultado retorna quantidade e valores zerados.
+     * @throws IllegalArgumentException se a UF for {@code null} ou vazia.
+     */
+    public UfEmissionStatsDTO statsByUf(final String uf) {
+        if (uf == null || uf.isBlank()) {
+            throw new IllegalArgumentException("Federative unit is required");
+        }
+        final var normalizedUf = uf.trim().toUpperCase();
+        return this.statsByUf.get(normalizedUf, key -> this.carbonEmissionRepository.aggregateStatsByUf(key)
+                .map(EmissionStatsService::toDTO)
+                .orElseGet(() -> new UfEmissionStatsDTO(key, 0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0)));
+    }
+
+    /**
+     * Retorna as estatísticas de todas as UFs com cálculos, obtidas com uma única agregação.
+     *
+     * @return as estatísticas de cada UF, ordenadas pela UF.
+     */
+    public List<UfEmissionStatsDTO> statsPerUf() {
+        return this.statsPerUf.get(ALL_UFS, key -> this.carbonEmissionRepository.aggregateStatsPerUf().stream()
+                .map(EmissionStatsService::toDTO)
+                .toList());
+    }
+
+    private static UfEmissionStatsDTO toDTO(final UfEmissionStats stats) {
+        return new UfEmissionStatsDTO(stats.getUf(), stats.getCount(), stats.getAverageTotal(), stats.getMinTotal(),
+                stats.getMaxTotal(), stats.getAverageEnergy(), stats.getAverageTransportation(), stats.getAverageSolidWaste());
+    }
+
+}
@@ -0,0 +1,362 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.dto.PercentileRebuildDTO;
+import br.com.actionlabs.carboncalc.model.PercentileSketch;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.PercentileSketchRepository;
+import com.tdunning.math.stats.MergingDigest;
+import com.tdunning.math.stats.TDigest;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Percentil do total de emissões de um cálculo entre os cálculos da mesma UF.
+ *
+ * <p>A distribuição de cada UF é mantida em memória em um t-digest, um sketch de quantis de tamanho fixo que
+ * responde ao percentil sem consultar o banco. Cada nó registra no seu próprio sketch os totais dos cálculos cujas
+ * informações atualizou e, a cada {@code carbon-calc.percentile.sync-interval}, grava os sketches alterados em
+ * {@code percentileSketches} e relê os sketches de todos os nós, unidos em uma visão por UF. Como t-digests são
+ * combináveis, a visão de todos os nós converge para a mesma distribuição, com o atraso de um intervalo.</p>
+ *
+ * <p>O sketch só acumula observações: um cálculo atualizado várias vezes contribui com um valor por atualização
+ * (ver {@link #withPercentile(CarbonCalculationResultDTO)}). {@link #rebuild()} reconstrói os sketches a partir dos
+ * resultados armazenados e inicia uma nova geração, marcada com o instante em que a leitura começou. Ao encontrar a
+ * nova geração, os demais nós substituem os seus sketches locais, mas levam para ela as observações registradas a
+ * partir desse instante, que a leitura pode não ter visto. Para isso, cada nó guarda as observações de cada
+ * intervalo de sincronização em sketches separados, por {@code carbon-calc.percentile.carry-over}; a comparação
+ * usa o relógio de cada nó, e um intervalo que começou antes da leitura é levado inteiro, o que pode contar
+ * algumas observações duas vezes.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class FootprintPercentileService {
+
+    private static final long NO_GENERATION = -1;
+
+    private final PercentileSketchRepository sketchRepository;
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final double compression;
+    private final String nodeId;
+
+    private final Map<String, MergingDigest> local = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private volatile Map<String, TDigest> merged = Map.of();
+    private long generation = NO_GENERATION;
+    private Instant generationStartedAt;
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private ConcurrentLinkedQueue<Observation> arrivals;
+    private final Duration carryOver;
+    private Interval current = new Interval(now());
+    private final Deque<Interval> intervals = new ArrayDeque<>();
+
+    public FootprintPercentileService(final PercentileSketchRepository sketchRepository,
+                                      final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                      @Value("${carbon-calc.percentile.compression:100}") final double compression,
+                                      @Value("${carbon-calc.percentile.node-id:local}") final String nodeId,
+                                      @Value("${carbon-calc.percentile.carry-over:PT1H}") final Duration carryOver) {
+        this.sketchRepository = sketchRepository;
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.compression = compression;
+        this.nodeId = nodeId;
+        this.carryOver = carryOver;
+    }
+
+    @PostConstruct
+    void load() {
+        try {
+            this.sync();
+        } catch (RuntimeException exception) {
+            log.error("Percentile sketches could not be loaded at startup, percentiles will be omitted until the next sync", exception);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${carbon-calc.percentile.sync-interval:PT1M}",
+            fixedDelayString = "${carbon-calc.percentile.sync-interval:PT1M}")
+    void scheduledSync() {
+        try {
+            this.sync();
+        } catch (RuntimeException exception) {
+            log.error("Percentile sketches sync failed, keeping the current view", exception);
+        }
+    }
+
+    /**
+     * Registra o total de um cálculo no sketch local da UF.
+     *
+     * @param uf    a UF do cálculo.
+     * @param total o total de emissões do cálculo.
+     */
+    public void record(final String uf, final double total) {
+        if (uf == null) {
+            return;
+        }
+        this.rebuildLock.readLock().lock();
+        try {
+            final var digest = this.local.computeIfAbsent(uf, key -> new MergingDigest(this.compression));
+            synchronized (digest) {
+                digest.add(total);
+            }
+            this.current.add(uf, total, this.compression);
+            this.dirty.add(uf);
+            final var pending = this.arrivals;
+            if (pending != null) {
+                pending.add(new Observation(uf, total));
+            }
+        } finally {
+            this.rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna uma cópia do resultado com o percentil do total entre os cálculos da UF.
+     *
+     * <p>A distribuição tem uma observação por atualização das informações, e não uma por cálculo: um cálculo
+     * atualizado várias vezes pesa mais do que os demais, inclusive com os seus totais anteriores, até a próxima
+     * reconstrução. O percentil é uma aproximação do t-digest e reflete os demais nós com o atraso de
+     * {@code carbon-calc.percentile.sync-interval}.</p>
+     *
+     * @param result o resultado, com a UF do cálculo.
+     * @return uma cópia com {@code percentile} preenchido, de {@code 0.0} a {@code 100.0}, ou o próprio resultado
+     * se a UF for desconhecida ou ainda não tiver observações.
+     */
+    public CarbonCalculationResultDTO withPercentile(final CarbonCalculationResultDTO result) {
+        final var digest = result.getUf() == null ? null : this.merged.get(result.getUf());
+        if (digest == null || digest.size() == 0) {
+            return result;
+        }
+        final var percentile = Math.round(digest.cdf(result.getTotal()) * 1000.0) / 10.0;
+        return result.toBuilder().percentile(percentile).build();
+    }
+
+    /**
+     * Grava os sketches locais alterados e relê os sketches de todos os nós.
+     *
+     * <p>Se outro nó tiver iniciado uma geração mais recente, os sketches locais são substituídos pelos que este
+     * nó gravou nessa geração (nenhum, se a geração foi criada por outro nó), somados aos intervalos de
+     * sincronização que não terminaram antes do início da leitura que criou a geração.</p>
+     */
+    public synchronized void sync() {
+        final var latest = this.sketchRepository.findFirstByOrderByGenerationDesc();
+        final var sealed = this.seal();
+        final var latestGeneration = latest.map(PercentileSketch::getGeneration).orElse(0L);
+        if (latestGeneration > this.generation) {
+            final var startedAt = latest.map(PercentileSketch::getGenerationStartedAt).orElse(null);
+            this.restore(latestGeneration, startedAt == null ? sealed.startedAt : startedAt);
+        }
+        this.persist();
+        this.merge();
+        final var expired = now().minus(this.carryOver);
+        while (!this.intervals.isEmpty() && this.intervals.peekFirst().endedAt.isBefore(expired)) {
+            this.intervals.removeFirst();
+        }
+    }
+
+    /**
+     * Reconstrói os sketches de todas as UFs a partir dos resultados armazenados, em uma nova geração.
+     *
+     * <p>Os cálculos são percorridos com um cursor; apenas os que já tiveram as informações atualizadas (com
+     * revisão) entram na distribuição. As observações registradas durante a leitura são guardadas e somadas aos
+     * sketches reconstruídos, que substituem os locais sem que {@link #record(String, double)} os veja pela
+     * metade. Um cálculo gravado logo antes do início da leitura, mas registrado depois dele, pode ser contado
+     * duas vezes. Os sketches das gerações anteriores são removidos.</p>
+     *
+     * @return a quantidade de cálculos e UFs, a nova geração e o tempo gasto.
+     */
+    public synchronized PercentileRebuildDTO rebuild() {
+        final var started = System.nanoTime();
+        final var startedAt = now();
+        final var rebuilt = new HashMap<String, MergingDigest>();
+        long calculations = 0;
+        this.rebuildLock.writeLock().lock();
+        try {
+            this.arrivals = new ConcurrentLinkedQueue<>();
+        } finally {
+            this.rebuildLock.writeLock().unlock();
+        }
+        final long latest;
+        try (var stream = this.carbonEmissionRepository.streamResults()) {
+            final var iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                final var emissionStats = iterator.next();
+                if (emissionStats.getRevision() != null && emissionStats.getUserData() != null) {
+                    rebuilt.computeIfAbsent(emissionStats.getUserData().getUf(), key -> new MergingDigest(this.compression))
+                            .add(emissionStats.getResult().getTotal());
+                    calculations++;
+                }
+            }
+            latest = this.sketchRepository.findFirstByOrderByGenerationDesc()
+                    .map(PercentileSketch::getGeneration)
+                    .orElse(0L);
+        } catch (RuntimeException exception) {
+            this.rebuildLock.writeLock().lock();
+            try {
+                this.arrivals = null;
+            } finally {
+                this.rebuildLock.writeLock().unlock();
+            }
+            throw exception;
+        }
+        this.generation = Math.max(latest, this.generation) + 1;
+        this.generationStartedAt = startedAt;
+        this.rebuildLock.writeLock().lock();
+        try {
+            for (var observation : this.arrivals) {
+                rebuilt.computeIfAbsent(observation.uf(), key -> new MergingDigest(this.compression)).add(observation.total());
+            }
+            this.arrivals = null;
+            this.local.clear();
+            this.local.putAll(rebuilt);
+            this.dirty.clear();
+            this.dirty.addAll(rebuilt.keySet());
+        } finally {
+            this.rebuildLock.writeLock().unlock();
+        }
+        this.persist();
+        this.sketchRepository.deleteByGenerationLessThan(this.generation);
+        this.merge();
+        final var elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Rebuilt percentile sketches of {} federative units from {} calculations in generation {}",
+                rebuilt.size(), calculations, this.generation);
+        return new PercentileRebuildDTO(calculations, rebuilt.size(), this.generation, elapsedMillis);
+    }
+
+    private record Observation(String uf, double total) {
+    }
+
+    /**
+     * Observações registradas por este nó entre duas sincronizações.
+     */
+    private static final class Interval {
+
+        private final Instant startedAt;
+        private final Map<String, MergingDigest> digests = new ConcurrentHashMap<>();
+        private Instant endedAt;
+
+        private Interval(final Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void add(final String uf, final double total, final double compression) {
+            final var digest = this.digests.computeIfAbsent(uf, key -> new MergingDigest(compression));
+            synchronized (digest) {
+                digest.add(total);
+            }
+        }
+
+    }
+
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Encerra o intervalo atual e inicia o seguinte.
+     *
+     * @return o intervalo encerrado.
+     */
+    private Interval seal() {
+        this.rebuildLock.writeLock().lock();
+        try {
+            final var sealed = this.current;
+            sealed.endedAt = now();
+            this.current = new Interval(sealed.endedAt);
+            this.intervals.addLast(sealed);
+            return sealed;
+        } finally {
+            this.rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui os sketches locais pelos que este nó gravou na geração informada, somados aos intervalos que
+     * não terminaram antes de {@code startedAt}. A troca é feita com {@code rebuildLock}, de forma que nenhuma
+     * observação registrada durante a troca se perca.
+     */
+    private void restore(final long latest, final Instant startedAt) {
+        final var restored = new HashMap<String, MergingDigest>();
+        for (var sketch : this.sketchRepository.findByNodeIdAndGeneration(this.nodeId, latest)) {
+            restored.put(sketch.getUf(), MergingDigest.fromBytes(ByteBuffer.wrap(sketch.getDigest())));
+        }
+        this.rebuildLock.writeLock().lock();
+        try {
+            final var carried = new ArrayList<>(this.intervals);
+            carried.add(this.current);
+            for (var interval : carried) {
+                if (interval.endedAt != null && interval.endedAt.isBefore(startedAt)) {
+                    continue;
+                }
+                interval.digests.forEach((uf, digest) -> restored.computeIfAbsent(uf, key -> new MergingDigest(this.compression)).add(digest));
+            }
+            this.local.clear();
+            this.local.putAll(restored);
+            this.dirty.clear();
+            this.dirty.addAll(restored.keySet());
+            this.generation = latest;
+            this.generationStartedAt = startedAt;
+        } finally {
+            this.rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void persist() {
+        final var sketches = new ArrayList<PercentileSketch>();
+        for (var uf : List.copyOf(this.dirty)) {
+            this.dirty.remove(uf);
+            final var digest = this.local.get(uf);
+            if (digest == null) {
+                continue;
+            }
+            final byte[] bytes;
+            final long count;
+            synchronized (digest) {
+                digest.compress();
+                final var buffer = ByteBuffer.allocate(digest.byteSize());
+                digest.asBytes(buffer);
+                bytes = buffer.array();
+                count = digest.size();
+            }
+            sketches.add(new PercentileSketch(uf + ":" + this.nodeId, uf, this.nodeId, this.generation, this.generationStartedAt, count,
+                    bytes, Instant.now()));
+        }
+        this.sketchRepository.saveAll(sketches);
+    }
+
+    private void merge() {
+        final var byUf = new HashMap<String, List<TDigest>>();
+        for (var sketch : this.sketchRepository.findByGeneration(this.generation)) {
+            byUf.computeIfAbsent(sketch.getUf(), key -> new ArrayList<>())
+                    .add(MergingDigest.fromBytes(ByteBuffer.wrap(sketch.getDigest())));
+        }
+        final var view = new HashMap<String, TDigest>();
+        byUf.forEach((uf, digests) -> {
+            final var digest = new MergingDigest(this.compression);
+            digest.add(digests);
+            digest.compress();
+            view.put(uf, digest);
+        });
+        this.merged = Map.copyOf(view);
+    }
+
+}
@@ -0,0 +1,195 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcResponseDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoResponseDTO;
+import br.com.actionlabs.carboncalc.factory.CarbonEmissionStatsFactory;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.model.EmissionRollupDelta;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.ReactiveCarbonEmissionStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * Implementação não bloqueante do cálculo de emissões de carbono, ativa com o perfil {@code reactive}.
+ *
+ * <p>Segue as mesmas regras do {@link CalculationService}: o resultado é calculado na escrita e gravado junto com
+ * a versão dos fatores, a atualização das informações é uma única operação atômica seguida da gravação do
+ * resultado condicionada à revisão, e a leitura recalcula resultados ausentes ou desatualizados. Todo acesso aos
+ * cálculos é feito pelo {@link ReactiveCarbonEmissionStatsRepository}; os fatores de emissão vêm do
+ * {@link EmissionFactorCatalog}, em memória, sem bloquear a requisição.</p>
+ *
+ * <p>Cada resultado substituído ajusta os agregados do {@link EmissionRollupService}, cuja gravação bloqueante
+ * é feita no {@link Schedulers#boundedElastic()}, e cada atualização das informações registra o novo total no
+ * {@link FootprintPercentileService}.</p>
+ *
+ * <p>Um cálculo que não está na coleção é buscado no {@link CalculationArchive}, cuja leitura, bloqueante, é feita
+ * no {@link Schedulers#boundedElastic()}.</p>
+ *
+ * <p>Os resultados não passam pelo {@link CalculationResultCache}, cujo carregamento é bloqueante; a leitura de
+ * um resultado atual é uma única consulta projetada.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Profile("reactive")
+@Slf4j
+public class ReactiveCalculationService implements ReactiveCalculationServiceContract {
+
+    private final ReactiveCarbonEmissionStatsRepository carbonEmissionRepository;
+    private final EmissionFactorCatalog factorCatalog;
+    private final EmissionRollupService rollupService;
+    private final FootprintPercentileService percentileService;
+    private final CalculationArchive archive;
+    private final Duration expireAfter;
+
+    @Autowired
+    public ReactiveCalculationService(final ReactiveCarbonEmissionStatsRepository carbonEmissionRepository,
+                                      final EmissionFactorCatalog factorCatalog,
+                                      final EmissionRollupService rollupService,
+                                      final FootprintPercentileService percentileService,
+                                      final CalculationArchive archive,
+                                      @Value("${carbon-calc.abandoned-calculations.expire-after:P7D}") final Duration expireAfter) {
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.factorCatalog = factorCatalog;
+        this.rollupService = rollupService;
+        this.percentileService = percentileService;
+        this.archive = archive;
+        this.expireAfter = expireAfter;
+    }
+
+    /**
+     * Cria o cálculo com os dados do usuário e o resultado inicial e o insere no repositório.
+     *
+     * @param request os dados do usuário.
+     * @return um {@link Mono} com o ID do cálculo criado, ou com erro se os dados forem inválidos.
+     * @see CalculationService#startCalculation(StartCalcRequestDTO)
+     */
+    @Override
+    public Mono<StartCalcResponseDTO> startCalculation(final StartCalcRequestDTO request) {
+        return Mono.fromCallable(() -> {
+                    CalculationService.userDataValidate(request);
+                    final var carbonData = CarbonEmissionStatsFactory.create(CalculationService.userDataFrom(request), this.expireAfter);
+                    carbonData.setResult(CalculationService.calculate(carbonData, this.factorCatalog.snapshot()));
+                    return carbonData;
+                })
+                .flatMap(this.carbonEmissionRepository::insert)
+                .map(storedCarbonEmissionStats -> StartCalcResponseDTO.from(storedCarbonEmissionStats.getId()));
+    }
+
+    /**
+     * Atualiza as informações de consumo de um cálculo e grava o novo resultado.
+     *
+     * @param request o ID do cálculo e os novos valores.
+     * @return um {@link Mono} indicando se algum cálculo foi encontrado para o ID informado.
+     * @see CalculationService#updateCalculationInfo(UpdateCalcInfoRequestDTO)
+     */
+    @Override
+    public Mono<UpdateCalcInfoResponseDTO> updateCalculationInfo(final UpdateCalcInfoRequestDTO request) {
+        return Mono.fromCallable(() -> {
+                    CalculationService.updateRequestValidate(request);
+                    return request;
+                })
+                .flatMap(validRequest -> this.carbonEmissionRepository.updateInfo(validRequest.getId(),
+                        validRequest.getEnergyConsumption(),
+                        CalculationService.transportationListFrom(validRequest),
+                        validRequest.getSolidWasteTotal(),
+                        validRequest.getRecyclePercentage()))
+                .flatMap(emissionStats -> {
+                    final var result = CalculationService.calculate(emissionStats, this.factorCatalog.snapshot());
+                    return this.replaceResult(emissionStats, result, emissionStats.getRevision() == 1)
+                            .doOnNext(updated -> {
+                                if (updated > 0) {
+                                    this.percentileService.record(emissionStats.getUserData().getUf(), result.getTotal());
+                                }
+                            })
+                            .thenReturn(emissionStats);
+                })
+                .map(updated -> UpdateCalcInfoResponseDTO.builder().success(true).build())
+                .defaultIfEmpty(UpdateCalcInfoResponseDTO.builder().success(false).build());
+    }
+
+    /**
+     * Retorna o resultado armazenado de um cálculo, recalculando-o se ele estiver ausente ou desatualizado.
+     *
+     * @param calculationId o ID do cálculo.
+     * @return um {@link Mono} com o resultado, ou com um objeto vazio se o cálculo não existir.
+     * @see CalculationService#getResult(String)
+     */
+    @Override
+    public Mono<CarbonCalculationResultDTO> getResult(final String calculationId) {
+        final var factors = this.factorCatalog.snapshot();
+        return this.carbonEmissionRepository.findResultById(calculationId)
+                .flatMap(storedResult -> {
+                    final var result = storedResult.getResult();
+                    if (result != null && result.getFactorVersion() == factors.getVersion()) {
+                        return Mono.just(CalculationService.toResultDTO(result, CalculationService.ufOf(storedResult)));
+                    }
+                    return this.carbonEmissionRepository.findById(calculationId)
+                            .flatMap(emissionStats -> this.recalculate(emissionStats, factors));
+                })
+                .switchIfEmpty(Mono.fromCallable(() -> CalculationService.archivedResult(this.archive, calculationId, factors).orElse(null))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .defaultIfEmpty(CarbonCalculationResultDTO.builder().build());
+    }
+
+    /**
+     * Recalcula o resultado de um cálculo e o grava, condicionado à revisão lida.
+     *
+     * @param emissionStats o {@link CarbonEmissionStats} completo lido do repositório.
+     * @param factors       o {@link EmissionFactorSnapshot} em uso.
+     * @return um {@link Mono} com o resultado recalculado.
+     */
+    private Mono<CarbonCalculationResultDTO> recalculate(final CarbonEmissionStats emissionStats, final EmissionFactorSnapshot factors) {
+        final var result = CalculationService.calculate(emissionStats, factors);
+        return this.replaceResult(emissionStats, result, false)
+                .thenReturn(CalculationService.toResultDTO(result, CalculationService.ufOf(emissionStats)));
+    }
+
+    /**
+     * Substitui o resultado lido de um cálculo pelo novo resultado e, se a troca acontecer, aplica a diferença
+     * entre os dois aos agregados.
+     *
+     * @param emissionStats o cálculo com a UF, a revisão e o resultado lidos.
+     * @param result        o novo resultado.
+     * @param firstUpdate   {@code true} se a revisão lida é a da primeira atualização das informações.
+     * @return um {@link Mono} com a quantidade de documentos atualizados.
+     * @see CalculationService#isCompleted(CarbonEmissionStats)
+     */
+    private Mono<Long> replaceResult(final CarbonEmissionStats emissionStats, final CarbonEmissionResult result,
+                                     final boolean firstUpdate) {
+        final var previous = emissionStats.getResult();
+        return this.carbonEmissionRepository.updateResult(emissionStats.getId(), emissionStats.getRevision(), previous, result)
+                .flatMap(updated -> updated > 0 && CalculationService.isCompleted(emissionStats)
+                        ? this.applyRollup(new EmissionRollupDelta().replace(emissionStats.getUserData().getUf(),
+                        firstUpdate ? null : previous, result))
+                        .thenReturn(updated)
+                        : Mono.just(updated));
+    }
+
+    /**
+     * Aplica a variação aos agregados. O {@link EmissionRollupService} é bloqueante, por isso a gravação é feita
+     * no {@link Schedulers#boundedElastic()}.
+     *
+     * @param delta a variação dos agregados.
+     * @return um {@link Mono} concluído após a gravação.
+     */
+    private Mono<Void> applyRollup(final EmissionRollupDelta delta) {
+        return Mono.fromRunnable(() -> this.rollupService.apply(delta))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+}
@@ -0,0 +1,18 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
+import br.com.actionlabs.carboncalc.dto.StartCalcResponseDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoResponseDTO;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCalculationServiceContract {
+
+    Mono<StartCalcResponseDTO> startCalculation(StartCalcRequestDTO request);
+
+    Mono<UpdateCalcInfoResponseDTO> updateCalculationInfo(UpdateCalcInfoRequestDTO request);
+
+    Mono<CarbonCalculationResultDTO> getResult(String calculationId);
+
+}
@@ -0,0 +1,276 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.RecalculationJobDTO;
+import br.com.actionlabs.carboncalc.enums.RecalculationStatus;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.model.EmissionRollupDelta;
+import br.com.actionlabs.carboncalc.model.RecalculationJob;
+import br.com.actionlabs.carboncalc.model.RecalculationPartition;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.RecalculationJobRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import br.com.actionlabs.carboncalc.utils.OperationRateLimiter;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Recálculo em lote dos resultados armazenados depois de uma troca dos fatores de emissão.
+ *
+ * <p>Sem o job, um resultado calculado com fatores substituídos só é recalculado quando é lido. O job percorre a
+ * coleção {@code carbonEmissionStats} dividida em {@code carbon-calc.recalculation.partitions} faixas de IDs
+ * (os IDs são UUIDs em hexadecimal, distribuídos de maneira uniforme entre as faixas), processadas em paralelo
+ * por um {@link ForkJoinPool} de {@code carbon-calc.recalculation.parallelism} threads. Cada partição lê os
+ * próximos {@code carbon-calc.recalculation.batch-size} cálculos desatualizados da sua faixa, recalcula os
+ * resultados com o {@link CarbonCalculationKernel} e os grava com uma única operação em lote, condicionada à
+ * revisão lida, assim como nas leituras em lote do {@link CalculationService}.</p>
+ *
+ * <p>Depois de cada lote, o último ID gravado é salvo como checkpoint da partição em {@code recalculationJobs}.
+ * Se a aplicação parar no meio do job, ele é retomado dos checkpoints na próxima inicialização (ou com uma nova
+ * chamada de {@link #start()}), desde que os fatores não tenham mudado de novo; nesse caso o job antigo é
+ * substituído por um novo. Lotes repetidos depois de uma queda não causam dano, pois só leem cálculos ainda
+ * desatualizados.</p>
+ *
+ * <p>Para não competir com o tráfego da API, as leituras e gravações de documentos de todas as partições passam
+ * por um {@link OperationRateLimiter} de {@code carbon-calc.recalculation.max-ops-per-second} documentos por
+ * segundo.</p>
+ *
+ * <p>O job não tem coordenação entre nós: cada nó executa no máximo um job por vez, mas dois nós podem retomar o
+ * mesmo job. Como as gravações são condicionadas à revisão e só alcançam cálculos desatualizados, o trabalho
+ * repetido é descartado sem alterar os resultados.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+@Slf4j
+public class RecalculationJobService {
+
+    private static final int ID_PREFIX_SPACE = 0x10000;
+    private static final String ID_PREFIX_FORMAT = "%04x";
+
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final RecalculationJobRepository jobRepository;
+    private final EmissionFactorCatalog factorCatalog;
+    private final CalculationService calculationService;
+    private final int partitions;
+    private final int parallelism;
+    private final int batchSize;
+    private final OperationRateLimiter rateLimiter;
+    private final boolean resumeOnStartup;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile ForkJoinPool pool;
+
+    public RecalculationJobService(final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                   final RecalculationJobRepository jobRepository,
+                                   final EmissionFactorCatalog factorCatalog,
+                                   final CalculationService calculationService,
+                                   @Value("${carbon-calc.recalculation.partitions:16}") final int partitions,
+                                   @Value("${carbon-calc.recalculation.parallelism:4}") final int parallelism,
+                                   @Value("${carbon-calc.recalculation.batch-size:500}") final int batchSize,
+                                   @Value("${carbon-calc.recalculation.max-ops-per-second:2000}") final double maxOpsPerSecond,
+                                   @Value("${carbon-calc.recalculation.resume-on-startup:true}") final boolean resumeOnStartup) {
+        if (partitions < 1 || partitions > ID_PREFIX_SPACE) {
+            throw new IllegalArgumentException("Recalculation partitions must be between 1 and %d".formatted(ID_PREFIX_SPACE));
+        }
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.jobRepository = jobRepository;
+        this.factorCatalog = factorCatalog;
+        this.calculationService = calculationService;
+        this.partitions = partitions;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.rateLimiter = new OperationRateLimiter(maxOpsPerSecond);
+        this.resumeOnStartup = resumeOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void resumeInterruptedJob() {
+        if (!this.resumeOnStartup) {
+            return;
+        }
+        try {
+            this.jobRepository.findFirstByOrderByStartedAtDesc()
+                    .filter(job -> job.getStatus() == RecalculationStatus.RUNNING)
+                    .ifPresent(job -> {
+                        log.info("Resuming recalculation job {} interrupted at {} processed calculations", job.getId(), job.getProcessed());
+                        this.start();
+                    });
+        } catch (RuntimeException exception) {
+            log.error("Interrupted recalculation job could not be resumed", exception);
+        }
+    }
+
+    /**
+     * Inicia o recálculo com os fatores mais recentes do banco, ou retoma o job desses fatores se ele tiver sido
+     * interrompido, e retorna sem aguardar o fim.
+     *
+     * @return a situação do job iniciado ou retomado.
+     * @throws IllegalStateException se já houver um job em execução neste nó.
+     */
+    public RecalculationJobDTO start() {
+        if (!this.running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A recalculation job is already running");
+        }
+        try {
+            final var factors = this.factorCatalog.refresh();
+            final var job = this.resumableJob(factors.getVersion()).orElseGet(() -> this.newJob(factors.getVersion()));
+            final var runner = new Thread(() -> this.run(job, factors), "recalculation-job");
+            runner.setDaemon(true);
+            runner.start();
+            return toDTO(job);
+        } catch (RuntimeException exception) {
+            this.running.set(false);
+            throw exception;
+        }
+    }
+
+    /**
+     * Retorna a situação do job mais recente.
+     *
+     * @return o job mais recente, ou vazio se nenhum job foi iniciado.
+     */
+    public Optional<RecalculationJobDTO> status() {
+        return this.jobRepository.findFirstByOrderByStartedAtDesc().map(RecalculationJobService::toDTO);
+    }
+
+    public boolean isRunning() {
+        return this.running.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        final var current = this.pool;
+        if (current != null) {
+            current.shutdownNow();
+        }
+    }
+
+    private Optional<RecalculationJob> resumableJob(final long factorVersion) {
+        final var latest = this.jobRepository.findFirstByOrderByStartedAtDesc();
+        if (latest.isEmpty()) {
+            return Optional.empty();
+        }
+        final var job = latest.get();
+        final var unfinished = job.getStatus() == RecalculationStatus.RUNNING || job.getStatus() == RecalculationStatus.FAILED;
+        if (unfinished && job.getFactorVersion() == factorVersion) {
+            this.jobRepository.updateStatus(job.getId(), RecalculationStatus.RUNNING, null);
+            job.setStatus(RecalculationStatus.RUNNING);
+            job.setError(null);
+            return Optional.of(job);
+        }
+        if (unfinished) {
+            this.jobRepository.updateStatus(job.getId(), RecalculationStatus.SUPERSEDED, null);
+        }
+        return Optional.empty();
+    }
+
+    private RecalculationJob newJob(final long factorVersion) {
+        final var now = Instant.now();
+        final var job = new RecalculationJob(IdentifierUtil.unique(), factorVersion, RecalculationStatus.RUNNING,
+                partitions(this.partitions), 0, 0, 0, null, now, now, null);
+        return this.jobRepository.insert(job);
+    }
+
+    /**
+     * Divide o espaço de IDs em faixas pelo prefixo hexadecimal de quatro dígitos. A primeira faixa não tem limite
+     * inferior e a última não tem limite superior, de forma que IDs fora do formato também são alcançados.
+     */
+    static List<RecalculationPartition> partitions(final int count) {
+        final var partitions = new ArrayList<RecalculationPartition>(count);
+        for (int index = 0; index < count; index++) {
+            final var lower = index == 0 ? null : ID_PREFIX_FORMAT.formatted((long) index * ID_PREFIX_SPACE / count);
+            final var upper = index == count - 1 ? null : ID_PREFIX_FORMAT.formatted((long) (index + 1) * ID_PREFIX_SPACE / count);
+            partitions.add(new RecalculationPartition(index, lower, upper, null, 0, false));
+        }
+        return partitions;
+    }
+
+    private void run(final RecalculationJob job, final EmissionFactorSnapshot factors) {
+        final var started = System.nanoTime();
+        this.pool = new ForkJoinPool(this.parallelism);
+        try {
+            final var tasks = new ArrayList<Callable<Long>>();
+            for (var partition : job.getPartitions()) {
+                if (!partition.isCompleted()) {
+                    tasks.add(() -> this.process(job.getId(), partition, factors));
+                }
+            }
+            long updated = 0;
+            for (var result : this.pool.invokeAll(tasks)) {
+                updated += result.get();
+            }
+            this.jobRepository.updateStatus(job.getId(), RecalculationStatus.COMPLETED, null);
+            log.info("Recalculation job {} updated {} results with factor version {} in {} ms", job.getId(), updated,
+                    factors.getVersion(), (System.nanoTime() - started) / 1_000_000);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            log.warn("Recalculation job {} interrupted, it will resume from its checkpoints", job.getId());
+        } catch (ExecutionException | RuntimeException exception) {
+            final var cause = exception instanceof ExecutionException ? exception.getCause() : exception;
+            log.error("Recalculation job {} failed", job.getId(), cause);
+            this.jobRepository.updateStatus(job.getId(), RecalculationStatus.FAILED, String.valueOf(cause.getMessage()));
+        } finally {
+            this.pool.shutdownNow();
+            this.pool = null;
+            this.running.set(false);
+        }
+    }
+
+    /**
+     * Processa uma partição a partir do seu checkpoint até não restarem cálculos desatualizados na faixa.
+     *
+     * @return a quantidade de resultados gravados.
+     */
+    private long process(final String jobId, final RecalculationPartition partition, final EmissionFactorSnapshot factors)
+            throws InterruptedException {
+        var lastId = partition.getLastId();
+        long updated = 0;
+        while (true) {
+            final var batch = this.carbonEmissionRepository.findStaleResults(partition.getLowerId(), lastId,
+                    partition.getUpperId(), factors.getVersion(), this.batchSize);
+            this.rateLimiter.acquire(batch.size());
+            if (batch.isEmpty()) {
+                this.jobRepository.checkpoint(jobId, partition.getIndex(), null, 0, 0, true);
+                return updated;
+            }
+            final var delta = new EmissionRollupDelta();
+            for (var emissionStats : batch) {
+                final var result = CalculationService.calculate(emissionStats, factors);
+                if (CalculationService.isCompleted(emissionStats)) {
+                    delta.replace(CalculationService.ufOf(emissionStats), emissionStats.getResult(), result);
+                }
+                emissionStats.setResult(result);
+            }
+            this.rateLimiter.acquire(batch.size());
+            final var written = this.calculationService.applyBulkResults(batch, delta);
+            updated += written;
+            lastId = batch.get(batch.size() - 1).getId();
+            final var completed = batch.size() < this.batchSize;
+            this.jobRepository.checkpoint(jobId, partition.getIndex(), lastId, batch.size(), written, completed);
+            if (completed) {
+                return updated;
+            }
+        }
+    }
+
+    private static RecalculationJobDTO toDTO(final RecalculationJob job) {
+        final var completedPartitions = (int) job.getPartitions().stream().filter(RecalculationPartition::isCompleted).count();
+        return new RecalculationJobDTO(job.getId(), job.getFactorVersion(), job.getStatus(), job.getPartitions().size(),
+                completedPartitions, job.getProcessed(), job.getUpdated(), job.getConflicts(), job.getError(),
+                job.getStartedAt(), job.getUpdatedAt(), job.getFinishedAt());
+    }
+
+}
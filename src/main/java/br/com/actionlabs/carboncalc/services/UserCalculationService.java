@@ -0,0 +1,103 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.UserCalculationDTO;
+import br.com.actionlabs.carboncalc.dto.UserCalculationPageDTO;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Listagem paginada dos cálculos de um usuário, identificado pelo e-mail.
+ *
+ * <p>Cada página é lida com uma consulta pelo índice {@link CarbonEmissionStats#EMAIL_CREATED_AT_INDEX}, do
+ * cálculo mais recente para o mais antigo. A posição da página seguinte é devolvida em {@code next}, um cursor
+ * opaco com a data de criação e o ID do último cálculo da página, em vez de um número de página: a consulta
+ * continua do ponto em que a anterior parou, sem percorrer os cálculos já listados, e cálculos criados entre
+ * uma página e outra não deslocam os seguintes.</p>
+ *
+ * <p>A listagem é servida em {@code GET /admin/calculations}, que exige autenticação: os IDs devolvidos são a única
+ * credencial exigida por {@code PUT /open/info} e {@code GET /open/result/{id}}, e não podem ser obtidos a partir
+ * de um e-mail por quem não está autenticado.</p>
+ *
+ * @author diegosneves
+ */
+@Service
+public class UserCalculationService {
+
+    private static final String EMAIL_REQUIRED_MESSAGE = "Email is required";
+    private static final String INVALID_CURSOR_MESSAGE = "Invalid calculations cursor";
+    private static final String CURSOR_SEPARATOR = ":";
+
+    private final CarbonEmissionStatsRepository carbonEmissionRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public UserCalculationService(final CarbonEmissionStatsRepository carbonEmissionRepository,
+                                  @Value("${carbon-calc.user-calculations.default-limit:20}") final int defaultLimit,
+                                  @Value("${carbon-calc.user-calculations.max-limit:100}") final int maxLimit) {
+        this.carbonEmissionRepository = carbonEmissionRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Retorna uma página dos cálculos do usuário.
+     *
+     * @param email o e-mail do usuário, exatamente como foi informado na criação dos cálculos, sem normalização.
+     * @param after o cursor {@code next} da página anterior, ou {@code null} para a primeira página.
+     * @param limit a quantidade máxima de cálculos, ou {@code null} para {@code carbon-calc.user-calculations.default-limit}.
+     * @return a página, com o cursor da página seguinte, ou {@code null} em {@code next} se esta for a última.
+     * @throws IllegalArgumentException se o e-mail estiver vazio, se o cursor for inválido ou se o limite estiver
+     *                                  fora de {@code 1} a {@code carbon-calc.user-calculations.max-limit}.
+     */
+    public UserCalculationPageDTO calculations(final String email, final String after, final Integer limit) {
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException(EMAIL_REQUIRED_MESSAGE);
+        }
+        final var pageSize = limit == null ? this.defaultLimit : limit;
+        if (pageSize < 1 || pageSize > this.maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and %d".formatted(this.maxLimit));
+        }
+        Instant beforeCreatedAt = null;
+        String beforeId = null;
+        if (after != null && !after.isBlank()) {
+            final var cursor = decode(after);
+            beforeCreatedAt = Instant.ofEpochMilli(Long.parseLong(cursor[0]));
+            beforeId = cursor[1];
+        }
+        final var calculations = this.carbonEmissionRepository.findByEmail(email, beforeCreatedAt, beforeId, pageSize + 1);
+        final var hasMore = calculations.size() > pageSize;
+        final var page = hasMore ? calculations.subList(0, pageSize) : calculations;
+        final var next = hasMore ? encode(page.get(page.size() - 1)) : null;
+        return new UserCalculationPageDTO(page.stream().map(UserCalculationService::toDTO).toList(), next);
+    }
+
+    static String encode(final CarbonEmissionStats last) {
+        final var cursor = last.getCreatedAt().toEpochMilli() + CURSOR_SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(final String cursor) {
+        try {
+            final var parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(CURSOR_SEPARATOR, 2);
+            if (parts.length != 2 || parts[1].isEmpty()) {
+                throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE);
+            }
+            Long.parseLong(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException(INVALID_CURSOR_MESSAGE, exception);
+        }
+    }
+
+    private static UserCalculationDTO toDTO(final CarbonEmissionStats emissionStats) {
+        final var total = emissionStats.getResult() == null ? null : emissionStats.getResult().getTotal();
+        return new UserCalculationDTO(emissionStats.getId(), emissionStats.getCreatedAt(), CalculationService.ufOf(emissionStats), total);
+    }
+
+}
@@ -0,0 +1,44 @@
+package br.com.actionlabs.carboncalc.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita a taxa de operações por segundo compartilhada por várias threads.
+ *
+ * <p>Cada chamada reserva as suas operações no próximo intervalo livre e aguarda até o início da reserva, de
+ * forma que as operações saiam espaçadas pela taxa configurada. Um período ocioso não acumula crédito: depois de
+ * uma pausa, a taxa volta a ser aplicada desde a primeira chamada. Uma taxa menor ou igual a zero desativa o
+ * limite.</p>
+ */
+public final class OperationRateLimiter {
+
+    private final double operationsPerSecond;
+    private long nextFreeNanos = System.nanoTime();
+
+    public OperationRateLimiter(final double operationsPerSecond) {
+        this.operationsPerSecond = operationsPerSecond;
+    }
+
+    /**
+     * Reserva operações e aguarda até que elas caibam na taxa.
+     *
+     * @param operations a quantidade de operações.
+     * @throws InterruptedException se a thread for interrompida durante a espera.
+     */
+    public void acquire(final int operations) throws InterruptedException {
+        if (this.operationsPerSecond <= 0 || operations <= 0) {
+            return;
+        }
+        final long waitNanos;
+        synchronized (this) {
+            final var now = System.nanoTime();
+            final var start = Math.max(now, this.nextFreeNanos);
+            this.nextFreeNanos = start + (long) (operations * 1_000_000_000.0 / this.operationsPerSecond);
+            waitNanos = start - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package br.com.actionlabs.carboncalc.utils;
+
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+
+import java.util.Locale;
+
+/**
+ * Acumula a duração de cada {@link RequestPhase} da requisição em andamento na thread atual.
+ *
+ * <p>A medição só acontece entre {@link #begin()} e {@link #clear()}, chamados pelo filtro de
+ * {@code Server-Timing}. Fora disso, {@link #start()} devolve {@link #NOT_TIMED} e {@link #stop(RequestPhase, long)}
+ * não faz nada, de modo que os pontos de medição espalhados pelo código custam apenas a leitura de um
+ * {@link ThreadLocal}. Como depende da thread da requisição, só se aplica à pilha servlet.</p>
+ */
+public final class RequestPhaseTimer {
+
+    public static final long NOT_TIMED = -1L;
+
+    private static final ThreadLocal<RequestPhaseTimer> CURRENT = new ThreadLocal<>();
+    private static final int PHASES = RequestPhase.values().length;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final long[] nanos = new long[PHASES];
+    private final int[] counts = new int[PHASES];
+    private final long[] marks = new long[PHASES];
+
+    private RequestPhaseTimer() {}
+
+    /**
+     * Inicia a medição de uma requisição na thread atual.
+     *
+     * @return o {@link RequestPhaseTimer} da requisição.
+     */
+    public static RequestPhaseTimer begin() {
+        final var timer = new RequestPhaseTimer();
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    /**
+     * Encerra a medição da requisição na thread atual.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marca o início de uma fase medida no próprio método.
+     *
+     * @return o instante atual em nanossegundos, ou {@link #NOT_TIMED} se não houver medição em andamento.
+     */
+    public static long start() {
+        return CURRENT.get() == null ? NOT_TIMED : System.nanoTime();
+    }
+
+    /**
+     * Soma à fase o tempo decorrido desde {@link #start()}.
+     *
+     * @param phase      a fase medida.
+     * @param startNanos o valor devolvido por {@link #start()}.
+     */
+    public static void stop(final RequestPhase phase, final long startNanos) {
+        if (startNanos == NOT_TIMED) {
+            return;
+        }
+        final var timer = CURRENT.get();
+        if (timer != null) {
+            timer.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Soma à fase uma duração medida por outro componente, como o driver do MongoDB.
+     *
+     * @param phase         a fase medida.
+     * @param durationNanos a duração, em nanossegundos.
+     */
+    public static void record(final RequestPhase phase, final long durationNanos) {
+        final var timer = CURRENT.get();
+        if (timer != null) {
+            timer.add(phase, durationNanos);
+        }
+    }
+
+    /**
+     * Marca o início de uma fase que termina em outro ponto do processamento, em {@link #finish(RequestPhase)}.
+     *
+     * @param phase a fase iniciada.
+     */
+    public static void mark(final RequestPhase phase) {
+        final var timer = CURRENT.get();
+        if (timer != null) {
+            timer.marks[phase.ordinal()] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Soma à fase o tempo decorrido desde o último {@link #mark(RequestPhase)}, se houver.
+     *
+     * @param phase a fase encerrada.
+     */
+    public static void finish(final RequestPhase phase) {
+        final var timer = CURRENT.get();
+        if (timer != null) {
+            timer.finishMark(phase);
+        }
+    }
+
+    private void add(final RequestPhase phase, final long durationNanos) {
+        this.nanos[phase.ordinal()] += durationNanos;
+        this.counts[phase.ordinal()]++;
+    }
+
+    private void finishMark(final RequestPhase phase) {
+        final var mark = this.marks[phase.ordinal()];
+        if (mark != 0) {
+            this.add(phase, System.nanoTime() - mark);
+            this.marks[phase.ordinal()] = 0;
+        }
+    }
+
+    public long getNanos(final RequestPhase phase) {
+        return this.nanos[phase.ordinal()];
+    }
+
+    public int getCount(final RequestPhase phase) {
+        return this.counts[phase.ordinal()];
+    }
+
+    /**
+     * Formata as fases medidas no padrão do cabeçalho {@code Server-Timing}, em milissegundos, seguidas do total.
+     * Fases executadas mais de uma vez, como vários comandos no banco, trazem a quantidade em {@code desc}.
+     *
+     * @param totalNanos a duração total da requisição, em nanossegundos.
+     * @return o valor do cabeçalho, por exemplo {@code parse;dur=0.210, db-write;dur=1.532, total;dur=2.904}.
+     */
+    public String toServerTiming(final long totalNanos) {
+        final var header = new StringBuilder();
+        for (var phase : RequestPhase.values()) {
+            final var count = this.counts[phase.ordinal()];
+            if (count == 0) {
+                continue;
+            }
+            header.append(phase.getMetricName())
+                    .append(String.format(Locale.ROOT, ";dur=%.3f", this.nanos[phase.ordinal()] / NANOS_PER_MILLI));
+            if (count > 1) {
+                header.append(";desc=\"").append(count).append("x\"");
+            }
+            header.append(", ");
+        }
+        return header.append(String.format(Locale.ROOT, "total;dur=%.3f", totalNanos / NANOS_PER_MILLI)).toString();
+    }
+
+}
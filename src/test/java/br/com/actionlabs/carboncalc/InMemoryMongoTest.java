@@ -0,0 +1,45 @@
+package br.com.actionlabs.carboncalc;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.junit.jupiter.api.AfterAll;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Base dos testes que rodam contra um MongoDB em processo.
+ *
+ * <p>Cada classe de teste recebe o seu próprio servidor, iniciado quando o contexto lê
+ * {@code spring.data.mongodb.uri} e encerrado ao fim da classe, junto com o contexto.</p>
+ */
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public abstract class InMemoryMongoTest {
+
+    private static MongoServer mongoServer;
+    private static String mongoUri;
+
+    @DynamicPropertySource
+    static void mongoProperties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", InMemoryMongoTest::mongoUri);
+    }
+
+    @AfterAll
+    static void shutdownMongo() {
+        if (mongoServer != null) {
+            mongoServer.shutdownNow();
+            mongoServer = null;
+            mongoUri = null;
+        }
+    }
+
+    private static synchronized String mongoUri() {
+        if (mongoServer == null) {
+            mongoServer = new MongoServer(new MemoryBackend());
+            final var address = mongoServer.bind();
+            mongoUri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/carbon-calc";
+        }
+        return mongoUri;
+    }
+
+}
@@ -0,0 +1,93 @@
+package br.com.actionlabs.carboncalc.model;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmissionFactorSnapshotTest {
+
+    private static final Instant YEAR_2023 = Instant.parse("2023-01-01T00:00:00Z");
+    private static final Instant YEAR_2024 = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Instant YEAR_2025 = Instant.parse("2025-01-01T00:00:00Z");
+
+    private static EnergyEmissionFactor energy(final double factor, final Instant from, final Instant to) {
+        return EnergyEmissionFactor.builder().uf("AL").factor(factor).effectiveFrom(from).effectiveTo(to).build();
+    }
+
+    private static double energyAt(final EmissionFactorSnapshot snapshot, final Instant instant) {
+        final var index = snapshot.energyIndex(snapshot.ufIndex("AL"), instant.toEpochMilli());
+        return index < 0 ? Double.NaN : snapshot.getEnergyFactorTable()[index];
+    }
+
+    @Test
+    void givenConsecutiveVersionsWhenLookingUpByInstantThenShouldReturnTheVersionEffectiveAtTheInstant() {
+        final var snapshot = EmissionFactorSnapshot.of(List.of(energy(0.5, YEAR_2024, null), energy(0.4, YEAR_2023, YEAR_2024)),
+                List.of(), List.of(), Instant.now());
+
+        assertEquals(0.4, energyAt(snapshot, YEAR_2023));
+        assertEquals(0.4, energyAt(snapshot, YEAR_2024.minusMillis(1)));
+        assertEquals(0.5, energyAt(snapshot, YEAR_2024));
+        assertEquals(0.5, energyAt(snapshot, YEAR_2025));
+        assertEquals(EmissionFactorTimeline.NOT_EFFECTIVE, snapshot.energyIndex(snapshot.ufIndex("AL"), YEAR_2023.toEpochMilli() - 1));
+        assertEquals(2, snapshot.getEnergyFactorCount());
+    }
+
+    @Test
+    void givenOverlappingVersionsWhenLoadingThenShouldEndEachVersionAtTheStartOfTheNextOne() {
+        final var snapshot = EmissionFactorSnapshot.of(List.of(energy(0.4, YEAR_2023, null), energy(0.5, YEAR_2024, YEAR_2025),
+                        energy(0.6, YEAR_2024, null)),
+                List.of(), List.of(), Instant.now());
+
+        assertEquals(0.4, energyAt(snapshot, YEAR_2023));
+        assertEquals(0.5, energyAt(snapshot, YEAR_2024));
+        assertEquals(Double.NaN, energyAt(snapshot, YEAR_2025));
+        assertEquals(2, snapshot.getEnergyFactorCount());
+    }
+
+    @Test
+    void givenFactorsStoredBeforeVersioningWhenLoadingThenShouldUseTheIdAsKeyAndApplyThemAtAnyInstant() {
+        final var snapshot = EmissionFactorSnapshot.of(List.of(EnergyEmissionFactor.builder().id("AL").factor(0.5).build()),
+                List.of(TransportationEmissionFactor.builder().id("CAR").factor(0.19).build()),
+                List.of(SolidWasteEmissionFactor.builder().id("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build()),
+                Instant.now());
+        final var ufIndex = snapshot.ufIndex("AL");
+
+        assertEquals(0.5, energyAt(snapshot, Instant.EPOCH));
+        assertEquals(0.95, snapshot.getNonRecyclableFactorTable()[snapshot.solidWasteIndex(ufIndex, YEAR_2025.toEpochMilli())]);
+        assertEquals(0.19, snapshot.getTransportationFactorTable()[snapshot.transportationIndex(TransportationType.CAR.ordinal(), 0)]);
+        assertEquals(EmissionFactorTimeline.NOT_EFFECTIVE, snapshot.transportationIndex(TransportationType.BICYCLE.ordinal(), 0));
+        assertTrue(snapshot.isSupported(ufIndex));
+    }
+
+    @Test
+    void givenALegacyTransportationFactorWithAnUnknownIdWhenLoadingThenShouldSkipOnlyThatFactor() {
+        final var snapshot = EmissionFactorSnapshot.of(List.of(energy(0.5, null, null)),
+                List.of(TransportationEmissionFactor.builder().id("TRAIN").factor(0.04).build(),
+                        TransportationEmissionFactor.builder().id("CAR").factor(0.19).build()),
+                List.of(), Instant.now());
+
+        assertEquals(0.5, energyAt(snapshot, YEAR_2024));
+        assertEquals(1, snapshot.getTransportationFactorTable().length);
+        assertEquals(0.19, snapshot.getTransportationFactorTable()[snapshot.transportationIndex(TransportationType.CAR.ordinal(), 0)]);
+    }
+
+    @Test
+    void givenADifferentEffectiveDateWhenLoadingThenShouldChangeTheVersion() {
+        final var first = EmissionFactorSnapshot.of(List.of(energy(0.4, YEAR_2023, YEAR_2024), energy(0.5, YEAR_2024, null)),
+                List.of(), List.of(), Instant.now());
+        final var same = EmissionFactorSnapshot.of(List.of(energy(0.5, YEAR_2024, null), energy(0.4, YEAR_2023, YEAR_2024)),
+                List.of(), List.of(), Instant.now());
+        final var moved = EmissionFactorSnapshot.of(List.of(energy(0.4, YEAR_2023, YEAR_2025), energy(0.5, YEAR_2025, null)),
+                List.of(), List.of(), Instant.now());
+
+        assertEquals(first.getVersion(), same.getVersion());
+        assertNotEquals(first.getVersion(), moved.getVersion());
+    }
+
+}
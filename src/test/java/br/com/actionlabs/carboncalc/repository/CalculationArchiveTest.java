@@ -0,0 +1,177 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.UserData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalculationArchiveTest {
+
+    private static final int BLOCK_RECORDS = 4;
+    private static final Instant CREATED_AT = Instant.parse("2024-03-01T10:15:30.123Z");
+
+    @TempDir
+    private Path directory;
+
+    private MappingMongoConverter converter;
+    private CalculationArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        final var conversions = new MongoCustomConversions(List.of());
+        final var mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        this.converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        this.converter.setCustomConversions(conversions);
+        this.converter.afterPropertiesSet();
+        this.archive = this.newArchive();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.archive.close();
+    }
+
+    private CalculationArchive newArchive() {
+        final var newArchive = new CalculationArchive(this.converter, this.directory, BLOCK_RECORDS);
+        newArchive.open();
+        return newArchive;
+    }
+
+    private static CarbonEmissionStats calculation(final String id, final double total) {
+        final var stats = new CarbonEmissionStats(id, UserData.newUser("John Doe", "john.doe@test.com", "AL", "82999999999"), CREATED_AT);
+        stats.setEnergyConsumption(10);
+        stats.setTransportationList(List.of(Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build()));
+        stats.setSolidWaste(100);
+        stats.setRecyclePercentage(0.5);
+        stats.setRevision(3L);
+        stats.setResult(CarbonEmissionResult.builder().energy(5.0).transportation(19.0).solidWaste(69.0).total(total)
+                .factorVersion(-4_611_686_018_427_387_904L).build());
+        return stats;
+    }
+
+    private void writeSegment(final List<CarbonEmissionStats> calculations) {
+        try (var writer = this.archive.newSegment()) {
+            calculations.forEach(writer::append);
+            writer.commit();
+        }
+    }
+
+    @Test
+    void givenAnArchivedSegmentWhenFindingByIdThenShouldReturnEveryCalculationAndNothingElse() {
+        final var calculations = List.of(calculation("a1", 1), calculation("a3", 2), calculation("b2", 3), calculation("c0", 4),
+                calculation("c5", 5), calculation("d7", 6), calculation("e1", 7), calculation("f0", 8), calculation("f9", 9));
+        this.writeSegment(calculations);
+
+        for (var calculation : calculations) {
+            assertEquals(calculation, this.archive.findById(calculation.getId()).orElseThrow());
+        }
+        for (var missing : List.of("a", "a2", "c", "c50", "d8", "f", "f99", "z")) {
+            assertTrue(this.archive.findById(missing).isEmpty(), missing);
+        }
+        assertEquals(1, this.archive.segmentCount());
+        assertEquals(calculations.size(), this.archive.size());
+    }
+
+    @Test
+    void givenSeveralSegmentsWhenReopeningThenShouldFindTheNewestCopyOfEachCalculation() {
+        this.writeSegment(List.of(calculation("a", 1), calculation("b", 2)));
+        this.writeSegment(List.of(calculation("b", 20), calculation("c", 3)));
+        this.archive.close();
+
+        this.archive = this.newArchive();
+
+        assertEquals(2, this.archive.segmentCount());
+        assertEquals(1, this.archive.findById("a").orElseThrow().getResult().getTotal());
+        assertEquals(20, this.archive.findById("b").orElseThrow().getResult().getTotal());
+        assertEquals(3, this.archive.findById("c").orElseThrow().getResult().getTotal());
+    }
+
+    @Test
+    void givenASegmentWhenReadingItAsAFileThenShouldBeGzipNdjsonInIdOrder() throws IOException {
+        this.writeSegment(List.of(calculation("a", 1), calculation("b", 2), calculation("c", 3), calculation("d", 4), calculation("e", 5)));
+
+        final var dataFile = this.directory.resolve(CalculationArchive.SEGMENT_PREFIX + "00000001" + CalculationArchive.DATA_SUFFIX);
+        try (var reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(dataFile)), StandardCharsets.UTF_8))) {
+            final var lines = reader.lines().toList();
+            assertEquals(5, lines.size());
+            assertTrue(lines.get(0).startsWith("{\"_id\": \"a\","));
+            assertTrue(lines.get(4).startsWith("{\"_id\": \"e\","));
+        }
+    }
+
+    @Test
+    void givenAnUncommittedOrInterruptedSegmentWhenReopeningThenShouldIgnoreIt() throws IOException {
+        try (var writer = this.archive.newSegment()) {
+            writer.append(calculation("a", 1));
+        }
+        Files.writeString(this.directory.resolve(CalculationArchive.SEGMENT_PREFIX + "00000002" + CalculationArchive.DATA_SUFFIX), "partial");
+        this.archive.close();
+
+        this.archive = this.newArchive();
+
+        assertEquals(0, this.archive.segmentCount());
+        assertTrue(this.archive.findById("a").isEmpty());
+        try (var files = Files.list(this.directory)) {
+            assertFalse(files.findAny().isPresent());
+        }
+    }
+
+    @Test
+    void givenAMissingDirectoryWhenOpeningThenShouldOnlyCreateItOnTheFirstSegment() {
+        final var missing = this.directory.resolve("archive");
+        final var lazyArchive = new CalculationArchive(this.converter, missing, BLOCK_RECORDS);
+        try {
+            lazyArchive.open();
+
+            assertFalse(Files.exists(missing));
+            assertTrue(lazyArchive.findById("a").isEmpty());
+
+            try (var writer = lazyArchive.newSegment()) {
+                writer.append(calculation("a", 1));
+                writer.commit();
+            }
+
+            assertTrue(Files.isDirectory(missing));
+            assertEquals(1, lazyArchive.findById("a").orElseThrow().getResult().getTotal());
+        } finally {
+            lazyArchive.close();
+        }
+        assertEquals(0, lazyArchive.segmentCount());
+    }
+
+    @Test
+    void givenIdsOutOfOrderWhenAppendingThenShouldThrowIllegalArgumentException() {
+        try (var writer = this.archive.newSegment()) {
+            writer.append(calculation("b", 1));
+
+            assertThrows(IllegalArgumentException.class, () -> writer.append(calculation("a", 2)));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(calculation("b", 2)));
+        }
+    }
+
+}
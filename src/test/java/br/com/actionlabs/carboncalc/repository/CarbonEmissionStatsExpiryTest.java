@@ -0,0 +1,71 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.config.MongoIndexVerifier;
+import br.com.actionlabs.carboncalc.factory.CarbonEmissionStatsFactory;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.UserData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere, contra um MongoDB em processo, que apenas os cálculos sem as informações de consumo ficam sujeitos à
+ * expiração por TTL.
+ */
+@DataMongoTest
+@Import(MongoIndexVerifier.class)
+class CarbonEmissionStatsExpiryTest extends InMemoryMongoTest {
+
+    private static final Duration EXPIRE_AFTER = Duration.ofDays(7);
+
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+    @Autowired
+    private MongoIndexVerifier indexVerifier;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+    }
+
+    @Test
+    void givenAStartedCalculationWhenStoringThenShouldExpireAfterTheConfiguredPeriod() {
+        final var stored = this.repository.save(CarbonEmissionStatsFactory.create(
+                UserData.newUser("John Doe", "john.doe@test.com", "AL", "82999999999"), EXPIRE_AFTER));
+
+        final var found = this.repository.findById(stored.getId()).orElseThrow();
+
+        assertEquals(found.getCreatedAt(), found.getUpdatedAt());
+        assertEquals(found.getCreatedAt().plus(EXPIRE_AFTER), found.getExpiresAt());
+    }
+
+    @Test
+    void givenAStartedCalculationWhenUpdatingTheInfoThenShouldNoLongerExpire() {
+        final var stored = this.repository.save(CarbonEmissionStatsFactory.create(
+                UserData.newUser("John Doe", "john.doe@test.com", "AL", "82999999999"), EXPIRE_AFTER));
+
+        this.repository.updateInfo(stored.getId(), 10, null, 100, 0.5).orElseThrow();
+
+        final var found = this.repository.findById(stored.getId()).orElseThrow();
+        assertNull(found.getExpiresAt());
+        assertFalse(found.getUpdatedAt().isBefore(found.getCreatedAt()));
+    }
+
+    @Test
+    void givenTheDeclaredIndexesWhenVerifyingThenShouldFindTheTtlIndex() {
+        final var verified = this.indexVerifier.verify();
+
+        assertTrue(verified.contains("carbonEmissionStats." + CarbonEmissionStats.EXPIRES_AT_INDEX));
+    }
+
+}
@@ -0,0 +1,88 @@
+package br.com.actionlabs.carboncalc.repository;
+
+import br.com.actionlabs.carboncalc.config.MongoIndexVerifier;
+import com.mongodb.ExplainVerbosity;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere, no plano de execução, que a listagem dos cálculos de um usuário usa o índice por e-mail e data de
+ * criação, sem varrer a coleção nem ordenar em memória. O MongoDB em processo dos demais testes não implementa
+ * {@code explain}, então este teste só roda contra um MongoDB real:
+ * {@code gradle test -Pcarbon-calc.test.mongodb-uri=mongodb://localhost:27017/carbon-calc-test}.
+ */
+@DataMongoTest
+@Import(MongoIndexVerifier.class)
+@EnabledIfSystemProperty(named = CarbonEmissionStatsIndexExplainTest.MONGODB_URI, matches = ".+")
+class CarbonEmissionStatsIndexExplainTest {
+
+    static final String MONGODB_URI = "carbon-calc.test.mongodb-uri";
+
+    @DynamicPropertySource
+    static void mongoProperties(final DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", () -> System.getProperty(MONGODB_URI));
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private List<String> winningPlanStages(final Query query) {
+        final var explain = this.mongoTemplate.getCollection("carbonEmissionStats")
+                .find(query.getQueryObject())
+                .projection(query.getFieldsObject())
+                .sort(query.getSortObject())
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.QUERY_PLANNER);
+        final var stages = new ArrayList<String>();
+        collectStages(explain.get("queryPlanner", Document.class).get("winningPlan"), stages);
+        return stages;
+    }
+
+    private static void collectStages(final Object plan, final List<String> stages) {
+        if (plan instanceof Map<?, ?> map) {
+            if (map.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            map.values().forEach(value -> collectStages(value, stages));
+        } else if (plan instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+
+    @Test
+    void givenTheFirstPageWhenExplainingThenShouldScanTheEmailIndex() {
+        final var stages = this.winningPlanStages(CarbonEmissionStatsRepositoryImpl.emailQuery("john.doe@test.com", null, null, 21));
+
+        assertTrue(stages.contains("IXSCAN"), stages::toString);
+        assertFalse(stages.contains("COLLSCAN"), stages::toString);
+        assertFalse(stages.contains("SORT"), stages::toString);
+    }
+
+    @Test
+    void givenANextPageWhenExplainingThenShouldScanTheEmailIndex() {
+        final var query = CarbonEmissionStatsRepositoryImpl.emailQuery("john.doe@test.com", Instant.now(), "f000", 21);
+
+        final var stages = this.winningPlanStages(query);
+
+        assertTrue(stages.contains("IXSCAN"), stages::toString);
+        assertFalse(stages.contains("COLLSCAN"), stages::toString);
+        assertFalse(stages.contains("SORT"), stages::toString);
+    }
+
+}
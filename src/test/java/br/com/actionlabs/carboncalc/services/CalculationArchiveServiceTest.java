@@ -0,0 +1,128 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Arquiva cálculos de um MongoDB em processo em segmentos de dois cálculos e lê os resultados arquivados pelo
+ * {@link CalculationService}.
+ */
+@DataMongoTest(properties = {"carbon-calc.archive.min-age=P30D", "carbon-calc.archive.segment-max-records=2",
+        "carbon-calc.archive.batch-size=2"})
+@Import({CalculationArchiveService.class, CalculationArchive.class, CalculationService.class, EmissionFactorCatalog.class,
+        CalculationResultCache.class, EmissionRollupService.class, FootprintPercentileService.class})
+class CalculationArchiveServiceTest extends InMemoryMongoTest {
+
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(60));
+
+    @TempDir
+    private static Path archiveDirectory;
+
+    @DynamicPropertySource
+    static void archiveProperties(final DynamicPropertyRegistry registry) {
+        registry.add("carbon-calc.archive.directory", () -> archiveDirectory.toString());
+    }
+
+    @Autowired
+    private CalculationArchiveService service;
+    @Autowired
+    private CalculationService calculationService;
+    @Autowired
+    private CalculationArchive archive;
+    @Autowired
+    private EmissionFactorCatalog factorCatalog;
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+    @Autowired
+    private EnergyEmissionFactorRepository energyRepository;
+    @Autowired
+    private TransportationEmissionFactorRepository transportationRepository;
+    @Autowired
+    private SolidWasteEmissionFactorRepository wasteRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+        this.energyRepository.deleteAll();
+        this.transportationRepository.deleteAll();
+        this.wasteRepository.deleteAll();
+        this.energyRepository.save(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build());
+        this.transportationRepository.save(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build());
+        this.wasteRepository.save(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build());
+        this.factorCatalog.refresh();
+    }
+
+    private CarbonEmissionStats save(final String id, final Instant createdAt, final Instant expiresAt, final long factorVersion) {
+        final var stats = new CarbonEmissionStats(id, UserData.newUser("John Doe", "john.doe@test.com", "AL", "82999999999"), createdAt);
+        stats.setEnergyConsumption(10);
+        stats.setTransportationList(List.of());
+        stats.setSolidWaste(0);
+        stats.setRecyclePercentage(0.0);
+        stats.setRevision(1L);
+        stats.setExpiresAt(expiresAt);
+        stats.setResult(CarbonEmissionResult.builder().energy(5).total(5).factorVersion(factorVersion).build());
+        return this.repository.save(stats);
+    }
+
+    @Test
+    void givenOldCalculationsWhenArchivingThenShouldMoveThemToSegmentsAndKeepTheirResultsReadable() {
+        final var version = this.factorCatalog.snapshot().getVersion();
+        this.save("a1", OLD, null, version);
+        this.save("a2", OLD, null, version);
+        this.save("a3", OLD, null, version);
+        this.save("a4", Instant.now(), null, version);
+        this.save("a5", OLD, Instant.now().plus(Duration.ofDays(1)), version);
+
+        final var summary = this.service.archive();
+
+        assertEquals(2, summary.segments());
+        assertEquals(3, summary.archived());
+        assertEquals(3, summary.deleted());
+        assertEquals(List.of("a4", "a5"), this.repository.findAll().stream().map(CarbonEmissionStats::getId).sorted().toList());
+        assertEquals(5.0, this.calculationService.getResult("a1").getTotal());
+        assertEquals("AL", this.calculationService.getResult("a3").getUf());
+        assertEquals(5.0, this.calculationService.getResults(List.of("a2", "a4")).get("a2").getTotal());
+        assertNull(this.calculationService.getResult("missing").getUf());
+        assertTrue(this.archive.findById("a4").isEmpty());
+    }
+
+    @Test
+    void givenAnArchivedResultFromOtherFactorsWhenReadingThenShouldRecalculateItWithoutWriting() {
+        this.save("b1", OLD, null, 1L);
+
+        this.service.archive();
+
+        assertEquals(5.0, this.calculationService.getResult("b1").getTotal());
+        assertEquals(1L, this.archive.findById("b1").orElseThrow().getResult().getFactorVersion());
+        assertTrue(this.repository.findById("b1").isEmpty());
+    }
+
+}
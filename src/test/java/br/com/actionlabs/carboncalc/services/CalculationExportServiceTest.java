@@ -0,0 +1,98 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Exporta cálculos de um MongoDB em processo nos dois formatos, incluindo a retomada a partir do último ID.
+ */
+@DataMongoTest
+@Import(CalculationExportService.class)
+class CalculationExportServiceTest extends InMemoryMongoTest {
+
+    @Autowired
+    private CalculationExportService service;
+    @Autowired
+    private CarbonEmissionStatsRepository carbonEmissionRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.carbonEmissionRepository.deleteAll();
+        this.store("0001", "AL", 723.0);
+        this.store("0002", "SP", 100.0);
+        this.store("0003", "AL", 50.0);
+    }
+
+    private void store(final String id, final String uf, final double total) {
+        final var stats = new CarbonEmissionStats(id, UserData.newUser("name", "email@email.com", uf, "123456789"));
+        stats.setEnergyConsumption(10);
+        stats.setTransportationList(List.of(Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(20).build()));
+        stats.setSolidWaste(1000);
+        stats.setRecyclePercentage(0.5);
+        stats.setRevision(1L);
+        stats.setResult(CarbonEmissionResult.builder().energy(5.0).transportation(19.0).solidWaste(690.0).total(total).factorVersion(7L).build());
+        this.carbonEmissionRepository.save(stats);
+    }
+
+    private String export(final String format, final String uf, final String after, final Integer batchSize) throws IOException {
+        final var output = new ByteArrayOutputStream();
+        this.service.export(this.service.request(format, uf, after, batchSize), output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void givenAUfWhenExportingAsNdjsonThenShouldWriteOneObjectPerCalculationOrderedById() throws IOException {
+        final var lines = this.export("ndjson", "al", null, 1).lines().toList();
+
+        assertEquals(2, lines.size());
+        final var mapper = new ObjectMapper();
+        final var first = mapper.readTree(lines.get(0));
+        assertEquals("0001", first.get("id").asText());
+        assertEquals("AL", first.get("uf").asText());
+        assertEquals("CAR", first.get("transportationList").get(0).get("type").asText());
+        assertEquals(723.0, first.get("result").get("total").asDouble());
+        assertEquals(7L, first.get("result").get("factorVersion").asLong());
+        assertFalse(first.has("userData"));
+        assertEquals("0003", mapper.readTree(lines.get(1)).get("id").asText());
+    }
+
+    @Test
+    void givenTheLastReceivedIdWhenExportingAsCsvThenShouldResumeAfterIt() throws IOException {
+        final var lines = this.export("CSV", null, "0001", null).lines().toList();
+
+        assertEquals(3, lines.size());
+        assertEquals("id,uf,energyConsumption,transportation,solidWasteTotal,recyclePercentage,"
+                + "revision,resultEnergy,resultTransportation,resultSolidWaste,resultTotal,resultFactorVersion", lines.get(0));
+        assertEquals("0002,SP,10,CAR:100;MOTORCYCLE:20,1000,0.5,1,5.0,19.0,690.0,100.0,7", lines.get(1));
+        assertEquals("0003", lines.get(2).substring(0, lines.get(2).indexOf(',')));
+    }
+
+    @Test
+    void givenInvalidParametersWhenPreparingTheExportThenShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> this.service.request("xml", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> this.service.request("csv", null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> this.service.request("csv", null, null, 10_001));
+    }
+
+}
@@ -0,0 +1,149 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.enums.DataFileFormat;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EmissionRollupRepository;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Importa arquivos pequenos, em blocos de dois cálculos, contra um MongoDB em processo.
+ */
+@DataMongoTest(properties = {"carbon-calc.import.chunk-size=2", "carbon-calc.import.queue-capacity=1"})
+@Import({CalculationImportService.class, EmissionFactorCatalog.class, EmissionRollupService.class, FootprintPercentileService.class})
+class CalculationImportServiceTest extends InMemoryMongoTest {
+
+    @Autowired
+    private CalculationImportService service;
+    @Autowired
+    private EmissionFactorCatalog factorCatalog;
+    @Autowired
+    private EmissionRollupService rollupService;
+    @Autowired
+    private EmissionRollupRepository rollupRepository;
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+    @Autowired
+    private EnergyEmissionFactorRepository energyRepository;
+    @Autowired
+    private TransportationEmissionFactorRepository transportationRepository;
+    @Autowired
+    private SolidWasteEmissionFactorRepository wasteRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+        this.rollupRepository.deleteAll();
+        this.energyRepository.deleteAll();
+        this.transportationRepository.deleteAll();
+        this.wasteRepository.deleteAll();
+        this.energyRepository.save(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build());
+        this.transportationRepository.saveAll(List.of(
+                TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build()));
+        this.wasteRepository.save(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build());
+        this.factorCatalog.refresh();
+    }
+
+    private static ByteArrayInputStream file(final String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String ndjsonRow(final String name) {
+        return "{\"name\":\"" + name + "\",\"email\":\"user@test.com\",\"uf\":\"al\",\"phoneNumber\":\"82999999999\","
+                + "\"energyConsumption\":10,\"transportation\":[{\"type\":\"CAR\",\"monthlyDistance\":100},"
+                + "{\"type\":\"MOTORCYCLE\",\"monthlyDistance\":100}],\"solidWasteTotal\":1000,\"recyclePercentage\":0.5}";
+    }
+
+    @Test
+    void givenAnNdjsonFileWithInvalidLinesWhenImportingThenShouldInsertTheValidRowsAndReportTheRejectedLines() throws IOException {
+        final var summary = this.service.importCalculations(DataFileFormat.NDJSON, file(
+                ndjsonRow("John"),
+                ndjsonRow("Mary"),
+                "{\"name\":",
+                "",
+                ndjsonRow("Ann"),
+                ndjsonRow(""),
+                ndjsonRow("Paul"),
+                ndjsonRow("Rose")));
+
+        assertEquals(7, summary.rows());
+        assertEquals(5, summary.imported());
+        assertEquals(2, summary.rejected());
+        assertEquals(List.of(3L, 6L), summary.rejects().stream().map(reject -> reject.line()).toList());
+        assertEquals("Username is required", summary.rejects().get(1).error());
+        final var stored = this.repository.findAll();
+        assertEquals(5, stored.size());
+        stored.forEach(stats -> {
+            assertEquals("AL", stats.getUserData().getUf());
+            assertEquals(1L, stats.getRevision());
+            assertEquals(723.0, stats.getResult().getTotal());
+        });
+        final var rollup = this.rollupService.rollupByUf("AL");
+        assertEquals(5, rollup.count());
+        assertEquals(5 * 723.0, rollup.sum());
+    }
+
+    @Test
+    void givenAnNdjsonFileWithNonNumericConsumptionWhenImportingThenShouldRejectTheRowsInsteadOfImportingZero() throws IOException {
+        final var summary = this.service.importCalculations(DataFileFormat.NDJSON, file(
+                ndjsonRow("John"),
+                ndjsonRow("Mary").replace("\"energyConsumption\":10", "\"energyConsumption\":\"abc\""),
+                ndjsonRow("Ann").replace("\"solidWasteTotal\":1000", "\"solidWasteTotal\":{\"kg\":1000}"),
+                ndjsonRow("Paul").replace(",\"monthlyDistance\":100},", "},"),
+                ndjsonRow("Rose").replace("\"recyclePercentage\":0.5", "\"recyclePercentage\":\"half\""),
+                ndjsonRow("Jack").replace("\"energyConsumption\":10", "\"energyConsumption\":10.5")));
+
+        assertEquals(6, summary.rows());
+        assertEquals(1, summary.imported());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), summary.rejects().stream().map(reject -> reject.line()).toList());
+        assertEquals("Malformed row: energyConsumption must be an integer", summary.rejects().get(0).error());
+        assertEquals("Malformed row: monthlyDistance is required", summary.rejects().get(2).error());
+        assertEquals(1, this.repository.count());
+    }
+
+    @Test
+    void givenACsvFileWithReorderedColumnsWhenImportingThenShouldMapTheColumnsByTheHeader() throws IOException {
+        final var summary = this.service.importCalculations(DataFileFormat.CSV, file(
+                "uf,name,email,phoneNumber,transportation,energyConsumption,solidWasteTotal,recyclePercentage",
+                "al,\"Doe, John\",john@test.com,82999999999,CAR:100;MOTORCYCLE:100,10,1000,0.5",
+                "al,Mary,mary@test.com,82999999999,,ten,1000,0.5",
+                "al,Ann,ann@test.com,82999999999,BOAT:10,10,1000,0.5"));
+
+        assertEquals(3, summary.rows());
+        assertEquals(1, summary.imported());
+        assertEquals(List.of(3L, 4L), summary.rejects().stream().map(reject -> reject.line()).toList());
+        final CarbonEmissionStats stored = this.repository.findAll().get(0);
+        assertEquals("Doe, John", stored.getUserData().getName());
+        assertEquals(2, stored.getTransportationList().size());
+        assertEquals(723.0, stored.getResult().getTotal());
+    }
+
+    @Test
+    void givenACsvHeaderWithoutTheUserDataColumnsWhenImportingThenShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> this.service.importCalculations(DataFileFormat.CSV,
+                file("name,email,uf", "John,john@test.com,AL")));
+        assertEquals(0, this.repository.count());
+    }
+
+}
@@ -0,0 +1,107 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CalculationResultCacheTest {
+
+    private static final String ID = "4dcba6ba34414a348ba6ba34414a347a";
+    private static final long VERSION = 1L;
+
+    private CalculationResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        this.cache = new CalculationResultCache(100, Duration.ofMinutes(1));
+    }
+
+    private static CarbonCalculationResultDTO result(final double total) {
+        return CarbonCalculationResultDTO.builder().total(total).build();
+    }
+
+    @Test
+    void givenConcurrentReadsOfTheSameIdWhenTheResultIsLoadingThenShouldLoadItOnce() throws Exception {
+        final var loads = new AtomicInteger();
+        final var loading = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newFixedThreadPool(2);
+
+        final var first = executor.submit(() -> this.cache.get(ID, VERSION, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return result(723.0);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        final var second = executor.submit(() -> this.cache.get(ID, VERSION, () -> {
+            loads.incrementAndGet();
+            return result(0.0);
+        }));
+        release.countDown();
+
+        assertEquals(723.0, first.get(5, TimeUnit.SECONDS).getTotal());
+        assertEquals(723.0, second.get(5, TimeUnit.SECONDS).getTotal());
+        assertEquals(1, loads.get());
+        executor.shutdown();
+    }
+
+    @Test
+    void givenAnInvalidationDuringALoadWhenTheLoadFinishesThenShouldNotKeepTheLoadedResult() throws Exception {
+        final var loading = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var executor = Executors.newSingleThreadExecutor();
+
+        final var staleRead = executor.submit(() -> this.cache.get(ID, VERSION, () -> {
+            loading.countDown();
+            await(release);
+            return result(723.0);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        this.cache.invalidate(ID);
+        release.countDown();
+
+        assertEquals(723.0, staleRead.get(5, TimeUnit.SECONDS).getTotal());
+        assertEquals(728.0, this.cache.get(ID, VERSION, () -> result(728.0)).getTotal());
+        executor.shutdown();
+    }
+
+    @Test
+    void givenAFailedLoadWhenReadingAgainThenShouldPropagateTheErrorAndRetry() {
+        assertThrows(IllegalStateException.class, () -> this.cache.get(ID, VERSION, () -> {
+            throw new IllegalStateException("Connection failure");
+        }));
+
+        assertEquals(723.0, this.cache.get(ID, VERSION, () -> result(723.0)).getTotal());
+    }
+
+    @Test
+    void givenACachedResultFromAnotherFactorVersionWhenReadingThenShouldReload() {
+        this.cache.get(ID, VERSION, () -> result(723.0));
+
+        final var reloaded = this.cache.get(ID, VERSION + 1, () -> result(800.0));
+
+        assertEquals(800.0, reloaded.getTotal());
+        assertEquals(800.0, this.cache.getIfPresent(ID, VERSION + 1).orElseThrow().getTotal());
+        assertTrue(this.cache.getIfPresent(ID, VERSION).isEmpty());
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
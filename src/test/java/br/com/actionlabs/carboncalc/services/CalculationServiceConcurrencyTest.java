@@ -0,0 +1,181 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
+import br.com.actionlabs.carboncalc.dto.TransportationDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EmissionRollupRepository;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa atualizações concorrentes de um mesmo cálculo contra um MongoDB em processo e verifica que nenhuma
+ * atualização é perdida e que o resultado gravado, assim como os agregados, corresponde às informações gravadas.
+ */
+@DataMongoTest(properties = "carbon-calc.archive.directory=build/test-archive/concurrency")
+@Import({CalculationService.class, EmissionFactorCatalog.class, CalculationResultCache.class, EmissionRollupService.class,
+        FootprintPercentileService.class, CalculationArchive.class})
+class CalculationServiceConcurrencyTest extends InMemoryMongoTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 25;
+
+    @Autowired
+    private CalculationService service;
+    @Autowired
+    private EmissionFactorCatalog factorCatalog;
+    @Autowired
+    private EmissionRollupService rollupService;
+    @Autowired
+    private EmissionRollupRepository rollupRepository;
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+    @Autowired
+    private EnergyEmissionFactorRepository energyRepository;
+    @Autowired
+    private TransportationEmissionFactorRepository transportationRepository;
+    @Autowired
+    private SolidWasteEmissionFactorRepository wasteRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+        this.rollupRepository.deleteAll();
+        this.energyRepository.deleteAll();
+        this.transportationRepository.deleteAll();
+        this.wasteRepository.deleteAll();
+        this.energyRepository.save(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build());
+        this.transportationRepository.save(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build());
+        this.wasteRepository.save(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build());
+        this.factorCatalog.refresh();
+    }
+
+    @Test
+    void givenConcurrentUpdatesForTheSameCalculationWhenAllFinishThenShouldNotLoseUpdatesNorLeaveAStaleResult() throws Exception {
+        final var request = new StartCalcRequestDTO();
+        request.setName("John Doe");
+        request.setEmail("john.doe@test.com");
+        request.setUf("al");
+        request.setPhoneNumber("82999999999");
+        final var calculationId = this.service.startCalculation(request).getId();
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        final var start = new CountDownLatch(1);
+        final List<Future<Boolean>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final var energyConsumption = (thread + 1) * 10;
+            futures.add(executor.submit(() -> {
+                start.await();
+                var allSucceeded = true;
+                for (int update = 0; update < UPDATES_PER_THREAD; update++) {
+                    allSucceeded &= this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder()
+                            .id(calculationId)
+                            .energyConsumption(energyConsumption + update)
+                            .transportation(List.of(TransportationDTO.builder().type(TransportationType.CAR).monthlyDistance(update).build()))
+                            .solidWasteTotal(1000)
+                            .recyclePercentage(0.5)
+                            .build()).isSuccess();
+                }
+                return allSucceeded;
+            }));
+        }
+        start.countDown();
+        for (var future : futures) {
+            assertTrue(future.get(1, TimeUnit.MINUTES));
+        }
+        executor.shutdown();
+
+        final var stored = this.repository.findById(calculationId).orElseThrow();
+        final var expectedEnergy = stored.getEnergyConsumption() * 0.5;
+        final var expectedTransportation = stored.getTransportationList().get(0).getMonthlyDistance() * 0.19;
+
+        assertEquals(THREADS * UPDATES_PER_THREAD, stored.getRevision());
+        assertEquals("John Doe", stored.getUserData().getName());
+        assertEquals("AL", stored.getUserData().getUf());
+        assertEquals(expectedEnergy, stored.getResult().getEnergy(), 1e-9);
+        assertEquals(expectedTransportation, stored.getResult().getTransportation(), 1e-9);
+        assertEquals(expectedEnergy + expectedTransportation + 690.0, stored.getResult().getTotal(), 1e-9);
+        assertEquals(this.factorCatalog.snapshot().getVersion(), stored.getResult().getFactorVersion());
+        assertEquals(stored.getResult().getTotal(), this.service.getResult(calculationId).getTotal(), 1e-9);
+
+        final var rollup = this.rollupService.rollupByUf("AL");
+        final var carRollup = this.rollupService.rollupByTransportation(TransportationType.CAR);
+        assertEquals(1, rollup.count());
+        assertEquals(stored.getResult().getTotal(), rollup.sum(), 1e-6);
+        assertEquals(1, carRollup.count());
+        assertEquals(expectedTransportation, carRollup.sum(), 1e-6);
+    }
+
+    @Test
+    void givenConcurrentBatchAndSingleUpdatesWhenAllFinishThenEveryStoredResultShouldMatchTheStoredInputs() throws Exception {
+        final var calculationIds = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            final var request = new StartCalcRequestDTO();
+            request.setName("User " + i);
+            request.setEmail("user" + i + "@test.com");
+            request.setUf("AL");
+            request.setPhoneNumber("82999999999");
+            calculationIds.add(this.service.startCalculation(request).getId());
+        }
+
+        final var executor = Executors.newFixedThreadPool(THREADS);
+        final var start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            final var batch = thread % 2 == 0;
+            final var energyConsumption = (thread + 1) * 10;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int round = 0; round < 5; round++) {
+                    final var requests = calculationIds.stream()
+                            .map(id -> UpdateCalcInfoRequestDTO.builder().id(id).energyConsumption(energyConsumption).build())
+                            .toList();
+                    if (batch) {
+                        assertEquals(calculationIds.size(), this.service.updateCalculationInfoBatch(requests).getUpdated());
+                    } else {
+                        requests.forEach(request -> assertTrue(this.service.updateCalculationInfo(request).isSuccess()));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (var future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        for (var calculationId : calculationIds) {
+            final var stored = this.repository.findById(calculationId).orElseThrow();
+            final var expectedEnergy = stored.getEnergyConsumption() * 0.5;
+            assertEquals(THREADS * 5, stored.getRevision());
+            if (stored.getResult() != null) {
+                assertEquals(expectedEnergy, stored.getResult().getEnergy(), 1e-9);
+            }
+            assertEquals(expectedEnergy, this.service.getResult(calculationId).getEnergy(), 1e-9);
+        }
+    }
+
+}
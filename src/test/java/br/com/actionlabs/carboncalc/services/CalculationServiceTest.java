@@ -2,50 +2,80 @@ package br.com.actionlabs.carboncalc.services;
 
 import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
 import br.com.actionlabs.carboncalc.dto.TransportationDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoBatchItemDTO;
 import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
 import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.events.GetResultEvent;
+import br.com.actionlabs.carboncalc.events.StartCalculationEvent;
+import br.com.actionlabs.carboncalc.events.UpdateCalculationInfoEvent;
 import br.com.actionlabs.carboncalc.exceptions.UserDataCreateException;
 import br.com.actionlabs.carboncalc.factory.CarbonEmissionStatsFactory;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EmissionRollup;
 import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
 import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
 import br.com.actionlabs.carboncalc.model.Transportation;
 import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
 import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
 import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
 import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
 import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
 import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import io.micrometer.core.instrument.Counter;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
 class CalculationServiceTest {
 
-    @InjectMocks
+    private static final int BATCH_CHUNK_SIZE = 2;
+    private static final int BATCH_MAX_SIZE = 5;
+    private static final Duration EXPIRE_AFTER = Duration.ofDays(7);
+
     private CalculationService service;
+    private EmissionFactorCatalog factorCatalog;
+    private CalculationResultCache resultCache;
 
     @Mock
     private CarbonEmissionStatsRepository repository;
@@ -55,13 +85,61 @@ class CalculationServiceTest {
     private TransportationEmissionFactorRepository transportationRepository;
     @Mock
     private SolidWasteEmissionFactorRepository wasteRepository;
+    @Mock
+    private EmissionRollupService rollupService;
+    @Mock
+    private FootprintPercentileService percentileService;
+    @Mock
+    private CalculationArchive archive;
 
     @BeforeEach
     void cleanUp() {
         Mockito.reset(this.repository);
+        Mockito.reset(this.rollupService);
+        Mockito.reset(this.percentileService);
         Mockito.reset(this.energyRepository);
         Mockito.reset(this.transportationRepository);
         Mockito.reset(this.wasteRepository);
+        this.factorCatalog = new EmissionFactorCatalog(this.energyRepository, this.transportationRepository, this.wasteRepository);
+        this.resultCache = new CalculationResultCache(100, Duration.ofMinutes(1));
+        this.service = new CalculationService(this.repository, this.factorCatalog, this.resultCache, this.rollupService, this.percentileService,
+                this.archive, BATCH_CHUNK_SIZE, BATCH_MAX_SIZE, EXPIRE_AFTER);
+    }
+
+    private void loadFactors(final List<EnergyEmissionFactor> energyFactors,
+                             final List<TransportationEmissionFactor> transportationFactors,
+                             final List<SolidWasteEmissionFactor> solidWasteFactors) {
+        when(this.energyRepository.findAll()).thenReturn(energyFactors);
+        when(this.transportationRepository.findAll()).thenReturn(transportationFactors);
+        when(this.wasteRepository.findAll()).thenReturn(solidWasteFactors);
+        this.factorCatalog.refresh();
+        Mockito.clearInvocations(this.energyRepository);
+        Mockito.clearInvocations(this.transportationRepository);
+        Mockito.clearInvocations(this.wasteRepository);
+    }
+
+    private void mockUpdateInfo(final CarbonEmissionStats updatedCarbonData, final Long revision) {
+        updatedCarbonData.setRevision(revision);
+        when(this.repository.updateInfo(any(), any(), any(), any(), any())).thenReturn(Optional.of(updatedCarbonData));
+        when(this.repository.updateResult(any(), any(), any(), any())).thenReturn(1L);
+    }
+
+    private void loadDefaultFactors() {
+        this.loadFactors(List.of(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build()),
+                List.of(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                        TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build()),
+                List.of(SolidWasteEmissionFactor.builder().uf("AL").nonRecyclableFactor(0.95).recyclableFactor(0.43).build()));
+    }
+
+    private CarbonEmissionStats completeCarbonData(final String anId) {
+        final var carbonData = new CarbonEmissionStats(anId, UserData.newUser("name", "email@email.com", "AL", "123456789"));
+        carbonData.setEnergyConsumption(10);
+        carbonData.setTransportationList(List.of(
+                Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build()));
+        carbonData.setSolidWaste(1000);
+        carbonData.setRecyclePercentage(0.5);
+        return carbonData;
     }
 
     @Test
@@ -85,11 +163,15 @@ class CalculationServiceTest {
 
         verify(this.repository, times(1)).save(argThat(aCarbonEmissionStats -> Objects.equals(expectedName, aCarbonEmissionStats.getUserData().getName()) &&
                 Objects.nonNull(aCarbonEmissionStats.getId()) &&
+                Objects.nonNull(aCarbonEmissionStats.getCreatedAt()) &&
+                Objects.equals(aCarbonEmissionStats.getCreatedAt().plus(EXPIRE_AFTER), aCarbonEmissionStats.getExpiresAt()) &&
                 Objects.equals(expectedEmail, aCarbonEmissionStats.getUserData().getEmail()) &&
                 Objects.equals(expectedUF, aCarbonEmissionStats.getUserData().getUf()) &&
                 Objects.equals(expectedPhoneNumber, aCarbonEmissionStats.getUserData().getPhoneNumber())
                 ));
 
+        verify(this.rollupService, never()).apply(any());
+
         assertNotNull(actualResult);
         assertNotNull(actualResult.getId());
     }
@@ -325,6 +407,175 @@ class CalculationServiceTest {
         assertEquals(expectedExceptionMessage, actualResult.getMessage());
     }
 
+    private static StartCalcRequestDTO startRequest(final String name, final String uf) {
+        final var request = new StartCalcRequestDTO();
+        request.setName(name);
+        request.setEmail("johndoe@email.com");
+        request.setUf(uf);
+        request.setPhoneNumber("123456789");
+        return request;
+    }
+
+    @Test
+    void givenABatchWithValidAndInvalidItemsWhenCallTheStartCalculationBatchThenShouldInsertInChunksAndAnswerInInputOrder() {
+        this.loadDefaultFactors();
+        final var requests = new ArrayList<StartCalcRequestDTO>();
+        requests.add(startRequest("John", "al"));
+        requests.add(startRequest(null, "AL"));
+        requests.add(startRequest("Mary", "AL"));
+        requests.add(null);
+        requests.add(startRequest("Ann", "AL"));
+        final List<List<CarbonEmissionStats>> chunks = new ArrayList<>();
+
+        when(this.repository.insertUnordered(any())).thenAnswer(invocation -> {
+            chunks.add(List.copyOf(invocation.getArgument(0)));
+            return Map.of();
+        });
+
+        final var actualResult = this.service.startCalculationBatch(requests);
+
+        assertEquals(3, actualResult.getCreated());
+        assertEquals(2, actualResult.getRejected());
+        assertEquals(5, actualResult.getItems().size());
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        assertEquals(chunks.get(0).get(0).getId(), actualResult.getItems().get(0).getId());
+        assertEquals("AL", chunks.get(0).get(0).getUserData().getUf());
+        assertEquals(0.0, chunks.get(0).get(0).getResult().getTotal());
+        assertNull(actualResult.getItems().get(1).getId());
+        assertEquals("Username is required", actualResult.getItems().get(1).getError());
+        assertEquals(chunks.get(0).get(1).getId(), actualResult.getItems().get(2).getId());
+        assertEquals("User data cannot be null", actualResult.getItems().get(3).getError());
+        assertEquals(chunks.get(1).get(0).getId(), actualResult.getItems().get(4).getId());
+        verify(this.repository, never()).save(any());
+    }
+
+    @Test
+    void givenAnInsertFailureForOneItemWhenCallTheStartCalculationBatchThenShouldRejectOnlyThatItem() {
+        this.loadDefaultFactors();
+        final var requests = List.of(startRequest("John", "AL"), startRequest("Mary", "AL"), startRequest("Ann", "AL"));
+
+        when(this.repository.insertUnordered(any()))
+                .thenReturn(Map.of(1, "E11000 duplicate key error"))
+                .thenReturn(Map.of());
+
+        final var actualResult = this.service.startCalculationBatch(requests);
+
+        assertEquals(2, actualResult.getCreated());
+        assertEquals(1, actualResult.getRejected());
+        assertNotNull(actualResult.getItems().get(0).getId());
+        assertNull(actualResult.getItems().get(1).getId());
+        assertEquals("E11000 duplicate key error", actualResult.getItems().get(1).getError());
+        assertNotNull(actualResult.getItems().get(2).getId());
+        verify(this.repository, times(2)).insertUnordered(any());
+    }
+
+    @Test
+    void givenABatchLargerThanTheMaximumWhenCallTheStartCalculationBatchThenShouldThrowException() {
+        final var requests = List.of(startRequest("A", "AL"), startRequest("B", "AL"), startRequest("C", "AL"),
+                startRequest("D", "AL"), startRequest("E", "AL"), startRequest("F", "AL"));
+
+        final var actualResult = assertThrows(IllegalArgumentException.class, () -> this.service.startCalculationBatch(requests));
+
+        assertEquals("Batch size must be at most 5 items", actualResult.getMessage());
+        verify(this.repository, never()).insertUnordered(any());
+    }
+
+    @Test
+    void givenABatchOfUpdatesWhenCallTheUpdateCalculationInfoBatchThenShouldMergeRepeatedIdsAndAnswerInInputOrder() {
+        this.loadDefaultFactors();
+        final var firstId = "4dcba6ba34414a348ba6ba34414a347a";
+        final var secondId = "5dcba6ba34414a348ba6ba34414a347b";
+        final var missingId = "6dcba6ba34414a348ba6ba34414a347c";
+        final var carTransportation = List.of(TransportationDTO.builder().type(TransportationType.CAR).monthlyDistance(100).build());
+        final var requests = new ArrayList<UpdateCalcInfoRequestDTO>();
+        requests.add(UpdateCalcInfoRequestDTO.builder().id(firstId).energyConsumption(5).transportation(carTransportation).build());
+        requests.add(UpdateCalcInfoRequestDTO.builder().id(secondId).energyConsumption(20).build());
+        requests.add(null);
+        requests.add(UpdateCalcInfoRequestDTO.builder().id(missingId).energyConsumption(30).build());
+        requests.add(UpdateCalcInfoRequestDTO.builder().id(firstId).energyConsumption(10).solidWasteTotal(1000).recyclePercentage(0.5).build());
+        final List<List<CarbonEmissionStats>> chunks = new ArrayList<>();
+        final var first = this.completeCarbonData(firstId);
+        first.setRevision(3L);
+        final var second = this.completeCarbonData(secondId);
+        second.setEnergyConsumption(20);
+        second.setRevision(1L);
+        second.setResult(CarbonEmissionResult.builder().total(1.0).build());
+
+        when(this.repository.updateInfoUnordered(any())).thenAnswer(invocation -> {
+            chunks.add(List.copyOf(invocation.getArgument(0)));
+            return (long) chunks.get(chunks.size() - 1).size();
+        });
+        when(this.repository.findInfoByIds(any())).thenReturn(List.of(first, second)).thenReturn(List.of(first, second)).thenReturn(List.of());
+
+        final var actualResult = this.service.updateCalculationInfoBatch(requests);
+
+        assertEquals(List.of(2, 1), chunks.stream().map(List::size).toList());
+        final var mergedUpdate = chunks.get(0).get(0);
+        assertEquals(firstId, mergedUpdate.getId());
+        assertEquals(10, mergedUpdate.getEnergyConsumption());
+        assertEquals(1000, mergedUpdate.getSolidWaste());
+        assertEquals(1, mergedUpdate.getTransportationList().size());
+        assertNull(chunks.get(0).get(1).getTransportationList());
+        verify(this.repository, times(1)).updateResultsUnordered(argThat(results -> results.size() == 1 &&
+                Objects.equals(firstId, results.get(0).getId()) &&
+                Objects.equals(3L, results.get(0).getRevision()) &&
+                results.get(0).getResult().getTotal() == 723.0));
+        verify(this.repository, never()).save(any());
+        assertEquals(3, actualResult.getUpdated());
+        assertEquals(2, actualResult.getFailed());
+        assertEquals(List.of(true, true, false, false, true), actualResult.getItems().stream().map(UpdateCalcInfoBatchItemDTO::isSuccess).toList());
+        assertEquals(missingId, actualResult.getItems().get(3).getId());
+    }
+
+    @Test
+    void givenACalculationRemovedDuringTheBatchUpdateWhenCallTheUpdateCalculationInfoBatchThenShouldNotApplyAnyRollupDelta() {
+        this.loadDefaultFactors();
+        final var firstId = "4dcba6ba34414a348ba6ba34414a347a";
+        final var secondId = "5dcba6ba34414a348ba6ba34414a347b";
+        final var requests = List.of(UpdateCalcInfoRequestDTO.builder().id(firstId).energyConsumption(10).build(),
+                UpdateCalcInfoRequestDTO.builder().id(secondId).energyConsumption(20).build());
+        final var first = this.completeCarbonData(firstId);
+        first.setRevision(3L);
+        first.setResult(CarbonEmissionResult.builder().total(1.0).build());
+        final var second = this.completeCarbonData(secondId);
+        second.setRevision(1L);
+        second.setResult(CarbonEmissionResult.builder().total(2.0).build());
+        final var updatedFirst = this.completeCarbonData(firstId);
+        updatedFirst.setRevision(4L);
+
+        when(this.repository.findInfoByIds(any())).thenReturn(List.of(first, second)).thenReturn(List.of(updatedFirst));
+        when(this.repository.updateInfoUnordered(any())).thenReturn(1L);
+        when(this.repository.updateResultsUnordered(any())).thenReturn(1L);
+
+        final var actualResult = this.service.updateCalculationInfoBatch(requests);
+
+        assertEquals(1, actualResult.getUpdated());
+        verify(this.rollupService, never()).apply(any());
+        verify(this.rollupService, times(2)).unaccounted(1L);
+        verify(this.percentileService, times(1)).record("AL", 723.0);
+    }
+
+    @Test
+    void givenAResultNotWrittenWhenCallTheUpdateCalculationInfoBatchThenShouldNotRecordItsPercentile() {
+        this.loadDefaultFactors();
+        final var id = "4dcba6ba34414a348ba6ba34414a347a";
+        final var previous = this.completeCarbonData(id);
+        previous.setRevision(3L);
+        previous.setResult(CarbonEmissionResult.builder().total(1.0).build());
+        final var updated = this.completeCarbonData(id);
+        updated.setRevision(4L);
+
+        when(this.repository.findInfoByIds(any())).thenReturn(List.of(previous)).thenReturn(List.of(updated));
+        when(this.repository.updateInfoUnordered(any())).thenReturn(1L);
+        when(this.repository.updateResultsUnordered(any())).thenReturn(0L);
+
+        this.service.updateCalculationInfoBatch(List.of(UpdateCalcInfoRequestDTO.builder().id(id).energyConsumption(10).build()));
+
+        verify(this.rollupService, times(1)).apply(any());
+        verify(this.rollupService, times(1)).unaccounted(0L);
+        verify(this.percentileService, never()).record(any(), anyDouble());
+    }
+
     @Test
     void givenAValidUpdateRequestWhenCallTheUpdateCalculationInfoThenShouldReturnTrue() {
         final var expectedName = "name";
@@ -342,6 +593,8 @@ class CalculationServiceTest {
         final var expectedRecyclePercentage = 0.5;
 
         final var mockCarbonData = CarbonEmissionStatsFactory.create(new UserData(expectedName, expectedEmail, expectedUF, expectedPhoneNumber));
+        final var expectedFactorVersion = this.factorCatalog.snapshot().getVersion();
+        final var expectedRevision = 1L;
 
         final var updateCalcInfoRequestDTO = UpdateCalcInfoRequestDTO.builder()
                 .id(expectedId)
@@ -351,22 +604,17 @@ class CalculationServiceTest {
                 .recyclePercentage(expectedRecyclePercentage)
                 .build();
 
-        when(this.repository.findById(any())).thenReturn(Optional.of(mockCarbonData));
-        when(this.repository.save(any())).thenReturn(mockCarbonData);
+        this.mockUpdateInfo(mockCarbonData, expectedRevision);
 
         final var actualResult = this.service.updateCalculationInfo(updateCalcInfoRequestDTO);
 
-        verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.repository, times(1)).save(argThat(aCarbonEmissionStats -> Objects.equals(expectedName, aCarbonEmissionStats.getUserData().getName()) &&
-                Objects.nonNull(aCarbonEmissionStats.getId()) &&
-                Objects.equals(expectedEmail, aCarbonEmissionStats.getUserData().getEmail()) &&
-                Objects.equals(expectedUF, aCarbonEmissionStats.getUserData().getUf()) &&
-                Objects.equals(expectedPhoneNumber, aCarbonEmissionStats.getUserData().getPhoneNumber()) &&
-                Objects.equals(expectedEnergyConsumption, aCarbonEmissionStats.getEnergyConsumption()) &&
-                Objects.equals(expectedTransportationListSize, aCarbonEmissionStats.getTransportationList().size()) &&
-                Objects.equals(expectedSolidWasteTotal, aCarbonEmissionStats.getSolidWaste()) &&
-                Objects.equals(expectedRecyclePercentage, aCarbonEmissionStats.getRecyclePercentage())
-                ));
+        verify(this.repository, times(1)).updateInfo(eq(expectedId), eq(expectedEnergyConsumption),
+                argThat(aTransportationList -> Objects.equals(expectedTransportationListSize, aTransportationList.size())),
+                eq(expectedSolidWasteTotal), eq(expectedRecyclePercentage));
+        verify(this.repository, times(1)).updateResult(eq(mockCarbonData.getId()), eq(expectedRevision), any(),
+                argThat(aResult -> Objects.equals(expectedFactorVersion, aResult.getFactorVersion())));
+        verify(this.repository, never()).findById(any());
+        verify(this.repository, never()).save(any());
 
         assertNotNull(actualResult);
         assertTrue(actualResult.isSuccess());
@@ -384,7 +632,6 @@ class CalculationServiceTest {
 //        final var carTransportationInfo = TransportationDTO.builder().type(TransportationType.CAR).monthlyDistance(100).build();
 //        final var motorCycleTransportationInfo = TransportationDTO.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build();
 //        final var expectedTransportationList = List.of(carTransportationInfo, motorCycleTransportationInfo);
-        final var expectedTransportationListSize = 2;
         final var expectedSolidWasteTotal = 1000;
         final var expectedRecyclePercentage = 0.5;
 
@@ -398,28 +645,76 @@ class CalculationServiceTest {
                 .recyclePercentage(expectedRecyclePercentage)
                 .build();
 
-        when(this.repository.findById(any())).thenReturn(Optional.of(mockCarbonData));
-        when(this.repository.save(any())).thenReturn(mockCarbonData);
+        this.mockUpdateInfo(mockCarbonData, 1L);
 
         final var actualResult = this.service.updateCalculationInfo(updateCalcInfoRequestDTO);
 
-        verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.repository, times(1)).save(argThat(aCarbonEmissionStats -> Objects.equals(expectedName, aCarbonEmissionStats.getUserData().getName()) &&
-                Objects.nonNull(aCarbonEmissionStats.getId()) &&
-                Objects.equals(expectedEmail, aCarbonEmissionStats.getUserData().getEmail()) &&
-                Objects.equals(expectedUF, aCarbonEmissionStats.getUserData().getUf()) &&
-                Objects.equals(expectedPhoneNumber, aCarbonEmissionStats.getUserData().getPhoneNumber()) &&
-                Objects.equals(expectedEnergyConsumption, aCarbonEmissionStats.getEnergyConsumption()) &&
-                Objects.isNull(aCarbonEmissionStats.getTransportationList()) &&
-                Objects.equals(expectedSolidWasteTotal, aCarbonEmissionStats.getSolidWaste()) &&
-                Objects.equals(expectedRecyclePercentage, aCarbonEmissionStats.getRecyclePercentage())
-                ));
+        verify(this.repository, times(1)).updateInfo(eq(expectedId), eq(expectedEnergyConsumption), isNull(),
+                eq(expectedSolidWasteTotal), eq(expectedRecyclePercentage));
+        verify(this.repository, times(1)).updateResult(eq(mockCarbonData.getId()), eq(1L), any(), any());
+        verify(this.repository, never()).save(any());
 
         assertNotNull(actualResult);
         assertTrue(actualResult.isSuccess());
     }
 
 
+    @Test
+    void givenAStoredResultWhenCallTheUpdateCalculationInfoThenShouldApplyTheResultDifferenceToTheRollups() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        final var updatedCarbonData = this.completeCarbonData(expectedId);
+        final var previousResult = CarbonEmissionResult.builder().total(23.0)
+                .transportationByType(Map.of(TransportationType.CAR, 19.0)).build();
+        updatedCarbonData.setResult(previousResult);
+        this.mockUpdateInfo(updatedCarbonData, 2L);
+
+        this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder().id(expectedId).energyConsumption(10).build());
+
+        verify(this.repository, times(1)).updateResult(eq(expectedId), eq(2L), eq(previousResult),
+                argThat(aResult -> aResult.getTotal() == 723.0));
+        verify(this.rollupService, times(1)).apply(argThat(delta -> {
+            final var changes = delta.changes().stream().collect(Collectors.toMap(EmissionRollup::getId, change -> change));
+            return changes.size() == 2
+                    && changes.get("UF:AL").getCount() == 0 && changes.get("UF:AL").getSum() == 700.0
+                    && changes.get("TRANSPORTATION:MOTORCYCLE").getCount() == 1 && changes.get("TRANSPORTATION:MOTORCYCLE").getSum() == 9.0;
+        }));
+        verify(this.percentileService, times(1)).record("AL", 723.0);
+    }
+
+    @Test
+    void givenTheFirstUpdateWhenCallTheUpdateCalculationInfoThenShouldOnlyAddTheNewResultToTheRollups() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        final var updatedCarbonData = this.completeCarbonData(expectedId);
+        final var startResult = CarbonEmissionResult.builder().total(0.0).build();
+        updatedCarbonData.setResult(startResult);
+        this.mockUpdateInfo(updatedCarbonData, 1L);
+
+        this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder().id(expectedId).energyConsumption(10).build());
+
+        verify(this.repository, times(1)).updateResult(eq(expectedId), eq(1L), eq(startResult),
+                argThat(aResult -> aResult.getTotal() == 723.0));
+        verify(this.rollupService, times(1)).apply(argThat(delta -> {
+            final var changes = delta.changes().stream().collect(Collectors.toMap(EmissionRollup::getId, change -> change));
+            return changes.get("UF:AL").getCount() == 1 && changes.get("UF:AL").getSum() == 723.0;
+        }));
+    }
+
+    @Test
+    void givenAResultReplacedConcurrentlyWhenCallTheUpdateCalculationInfoThenShouldNotApplyTheRollups() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        this.mockUpdateInfo(this.completeCarbonData(expectedId), 2L);
+        when(this.repository.updateResult(any(), any(), any(), any())).thenReturn(0L);
+
+        final var actualResult = this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder().id(expectedId).energyConsumption(10).build());
+
+        assertTrue(actualResult.isSuccess());
+        verify(this.rollupService, never()).apply(any());
+        verify(this.percentileService, never()).record(any(), anyDouble());
+    }
+
     @Test
     void givenAnInvalidUpdateRequestIDWhenCallTheUpdateCalculationInfoThenShouldReturnFalse() {
 
@@ -439,11 +734,12 @@ class CalculationServiceTest {
                 .recyclePercentage(expectedRecyclePercentage)
                 .build();
 
-        when(this.repository.findById(any())).thenReturn(Optional.empty());
+        when(this.repository.updateInfo(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
 
         final var actualResult = this.service.updateCalculationInfo(updateCalcInfoRequestDTO);
 
-        verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
+        verify(this.repository, times(1)).updateInfo(eq(expectedId), any(), any(), any(), any());
+        verify(this.repository, never()).updateResult(any(), any(), any(), any());
         verify(this.repository, never()).save(any());
 
         assertNotNull(actualResult);
@@ -470,60 +766,39 @@ class CalculationServiceTest {
                 .recyclePercentage(expectedRecyclePercentage)
                 .build();
 
-        when(this.repository.findById(any())).thenThrow(new IllegalStateException(expectedExceptionMessage));
+        when(this.repository.updateInfo(any(), any(), any(), any(), any())).thenThrow(new IllegalStateException(expectedExceptionMessage));
 
         final var actualResult = assertThrows(IllegalStateException.class, () -> this.service.updateCalculationInfo(updateCalcInfoRequestDTO));
 
-        verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.repository, never()).save(any());
+        verify(this.repository, times(1)).updateInfo(eq(expectedId), any(), any(), any(), any());
+        verify(this.repository, never()).updateResult(any(), any(), any(), any());
 
         assertNotNull(actualResult);
         assertEquals(expectedExceptionMessage, actualResult.getMessage());
     }
 
     @Test
-    void givenAValidIdWithCalculationDataWhenCallTheGetResultMethodThenShouldReturnDto() {
+    void givenAValidIdWithoutStoredResultWhenCallTheGetResultMethodThenShouldCalculateStoreAndReturnDto() {
         final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
         final var solidWasteAmount = 690.0;
         final var transportationAmount = 28.0;
         final var energyAmount = 5.0;
         final var expectedTotal = 723.0;
 
-        final var expectedName = "name";
-        final var expectedEmail = "email@email.com";
-        final var expectedUF = "AL";
-        final var expectedPhoneNumber = "123456789";
-
-        final var expectedEnergyConsumption = 10;
-        final var carTransportationInfo = TransportationDTO.builder().type(TransportationType.CAR).monthlyDistance(100).build();
-        final var motorCycleTransportationInfo = TransportationDTO.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build();
-        final var expectedTransportationList = List.of(carTransportationInfo, motorCycleTransportationInfo);
-        final var expectedSolidWasteTotal = 1000;
-        final var expectedRecyclePercentage = 0.5;
-
-
-        final var energyEmissionFactor = EnergyEmissionFactor.builder().uf(expectedUF).factor(0.5).build();
-        final var transportationEmissionFactorCar = TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build();
-        final var transportationEmissionFactorMotorcycle = TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build();
-        final var solidWasteEmissionFactor = SolidWasteEmissionFactor.builder().uf(expectedUF).nonRecyclableFactor(0.95).recyclableFactor(0.43).build();
-
-        final var mockCarbonData = CarbonEmissionStatsFactory.create(UserData.newUser(expectedName, expectedEmail, expectedUF, expectedPhoneNumber));
-        mockCarbonData.setEnergyConsumption(expectedEnergyConsumption);
-        mockCarbonData.setTransportationList(expectedTransportationList.stream().map(Transportation::from).toList());
-        mockCarbonData.setSolidWaste(expectedSolidWasteTotal);
-        mockCarbonData.setRecyclePercentage(expectedRecyclePercentage);
+        final var mockCarbonData = this.completeCarbonData(expectedId);
+        this.loadDefaultFactors();
+        final var expectedVersion = this.factorCatalog.snapshot().getVersion();
 
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(new CarbonEmissionStats(expectedId, null)));
         when(this.repository.findById(any())).thenReturn(Optional.of(mockCarbonData));
-        when(this.energyRepository.findById(any())).thenReturn(Optional.of(energyEmissionFactor));
-        when(this.transportationRepository.findAll()).thenReturn(List.of(transportationEmissionFactorCar, transportationEmissionFactorMotorcycle));
-        when(this.wasteRepository.findById(any())).thenReturn(Optional.of(solidWasteEmissionFactor));
 
         final var actualResul = this.service.getResult(expectedId);
 
+        verify(this.repository, times(1)).findResultById(argThat(anId -> Objects.equals(expectedId, anId)));
         verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.energyRepository, times(1)).findById(any());
-        verify(this.transportationRepository, times(1)).findAll();
-        verify(this.wasteRepository, times(1)).findById(any());
+        verify(this.repository, times(1)).updateResult(eq(expectedId), isNull(), any(),
+                argThat(aResult -> aResult.getTotal() == expectedTotal && aResult.getFactorVersion() == expectedVersion));
+        verifyNoInteractions(this.energyRepository, this.transportationRepository, this.wasteRepository);
 
         assertNotNull(actualResul);
         assertEquals(solidWasteAmount, actualResul.getSolidWaste());
@@ -532,6 +807,136 @@ class CalculationServiceTest {
         assertEquals(expectedTotal, actualResul.getTotal());
     }
 
+    @Test
+    void givenAValidIdWithCurrentStoredResultWhenCallTheGetResultMethodThenShouldReturnStoredValuesWithoutRecalculating() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        final var storedResult = CarbonEmissionResult.builder()
+                .energy(5.0)
+                .transportation(28.0)
+                .solidWaste(690.0)
+                .total(723.0)
+                .factorVersion(this.factorCatalog.snapshot().getVersion())
+                .build();
+        final var projectedCarbonData = new CarbonEmissionStats(expectedId, null);
+        projectedCarbonData.setResult(storedResult);
+
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(projectedCarbonData));
+
+        final var actualResul = this.service.getResult(expectedId);
+
+        verify(this.repository, times(1)).findResultById(argThat(anId -> Objects.equals(expectedId, anId)));
+        verify(this.repository, never()).findById(any());
+        verify(this.repository, never()).updateResult(any(), any(), any(), any());
+        verifyNoInteractions(this.energyRepository, this.transportationRepository, this.wasteRepository);
+
+        assertEquals(690.0, actualResul.getSolidWaste());
+        assertEquals(28.0, actualResul.getTransportation());
+        assertEquals(5.0, actualResul.getEnergy());
+        assertEquals(723.0, actualResul.getTotal());
+    }
+
+    @Test
+    void givenAStoredResultFromASupersededFactorVersionWhenCallTheGetResultMethodThenShouldRecalculate() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        final var currentVersion = this.factorCatalog.snapshot().getVersion();
+        final var staleResult = CarbonEmissionResult.builder().total(1.0).factorVersion(currentVersion + 1).build();
+        final var projectedCarbonData = new CarbonEmissionStats(expectedId, null);
+        projectedCarbonData.setResult(staleResult);
+
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(projectedCarbonData));
+        when(this.repository.findById(any())).thenReturn(Optional.of(this.completeCarbonData(expectedId)));
+
+        final var actualResul = this.service.getResult(expectedId);
+
+        verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
+        verify(this.repository, times(1)).updateResult(eq(expectedId), isNull(), any(),
+                argThat(aResult -> aResult.getFactorVersion() == currentVersion));
+        assertEquals(723.0, actualResul.getTotal());
+    }
+
+    @Test
+    void givenACachedResultWhenCallTheGetResultMethodAgainThenShouldNotQueryTheRepository() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(new CarbonEmissionStats(expectedId, null)));
+        when(this.repository.findById(any())).thenReturn(Optional.of(this.completeCarbonData(expectedId)));
+
+        final var firstResult = this.service.getResult(expectedId);
+        final var secondResult = this.service.getResult(expectedId);
+
+        verify(this.repository, times(1)).findResultById(any());
+        verify(this.repository, times(1)).findById(any());
+        assertEquals(723.0, firstResult.getTotal());
+        assertEquals(firstResult, secondResult);
+        assertEquals(1, this.resultCache.stats().hits());
+        assertEquals(1, this.resultCache.stats().misses());
+    }
+
+    @Test
+    void givenACachedResultWhenTheCalculationInfoIsUpdatedThenShouldReadTheNewResult() {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        final var carbonData = this.completeCarbonData(expectedId);
+
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(new CarbonEmissionStats(expectedId, null)));
+        final var updatedCarbonData = this.completeCarbonData(expectedId);
+        updatedCarbonData.setEnergyConsumption(20);
+        this.mockUpdateInfo(updatedCarbonData, 1L);
+        when(this.repository.findById(any())).thenReturn(Optional.of(carbonData)).thenReturn(Optional.of(updatedCarbonData));
+
+        final var cachedResult = this.service.getResult(expectedId);
+        this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder()
+                .id(expectedId)
+                .energyConsumption(20)
+                .solidWasteTotal(1000)
+                .recyclePercentage(0.5)
+                .build());
+        final var updatedResult = this.service.getResult(expectedId);
+
+        verify(this.repository, times(2)).findResultById(any());
+        verify(this.repository, times(2)).updateResult(eq(expectedId), eq(1L), any(), any());
+        assertEquals(723.0, cachedResult.getTotal());
+        assertEquals(10.0, updatedResult.getEnergy());
+        assertEquals(728.0, updatedResult.getTotal());
+    }
+
+    @Test
+    void givenSeveralIdsWhenCallTheGetResultsMethodThenShouldReadMissingResultsWithASingleQuery() {
+        this.loadDefaultFactors();
+        final var currentVersion = this.factorCatalog.snapshot().getVersion();
+        final var cachedId = "1dcba6ba34414a348ba6ba34414a347a";
+        final var currentId = "2dcba6ba34414a348ba6ba34414a347a";
+        final var staleId = "3dcba6ba34414a348ba6ba34414a347a";
+        final var missingId = "4dcba6ba34414a348ba6ba34414a347a";
+        final var current = new CarbonEmissionStats(currentId, null);
+        current.setResult(CarbonEmissionResult.builder().energy(1.0).total(1.0).factorVersion(currentVersion).build());
+        final var stale = this.completeCarbonData(staleId);
+        stale.setRevision(2L);
+        stale.setResult(CarbonEmissionResult.builder().total(1.0).factorVersion(currentVersion + 1).build());
+
+        when(this.repository.findResultById(cachedId)).thenReturn(Optional.of(new CarbonEmissionStats(cachedId, null)));
+        when(this.repository.findById(cachedId)).thenReturn(Optional.of(this.completeCarbonData(cachedId)));
+        this.service.getResult(cachedId);
+        when(this.repository.findInfoByIds(any())).thenReturn(List.of(stale, current));
+
+        final var actualResult = this.service.getResults(Arrays.asList(cachedId, currentId, staleId, missingId, currentId));
+
+        assertEquals(List.of(cachedId, currentId, staleId, missingId), List.copyOf(actualResult.keySet()));
+        assertEquals(723.0, actualResult.get(cachedId).getTotal());
+        assertEquals(1.0, actualResult.get(currentId).getTotal());
+        assertEquals(723.0, actualResult.get(staleId).getTotal());
+        assertEquals(0.0, actualResult.get(missingId).getTotal());
+        verify(this.repository, times(1)).findInfoByIds(List.of(currentId, staleId, missingId));
+        verify(this.repository, times(1)).updateResultsUnordered(argThat(results -> results.size() == 1 &&
+                Objects.equals(staleId, results.get(0).getId()) &&
+                Objects.equals(2L, results.get(0).getRevision()) &&
+                results.get(0).getResult().getFactorVersion() == currentVersion));
+        verifyNoInteractions(this.energyRepository, this.transportationRepository, this.wasteRepository);
+    }
+
     @Test
     void givenAValidIdWithoutCalculationDataWhenCallTheGetResultMethodThenShouldReturnDtoWithZeroOnParams() {
         final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
@@ -543,14 +948,13 @@ class CalculationServiceTest {
 
         final var mockCarbonData = CarbonEmissionStatsFactory.create(UserData.newUser(expectedName, expectedEmail, expectedUF, expectedPhoneNumber));
 
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(new CarbonEmissionStats(expectedId, null)));
         when(this.repository.findById(any())).thenReturn(Optional.of(mockCarbonData));
 
         final var actualResul = this.service.getResult(expectedId);
 
         verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.energyRepository, times(1)).findById(any());
-        verify(this.transportationRepository, times(1)).findAll();
-        verify(this.wasteRepository, times(1)).findById(any());
+        verifyNoInteractions(this.energyRepository, this.transportationRepository, this.wasteRepository);
 
         assertNotNull(actualResul);
         assertEquals(expectedValue, actualResul.getSolidWaste());
@@ -564,14 +968,13 @@ class CalculationServiceTest {
         final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
         final var expectedValue = 0.0;
 
-        when(this.repository.findById(any())).thenReturn(Optional.empty());
+        when(this.repository.findResultById(any())).thenReturn(Optional.empty());
 
         final var actualResul = this.service.getResult(expectedId);
 
-        verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.energyRepository, never()).findById(any());
-        verify(this.transportationRepository, never()).findAll();
-        verify(this.wasteRepository, never()).findById(any());
+        verify(this.repository, times(1)).findResultById(argThat(anId -> Objects.equals(expectedId, anId)));
+        verify(this.repository, never()).findById(any());
+        verifyNoInteractions(this.energyRepository, this.transportationRepository, this.wasteRepository);
 
         assertNotNull(actualResul);
         assertEquals(expectedValue, actualResul.getSolidWaste());
@@ -597,17 +1000,14 @@ class CalculationServiceTest {
 
         final var mockCarbonData = CarbonEmissionStatsFactory.create(UserData.newUser(expectedName, expectedEmail, expectedUF, expectedPhoneNumber));
 
+        this.loadFactors(List.of(), List.of(transportationEmissionFactorCar, transportationEmissionFactorMotorcycle), List.of());
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(new CarbonEmissionStats(expectedId, null)));
         when(this.repository.findById(any())).thenReturn(Optional.of(mockCarbonData));
-        when(this.energyRepository.findById(any())).thenReturn(Optional.empty());
-        when(this.transportationRepository.findAll()).thenReturn(List.of(transportationEmissionFactorCar, transportationEmissionFactorMotorcycle));
-        when(this.wasteRepository.findById(any())).thenReturn(Optional.empty());
 
         final var actualResul = this.service.getResult(expectedId);
 
         verify(this.repository, times(1)).findById(argThat(anId -> Objects.equals(expectedId, anId)));
-        verify(this.energyRepository, times(1)).findById(any());
-        verify(this.transportationRepository, times(1)).findAll();
-        verify(this.wasteRepository, times(1)).findById(any());
+        verifyNoInteractions(this.energyRepository, this.transportationRepository, this.wasteRepository);
 
         assertNotNull(actualResul);
         assertEquals(expectedValue, actualResul.getSolidWaste());
@@ -616,4 +1016,91 @@ class CalculationServiceTest {
         assertEquals(expectedValue, actualResul.getTotal());
     }
 
+    @Test
+    void givenAnInvalidUfWhenCalculatingThenShouldCountTheUnsupportedUf() {
+        final var registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            this.loadDefaultFactors();
+            final var carbonData = CarbonEmissionStatsFactory.create(UserData.newUser("name", "email@email.com", "TT", "123456789"));
+            final var invalidCarbonData = CarbonEmissionStatsFactory.create(UserData.newUser("name", "email@email.com", "Tocantins", "123456789"));
+
+            CalculationService.calculate(carbonData, this.factorCatalog.snapshot());
+            CalculationService.calculate(carbonData, this.factorCatalog.snapshot());
+            CalculationService.calculate(invalidCarbonData, this.factorCatalog.snapshot());
+            CalculationService.calculate(this.completeCarbonData("4dcba6ba34414a348ba6ba34414a347a"), this.factorCatalog.snapshot());
+
+            assertEquals(2.0, registry.get("carbon.calc.unsupported.uf").tag("uf", "TT").counter().count());
+            assertEquals(1.0, registry.get("carbon.calc.unsupported.uf").tag("uf", "OTHER").counter().count());
+            assertEquals(0.0, registry.find("carbon.calc.unsupported.uf").tag("uf", "AL").counters().stream()
+                    .mapToDouble(Counter::count).sum());
+        } finally {
+            Metrics.removeRegistry(registry);
+        }
+    }
+
+    @Test
+    void givenAFlightRecordingWhenStartingUpdatingAndReadingThenShouldEmitCalculationEvents() throws Exception {
+        final var expectedId = "4dcba6ba34414a348ba6ba34414a347a";
+        this.loadDefaultFactors();
+        final var request = startRequest("name", "al");
+        when(this.repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        this.mockUpdateInfo(this.completeCarbonData(expectedId), 1L);
+        when(this.repository.findResultById(any())).thenReturn(Optional.of(new CarbonEmissionStats(expectedId, null)));
+        when(this.repository.findById(any())).thenReturn(Optional.of(this.completeCarbonData(expectedId)));
+        final var recordingFile = Files.createTempFile("calculation-events", ".jfr");
+
+        try (var recording = new Recording()) {
+            recording.enable(StartCalculationEvent.class);
+            recording.enable(UpdateCalculationInfoEvent.class);
+            recording.enable(GetResultEvent.class);
+            recording.start();
+            this.service.startCalculation(request);
+            this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder().id(expectedId).build());
+            this.service.getResult(expectedId);
+            this.service.getResult(expectedId);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        final var events = RecordingFile.readAllEvents(recordingFile);
+        Files.deleteIfExists(recordingFile);
+        final var startEvent = events.stream().filter(event -> event.getEventType().getName().endsWith(".StartCalculation")).findFirst().orElseThrow();
+        final var updateEvent = events.stream().filter(event -> event.getEventType().getName().endsWith(".UpdateCalculationInfo")).findFirst().orElseThrow();
+        final var resultEvents = events.stream().filter(event -> event.getEventType().getName().endsWith(".GetResult")).toList();
+
+        assertEquals("AL", startEvent.getString("uf"));
+        assertTrue(startEvent.getBoolean("success"));
+        assertEquals(expectedId.hashCode(), updateEvent.getInt("calculationIdHash"));
+        assertEquals(2, updateEvent.getInt("transportationEntries"));
+        assertEquals(2, resultEvents.size());
+        assertEquals(1, resultEvents.stream().filter(event -> event.getBoolean("recalculated")).count());
+        assertEquals(1, resultEvents.stream().filter(event -> event.getBoolean("cacheHit")).count());
+    }
+
+    @Test
+    void givenVersionedFactorsWhenCalculatingThenShouldApplyTheFactorsEffectiveAtTheCreationDate() {
+        final var changedAt = Instant.parse("2024-01-01T00:00:00Z");
+        this.loadFactors(List.of(EnergyEmissionFactor.builder().uf("AL").factor(0.4).effectiveTo(changedAt).build(),
+                        EnergyEmissionFactor.builder().uf("AL").factor(0.5).effectiveFrom(changedAt).build()),
+                List.of(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                        TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build()),
+                List.of(SolidWasteEmissionFactor.builder().uf("AL").nonRecyclableFactor(0.95).recyclableFactor(0.43).build()));
+        final var before = this.completeCarbonData(IdentifierUtil.unique());
+        before.setCreatedAt(Instant.parse("2023-06-01T00:00:00Z"));
+        final var after = this.completeCarbonData(IdentifierUtil.unique());
+        after.setCreatedAt(Instant.parse("2024-06-01T00:00:00Z"));
+
+        final var factors = this.factorCatalog.snapshot();
+        final var beforeResult = CalculationService.calculate(before, factors);
+        final var afterResult = CalculationService.calculate(after, factors);
+
+        assertEquals(4.0, beforeResult.getEnergy());
+        assertEquals(722.0, beforeResult.getTotal());
+        assertEquals(5.0, afterResult.getEnergy());
+        assertEquals(723.0, afterResult.getTotal());
+        assertEquals(beforeResult.getFactorVersion(), afterResult.getFactorVersion());
+        verifyNoInteractions(this.repository);
+    }
+
 }
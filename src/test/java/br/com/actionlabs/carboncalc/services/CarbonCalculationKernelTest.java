@@ -0,0 +1,91 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.EmissionFactorSnapshot;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class CarbonCalculationKernelTest {
+
+    private static final int ITERATIONS = 1_000_000;
+    private static final long ALLOCATION_TOLERANCE_BYTES = 1024;
+
+    private final EmissionFactorSnapshot factors = EmissionFactorSnapshot.of(
+            List.of(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build()),
+            List.of(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                    TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build()),
+            List.of(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build()),
+            Instant.now());
+
+    private final long pricedAt = System.currentTimeMillis();
+
+    private double calculate(final int ufIndex) {
+        final var energy = CarbonCalculationKernel.energy(this.factors.getEnergyFactorTable(), this.factors.energyIndex(ufIndex, this.pricedAt), 10);
+        final var transportation = CarbonCalculationKernel.transportation(this.factors.getTransportationFactorTable(), this.transportationIndex(TransportationType.CAR), 100)
+                + CarbonCalculationKernel.transportation(this.factors.getTransportationFactorTable(), this.transportationIndex(TransportationType.MOTORCYCLE), 100);
+        final var solidWaste = CarbonCalculationKernel.solidWaste(this.factors.getRecyclableFactorTable(), this.factors.getNonRecyclableFactorTable(),
+                this.factors.solidWasteIndex(ufIndex, this.pricedAt), 1000, 0.5);
+        return CarbonCalculationKernel.total(energy, transportation, solidWaste);
+    }
+
+    private int transportationIndex(final TransportationType type) {
+        return this.factors.transportationIndex(type.ordinal(), this.pricedAt);
+    }
+
+    @Test
+    void givenTheDocumentedExampleWhenCalculatingThenShouldMatchTheExpectedBreakdown() {
+        final var ufIndex = this.factors.ufIndex("AL");
+
+        assertEquals(5.0, CarbonCalculationKernel.energy(this.factors.getEnergyFactorTable(), this.factors.energyIndex(ufIndex, this.pricedAt), 10));
+        assertEquals(19.0, CarbonCalculationKernel.transportation(this.factors.getTransportationFactorTable(), this.transportationIndex(TransportationType.CAR), 100));
+        assertEquals(690.0, CarbonCalculationKernel.solidWaste(this.factors.getRecyclableFactorTable(), this.factors.getNonRecyclableFactorTable(),
+                this.factors.solidWasteIndex(ufIndex, this.pricedAt), 1000, 0.5));
+        assertEquals(723.0, this.calculate(ufIndex));
+    }
+
+    @Test
+    void givenAnUnknownUfWhenCalculatingThenShouldReturnZeroForUfDependentCategories() {
+        final var ufIndex = this.factors.ufIndex("TT");
+
+        assertEquals(EmissionFactorSnapshot.UNKNOWN_UF, ufIndex);
+        assertEquals(0.0, CarbonCalculationKernel.energy(this.factors.getEnergyFactorTable(), this.factors.energyIndex(ufIndex, this.pricedAt), 10));
+        assertEquals(0.0, CarbonCalculationKernel.solidWaste(this.factors.getRecyclableFactorTable(), this.factors.getNonRecyclableFactorTable(),
+                this.factors.solidWasteIndex(ufIndex, this.pricedAt), 1000, 0.5));
+    }
+
+    @Test
+    void givenManyCalculationsWhenMeasuringThreadAllocationsThenShouldNotAllocate() {
+        final var threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        final var allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        final var ufIndex = this.factors.ufIndex("AL");
+        final var threadId = Thread.currentThread().getId();
+        var sink = 0.0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += this.calculate(ufIndex);
+        }
+
+        final var before = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += this.calculate(ufIndex);
+        }
+        final var allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(723.0 * ITERATIONS * 2, sink, 1.0);
+        assertTrue(allocated < ALLOCATION_TOLERANCE_BYTES, "Kernel allocated " + allocated + " bytes in " + ITERATIONS + " calculations");
+    }
+
+}
@@ -0,0 +1,109 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class EmissionFactorCatalogTest {
+
+    private EmissionFactorCatalog catalog;
+
+    @Mock
+    private EnergyEmissionFactorRepository energyRepository;
+    @Mock
+    private TransportationEmissionFactorRepository transportationRepository;
+    @Mock
+    private SolidWasteEmissionFactorRepository wasteRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        Mockito.reset(this.energyRepository);
+        Mockito.reset(this.transportationRepository);
+        Mockito.reset(this.wasteRepository);
+        this.catalog = new EmissionFactorCatalog(this.energyRepository, this.transportationRepository, this.wasteRepository);
+    }
+
+    private void stubFactors(final double energyFactor) {
+        when(this.energyRepository.findAll()).thenReturn(List.of(EnergyEmissionFactor.builder().uf("AL").factor(energyFactor).build()));
+        when(this.transportationRepository.findAll()).thenReturn(List.of(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build()));
+        when(this.wasteRepository.findAll()).thenReturn(List.of(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build()));
+    }
+
+    @Test
+    void givenLoadedFactorsWhenReadingTheSnapshotSeveralTimesThenShouldNotQueryTheRepositoriesAgain() {
+        this.stubFactors(0.5);
+        this.catalog.refresh();
+
+        for (int i = 0; i < 10; i++) {
+            final var snapshot = this.catalog.snapshot();
+            assertEquals(0.5, snapshot.getEnergyFactorTable()[snapshot.energyIndex(snapshot.ufIndex("AL"), System.currentTimeMillis())]);
+        }
+
+        verify(this.energyRepository, times(1)).findAll();
+        verify(this.transportationRepository, times(1)).findAll();
+        verify(this.wasteRepository, times(1)).findAll();
+        assertEquals(10, this.catalog.stats().hits());
+    }
+
+    @Test
+    void givenUnchangedFactorsWhenRefreshingThenShouldKeepTheSameSnapshot() {
+        this.stubFactors(0.5);
+        final var first = this.catalog.refresh();
+
+        final var second = this.catalog.refresh();
+
+        assertSame(first, second);
+        assertEquals(2, this.catalog.stats().refreshes());
+        assertEquals(1, this.catalog.stats().swaps());
+    }
+
+    @Test
+    void givenChangedFactorsWhenRefreshingThenShouldSwapTheSnapshot() {
+        this.stubFactors(0.5);
+        final var first = this.catalog.refresh();
+        this.stubFactors(0.6);
+
+        final var second = this.catalog.refresh();
+
+        assertNotEquals(first.getVersion(), second.getVersion());
+        assertSame(second, this.catalog.snapshot());
+        assertEquals(0.6, second.getEnergyFactorTable()[second.energyIndex(second.ufIndex("AL"), System.currentTimeMillis())]);
+        assertEquals(2, this.catalog.stats().swaps());
+    }
+
+    @Test
+    void givenARepositoryFailureWhenRefreshingThenShouldKeepThePreviousSnapshot() {
+        this.stubFactors(0.5);
+        final var first = this.catalog.refresh();
+        when(this.energyRepository.findAll()).thenThrow(new IllegalStateException("Connection failure"));
+
+        assertThrows(IllegalStateException.class, () -> this.catalog.refresh());
+
+        assertSame(first, this.catalog.snapshot());
+        assertEquals(1, this.catalog.stats().refreshFailures());
+        assertTrue(this.catalog.snapshot().isSupported(this.catalog.snapshot().ufIndex("AL")));
+    }
+
+}
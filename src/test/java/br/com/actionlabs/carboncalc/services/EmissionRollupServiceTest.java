@@ -0,0 +1,123 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EmissionRollupDelta;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EmissionRollupRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Executa os agregados incrementais e a troca condicional de resultados contra um MongoDB em processo.
+ */
+@DataMongoTest
+@Import(EmissionRollupService.class)
+class EmissionRollupServiceTest extends InMemoryMongoTest {
+
+    @Autowired
+    private EmissionRollupService service;
+    @Autowired
+    private EmissionRollupRepository rollupRepository;
+    @Autowired
+    private CarbonEmissionStatsRepository carbonEmissionRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.rollupRepository.deleteAll();
+        this.carbonEmissionRepository.deleteAll();
+    }
+
+    private static CarbonEmissionResult result(final double total, final double car) {
+        final var transportationByType = new EnumMap<TransportationType, Double>(TransportationType.class);
+        transportationByType.put(TransportationType.CAR, car);
+        return CarbonEmissionResult.builder().total(total).transportation(car).transportationByType(transportationByType).build();
+    }
+
+    private CarbonEmissionStats store(final String uf, final CarbonEmissionResult result) {
+        return this.store(uf, result, 1L);
+    }
+
+    private CarbonEmissionStats store(final String uf, final CarbonEmissionResult result, final Long revision) {
+        final var stats = new CarbonEmissionStats(IdentifierUtil.unique(), UserData.newUser("name", "email@email.com", uf, "123456789"));
+        stats.setResult(result);
+        stats.setRevision(revision);
+        return this.carbonEmissionRepository.save(stats);
+    }
+
+    @Test
+    void givenReplacedResultsWhenReadingTheRollupsThenShouldReflectOnlyTheCurrentResults() {
+        this.service.apply(new EmissionRollupDelta()
+                .replace("AL", null, result(10.0, 4.0))
+                .replace("AL", null, result(20.0, 6.0)));
+        this.service.apply(new EmissionRollupDelta().replace("AL", result(20.0, 6.0), result(30.0, 8.0)));
+
+        final var byUf = this.service.rollupByUf("al");
+        final var byCar = this.service.rollupByTransportation(TransportationType.CAR);
+
+        assertEquals(2, byUf.count());
+        assertEquals(20.0, byUf.mean(), 1e-9);
+        assertEquals(100.0, byUf.variance(), 1e-9);
+        assertEquals(10.0, byUf.standardDeviation(), 1e-9);
+        assertEquals(2, byCar.count());
+        assertEquals(6.0, byCar.mean(), 1e-9);
+        assertEquals(0, this.service.rollupByTransportation(TransportationType.BICYCLE).count());
+        assertEquals(0, this.service.rollupByUf("SP").count());
+    }
+
+    @Test
+    void givenStoredResultsWhenRebuildingThenShouldReplaceDriftedRollups() {
+        this.store("AL", result(10.0, 4.0));
+        this.store("AL", result(30.0, 0.0));
+        this.store("SP", result(5.0, 5.0));
+        this.store("SP", null);
+        this.store("SP", result(0.0, 0.0), null);
+        final var withoutUser = new CarbonEmissionStats(IdentifierUtil.unique(), null);
+        withoutUser.setResult(result(50.0, 1.0));
+        withoutUser.setRevision(1L);
+        this.carbonEmissionRepository.save(withoutUser);
+        this.service.apply(new EmissionRollupDelta().replace("RJ", null, result(99.0, 1.0)));
+
+        final var rebuild = this.service.rebuild();
+
+        assertEquals(3, rebuild.calculations());
+        assertEquals(3, rebuild.rollups());
+        assertEquals(2, this.service.rollupByUf("AL").count());
+        assertEquals(20.0, this.service.rollupByUf("AL").mean(), 1e-9);
+        assertEquals(1, this.service.rollupByUf("SP").count());
+        assertEquals(0, this.service.rollupByUf("RJ").count());
+        assertEquals(3, this.service.rollupByTransportation(TransportationType.CAR).count());
+        assertEquals(3.0, this.service.rollupByTransportation(TransportationType.CAR).mean(), 1e-9);
+    }
+
+    @Test
+    void givenAResultReplacedConcurrentlyWhenReplacingFromTheOldResultThenShouldNotOverwriteIt() {
+        final var stored = this.store("AL", result(10.0, 4.0));
+        final var readResult = this.carbonEmissionRepository.findById(stored.getId()).orElseThrow().getResult();
+
+        final var first = this.carbonEmissionRepository.updateResult(stored.getId(), stored.getRevision(), readResult, result(20.0, 6.0));
+        final var second = this.carbonEmissionRepository.updateResult(stored.getId(), stored.getRevision(), readResult, result(30.0, 8.0));
+        final var fromEmpty = this.carbonEmissionRepository.updateResult(stored.getId(), stored.getRevision(), null, result(40.0, 8.0));
+
+        assertEquals(1, first);
+        assertEquals(0, second);
+        assertEquals(0, fromEmpty);
+        assertEquals(20.0, this.carbonEmissionRepository.findResultById(stored.getId()).orElseThrow().getResult().getTotal());
+        assertEquals(Map.of(TransportationType.CAR, 6.0),
+                this.carbonEmissionRepository.findInfoByIds(List.of(stored.getId())).get(0).getResult().getTransportationByType());
+    }
+
+}
@@ -0,0 +1,105 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa a agregação das estatísticas por UF contra um MongoDB em processo.
+ */
+@DataMongoTest
+@Import(EmissionStatsService.class)
+class EmissionStatsServiceTest extends InMemoryMongoTest {
+
+    @Autowired
+    private EmissionStatsService service;
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+        this.repository.saveAll(List.of(
+                stats("AL", 5.0, 28.0, 690.0),
+                stats("AL", 15.0, 2.0, 100.0),
+                stats("SP", 1.0, 1.0, 1.0),
+                new CarbonEmissionStats(IdentifierUtil.unique(), UserData.newUser("name", "email@email.com", "AL", "123456789")),
+                abandoned("AL"),
+                abandoned("MG")));
+    }
+
+    private static CarbonEmissionStats stats(final String uf, final double energy, final double transportation, final double solidWaste) {
+        final var stats = new CarbonEmissionStats(IdentifierUtil.unique(), UserData.newUser("name", "email@email.com", uf, "123456789"));
+        stats.setResult(CarbonEmissionResult.builder()
+                .energy(energy)
+                .transportation(transportation)
+                .solidWaste(solidWaste)
+                .total(energy + transportation + solidWaste)
+                .build());
+        stats.setRevision(1L);
+        return stats;
+    }
+
+    private static CarbonEmissionStats abandoned(final String uf) {
+        final var stats = new CarbonEmissionStats(IdentifierUtil.unique(), UserData.newUser("name", "email@email.com", uf, "123456789"));
+        stats.setResult(CarbonEmissionResult.builder().provisional(true).build());
+        return stats;
+    }
+
+    @Test
+    void givenCalculationsInAUfWhenReadingItsStatsThenShouldAggregateOnlyCompletedCalculations() {
+        final var actualResult = this.service.statsByUf("al");
+
+        assertEquals("AL", actualResult.uf());
+        assertEquals(2, actualResult.count());
+        assertEquals(420.0, actualResult.mean(), 1e-9);
+        assertEquals(117.0, actualResult.min(), 1e-9);
+        assertEquals(723.0, actualResult.max(), 1e-9);
+        assertEquals(10.0, actualResult.averageEnergy(), 1e-9);
+        assertEquals(15.0, actualResult.averageTransportation(), 1e-9);
+        assertEquals(395.0, actualResult.averageSolidWaste(), 1e-9);
+        assertTrue(this.mongoTemplate.indexOps(CarbonEmissionStats.class).getIndexInfo().stream()
+                .anyMatch(index -> index.isIndexForFields(List.of("userData.uf"))));
+    }
+
+    @Test
+    void givenAUfWithoutCalculationsWhenReadingItsStatsThenShouldReturnZeroedStats() {
+        final var actualResult = this.service.statsByUf("TO");
+
+        assertEquals("TO", actualResult.uf());
+        assertEquals(0, actualResult.count());
+        assertEquals(0.0, actualResult.mean());
+        assertThrows(IllegalArgumentException.class, () -> this.service.statsByUf(" "));
+    }
+
+    @Test
+    void givenCachedStatsWhenNewCalculationsArriveThenShouldServeTheCachedStatsUntilTheyExpire() {
+        final var perUf = this.service.statsPerUf();
+        final var rjStats = this.service.statsByUf("RJ");
+
+        this.repository.save(stats("RJ", 1.0, 1.0, 1.0));
+
+        assertEquals(List.of("AL", "SP"), perUf.stream().map(stats -> stats.uf()).toList());
+        assertEquals(perUf, this.service.statsPerUf());
+        assertEquals(rjStats, this.service.statsByUf("rj"));
+        assertEquals(0, this.service.statsByUf("RJ").count());
+    }
+
+}
@@ -0,0 +1,162 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.dto.CarbonCalculationResultDTO;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.PercentileSketchRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simula dois nós da aplicação compartilhando os sketches de percentis em um MongoDB em processo.
+ */
+@DataMongoTest
+class FootprintPercentileServiceTest extends InMemoryMongoTest {
+
+    private static final Duration CARRY_OVER = Duration.ofHours(1);
+
+    @Autowired
+    private PercentileSketchRepository sketchRepository;
+    @Autowired
+    private CarbonEmissionStatsRepository carbonEmissionRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.sketchRepository.deleteAll();
+        this.carbonEmissionRepository.deleteAll();
+    }
+
+    private FootprintPercentileService node(final String nodeId) {
+        final var service = new FootprintPercentileService(this.sketchRepository, this.carbonEmissionRepository, 100, nodeId, CARRY_OVER);
+        service.load();
+        return service;
+    }
+
+    private static CarbonCalculationResultDTO result(final String uf, final double total) {
+        return CarbonCalculationResultDTO.builder().total(total).uf(uf).build();
+    }
+
+    private void store(final String uf, final double total, final Long revision) {
+        final var stats = new CarbonEmissionStats(IdentifierUtil.unique(), UserData.newUser("name", "email@email.com", uf, "123456789"));
+        stats.setResult(CarbonEmissionResult.builder().total(total).build());
+        stats.setRevision(revision);
+        this.carbonEmissionRepository.save(stats);
+    }
+
+    @Test
+    void givenObservationsOnTwoNodesWhenSyncingThenShouldRankAgainstTheMergedDistribution() {
+        final var first = this.node("node-a");
+        final var second = this.node("node-b");
+        for (int total = 1; total <= 50; total++) {
+            first.record("AL", total);
+        }
+        for (int total = 51; total <= 100; total++) {
+            second.record("AL", total);
+        }
+
+        assertNull(first.withPercentile(result("AL", 75.0)).getPercentile());
+
+        first.sync();
+        second.sync();
+        first.sync();
+
+        assertEquals(75.0, first.withPercentile(result("AL", 75.0)).getPercentile(), 2.0);
+        assertEquals(25.0, second.withPercentile(result("AL", 25.0)).getPercentile(), 2.0);
+        assertEquals(2, this.sketchRepository.findByGeneration(0).size());
+    }
+
+    @Test
+    void givenARestartedNodeWhenLoadingThenShouldKeepItsPersistedObservations() {
+        final var first = this.node("node-a");
+        first.record("AL", 10.0);
+        first.record("AL", 20.0);
+        first.sync();
+
+        final var restarted = this.node("node-a");
+        restarted.record("AL", 30.0);
+        restarted.sync();
+
+        assertEquals(3, this.sketchRepository.findById("AL:node-a").orElseThrow().getCount());
+        assertEquals(50.0, restarted.withPercentile(result("AL", 20.0)).getPercentile(), 0.1);
+    }
+
+    @Test
+    void givenARebuildWhenOtherNodesSyncThenShouldDiscardTheirPreviousObservations() throws InterruptedException {
+        this.store("AL", 100.0, 1L);
+        this.store("AL", 300.0, 2L);
+        this.store("AL", 900.0, null);
+        final var first = this.node("node-a");
+        final var second = this.node("node-b");
+        second.record("SP", 50.0);
+        second.sync();
+        // A leitura precisa começar depois do fim do intervalo sincronizado, na precisão de milissegundos.
+        Thread.sleep(5);
+
+        final var rebuilt = first.rebuild();
+        second.sync();
+
+        assertEquals(2, rebuilt.calculations());
+        assertEquals(1, rebuilt.ufs());
+        assertEquals(1, rebuilt.generation());
+        assertNull(second.withPercentile(result("SP", 50.0)).getPercentile());
+        assertEquals(50.0, second.withPercentile(result("AL", 200.0)).getPercentile(), 0.1);
+        assertEquals(1, this.sketchRepository.count());
+    }
+
+    @Test
+    void givenObservationsRecordedAfterAnotherNodeRebuiltWhenSyncingThenShouldCarryThemIntoTheNewGeneration() {
+        this.store("AL", 100.0, 1L);
+        final var first = this.node("node-a");
+        final var second = this.node("node-b");
+
+        first.rebuild();
+        second.record("AL", 300.0);
+        second.sync();
+        first.sync();
+
+        assertEquals(1, this.sketchRepository.findById("AL:node-b").orElseThrow().getGeneration());
+        assertEquals(1, this.sketchRepository.findById("AL:node-b").orElseThrow().getCount());
+        assertEquals(50.0, first.withPercentile(result("AL", 200.0)).getPercentile(), 0.1);
+    }
+
+    @Test
+    void givenAnObservationRecordedDuringARebuildWhenTheRebuildFinishesThenShouldKeepIt() {
+        final var stored = new CarbonEmissionStats(IdentifierUtil.unique(), UserData.newUser("name", "email@email.com", "AL", "123456789"));
+        stored.setResult(CarbonEmissionResult.builder().total(100.0).build());
+        stored.setRevision(1L);
+        final var repository = Mockito.mock(CarbonEmissionStatsRepository.class);
+        final var service = new FootprintPercentileService(this.sketchRepository, repository, 100, "node-a", CARRY_OVER);
+        when(repository.streamResults()).thenAnswer(invocation -> Stream.of(stored).peek(emissionStats -> service.record("AL", 300.0)));
+
+        final var rebuilt = service.rebuild();
+
+        assertEquals(1, rebuilt.calculations());
+        assertEquals(50.0, service.withPercentile(result("AL", 200.0)).getPercentile(), 0.1);
+    }
+
+    @Test
+    void givenAnUnknownUfWhenAddingThePercentileThenShouldReturnTheSameResult() {
+        final var service = this.node("node-a");
+        final var unknown = result("TT", 10.0);
+        final var withoutUf = result(null, 10.0);
+
+        assertSame(unknown, service.withPercentile(unknown));
+        assertSame(withoutUf, service.withPercentile(withoutUf));
+    }
+
+}
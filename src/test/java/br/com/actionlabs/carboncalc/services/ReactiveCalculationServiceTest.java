@@ -0,0 +1,200 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.dto.StartCalcRequestDTO;
+import br.com.actionlabs.carboncalc.dto.TransportationDTO;
+import br.com.actionlabs.carboncalc.dto.UpdateCalcInfoRequestDTO;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.exceptions.UserDataCreateException;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.Transportation;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.ReactiveCarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+class ReactiveCalculationServiceTest {
+
+    private static final String ID = "4dcba6ba34414a348ba6ba34414a347a";
+
+    private ReactiveCalculationService service;
+    private EmissionFactorCatalog factorCatalog;
+
+    @Mock
+    private ReactiveCarbonEmissionStatsRepository repository;
+    @Mock
+    private EnergyEmissionFactorRepository energyRepository;
+    @Mock
+    private TransportationEmissionFactorRepository transportationRepository;
+    @Mock
+    private SolidWasteEmissionFactorRepository wasteRepository;
+    @Mock
+    private EmissionRollupService rollupService;
+    @Mock
+    private FootprintPercentileService percentileService;
+    @Mock
+    private CalculationArchive archive;
+
+    @BeforeEach
+    void cleanUp() {
+        Mockito.reset(this.repository);
+        Mockito.reset(this.rollupService);
+        Mockito.reset(this.percentileService);
+        when(this.energyRepository.findAll()).thenReturn(List.of(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build()));
+        when(this.transportationRepository.findAll()).thenReturn(List.of(
+                TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build(),
+                TransportationEmissionFactor.builder().type(TransportationType.MOTORCYCLE).factor(0.09).build()));
+        when(this.wasteRepository.findAll()).thenReturn(List.of(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build()));
+        this.factorCatalog = new EmissionFactorCatalog(this.energyRepository, this.transportationRepository, this.wasteRepository);
+        this.factorCatalog.refresh();
+        this.service = new ReactiveCalculationService(this.repository, this.factorCatalog, this.rollupService, this.percentileService,
+                this.archive, Duration.ofDays(7));
+    }
+
+    private CarbonEmissionStats completeCarbonData() {
+        final var carbonData = new CarbonEmissionStats(ID, new UserData("John Doe", "johndoe@email.com", "AL", "123456789"));
+        carbonData.setEnergyConsumption(10);
+        carbonData.setTransportationList(List.of(Transportation.builder().type(TransportationType.CAR).monthlyDistance(100).build(),
+                Transportation.builder().type(TransportationType.MOTORCYCLE).monthlyDistance(100).build()));
+        carbonData.setSolidWaste(1000);
+        carbonData.setRecyclePercentage(0.5);
+        return carbonData;
+    }
+
+    @Test
+    void givenAValidRequestWhenCallTheStartCalculationThenShouldInsertDataAndReturnCalculationId() {
+        final var request = new StartCalcRequestDTO();
+        request.setName("John Doe");
+        request.setEmail("johndoe@email.com");
+        request.setUf("al");
+        request.setPhoneNumber("123456789");
+
+        when(this.repository.insert(any(CarbonEmissionStats.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(this.service.startCalculation(request))
+                .assertNext(response -> assertEquals(32, response.getId().length()))
+                .verifyComplete();
+
+        verify(this.repository, times(1)).insert(argThat((CarbonEmissionStats stats) -> Objects.equals("AL", stats.getUserData().getUf()) &&
+                stats.getResult().getFactorVersion() == this.factorCatalog.snapshot().getVersion()));
+    }
+
+    @Test
+    void givenAnInvalidRequestWhenCallTheStartCalculationThenShouldSignalAnError() {
+        final var request = new StartCalcRequestDTO();
+        request.setEmail("johndoe@email.com");
+        request.setUf("AL");
+        request.setPhoneNumber("123456789");
+
+        StepVerifier.create(this.service.startCalculation(request))
+                .expectErrorMatches(error -> error instanceof UserDataCreateException && "Username is required".equals(error.getMessage()))
+                .verify();
+
+        verify(this.repository, never()).insert(any(CarbonEmissionStats.class));
+    }
+
+    @Test
+    void givenAValidUpdateRequestWhenCallTheUpdateCalculationInfoThenShouldWriteTheResultForTheUpdatedRevision() {
+        final var updated = this.completeCarbonData();
+        updated.setRevision(4L);
+
+        when(this.repository.updateInfo(any(), any(), any(), any(), any())).thenReturn(Mono.just(updated));
+        when(this.repository.updateResult(any(), any(), any(), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder()
+                        .id(ID)
+                        .energyConsumption(10)
+                        .transportation(List.of(TransportationDTO.builder().type(TransportationType.CAR).monthlyDistance(100).build()))
+                        .solidWasteTotal(1000)
+                        .recyclePercentage(0.5)
+                        .build()))
+                .assertNext(response -> assertTrue(response.isSuccess()))
+                .verifyComplete();
+
+        verify(this.repository, times(1)).updateInfo(eq(ID), eq(10), argThat(list -> list.size() == 1), eq(1000), eq(0.5));
+        verify(this.repository, times(1)).updateResult(eq(ID), eq(4L), any(), argThat(result -> result.getTotal() == 723.0));
+    }
+
+    @Test
+    void givenAnUnknownIdWhenCallTheUpdateCalculationInfoThenShouldReturnFalse() {
+        when(this.repository.updateInfo(any(), any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(this.service.updateCalculationInfo(UpdateCalcInfoRequestDTO.builder().id(ID).build()))
+                .assertNext(response -> assertFalse(response.isSuccess()))
+                .verifyComplete();
+
+        verify(this.repository, never()).updateResult(any(), any(), any(), any());
+    }
+
+    @Test
+    void givenACurrentStoredResultWhenCallTheGetResultThenShouldNotRecalculate() {
+        final var stored = new CarbonEmissionStats(ID, null);
+        stored.setResult(CarbonEmissionResult.builder().energy(5.0).transportation(28.0).solidWaste(690.0).total(723.0)
+                .factorVersion(this.factorCatalog.snapshot().getVersion()).build());
+
+        when(this.repository.findResultById(ID)).thenReturn(Mono.just(stored));
+
+        StepVerifier.create(this.service.getResult(ID))
+                .assertNext(result -> assertEquals(723.0, result.getTotal()))
+                .verifyComplete();
+
+        verify(this.repository, never()).findById(any(String.class));
+    }
+
+    @Test
+    void givenAMissingStoredResultWhenCallTheGetResultThenShouldRecalculateAndStoreIt() {
+        when(this.repository.findResultById(ID)).thenReturn(Mono.just(new CarbonEmissionStats(ID, null)));
+        when(this.repository.findById(ID)).thenReturn(Mono.just(this.completeCarbonData()));
+        when(this.repository.updateResult(any(), any(), any(), any())).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(this.service.getResult(ID))
+                .assertNext(result -> {
+                    assertEquals(5.0, result.getEnergy());
+                    assertEquals(28.0, result.getTransportation());
+                    assertEquals(690.0, result.getSolidWaste());
+                    assertEquals(723.0, result.getTotal());
+                })
+                .verifyComplete();
+
+        verify(this.repository, times(1)).updateResult(eq(ID), any(), any(), argThat(result -> result.getTotal() == 723.0));
+    }
+
+    @Test
+    void givenAnUnknownIdWhenCallTheGetResultThenShouldReturnAnEmptyResult() {
+        when(this.repository.findResultById(ID)).thenReturn(Mono.empty());
+
+        StepVerifier.create(this.service.getResult(ID))
+                .assertNext(result -> assertEquals(0.0, result.getTotal()))
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,149 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.enums.RecalculationStatus;
+import br.com.actionlabs.carboncalc.enums.TransportationType;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.EnergyEmissionFactor;
+import br.com.actionlabs.carboncalc.model.RecalculationJob;
+import br.com.actionlabs.carboncalc.model.SolidWasteEmissionFactor;
+import br.com.actionlabs.carboncalc.model.TransportationEmissionFactor;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CalculationArchive;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import br.com.actionlabs.carboncalc.repository.EmissionRollupRepository;
+import br.com.actionlabs.carboncalc.repository.EnergyEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.RecalculationJobRepository;
+import br.com.actionlabs.carboncalc.repository.SolidWasteEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.repository.TransportationEmissionFactorRepository;
+import br.com.actionlabs.carboncalc.utils.IdentifierUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Executa o job de recálculo, em quatro partições e lotes de dois cálculos, contra um MongoDB em processo.
+ */
+@DataMongoTest(properties = {"carbon-calc.recalculation.partitions=4", "carbon-calc.recalculation.parallelism=2",
+        "carbon-calc.recalculation.batch-size=2", "carbon-calc.recalculation.max-ops-per-second=0",
+        "carbon-calc.recalculation.resume-on-startup=false", "carbon-calc.archive.directory=build/test-archive/recalculation"})
+@Import({RecalculationJobService.class, CalculationService.class, EmissionFactorCatalog.class, CalculationResultCache.class,
+        EmissionRollupService.class, FootprintPercentileService.class, CalculationArchive.class})
+class RecalculationJobServiceTest extends InMemoryMongoTest {
+
+    private static final long STALE_FACTOR_VERSION = 1L;
+
+    @Autowired
+    private RecalculationJobService service;
+    @Autowired
+    private EmissionFactorCatalog factorCatalog;
+    @Autowired
+    private RecalculationJobRepository jobRepository;
+    @Autowired
+    private EmissionRollupRepository rollupRepository;
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+    @Autowired
+    private EnergyEmissionFactorRepository energyRepository;
+    @Autowired
+    private TransportationEmissionFactorRepository transportationRepository;
+    @Autowired
+    private SolidWasteEmissionFactorRepository wasteRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+        this.jobRepository.deleteAll();
+        this.rollupRepository.deleteAll();
+        this.energyRepository.deleteAll();
+        this.transportationRepository.deleteAll();
+        this.wasteRepository.deleteAll();
+        this.energyRepository.save(EnergyEmissionFactor.builder().uf("AL").factor(0.5).build());
+        this.transportationRepository.save(TransportationEmissionFactor.builder().type(TransportationType.CAR).factor(0.19).build());
+        this.wasteRepository.save(SolidWasteEmissionFactor.builder().uf("AL").recyclableFactor(0.43).nonRecyclableFactor(0.95).build());
+        this.factorCatalog.refresh();
+    }
+
+    private CarbonEmissionStats save(final String id, final Long factorVersion) {
+        final var result = factorVersion == null ? null : CarbonEmissionResult.builder().energy(1).total(1).factorVersion(factorVersion).build();
+        return this.repository.save(new CarbonEmissionStats(id, UserData.newUser("John Doe", "john.doe@test.com", "AL", "82999999999"),
+                10, List.of(), 0, 0.0, result, 1L, null, null, null));
+    }
+
+    private void awaitJob() throws InterruptedException {
+        final var deadline = System.nanoTime() + 30_000_000_000L;
+        while (this.service.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void givenStaleResultsWhenRunningTheJobThenShouldRecalculateThemWithTheCurrentFactors() throws InterruptedException {
+        final var version = this.factorCatalog.snapshot().getVersion();
+        final var stale = new ArrayList<String>();
+        for (int i = 0; i < 7; i++) {
+            stale.add(this.save(IdentifierUtil.unique(), STALE_FACTOR_VERSION).getId());
+        }
+        final var current = this.save(IdentifierUtil.unique(), version).getId();
+        final var withoutResult = this.save(IdentifierUtil.unique(), null).getId();
+
+        this.service.start();
+        this.awaitJob();
+
+        for (var id : stale) {
+            final var stored = this.repository.findById(id).orElseThrow();
+            assertEquals(version, stored.getResult().getFactorVersion());
+            assertEquals(5.0, stored.getResult().getTotal());
+        }
+        assertEquals(1.0, this.repository.findById(current).orElseThrow().getResult().getTotal());
+        assertNull(this.repository.findById(withoutResult).orElseThrow().getResult());
+        final var job = this.service.status().orElseThrow();
+        assertEquals(RecalculationStatus.COMPLETED, job.status());
+        assertEquals(4, job.completedPartitions());
+        assertEquals(7, job.processed());
+        assertEquals(7, job.updated());
+        assertEquals(0, job.conflicts());
+    }
+
+    @Test
+    void givenAnInterruptedJobForTheCurrentFactorsWhenStartingThenShouldResumeOnlyTheUnfinishedPartitions() throws InterruptedException {
+        final var version = this.factorCatalog.snapshot().getVersion();
+        final var partitions = RecalculationJobService.partitions(4);
+        for (int i = 0; i < 3; i++) {
+            partitions.get(i).setCompleted(true);
+        }
+        partitions.get(3).setLastId("c100");
+        final var now = Instant.now();
+        this.jobRepository.insert(new RecalculationJob("job", version, RecalculationStatus.RUNNING, partitions, 0, 0, 0, null,
+                now, now, null));
+        this.save("0100", STALE_FACTOR_VERSION);
+        this.save("c000", STALE_FACTOR_VERSION);
+        this.save("c200", STALE_FACTOR_VERSION);
+        this.save("f000", STALE_FACTOR_VERSION);
+
+        final var started = this.service.start();
+        this.awaitJob();
+
+        assertEquals("job", started.id());
+        assertEquals(STALE_FACTOR_VERSION, this.repository.findById("0100").orElseThrow().getResult().getFactorVersion());
+        assertEquals(STALE_FACTOR_VERSION, this.repository.findById("c000").orElseThrow().getResult().getFactorVersion());
+        assertEquals(version, this.repository.findById("c200").orElseThrow().getResult().getFactorVersion());
+        assertEquals(version, this.repository.findById("f000").orElseThrow().getResult().getFactorVersion());
+        final var job = this.service.status().orElseThrow();
+        assertEquals(RecalculationStatus.COMPLETED, job.status());
+        assertEquals(2, job.updated());
+        assertTrue(this.jobRepository.findById("job").orElseThrow().getPartitions().get(3).isCompleted());
+    }
+
+}
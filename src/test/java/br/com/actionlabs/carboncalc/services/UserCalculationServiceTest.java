@@ -0,0 +1,100 @@
+package br.com.actionlabs.carboncalc.services;
+
+import br.com.actionlabs.carboncalc.InMemoryMongoTest;
+import br.com.actionlabs.carboncalc.config.MongoIndexVerifier;
+import br.com.actionlabs.carboncalc.dto.UserCalculationDTO;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionResult;
+import br.com.actionlabs.carboncalc.model.CarbonEmissionStats;
+import br.com.actionlabs.carboncalc.model.UserData;
+import br.com.actionlabs.carboncalc.repository.CarbonEmissionStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pagina os cálculos de um usuário contra um MongoDB em processo.
+ */
+@DataMongoTest(properties = "carbon-calc.user-calculations.max-limit=5")
+@Import({UserCalculationService.class, MongoIndexVerifier.class})
+class UserCalculationServiceTest extends InMemoryMongoTest {
+
+    private static final String EMAIL = "john.doe@test.com";
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Autowired
+    private UserCalculationService service;
+    @Autowired
+    private MongoIndexVerifier indexVerifier;
+    @Autowired
+    private CarbonEmissionStatsRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        this.repository.deleteAll();
+    }
+
+    private void save(final String id, final String email, final Instant createdAt, final Double total) {
+        final var result = total == null ? null : CarbonEmissionResult.builder().total(total).factorVersion(1L).build();
+        this.repository.save(new CarbonEmissionStats(id, UserData.newUser("John Doe", email, "SP", "11999999999"),
+                10, List.of(), 0, 0.0, result, 1L, createdAt, createdAt, null));
+    }
+
+    @Test
+    void givenCalculationsOfAUserWhenPagingThenShouldListThemNewestFirstWithoutRepeatingOrSkipping() {
+        this.save("a", EMAIL, NOW.minusSeconds(30), 1.0);
+        this.save("b", EMAIL, NOW.minusSeconds(10), 2.0);
+        this.save("c", EMAIL, NOW.minusSeconds(10), null);
+        this.save("d", EMAIL, NOW, 4.0);
+        this.save("e", EMAIL, NOW.minusSeconds(20), 5.0);
+        this.save("x", "jane.doe@test.com", NOW, 6.0);
+        this.save("y", EMAIL, null, 7.0);
+
+        final var first = this.service.calculations(EMAIL, null, 2);
+        final var second = this.service.calculations(EMAIL, first.next(), 2);
+        final var third = this.service.calculations(EMAIL, second.next(), 2);
+
+        assertEquals(List.of("d", "c"), first.calculations().stream().map(UserCalculationDTO::id).toList());
+        assertEquals(List.of("b", "e"), second.calculations().stream().map(UserCalculationDTO::id).toList());
+        assertEquals(List.of("a"), third.calculations().stream().map(UserCalculationDTO::id).toList());
+        assertNull(third.next());
+        assertEquals(new UserCalculationDTO("d", NOW, "SP", 4.0), first.calculations().get(0));
+        assertNull(first.calculations().get(1).total());
+    }
+
+    @Test
+    void givenAnEmailStoredWithSurroundingWhitespaceWhenPagingThenShouldMatchItExactlyAsStored() {
+        this.save("a", " " + EMAIL + " ", NOW, 1.0);
+        this.save("b", EMAIL, NOW, 2.0);
+
+        assertEquals(List.of("a"), this.service.calculations(" " + EMAIL + " ", null, null).calculations().stream()
+                .map(UserCalculationDTO::id).toList());
+        assertEquals(List.of("b"), this.service.calculations(EMAIL, null, null).calculations().stream()
+                .map(UserCalculationDTO::id).toList());
+    }
+
+    @Test
+    void givenAnInvalidCursorOrLimitWhenPagingThenShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> this.service.calculations(EMAIL, "not a cursor", null));
+        assertThrows(IllegalArgumentException.class, () -> this.service.calculations(EMAIL, null, 6));
+        assertThrows(IllegalArgumentException.class, () -> this.service.calculations(EMAIL, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> this.service.calculations(" ", null, null));
+    }
+
+    @Test
+    void givenTheDeclaredIndexesWhenVerifyingThenShouldFindTheEmailIndex() {
+        final var verified = this.indexVerifier.verify();
+
+        assertTrue(verified.contains("carbonEmissionStats." + CarbonEmissionStats.EMAIL_CREATED_AT_INDEX));
+    }
+
+}
@@ -0,0 +1,33 @@
+package br.com.actionlabs.carboncalc.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OperationRateLimiterTest {
+
+    @Test
+    void givenMoreOperationsThanTheRateWhenAcquiringThenShouldSpaceThemByTheRate() throws InterruptedException {
+        final var limiter = new OperationRateLimiter(1000);
+
+        final var start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire(50);
+        }
+        final var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 190, "Elapsed " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void givenADisabledLimitWhenAcquiringThenShouldNotWait() throws InterruptedException {
+        final var limiter = new OperationRateLimiter(0);
+
+        final var start = System.nanoTime();
+        limiter.acquire(1_000_000);
+        final var elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 100, "Elapsed " + elapsedMillis + " ms");
+    }
+
+}
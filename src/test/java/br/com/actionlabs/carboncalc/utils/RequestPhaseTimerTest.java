@@ -0,0 +1,53 @@
+package br.com.actionlabs.carboncalc.utils;
+
+import br.com.actionlabs.carboncalc.enums.RequestPhase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestPhaseTimerTest {
+
+    @AfterEach
+    void cleanUp() {
+        RequestPhaseTimer.clear();
+    }
+
+    @Test
+    void givenNoRequestInProgressWhenTimingAPhaseThenShouldNotMeasure() {
+        final var start = RequestPhaseTimer.start();
+        RequestPhaseTimer.stop(RequestPhase.CALCULATION, start);
+        RequestPhaseTimer.record(RequestPhase.MONGO_READ, 1_000_000);
+
+        assertEquals(RequestPhaseTimer.NOT_TIMED, start);
+    }
+
+    @Test
+    void givenMeasuredPhasesWhenFormattingThenShouldListThemInOrderWithTheTotal() {
+        final var timer = RequestPhaseTimer.begin();
+        RequestPhaseTimer.record(RequestPhase.MONGO_WRITE, 1_500_000);
+        RequestPhaseTimer.record(RequestPhase.MONGO_READ, 250_000);
+        RequestPhaseTimer.record(RequestPhase.MONGO_READ, 250_000);
+        RequestPhaseTimer.stop(RequestPhase.CALCULATION, RequestPhaseTimer.start());
+
+        final var serverTiming = timer.toServerTiming(3_000_000);
+
+        assertTrue(serverTiming.startsWith("db-read;dur=0.500;desc=\"2x\", calc;dur="), serverTiming);
+        assertTrue(serverTiming.endsWith(", db-write;dur=1.500, total;dur=3.000"), serverTiming);
+        assertEquals(2, timer.getCount(RequestPhase.MONGO_READ));
+    }
+
+    @Test
+    void givenAMarkedPhaseWhenFinishingThenShouldRecordItOnce() {
+        final var timer = RequestPhaseTimer.begin();
+        RequestPhaseTimer.mark(RequestPhase.SERIALIZATION);
+
+        RequestPhaseTimer.finish(RequestPhase.SERIALIZATION);
+        RequestPhaseTimer.finish(RequestPhase.SERIALIZATION);
+
+        assertEquals(1, timer.getCount(RequestPhase.SERIALIZATION));
+        assertEquals(0, timer.getCount(RequestPhase.JSON_PARSE));
+    }
+
+}